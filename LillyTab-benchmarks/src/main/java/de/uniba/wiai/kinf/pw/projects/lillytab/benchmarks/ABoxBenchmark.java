@@ -0,0 +1,67 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.NodeConsistencyChecker;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * Benchmarks for ABox level operations on a completed model.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ABoxBenchmark {
+
+	private final NodeConsistencyChecker<String, String, String, String> _consistencyChecker = new NodeConsistencyChecker<>();
+
+
+	@Benchmark
+	public IABox<String, String, String, String> cloneABox(final ModelState state)
+	{
+		return state.getModel().clone();
+	}
+
+
+	@Benchmark
+	public void nodeConsistency(final ModelState state, final Blackhole blackhole)
+	{
+		for (IABoxNode<String, String, String, String> node : state.getModel()) {
+			blackhole.consume(_consistencyChecker.isConsistent(node));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStrategy;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking.DoubleBlockingStrategy;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking.SubsetBlockingStrategy;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * Benchmarks for the blocking strategies.
+ * <p />
+ * Each invocation checks the blocking state of every node of a completed model.
+ * Previously found blockers are cached by the model, so this mostly measures
+ * the re-validation of blocks, which is what happens during completion.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BlockingBenchmark {
+
+	private final IBlockingStrategy<String, String, String, String> _subsetBlocking = new SubsetBlockingStrategy<>();
+	private final IBlockingStrategy<String, String, String, String> _doubleBlocking = new DoubleBlockingStrategy<>();
+
+
+	@Benchmark
+	public void subsetBlocking(final ModelState state, final Blackhole blackhole)
+	{
+		for (IABoxNode<String, String, String, String> node : state.getModel()) {
+			blackhole.consume(_subsetBlocking.isBlocked(node));
+		}
+	}
+
+
+	@Benchmark
+	public void doubleBlocking(final ModelState state, final Blackhole blackhole)
+	{
+		for (IABoxNode<String, String, String, String> node : state.getModel()) {
+			blackhole.consume(_doubleBlocking.isBlocked(node));
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerOptions;
+import java.util.Collection;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ *
+ * Benchmark state holding a completed ABox (the first model of a generated ontology).
+ * <p />
+ * If the generated ontology is inconsistent, the uncompleted ABox is used instead.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+@State(Scope.Thread)
+public class ModelState {
+
+	@Param({"20", "100"})
+	public int classCount;
+	@Param({"0.0", "0.2", "0.5"})
+	public double unionDensity;
+	@Param({"10"})
+	public int individualCount;
+	private IABox<String, String, String, String> _model;
+
+
+	@Setup(Level.Trial)
+	public void setUp()
+		throws EInconsistencyException, EReasonerException
+	{
+		final OntologyGenerator generator = new OntologyGenerator(classCount, unionDensity, 2, individualCount,
+																  OntologyGenerator.DEFAULT_SEED);
+		final IABox<String, String, String, String> abox = generator.generate();
+		final Reasoner<String, String, String, String> reasoner = new Reasoner<>(new ReasonerOptions());
+		IABox<String, String, String, String> model = abox;
+		try {
+			final Collection<? extends IReasonerResult<String, String, String, String>> results
+				= reasoner.checkConsistency(abox, true);
+			if (!results.isEmpty()) {
+				model = results.iterator().next().getABox();
+			}
+		} catch (EInconsistencyException ex) {
+			/* keep the uncompleted ABox */
+		}
+		/* result ABoxes may be immutable, the clone is not */
+		_model = model.clone();
+	}
+
+
+	public IABox<String, String, String, String> getModel()
+	{
+		return _model;
+	}
+}
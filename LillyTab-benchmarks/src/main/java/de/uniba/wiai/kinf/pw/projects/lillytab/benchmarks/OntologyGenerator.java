@@ -0,0 +1,203 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ *
+ * Generates random, but reproducible ontologies for benchmarking.
+ * <p />
+ * The generated TBox consists of one or more inclusion axioms for each of {@literal classCount} named classes. The
+ * right hand side of each axiom is
+ * <ul>
+ * <li>a union of two classes with probability {@literal unionDensity},</li>
+ * <li>an existential restriction over one of {@literal roleCount} roles,</li>
+ * <li>a universal restriction, a negated class or a plain class otherwise.</li>
+ * </ul>
+ * References to named classes in axioms for class {@literal Ci} always point to classes {@literal Cj}
+ * with {@literal j > i}, so the told hierarchy is acyclic, but the existential restrictions may create cycles
+ * that need to be blocked.
+ * <p />
+ * The same parameters and seed always produce the same ontology, so benchmark results
+ * can be compared across commits.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class OntologyGenerator {
+
+	public static final long DEFAULT_SEED = 0x4c696c6c79L;
+	private final int _classCount;
+	private final double _unionDensity;
+	private final int _roleCount;
+	private final int _individualCount;
+	private final long _seed;
+
+
+	public OntologyGenerator(final int classCount, final double unionDensity, final int roleCount,
+							 final int individualCount, final long seed)
+	{
+		if (classCount < 2) {
+			throw new IllegalArgumentException("Need at least two classes");
+		}
+		_classCount = classCount;
+		_unionDensity = unionDensity;
+		_roleCount = roleCount;
+		_individualCount = individualCount;
+		_seed = seed;
+	}
+
+
+	public OntologyGenerator(final int classCount, final double unionDensity)
+	{
+		this(classCount, unionDensity, 2, 0, DEFAULT_SEED);
+	}
+
+
+	public static String getClassName(final int index)
+	{
+		return "C" + index;
+	}
+
+
+	public static String getRoleName(final int index)
+	{
+		return "r" + index;
+	}
+
+
+	public int getClassCount()
+	{
+		return _classCount;
+	}
+
+
+	/**
+	 * Create a new ABox with a new term factory and fill it with the generated ontology.
+	 *
+	 * @return A new ABox containing the generated TBox, RBox and individuals.
+	 * @throws EInconsistencyException Adding an individual assertion produced a clash.
+	 */
+	public IABox<String, String, String, String> generate()
+		throws EInconsistencyException
+	{
+		return generate(new ABoxFactory<>(new SimpleStringDLTermFactory()).createABox());
+	}
+
+
+	/**
+	 * Fill {@literal abox} with the generated ontology.
+	 *
+	 * @param abox The target ABox.
+	 * @return {@literal abox}
+	 * @throws EInconsistencyException Adding an individual assertion produced a clash.
+	 */
+	public IABox<String, String, String, String> generate(final IABox<String, String, String, String> abox)
+		throws EInconsistencyException
+	{
+		final IDLTermFactory<String, String, String, String> termFactory = abox.getDLTermFactory();
+		final Random random = new Random(_seed);
+
+		for (int i = 0; i < _roleCount; ++i) {
+			abox.getRBox().getAssertedRBox().addRole(getRoleName(i), RoleType.OBJECT_PROPERTY);
+		}
+
+		for (IDLClassExpression<String, String, String, String> axiom : generateAxioms(termFactory, random)) {
+			abox.getTBox().add(axiom);
+		}
+
+		for (int i = 0; i < _individualCount; ++i) {
+			final IDLClassReference<String, String, String, String> klass = termFactory.getDLClassReference(
+				getClassName(random.nextInt(_classCount)));
+			abox.getOrAddIndividualNode("i" + i).addTerm(klass);
+		}
+		return abox;
+	}
+
+
+	/**
+	 * Generate the TBox axioms using {@literal termFactory}.
+	 *
+	 * @param termFactory The term factory to use.
+	 * @return The list of generated inclusion axioms.
+	 */
+	public List<IDLClassExpression<String, String, String, String>> generateAxioms(
+		final IDLTermFactory<String, String, String, String> termFactory)
+	{
+		return generateAxioms(termFactory, new Random(_seed));
+	}
+
+
+	private List<IDLClassExpression<String, String, String, String>> generateAxioms(
+		final IDLTermFactory<String, String, String, String> termFactory, final Random random)
+	{
+		final List<IDLClassExpression<String, String, String, String>> axioms = new ArrayList<>(_classCount);
+
+		/* the last class only appears on the right hand side */
+		for (int i = 0; i < _classCount - 1; ++i) {
+			final IDLClassReference<String, String, String, String> sub = termFactory.getDLClassReference(
+				getClassName(i));
+			final IDLClassExpression<String, String, String, String> sup;
+			if ((random.nextDouble() < _unionDensity) && (i < _classCount - 2)) {
+				final IDLClassReference<String, String, String, String> first = pickLaterClass(termFactory, random, i);
+				IDLClassReference<String, String, String, String> second;
+				do {
+					second = pickLaterClass(termFactory, random, i);
+				} while (second.equals(first));
+				sup = termFactory.getDLObjectUnion(first, second);
+			} else {
+				final int kind = random.nextInt(10);
+				if ((_roleCount > 0) && (kind < 3)) {
+					sup = termFactory.getDLObjectSomeRestriction(getRoleName(random.nextInt(_roleCount)),
+																 pickLaterClass(termFactory, random, i));
+				} else if ((_roleCount > 0) && (kind < 5)) {
+					sup = termFactory.getDLObjectAllRestriction(getRoleName(random.nextInt(_roleCount)),
+																pickLaterClass(termFactory, random, i));
+				} else if (kind < 6) {
+					sup = termFactory.getDLObjectNegation(pickLaterClass(termFactory, random, i));
+				} else {
+					sup = pickLaterClass(termFactory, random, i);
+				}
+			}
+			axioms.add(termFactory.getDLImplies(sub, sup));
+		}
+		return axioms;
+	}
+
+
+	private IDLClassReference<String, String, String, String> pickLaterClass(
+		final IDLTermFactory<String, String, String, String> termFactory, final Random random, final int index)
+	{
+		final int later = index + 1 + random.nextInt(_classCount - index - 1);
+		return termFactory.getDLClassReference(getClassName(later));
+	}
+}
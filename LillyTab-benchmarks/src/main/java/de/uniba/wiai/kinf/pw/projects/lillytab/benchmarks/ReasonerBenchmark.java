@@ -0,0 +1,119 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerOptions;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Benchmarks for the top level reasoning tasks.
+ * <p />
+ * The ABox and the reasoner are recreated before each invocation, so that caches
+ * filled by one invocation do not speed up the next one.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReasonerBenchmark {
+
+	@Param({"20", "100"})
+	public int classCount;
+	@Param({"0.0", "0.2", "0.5"})
+	public double unionDensity;
+	private IReasoner<String, String, String, String> _reasoner;
+	private IABox<String, String, String, String> _abox;
+	private IDLClassExpression<String, String, String, String> _sub;
+	private IDLClassExpression<String, String, String, String> _super;
+
+
+	@Setup(Level.Invocation)
+	public void setUp()
+		throws EInconsistencyException
+	{
+		final OntologyGenerator generator = new OntologyGenerator(classCount, unionDensity, 2, 5,
+																  OntologyGenerator.DEFAULT_SEED);
+		_abox = generator.generate();
+		_reasoner = new Reasoner<>(new ReasonerOptions());
+		_sub = _abox.getDLTermFactory().getDLClassReference(OntologyGenerator.getClassName(0));
+		_super = _abox.getDLTermFactory().getDLClassReference(OntologyGenerator.getClassName(classCount - 1));
+	}
+
+
+	@Benchmark
+	public Object checkConsistency()
+		throws EReasonerException
+	{
+		try {
+			return _reasoner.checkConsistency(_abox, true);
+		} catch (EInconsistencyException ex) {
+			return ex;
+		}
+	}
+
+
+	@Benchmark
+	public Object classify()
+		throws EReasonerException
+	{
+		try {
+			return _reasoner.classify(_abox);
+		} catch (EInconsistencyException ex) {
+			return ex;
+		}
+	}
+
+
+	@Benchmark
+	public boolean isSubClassOf()
+		throws EReasonerException
+	{
+		try {
+			return _reasoner.isSubClassOf(_abox, _sub, _super);
+		} catch (EInconsistencyException ex) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.benchmarks;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Benchmarks for term interning in {@link de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl.DLTermFactory}.
+ * <p />
+ * {@link #internNew()} creates all axiom terms of a generated ontology on an empty factory,
+ * {@link #internCached()} requests the same terms again from a factory that already knows them.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TermFactoryBenchmark {
+
+	@Param({"100", "1000"})
+	public int classCount;
+	@Param({"0.0", "0.5"})
+	public double unionDensity;
+	private OntologyGenerator _generator;
+	private IDLTermFactory<String, String, String, String> _cachedFactory;
+	/* keep the cached terms reachable */
+	private List<IDLClassExpression<String, String, String, String>> _cachedTerms;
+
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		_generator = new OntologyGenerator(classCount, unionDensity);
+		_cachedFactory = new SimpleStringDLTermFactory();
+		_cachedTerms = _generator.generateAxioms(_cachedFactory);
+	}
+
+
+	@Benchmark
+	public List<IDLClassExpression<String, String, String, String>> internNew()
+	{
+		return _generator.generateAxioms(new SimpleStringDLTermFactory());
+	}
+
+
+	@Benchmark
+	public List<IDLClassExpression<String, String, String, String>> internCached()
+	{
+		return _generator.generateAxioms(_cachedFactory);
+	}
+}
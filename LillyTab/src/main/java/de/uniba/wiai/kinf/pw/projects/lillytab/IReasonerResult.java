@@ -23,6 +23,8 @@ package de.uniba.wiai.kinf.pw.projects.lillytab;
 
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerBudget;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerMetrics;
 import java.util.Map;
 
 
@@ -40,4 +42,16 @@ public interface IReasonerResult<I extends Comparable<? super I>, L extends Comp
 	IABox<I, L, K, R> getABox();
 
 	Map<NodeID, NodeID> getMergeMap();
+
+	/**
+	 * @return The metrics of the query that produced this result. Results of the same query share their metrics.
+	 */
+	ReasonerMetrics getMetrics();
+
+	/**
+	 * @return {@literal true}, if the query ran out of its {@link ReasonerBudget} before a model was found or ruled out.
+	 * The ABox of an unknown result is an incomplete tableau. If the query was asked for all models, the unknown result
+	 * is returned together with the models found before the budget ran out.
+	 */
+	boolean isUnknown();
 }
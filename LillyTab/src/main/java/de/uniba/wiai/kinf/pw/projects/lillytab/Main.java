@@ -116,6 +116,8 @@ public class Main
 
 		} catch (EInconsistencyException | EReasonerException | UnknownOWLOntologyException | OWLOntologyCreationException ex) {
 			_logger.error("error during Reasoning", ex);
+		} finally {
+			_reasoner.close();
 		}
 
 	}
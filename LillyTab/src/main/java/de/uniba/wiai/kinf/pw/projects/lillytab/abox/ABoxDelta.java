@@ -0,0 +1,178 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.abox;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+
+/**
+ *
+ * A set of assertions to be added to an ABox: concept assertions for individuals and role assertions between
+ * individuals.
+ * <p />
+ * A delta is used to extend an ABox, that has already been checked, see
+ * {@link de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner#checkConsistency(IABox, de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult, ABoxDelta, boolean)}.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class ABoxDelta<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private final Map<I, Set<IDLClassExpression<I, L, K, R>>> _terms = new TreeMap<>();
+	private final List<Link<I, R>> _links = new ArrayList<>();
+
+	public ABoxDelta()
+	{
+	}
+
+	/**
+	 * Assert, that {@literal individual} is an instance of {@literal desc}.
+	 *
+	 * @param individual An individual, that may or may not exist in the target ABox.
+	 * @param desc A class expression.
+	 */
+	public void addTerm(final I individual, final IDLClassExpression<I, L, K, R> desc)
+	{
+		Set<IDLClassExpression<I, L, K, R>> terms = _terms.get(individual);
+		if (terms == null) {
+			terms = new TreeSet<>();
+			_terms.put(individual, terms);
+		}
+		terms.add(desc);
+	}
+
+	/**
+	 * Assert, that {@literal target} is a {@literal role} successor of {@literal source}.
+	 *
+	 * @param source The source individual.
+	 * @param role The role.
+	 * @param target The target individual.
+	 */
+	public void addLink(final I source, final R role, final I target)
+	{
+		_links.add(new Link<>(source, role, target));
+	}
+
+	public Map<I, Set<IDLClassExpression<I, L, K, R>>> getTerms()
+	{
+		return Collections.unmodifiableMap(_terms);
+	}
+
+	public List<Link<I, R>> getLinks()
+	{
+		return Collections.unmodifiableList(_links);
+	}
+
+	public boolean isEmpty()
+	{
+		return _terms.isEmpty() && _links.isEmpty();
+	}
+
+	/**
+	 * Add all assertions of this delta to {@literal abox}. Missing individuals are created.
+	 *
+	 * @param abox The target ABox.
+	 * @return The IDs of the nodes modified or created, after any node merges.
+	 * @throws ENodeMergeException A node merge caused by the new assertions failed.
+	 */
+	public Set<NodeID> applyTo(final IABox<I, L, K, R> abox)
+		throws ENodeMergeException
+	{
+		final Set<I> individuals = new TreeSet<>(_terms.keySet());
+		for (Map.Entry<I, Set<IDLClassExpression<I, L, K, R>>> entry : _terms.entrySet()) {
+			IIndividualABoxNode<I, L, K, R> node = abox.getOrAddIndividualNode(entry.getKey());
+			for (IDLClassExpression<I, L, K, R> desc : entry.getValue()) {
+				node = (IIndividualABoxNode<I, L, K, R>) node.addClassTerm(desc).getCurrentNode();
+			}
+		}
+		for (Link<I, R> link : _links) {
+			final IIndividualABoxNode<I, L, K, R> source = abox.getOrAddIndividualNode(link.getSource());
+			final IIndividualABoxNode<I, L, K, R> target = abox.getOrAddIndividualNode(link.getTarget());
+			source.getRABox().getAssertedSuccessors().put(link.getRole(), target.getNodeID());
+			individuals.add(link.getSource());
+			individuals.add(link.getTarget());
+		}
+
+		/* look up the nodes only now, they may have been merged meanwhile */
+		final Set<NodeID> modifiedNodes = new TreeSet<>();
+		for (I individual : individuals) {
+			modifiedNodes.add(abox.getIndividualNode(individual).getNodeID());
+		}
+		return modifiedNodes;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("ABoxDelta{terms=%s, links=%s}", _terms, _links);
+	}
+
+	/**
+	 * A role assertion between two individuals.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <R> The type for properties (roles)
+	 */
+	public static final class Link<I extends Comparable<? super I>, R extends Comparable<? super R>> {
+		private final I _source;
+		private final R _role;
+		private final I _target;
+
+		public Link(final I source, final R role, final I target)
+		{
+			_source = source;
+			_role = role;
+			_target = target;
+		}
+
+		public I getSource()
+		{
+			return _source;
+		}
+
+		public R getRole()
+		{
+			return _role;
+		}
+
+		public I getTarget()
+		{
+			return _target;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("(%s %s %s)", _role, _source, _target);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.abox;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The set of branching levels a term entry or a clash depends on.
+ * </p><p>
+ * Branching levels are numbered from {@literal 1} along the path of choices that led to the current branch (see
+ * {@link IDependencyMap#getBranchLevel() }). The set is stored as a bit set in an array of {@literal long} words.
+ * Operations take time linear in the number of words, only.
+ * </p><p>
+ * Instances are immutable and may be shared freely. Operations that would not change a set return the set itself.
+ * </p>
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class BranchDependencySet {
+
+	/**
+	 * The empty dependency set: Depends on no branching decision.
+	 */
+	public static final BranchDependencySet EMPTY = new BranchDependencySet(new long[0]);
+	/**
+	 * The bit words. Bit {@literal level - 1} is set, if {@literal level} is an element of the set. The last word is
+	 * never zero.
+	 */
+	private final long[] _words;
+
+	private BranchDependencySet(final long[] words)
+	{
+		_words = words;
+	}
+
+	/**
+	 * @param level A branching level, starting at {@literal 1}.
+	 * @return The dependency set containing only {@literal level}.
+	 */
+	public static BranchDependencySet of(final int level)
+	{
+		checkLevel(level);
+		final int bit = level - 1;
+		final long[] words = new long[(bit >> 6) + 1];
+		words[bit >> 6] = 1L << bit;
+		return new BranchDependencySet(words);
+	}
+
+	/**
+	 * @param level A branching level or {@literal 0}.
+	 * @return The dependency set containing all levels from {@literal 1} up to and including {@literal level}.
+	 */
+	public static BranchDependencySet upTo(final int level)
+	{
+		if (level <= 0) {
+			return EMPTY;
+		}
+		final long[] words = new long[((level - 1) >> 6) + 1];
+		Arrays.fill(words, -1L);
+		final int rest = level & 63;
+		if (rest != 0) {
+			words[words.length - 1] = (1L << rest) - 1;
+		}
+		return new BranchDependencySet(words);
+	}
+
+	public boolean contains(final int level)
+	{
+		if (level <= 0) {
+			return false;
+		}
+		final int bit = level - 1;
+		final int word = bit >> 6;
+		return (word < _words.length) && ((_words[word] & (1L << bit)) != 0);
+	}
+
+	public boolean isEmpty()
+	{
+		return _words.length == 0;
+	}
+
+	/**
+	 * @return The highest branching level in the set or {@literal 0}, if the set is empty.
+	 */
+	public int max()
+	{
+		if (_words.length == 0) {
+			return 0;
+		}
+		final int last = _words.length - 1;
+		return (last << 6) + 64 - Long.numberOfLeadingZeros(_words[last]);
+	}
+
+	/**
+	 * @return The number of branching levels in the set.
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (long word : _words) {
+			size += Long.bitCount(word);
+		}
+		return size;
+	}
+
+	/**
+	 * @param other Another dependency set.
+	 * @return The union of the current set and {@literal other}.
+	 */
+	public BranchDependencySet union(final BranchDependencySet other)
+	{
+		if ((other == this) || (other._words.length == 0)) {
+			return this;
+		} else if (_words.length == 0) {
+			return other;
+		}
+		final long[] longer;
+		final long[] shorter;
+		if (_words.length >= other._words.length) {
+			longer = _words;
+			shorter = other._words;
+		} else {
+			longer = other._words;
+			shorter = _words;
+		}
+		long[] words = null;
+		for (int i = 0; i < shorter.length; ++i) {
+			final long word = longer[i] | shorter[i];
+			if (word != longer[i]) {
+				if (words == null) {
+					words = longer.clone();
+				}
+				words[i] = word;
+			}
+		}
+		if (words != null) {
+			return new BranchDependencySet(words);
+		} else if (longer == _words) {
+			return this;
+		} else {
+			return other;
+		}
+	}
+
+	/**
+	 * @param level A branching level.
+	 * @return The current set without {@literal level}.
+	 */
+	public BranchDependencySet without(final int level)
+	{
+		if (!contains(level)) {
+			return this;
+		}
+		final int bit = level - 1;
+		long[] words = _words.clone();
+		words[bit >> 6] &= ~(1L << bit);
+		int length = words.length;
+		while ((length > 0) && (words[length - 1] == 0)) {
+			--length;
+		}
+		if (length == 0) {
+			return EMPTY;
+		} else if (length < words.length) {
+			words = Arrays.copyOf(words, length);
+		}
+		return new BranchDependencySet(words);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(_words);
+	}
+
+	@Override
+	public boolean equals(final Object obj)
+	{
+		if (this == obj) {
+			return true;
+		}
+		if (obj instanceof BranchDependencySet) {
+			return Arrays.equals(_words, ((BranchDependencySet) obj)._words);
+		}
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		boolean isFirst = true;
+		for (int word = 0; word < _words.length; ++word) {
+			long bits = _words[word];
+			while (bits != 0) {
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append((word << 6) + Long.numberOfTrailingZeros(bits) + 1);
+				bits &= bits - 1;
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static void checkLevel(final int level)
+	{
+		if (level <= 0) {
+			throw new IllegalArgumentException(String.format("Invalid branching level: %d", level));
+		}
+	}
+}
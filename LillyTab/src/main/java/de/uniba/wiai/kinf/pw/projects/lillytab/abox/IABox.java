@@ -460,4 +460,40 @@ public interface IABox<I extends Comparable<? super I>, L extends Comparable<? s
 	 */
 	SortedSet<NodeID> getNonGeneratingQueue();
 	/// </editor-fold>
+
+/// <editor-fold defaultstate="collapsed" desc="Trail">
+	/**
+	 * Create a new checkpoint on the undo trail of the current ABox.
+	 * <p />
+	 * After a checkpoint has been created, all modifications to the ABox are recorded, so that the ABox can later be
+	 * reset to the state at the checkpoint via {@link #rollback(int) }. Checkpoints nest.
+	 *
+	 * @return The number of the new checkpoint. Checkpoints are numbered from {@literal 1} (outermost) upwards.
+	 */
+	int pushCheckpoint();
+
+	/**
+	 * Reset the ABox to the state it had when {@literal checkpoint} was created.
+	 * <p />
+	 * All checkpoints created after {@literal checkpoint} are discarded, {@literal checkpoint} itself stays valid and
+	 * may be rolled back to again. Node objects obtained before the rollback must no longer be used.
+	 *
+	 * @param checkpoint The number of the checkpoint as returned by {@link #pushCheckpoint() }.
+	 */
+	void rollback(final int checkpoint);
+
+	/**
+	 * Discard {@literal checkpoint} and all checkpoints created after it, keeping the current state of the ABox.
+	 * <p />
+	 * Modifications recorded since {@literal checkpoint} are handed over to the enclosing checkpoint, if any.
+	 *
+	 * @param checkpoint The number of the checkpoint as returned by {@link #pushCheckpoint() }.
+	 */
+	void popCheckpoint(final int checkpoint);
+
+	/**
+	 * @return The number of active checkpoints.
+	 */
+	int getCheckpointCount();
+	/// </editor-fold>
 }
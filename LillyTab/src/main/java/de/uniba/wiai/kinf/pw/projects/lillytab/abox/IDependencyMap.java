@@ -152,6 +152,88 @@ public interface IDependencyMap<I extends Comparable<? super I>, L extends Compa
 
 	Collection<TermEntry<I, L, K, R>> getNodeRoots(final IABoxNode<I, L, K, R> node);
 
+	/**
+	 * 
+	 * Get the branching levels {@literal entry} depends on.
+	 * <p />
+	 * The result contains the branching levels of all ancestors of {@literal entry} and the dependencies of the
+	 * node of {@literal entry} (see {@link #getBranchDependencies(de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID)
+	 * }).
+	 *
+	 * @param entry A term entry.
+	 * @return The branching levels {@literal entry} depends on.
+	 */
+	BranchDependencySet getBranchDependencies(final TermEntry<I, L, K, R> entry);
+
+	/**
+	 * 
+	 * Get the branching levels the links of the node with {@literal nodeID} depend on.
+	 * <p />
+	 * Every term derived on a node implicitly depends on the links of the node, as these links allowed the term to be
+	 * derived.
+	 *
+	 * @param nodeID A node ID.
+	 * @return The branching levels the node with {@literal nodeID} depends on.
+	 */
+	BranchDependencySet getBranchDependencies(final NodeID nodeID);
+
+	/**
+	 * Add {@literal dependencies} to the dependencies of the node with {@literal nodeID}.
+	 *
+	 * @param nodeID A node ID.
+	 * @param dependencies Additional dependencies of the node.
+	 */
+	void addBranchDependencies(final NodeID nodeID, final BranchDependencySet dependencies);
+
+	/**
+	 * Record the dependencies of a new link between {@literal source} and {@literal target} that was created because
+	 * of {@literal cause}.
+	 *
+	 * @param source The source node of the link.
+	 * @param target The target node of the link.
+	 * @param cause The term entry that caused the link.
+	 */
+	void addLinkDependencies(final NodeID source, final NodeID target, final TermEntry<I, L, K, R> cause);
+
+	/**
+	 * @return The number of branching decisions that lead to the current ABox.
+	 */
+	int getBranchLevel();
+
+	/**
+	 * Record a new branching decision.
+	 *
+	 * @param alternative The index of the chosen alternative.
+	 * @return The new branching level.
+	 */
+	int openBranchLevel(final int alternative);
+
+	/**
+	 * @return The alternatives chosen at each branching level. The array is shared and must not be modified.
+	 */
+	int[] getBranchPath();
+
+	/**
+	 * @param branchPath The alternatives chosen along some other branch path (see {@link #getBranchPath() }).
+	 * @param level A branching level.
+	 * @return {@literal true}, if the current ABox made the same choices as {@literal branchPath} up to and
+	 * including {@literal level}.
+	 */
+	boolean isOnBranchPath(final int[] branchPath, final int level);
+
+	/**
+	 * @return The dependencies added to all terms added to the ABox at the moment.
+	 */
+	BranchDependencySet getActionDependencies();
+
+	/**
+	 * Set the dependencies of the action currently performed on the ABox. All terms added to the ABox while the
+	 * action dependencies are set depend on them.
+	 *
+	 * @param dependencies The dependencies of the current action.
+	 */
+	void setActionDependencies(final BranchDependencySet dependencies);
+
 	IDependencyMap<I, L, K, R> clone();
 
 	TermEntryFactory<I, L, K, R> getTermEntryFactory();
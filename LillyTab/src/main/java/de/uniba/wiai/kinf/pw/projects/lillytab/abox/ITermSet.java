@@ -21,6 +21,7 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.abox;
 
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
 import de.dhke.projects.cutil.collections.immutable.IImmutable;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
@@ -71,6 +72,27 @@ public interface ITermSet<I extends Comparable<? super I>, L extends Comparable<
 	 */
 	SortedSet<IDLTerm<I, L, K, R>> subSet(final DLTermOrder termType);
 
+	/**
+	 * Return the IDs of the terms in this set as assigned by
+	 * {@link de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory#getTermID(de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm)}.
+	 * <p />
+	 * The returned set is a live view and must not be modified.
+	 *
+	 * @return The IDs of the terms in this set or {@literal null}, if the set does not keep track of term IDs.
+	 */
+	CopyOnWriteBitSet getTermIDs();
+
+	/**
+	 * Return the IDs of the operands of the object negations in this set, i.e. for every term
+	 * {@literal (not C)} in this set, the returned set contains the ID of {@literal C}.
+	 * <p />
+	 * A term set contains a direct clash if {@link #getTermIDs()} and the returned set intersect.
+	 * The returned set is a live view and must not be modified.
+	 *
+	 * @return The IDs of the negated terms or {@literal null}, if the set does not keep track of term IDs.
+	 */
+	CopyOnWriteBitSet getNegatedTermIDs();
+
 	/**
 	 * 
 	 * @return an immutable version of this {@link ITermSet}
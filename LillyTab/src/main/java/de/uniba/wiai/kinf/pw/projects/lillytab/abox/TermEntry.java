@@ -26,6 +26,10 @@ import java.io.Serializable;
 
 /**
  * Wrapper class combining a {@link NodeID} with a {@link IDLTerm}. This is mostly useful for dependency tracking.
+ * <p />
+ * Each entry also carries a primitive key that packs the node ID (upper 32 bits) and the term ID as assigned by the
+ * term factory (lower 32 bits) into a single {@literal long}. Entries from the same {@link TermEntryFactory} are
+ * equal exactly if their keys are equal, so keys may be stored in place of entries.
  *
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -40,12 +44,14 @@ public final class TermEntry<I extends Comparable<? super I>, L extends Comparab
 	private static final long serialVersionUID = 5144437688016123689L;
 	private final NodeID _nodeID;
 	private final IDLTerm<I, L, K, R> _term;
+	private final long _key;
 	
 	
-	protected TermEntry(NodeID nodeID, IDLTerm<I, L, K, R> term)
+	protected TermEntry(NodeID nodeID, IDLTerm<I, L, K, R> term, long key)
 	{
 		this._nodeID = nodeID;
 		this._term = term;
+		this._key = key;
 	}
 	
 	
@@ -61,10 +67,61 @@ public final class TermEntry<I extends Comparable<? super I>, L extends Comparab
 	}
 	
 	
+	/**
+	 * @return The packed node and term ID of this entry.
+	 */
+	public long getKey()
+	{
+		return _key;
+	}
+	
+	
 	@Override
 	public int hashCode()
 	{
-		return 1408217 + 346421 * _nodeID.hashCode() + _term.hashCode();
+		return hashCode(_key);
+	}
+	
+	
+	/**
+	 * @return The hash code of a term entry with the packed {@literal key}, without creating it.
+	 */
+	static int hashCode(final long key)
+	{
+		return 1408217 + 346421 * keyNodeID(key) + keyTermID(key);
+	}
+	
+	
+	/**
+	 * Pack a node ID and a term ID into a term entry key.
+	 *
+	 * @param nodeID The node ID.
+	 * @param termID The term ID.
+	 * @return The packed key.
+	 */
+	public static long packKey(final int nodeID, final int termID)
+	{
+		return ((long) nodeID << 32) | (termID & 0xFFFFFFFFL);
+	}
+	
+	
+	/**
+	 * @param key A packed term entry key.
+	 * @return The node ID part of {@literal key}.
+	 */
+	public static int keyNodeID(final long key)
+	{
+		return (int) (key >>> 32);
+	}
+	
+	
+	/**
+	 * @param key A packed term entry key.
+	 * @return The term ID part of {@literal key}.
+	 */
+	public static int keyTermID(final long key)
+	{
+		return (int) key;
 	}
 	
 	
@@ -75,7 +132,7 @@ public final class TermEntry<I extends Comparable<? super I>, L extends Comparab
 			return true;
 		} else if (obj instanceof TermEntry) {
 			TermEntry<?, ?, ?, ?> other = (TermEntry<?, ?, ?, ?>) obj;
-			return _nodeID.equals(other._nodeID) && _term.equals(other._term);
+			return (_key == other._key) && _term.equals(other._term);
 		} else {
 			return false;
 		}
@@ -107,15 +164,8 @@ public final class TermEntry<I extends Comparable<? super I>, L extends Comparab
 	
 	
 	static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> TermEntry<I, L, K, R> wrap(
-		final NodeID nodeID, final IDLTerm<I, L, K, R> term)
-	{
-		return new TermEntry<>(nodeID, term);
-	}
-	
-	
-	static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> TermEntry<I, L, K, R> wrap(
-		final IABoxNode<?, ?, ?, ?> node, final IDLTerm<I, L, K, R> term)
+		final NodeID nodeID, final IDLTerm<I, L, K, R> term, final long key)
 	{
-		return wrap(node.getNodeID(), term);
+		return new TermEntry<>(nodeID, term, key);
 	}
 }
@@ -22,9 +22,8 @@
 package de.uniba.wiai.kinf.pw.projects.lillytab.abox;
 
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.util.SoftItemCache;
-import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
 
 /**
  * @param <I> The type for individuals/nominals
@@ -37,11 +36,11 @@ import java.util.WeakHashMap;
 public class TermEntryFactory<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> 
 	extends SoftItemCache<TermEntry<I, L, K, R>> {
 
-	private final WeakHashMap<TermEntry<I, L, K, R>, WeakReference<TermEntry<I, L, K, R>>> _termCache = new WeakHashMap<>();
+	private final IDLTermFactory<I, L, K, R> _termFactory;
 
-
-	public TermEntryFactory()
+	public TermEntryFactory(final IDLTermFactory<I, L, K, R> termFactory)
 	{
+		_termFactory = termFactory;
 	}
 
 
@@ -54,7 +53,39 @@ public class TermEntryFactory<I extends Comparable<? super I>, L extends Compara
 
 	public TermEntry<I, L, K, R> getEntry(final NodeID nodeID, final IDLTerm<I, L, K, R> term)
 	{
-		TermEntry<I, L, K, R> entry = TermEntry.wrap(nodeID, term);
-		return updateCache(entry);
+		final long key = getKey(nodeID, term);
+		return updateCache(TermEntry.hashCode(key),
+						   (entry) -> entry.getKey() == key,
+						   () -> TermEntry.wrap(nodeID, term, key));
+	}
+
+
+	/**
+	 * Retrieve the entry for a packed key.
+	 *
+	 * @param key A key as returned by {@link TermEntry#getKey() } for an entry of this factory.
+	 * @return The term entry with the specified key.
+	 */
+	public TermEntry<I, L, K, R> getEntry(final long key)
+	{
+		return updateCache(TermEntry.hashCode(key),
+						   (entry) -> entry.getKey() == key,
+						   () -> TermEntry.wrap(new NodeID(TermEntry.keyNodeID(key)),
+												_termFactory.getTerm(TermEntry.keyTermID(key)), key));
+	}
+
+
+	/**
+	 * @return The packed key of the entry for {@literal nodeID} and {@literal term}, without creating it.
+	 */
+	public long getKey(final NodeID nodeID, final IDLTerm<I, L, K, R> term)
+	{
+		return TermEntry.packKey(nodeID.getID(), _termFactory.getTermID(term));
+	}
+
+
+	public IDLTermFactory<I, L, K, R> getTermFactory()
+	{
+		return _termFactory;
 	}
 }
@@ -0,0 +1,116 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.abox.util;
+
+import de.dhke.projects.cutil.collections.CollectionUtil;
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ITermSet;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import java.util.Collection;
+
+/**
+ *
+ * Set operations on {@link ITermSet}s that use the term ID sets where available
+ * and fall back to element-wise comparison otherwise.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TermSetUtil {
+
+	private TermSetUtil()
+	{
+	}
+
+
+	/**
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param sup The potential superset
+	 * @param sub The potential subset
+	 * @return {@literal true}, if {@literal sup} contains all terms from {@literal sub}.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> boolean containsAll(
+		final ITermSet<I, L, K, R> sup, final ITermSet<I, L, K, R> sub)
+	{
+		final CopyOnWriteBitSet supIDs = sup.getTermIDs();
+		final CopyOnWriteBitSet subIDs = sub.getTermIDs();
+		if ((supIDs != null) && (subIDs != null)) {
+			return supIDs.containsAll(subIDs);
+		} else {
+			return sup.containsAll(sub);
+		}
+	}
+
+
+	/**
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param termFactory The term factory that assigned the term IDs of {@literal sup}
+	 * @param sup The term set to check
+	 * @param parts The terms to look for
+	 * @return {@literal true}, if at least one term from {@literal parts} is contained in {@literal sup}.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> boolean containsOne(
+		final IDLTermFactory<I, L, K, R> termFactory, final ITermSet<I, L, K, R> sup,
+		final Collection<? extends IDLTerm<I, L, K, R>> parts)
+	{
+		final CopyOnWriteBitSet supIDs = sup.getTermIDs();
+		if (supIDs != null) {
+			for (IDLTerm<I, L, K, R> part : parts) {
+				if (supIDs.get(termFactory.getTermID(part))) {
+					return true;
+				}
+			}
+			return false;
+		} else {
+			return CollectionUtil.containsOne(sup, parts);
+		}
+	}
+
+
+	/**
+	 * Perform a quick check if {@literal terms} may contain a term together with its negation.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param terms The term set to check
+	 * @return {@literal false}, if {@literal terms} definitely does not contain both a term and its negation.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> boolean mayContainNegationPair(
+		final ITermSet<I, L, K, R> terms)
+	{
+		final CopyOnWriteBitSet termIDs = terms.getTermIDs();
+		final CopyOnWriteBitSet negatedTermIDs = terms.getNegatedTermIDs();
+		if ((termIDs != null) && (negatedTermIDs != null)) {
+			return termIDs.intersects(negatedTermIDs);
+		} else {
+			return true;
+		}
+	}
+}
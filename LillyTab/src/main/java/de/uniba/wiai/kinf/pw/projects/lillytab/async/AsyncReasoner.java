@@ -0,0 +1,321 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.async;
+
+import de.dhke.projects.cutil.IDecorator;
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous front end to an {@link IReasoner}.
+ * <p />
+ * Queries are run on an {@link Executor} and answered via {@link CompletableFuture}s. Identical queries (same ABox
+ * instance, same arguments) that are still running are coalesced: Later callers receive a future for the result of
+ * the query already in flight instead of starting a new one. Coalescing ends when a query completes, so results are
+ * never cached.
+ * <p />
+ * The decorated reasoner is shared by all worker threads. {@link de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner}
+ * supports this, as long as the queried ABoxes and their TBoxes are not modified while queries are running.
+ * Failed queries complete their futures exceptionally with the exception thrown by the decorated reasoner.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class AsyncReasoner<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	implements IDecorator<IReasoner<I, L, K, R>> {
+
+	static final Logger _logger = LoggerFactory.getLogger(AsyncReasoner.class);
+	private final IReasoner<I, L, K, R> _baseReasoner;
+	private final Executor _executor;
+	/**
+	 * The executor to shut down, if we created it ourselves.
+	 */
+	private final ExecutorService _ownedExecutor;
+	private final ConcurrentMap<Query, CompletableFuture<?>> _inFlight = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Create an asynchronous reasoner running queries on {@literal executor}.
+	 *
+	 * @param reasoner The reasoner to decorate.
+	 * @param executor The executor to run queries on. It is not shut down by {@link #shutdown()}.
+	 */
+	public AsyncReasoner(final IReasoner<I, L, K, R> reasoner, final Executor executor)
+	{
+		_baseReasoner = reasoner;
+		_executor = executor;
+		_ownedExecutor = null;
+	}
+
+
+	/**
+	 * Create an asynchronous reasoner running queries on a private pool of {@literal parallelism} threads.
+	 *
+	 * @param reasoner The reasoner to decorate.
+	 * @param parallelism The maximum number of concurrently running queries.
+	 */
+	public AsyncReasoner(final IReasoner<I, L, K, R> reasoner, final int parallelism)
+	{
+		_baseReasoner = reasoner;
+		_ownedExecutor = Executors.newFixedThreadPool(parallelism, (final Runnable runnable) -> {
+			final Thread thread = new Thread(runnable, "lillytab-async");
+			thread.setDaemon(true);
+			return thread;
+		});
+		_executor = _ownedExecutor;
+	}
+
+
+	@Override
+	public IReasoner<I, L, K, R> getDecoratee()
+	{
+		return _baseReasoner;
+	}
+
+
+	/**
+	 * Shut down the thread pool, if it was created by this instance. Running queries are completed.
+	 */
+	public void shutdown()
+	{
+		if (_ownedExecutor != null) {
+			_ownedExecutor.shutdown();
+		}
+	}
+
+
+	/**
+	 * @return The number of distinct queries currently running or waiting for execution.
+	 */
+	public int getQueriesInFlight()
+	{
+		return _inFlight.size();
+	}
+
+
+	/**
+	 * @see IReasoner#checkConsistency(IABox, boolean)
+	 */
+	public CompletableFuture<Collection<? extends IReasonerResult<I, L, K, R>>> checkConsistency(
+		final IABox<I, L, K, R> abox, final boolean stopAtFirstModel)
+	{
+		/* results contain mutable ABoxes, don't share them between callers */
+		return submit(null, () -> _baseReasoner.checkConsistency(abox, stopAtFirstModel));
+	}
+
+
+	/**
+	 * @see IReasoner#isConsistent(IABox)
+	 */
+	public CompletableFuture<Boolean> isConsistent(final IABox<I, L, K, R> abox)
+	{
+		return submit(new Query("isConsistent", abox), () -> _baseReasoner.isConsistent(abox));
+	}
+
+
+	/**
+	 * @see IReasoner#isConsistent(IABox, IDLClassExpression)
+	 */
+	public CompletableFuture<Boolean> isConsistent(final IABox<I, L, K, R> abox,
+												   final IDLClassExpression<I, L, K, R> concept)
+	{
+		return submit(new Query("isConsistent", abox, concept), () -> _baseReasoner.isConsistent(abox, concept));
+	}
+
+
+	/**
+	 * @see IReasoner#isSubClassOf(IABox, IDLClassExpression, IDLClassExpression)
+	 */
+	public CompletableFuture<Boolean> isSubClassOf(final IABox<I, L, K, R> abox,
+												   final IDLClassExpression<I, L, K, R> presumedSub,
+												   final IDLClassExpression<I, L, K, R> presumedSuper)
+	{
+		return submit(new Query("isSubClassOf", abox, presumedSub, presumedSuper),
+			() -> _baseReasoner.isSubClassOf(abox, presumedSub, presumedSuper));
+	}
+
+
+	/**
+	 * @see IReasoner#isSubClassOf(IABox, Comparable, Comparable)
+	 */
+	public CompletableFuture<Boolean> isSubClassOf(final IABox<I, L, K, R> abox, final K presumedSub,
+												   final K presumedSuper)
+	{
+		return isSubClassOf(abox, abox.getDLTermFactory().getDLClassReference(presumedSub),
+			abox.getDLTermFactory().getDLClassReference(presumedSuper));
+	}
+
+
+	/**
+	 * @see IReasoner#isDisjoint(IABox, IDLClassExpression, IDLClassExpression)
+	 */
+	public CompletableFuture<Boolean> isDisjoint(final IABox<I, L, K, R> abox,
+												 final IDLClassExpression<I, L, K, R> desc1,
+												 final IDLClassExpression<I, L, K, R> desc2)
+	{
+		return submit(new Query("isDisjoint", abox, desc1, desc2), () -> _baseReasoner.isDisjoint(abox, desc1, desc2));
+	}
+
+
+	/**
+	 * @see IReasoner#isInDomain(IABox, IDLClassExpression, Comparable)
+	 */
+	public CompletableFuture<Boolean> isInDomain(final IABox<I, L, K, R> abox,
+												 final IDLClassExpression<I, L, K, R> desc, final R role)
+	{
+		return submit(new Query("isInDomain", abox, desc, role), () -> _baseReasoner.isInDomain(abox, desc, role));
+	}
+
+
+	/**
+	 * @see IReasoner#isInRange(IABox, IDLClassExpression, Comparable)
+	 */
+	public CompletableFuture<Boolean> isInRange(final IABox<I, L, K, R> abox,
+												final IDLClassExpression<I, L, K, R> desc, final R role)
+	{
+		return submit(new Query("isInRange", abox, desc, role), () -> _baseReasoner.isInRange(abox, desc, role));
+	}
+
+
+	/**
+	 * @see IReasoner#classify(IABox)
+	 */
+	public CompletableFuture<Collection<IDLImplies<I, L, K, R>>> classify(final IABox<I, L, K, R> abox)
+	{
+		return submit(new Query("classify", abox), () -> _baseReasoner.classify(abox));
+	}
+
+
+	/**
+	 * Run {@literal task} on the executor, unless an identical query is already in flight.
+	 *
+	 * @param query The query key used for coalescing, {@literal null} to never coalesce.
+	 * @param task The query to run.
+	 * @return A future for the query result, private to the caller.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> submit(final Query query, final Callable<T> task)
+	{
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		if (query != null) {
+			final CompletableFuture<?> running = _inFlight.putIfAbsent(query, future);
+			if (running != null) {
+				_logger.trace("Joining running query {}", query);
+				return ((CompletableFuture<T>) running).thenApply(Function.identity());
+			}
+		}
+		try {
+			_executor.execute(() -> {
+				try {
+					final T result = task.call();
+					release(query, future);
+					future.complete(result);
+				} catch (Throwable ex) {
+					release(query, future);
+					future.completeExceptionally(ex);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			release(query, future);
+			future.completeExceptionally(ex);
+		}
+		/* callers must not be able to complete or cancel the shared future */
+		return future.thenApply(Function.identity());
+	}
+
+
+	private void release(final Query query, final CompletableFuture<?> future)
+	{
+		if (query != null) {
+			_inFlight.remove(query, future);
+		}
+	}
+
+	/**
+	 * Identifies a query for coalescing. ABoxes are compared by identity, all other arguments by equality.
+	 */
+	private static final class Query {
+		private final String _name;
+		private final IABox<?, ?, ?, ?> _abox;
+		private final List<Object> _arguments;
+
+
+		Query(final String name, final IABox<?, ?, ?, ?> abox, final Object... arguments)
+		{
+			_name = name;
+			_abox = abox;
+			_arguments = Arrays.asList(arguments);
+		}
+
+
+		@Override
+		public boolean equals(final Object obj)
+		{
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Query) {
+				final Query other = (Query) obj;
+				return _name.equals(other._name) && (_abox == other._abox) && _arguments.equals(other._arguments);
+			} else {
+				return false;
+			}
+		}
+
+
+		@Override
+		public int hashCode()
+		{
+			int hash = _name.hashCode();
+			hash = 31 * hash + System.identityHashCode(_abox);
+			hash = 31 * hash + _arguments.hashCode();
+			return hash;
+		}
+
+
+		@Override
+		public String toString()
+		{
+			return _name + _arguments;
+		}
+	}
+}
@@ -42,6 +42,7 @@ public class BlockingStateCache
 
 	private final Map<NodeID, BlockInfo> _blockMap;
 	private final MultiMap<NodeID, NodeID> _isInvoledIn;
+	private final LabelSignatureIndex _labelIndex;
 
 	public BlockingStateCache()
 	{
@@ -52,9 +53,19 @@ public class BlockingStateCache
 		final Map<NodeID, BlockInfo> blockMap,
 		final MultiMap<NodeID, NodeID> isInvolvedIn
 	)
+	{
+		this(blockMap, isInvolvedIn, new LabelSignatureIndex());
+	}
+
+	public BlockingStateCache(
+		final Map<NodeID, BlockInfo> blockMap,
+		final MultiMap<NodeID, NodeID> isInvolvedIn,
+		final LabelSignatureIndex labelIndex
+	)
 	{
 		_blockMap = blockMap;
 		_isInvoledIn = isInvolvedIn;
+		_labelIndex = labelIndex;
 	}
 
 	@Override
@@ -123,7 +134,7 @@ public class BlockingStateCache
 		final MultiMap<NodeID, NodeID> isInvolvedIn = new GenericMultiHashMap<>(new TreeSetFactory<>());
 		isInvolvedIn.putAll(_isInvoledIn);
 
-		return new BlockingStateCache(blockMap, isInvolvedIn);
+		return new BlockingStateCache(blockMap, isInvolvedIn, _labelIndex.clone());
 	}
 
 	@Override
@@ -139,6 +150,12 @@ public class BlockingStateCache
 		setBlockInfo(influencer, null);
 	}
 
+	@Override
+	public LabelSignatureIndex getLabelIndex()
+	{
+		return _labelIndex;
+	}
+
 
 
 }
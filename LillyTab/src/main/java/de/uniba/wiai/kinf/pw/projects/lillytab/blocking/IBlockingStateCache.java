@@ -75,6 +75,14 @@ public interface IBlockingStateCache
 	 */
 	void invalidate(final NodeID influencer);
 
+	/**
+	 * Retrieve the label signature index of the ABox. The index is derived data and does not take part in
+	 * {@link #equals(java.lang.Object) } and {@link #hashCode() }.
+	 *
+	 * @return The {@link LabelSignatureIndex} of the ABox.
+	 */
+	LabelSignatureIndex getLabelIndex();
+
 	IBlockingStateCache clone();
 
 	@Override
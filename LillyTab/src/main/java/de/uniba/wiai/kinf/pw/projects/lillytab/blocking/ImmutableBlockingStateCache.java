@@ -70,6 +70,13 @@ public class ImmutableBlockingStateCache
 		return _baseCache.getBlockInfo(blockedNode);
 	}
 
+	@Override
+	public LabelSignatureIndex getLabelIndex()
+	{
+		/* private copy, only updated lazily during lookups */
+		return _baseCache.getLabelIndex();
+	}
+
 	@Override
 	public void setBlockInfo(NodeID blockedNode, BlockInfo blockInfo)
 	{
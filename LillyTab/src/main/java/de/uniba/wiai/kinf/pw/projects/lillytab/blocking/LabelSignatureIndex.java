@@ -0,0 +1,201 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.blocking;
+
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+
+/**
+ *
+ * An index of the label signatures of the anonymous nodes of an ABox.
+ * <p />
+ * The signature of a node label is the {@link CopyOnWriteBitSet#signature() signature} of the term ID set of the
+ * label. Nodes with equal labels have equal signatures and the signature of a subset of a label is a subset of the
+ * label's signature. The index thus allows to look up candidate blockers for a node without visiting all other
+ * nodes. Candidates still need to be verified against the actual labels.
+ * <p />
+ * The index is kept up to date from the term set events of the ABox: nodes with modified labels are marked as stale
+ * via {@link #invalidate(de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID) } and re-indexed on the next lookup.
+ * Nodes without term ID sets are not indexed.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class LabelSignatureIndex
+	implements Cloneable {
+
+	private final Map<NodeID, Long> _signatures;
+	private final Map<Long, SortedSet<NodeID>> _buckets;
+	private final Set<NodeID> _staleNodes;
+
+	public LabelSignatureIndex()
+	{
+		this(new HashMap<NodeID, Long>(), new HashMap<Long, SortedSet<NodeID>>(), new HashSet<NodeID>());
+	}
+
+	private LabelSignatureIndex(final Map<NodeID, Long> signatures, final Map<Long, SortedSet<NodeID>> buckets,
+								final Set<NodeID> staleNodes)
+	{
+		_signatures = signatures;
+		_buckets = buckets;
+		_staleNodes = staleNodes;
+	}
+
+	/**
+	 * Mark the label of {@literal nodeID} as modified.
+	 *
+	 * @param nodeID The modified node.
+	 */
+	public void invalidate(final NodeID nodeID)
+	{
+		_staleNodes.add(nodeID);
+	}
+
+	/**
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param node A node
+	 * @return The signature of the label of {@literal node} or {@literal null}, if the label has no term ID set.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> Long getSignature(
+		final IABoxNode<I, L, K, R> node)
+	{
+		final CopyOnWriteBitSet termIDs = node.getTerms().getTermIDs();
+		if (termIDs == null) {
+			return null;
+		} else {
+			return termIDs.signature();
+		}
+	}
+
+	/**
+	 * Find the indexed nodes that may have the same label as a node with label signature {@literal signature}.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param abox The ABox this index belongs to
+	 * @param signature A label signature
+	 * @return The candidate nodes in node order.
+	 */
+	public <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> SortedSet<NodeID> getEqualCandidates(
+		final IABox<I, L, K, R> abox, final long signature)
+	{
+		refresh(abox);
+		final SortedSet<NodeID> bucket = _buckets.get(signature);
+		if (bucket == null) {
+			return Collections.emptySortedSet();
+		} else {
+			return Collections.unmodifiableSortedSet(bucket);
+		}
+	}
+
+	/**
+	 * Find the indexed nodes in front of {@literal before} that may have a label that is a superset of a label with
+	 * signature {@literal signature}.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param abox The ABox this index belongs to
+	 * @param signature A label signature
+	 * @param before Only nodes strictly smaller than {@literal before} are returned.
+	 * @return The candidate nodes in node order.
+	 */
+	public <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> SortedSet<NodeID> getSupersetCandidates(
+		final IABox<I, L, K, R> abox, final long signature, final NodeID before)
+	{
+		refresh(abox);
+		final SortedSet<NodeID> candidates = new TreeSet<>();
+		for (Map.Entry<Long, SortedSet<NodeID>> bucket : _buckets.entrySet()) {
+			if ((signature & ~bucket.getKey()) == 0) {
+				candidates.addAll(bucket.getValue().headSet(before));
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * @return The number of indexed nodes.
+	 */
+	public int size()
+	{
+		return _signatures.size();
+	}
+
+	@Override
+	public LabelSignatureIndex clone()
+	{
+		final Map<Long, SortedSet<NodeID>> buckets = new HashMap<>();
+		for (Map.Entry<Long, SortedSet<NodeID>> bucket : _buckets.entrySet()) {
+			buckets.put(bucket.getKey(), new TreeSet<>(bucket.getValue()));
+		}
+		return new LabelSignatureIndex(new HashMap<>(_signatures), buckets, new HashSet<>(_staleNodes));
+	}
+
+	/**
+	 * Re-index all stale nodes.
+	 */
+	private <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> void refresh(
+		final IABox<I, L, K, R> abox)
+	{
+		if (!_staleNodes.isEmpty()) {
+			for (NodeID nodeID : _staleNodes) {
+				final Long oldSignature = _signatures.remove(nodeID);
+				if (oldSignature != null) {
+					final SortedSet<NodeID> bucket = _buckets.get(oldSignature);
+					bucket.remove(nodeID);
+					if (bucket.isEmpty()) {
+						_buckets.remove(oldSignature);
+					}
+				}
+				final IABoxNode<I, L, K, R> node = abox.getNode(nodeID);
+				if ((node != null) && node.isAnonymous() && node.getNodeID().equals(nodeID)) {
+					final Long signature = getSignature(node);
+					if (signature != null) {
+						_signatures.put(nodeID, signature);
+						SortedSet<NodeID> bucket = _buckets.get(signature);
+						if (bucket == null) {
+							bucket = new TreeSet<>();
+							_buckets.put(signature, bucket);
+						}
+						bucket.add(nodeID);
+					}
+				}
+			}
+			_staleNodes.clear();
+		}
+	}
+}
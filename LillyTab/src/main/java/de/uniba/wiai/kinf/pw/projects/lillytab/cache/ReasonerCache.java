@@ -31,7 +31,10 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.AbstractReasoner;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy.ToldHierarchy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
 import java.util.Collection;
 import java.util.SortedSet;
 import java.util.WeakHashMap;
@@ -95,19 +98,22 @@ public class ReasonerCache<I extends Comparable<? super I>, L extends Comparable
 								IDLClassExpression<I, L, K, R> presumedSuper)
 		throws EReasonerException, EInconsistencyException
 	{
-		Cache cache = _cacheMap.get(abox);
-		if (cache == null) {
-			cache = new Cache();
-			_cacheMap.put(abox, cache);
-		}
+		final Cache cache = getCache(abox);
 
 		if (cache._subClassCache.containsValue(presumedSub, presumedSuper)) {
 			return true;
+		} else if (cache.isToldSubsumer(presumedSub, presumedSuper)) {
+			cache._subClassCache.put(presumedSub, presumedSuper);
+			return true;
 		} else if (cache._negSubClassCache.containsValue(presumedSub, presumedSuper)) {
 			return false;
 		} else if ((cache._disjointCache.containsValue(presumedSub, presumedSuper))
 			|| (cache._disjointCache.containsValue(presumedSuper, presumedSub))) {
 			return false;
+		} else if (cache.isToldDisjoint(presumedSub, presumedSuper) && isSatisfiable(abox, presumedSub)) {
+			/* a satisfiable class is not subsumed by a disjoint class */
+			cache._negSubClassCache.put(presumedSub, presumedSuper);
+			return false;
 		} else {
 			boolean isSubClass = _baseReasoner.isSubClassOf(abox, presumedSub, presumedSuper);
 			if (isSubClass) {
@@ -144,13 +150,12 @@ public class ReasonerCache<I extends Comparable<? super I>, L extends Comparable
 							  IDLClassExpression<I, L, K, R> desc2)
 		throws EReasonerException, EInconsistencyException
 	{
-		Cache cache = _cacheMap.get(abox);
-		if (cache == null) {
-			cache = new Cache();
-			_cacheMap.put(abox, cache);
-		}
+		final Cache cache = getCache(abox);
 		if (cache._disjointCache.containsValue(desc1, desc2) || cache._disjointCache.containsValue(desc2, desc1)) {
 			return true;
+		} else if (cache.isToldDisjoint(desc1, desc2)) {
+			cache._disjointCache.put(desc1, desc2);
+			return true;
 		} else {
 			boolean isDisjoint = _baseReasoner.isDisjoint(abox, desc1, desc2);
 			if (isDisjoint) {
@@ -161,18 +166,58 @@ public class ReasonerCache<I extends Comparable<? super I>, L extends Comparable
 		}
 	}
 
+	private boolean isSatisfiable(final IABox<I, L, K, R> abox, final IDLClassExpression<I, L, K, R> desc)
+		throws EReasonerException
+	{
+		try {
+			return ReasonerResult.hasModel(_baseReasoner.checkConsistency(abox, desc, true));
+		} catch (EInconsistencyException ex) {
+			return false;
+		}
+	}
+
+	private Cache getCache(final IABox<I, L, K, R> abox)
+	{
+		Cache cache = _cacheMap.get(abox);
+		if (cache == null) {
+			cache = new Cache(abox);
+			_cacheMap.put(abox, cache);
+		}
+		return cache;
+	}
+
 	class Cache {
 		final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> _subClassCache;
 		final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> _negSubClassCache;
 		final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> _disjointCache;
+		/**
+		 * Syntactic subsumption and disjointness information from the TBox of the ABox.
+		 */
+		final ToldHierarchy<I, L, K, R> _toldHierarchy;
 
-		Cache()
+		Cache(final IABox<I, L, K, R> abox)
 		{
+			_toldHierarchy = new ToldHierarchy<>(abox.getTBox(), abox.getDLTermFactory());
 			final ICollectionFactory<IDLClassExpression<I, L, K, R>, SortedSet<IDLClassExpression<I, L, K, R>>> collectionFactory =
 				new TreeSetFactory<>();
 			_subClassCache = new GenericMultiHashMap<>(collectionFactory);
 			_negSubClassCache = new GenericMultiHashMap<>(collectionFactory);
 			_disjointCache = new GenericMultiHashMap<>(collectionFactory);
 		}
+
+		boolean isToldSubsumer(final IDLClassExpression<I, L, K, R> sub, final IDLClassExpression<I, L, K, R> sup)
+		{
+			return (sub instanceof IDLClassReference) && (sup instanceof IDLClassReference)
+				&& _toldHierarchy.isToldSubsumer(((IDLClassReference<I, L, K, R>) sub).getElement(),
+					((IDLClassReference<I, L, K, R>) sup).getElement());
+		}
+
+		boolean isToldDisjoint(final IDLClassExpression<I, L, K, R> first,
+							   final IDLClassExpression<I, L, K, R> second)
+		{
+			return (first instanceof IDLClassReference) && (second instanceof IDLClassReference)
+				&& _toldHierarchy.isToldDisjoint(((IDLClassReference<I, L, K, R>) first).getElement(),
+					((IDLClassReference<I, L, K, R>) second).getElement());
+		}
 	}
 }
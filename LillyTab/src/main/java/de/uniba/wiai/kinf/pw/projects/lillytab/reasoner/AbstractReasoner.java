@@ -27,22 +27,23 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy.TaxonomyBuilder;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy.ToldHierarchy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
-import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -105,21 +106,55 @@ public abstract class AbstractReasoner<I extends Comparable<? super I>, L extend
 	{
 		try {
 			final Collection<? extends IReasonerResult<I, L, K, R>> results = checkConsistency(abox, true);
-			return true;
+			return ReasonerResult.hasModel(results);
 		} catch (EInconsistencyException ex) {
 			return false;
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p />
+	 * If no classification executor is available (see {@link #getClassificationExecutor()}), the class hierarchy is
+	 * built incrementally by a {@link TaxonomyBuilder}. Otherwise, all satisfiability and pairwise subsumption tests are
+	 * run concurrently on the executor first and the {@link TaxonomyBuilder} builds the hierarchy from their results.
+	 */
 	@Override
 	public final Collection<IDLImplies<I, L, K, R>> classify(final IABox<I, L, K, R> abox) throws EReasonerException, EInconsistencyException
 	{
 		final Set<K> classes = abox.getClassesInSignature();
 		final List<K> classList = new ArrayList<>(classes);
 		Collections.sort(classList);
-		final byte[][] scMatrix = createSquareMatrixArray(classList);
 
-		final Set<IDLImplies<I, L, K, R>> classifications = new TreeSet<>();
+		final ITBox<I, L, K, R> tbox = abox.getTBox();
+		/* TBox recalculation is lazy, make sure it has happened before tests may run concurrently */
+		tbox.getGlobalDescriptions();
+
+		final TaxonomyBuilder<I, L, K, R> builder = new TaxonomyBuilder<>(this, abox);
+		final ExecutorService executor = getClassificationExecutor();
+		if (executor == null) {
+			for (IABoxNode<I, L, K, R> node : abox) {
+				for (IDLTerm<I, L, K, R> clsTerm : node.getTerms().subSet(DLTermOrder.DL_CLASS_REFERENCE)) {
+					final IDLClassReference<I, L, K, R> clsRef = (IDLClassReference<I, L, K, R>) clsTerm;
+					_logger.trace("{} is in initial ABox, marking.", clsRef);
+					builder.addKnownSatisfiable(clsRef.getElement());
+				}
+			}
+		} else {
+			precompute(abox, classList, executor, builder);
+		}
+		return builder.build(classList).toImplications(abox.getDLTermFactory());
+	}
+
+	/**
+	 * Run all satisfiability and pairwise subsumption tests for {@literal classList} concurrently on
+	 * {@literal executor} and pass the results to {@literal builder}.
+	 */
+	private void precompute(final IABox<I, L, K, R> abox, final List<K> classList, final ExecutorService executor,
+							final TaxonomyBuilder<I, L, K, R> builder)
+		throws EReasonerException, EInconsistencyException
+	{
+		final SubsumptionMatrix scMatrix = new SubsumptionMatrix(classList.size());
 
 		final IABox<I, L, K, R> baseABox = abox;
 		final ITBox<I, L, K, R> tbox = baseABox.getTBox();
@@ -130,69 +165,64 @@ public abstract class AbstractReasoner<I extends Comparable<? super I>, L extend
 				int clsPos = Collections.binarySearch(classList, clsRef.getElement());
 				assert clsPos >= 0;
 				_logger.trace("{} is in initial ABox, marking.", clsRef);
-				scMatrix[clsPos][clsPos] = 1;
+				scMatrix.set(clsPos, clsPos, (byte) 1);
 			}
 		}
 
-		for (int i = 0; i < scMatrix.length; ++i) {
-			if (scMatrix[i][i] == 0) {
-				scMatrix[i][i] = 1;
+		final boolean[] unsatisfiable = new boolean[scMatrix.size()];
+		final List<Callable<Void>> satTests = new ArrayList<>();
+		for (int i = 0; i < scMatrix.size(); ++i) {
+			if (!scMatrix.isDecided(i, i)) {
+				scMatrix.set(i, i, (byte) 1);
+				final int testIndex = i;
 				final IDLClassReference<I, L, K, R> klass = abox.getDLTermFactory().
 					getDLClassReference(classList.get(i));
-				_logger.trace("Testing satisfiability of {}", klass);
-				final Collection<? extends IReasonerResult<I, L, K, R>> results = checkConsistency(abox, klass, true);
-			}
-		}
-
-		for (IDLTerm<I, L, K, R> desc : tbox.subSet(DLTermOrder.DL_IMPLIES)) {
-			final IDLImplies<I, L, K, R> imp = (IDLImplies<I, L, K, R>) desc;
-			if ((imp.getSubDescription() instanceof IDLClassReference)
-				&& (imp.getSuperDescription() instanceof IDLClassReference)) {
-				int i = Collections.binarySearch(classList, ((IDLClassReference<I, L, K, R>) imp.
-												 getSubDescription()).getElement());
-				int j = Collections.binarySearch(classList, ((IDLClassReference<I, L, K, R>) imp.
-												 getSuperDescription()).getElement());
-				_logger.trace("{} implicitly asserted, marking", imp);
-				scMatrix[i][j] = 1;
+				satTests.add(new Callable<Void>() {
+					@Override
+					public Void call() throws EReasonerException
+					{
+						_logger.trace("Testing satisfiability of {}", klass);
+						try {
+							unsatisfiable[testIndex] = !ReasonerResult.hasModel(checkConsistency(abox, klass, true));
+						} catch (EInconsistencyException ex) {
+							unsatisfiable[testIndex] = true;
+						}
+						return null;
+					}
+				});
 			}
 		}
+		runAll(executor, satTests);
 
-		for (int row = 0; row < scMatrix.length; ++row) {
-			for (int col = 0; col < scMatrix.length; ++col) {
-				if (scMatrix[row][col] == 0) {
-					final IDLClassReference<I, L, K, R> subClass = baseABox.getDLTermFactory().
-						getDLClassReference(classList.get(row));
-					final IDLClassReference<I, L, K, R> superClass = baseABox.getDLTermFactory().
-						getDLClassReference(classList.get(col));
-					_logger.trace("Testing if (subClassOf {} {})", subClass, superClass);
-					boolean isSub = isSubClassOf(baseABox, subClass, superClass);
-
-					if (isSub) {
-						scMatrix[row][col] = 1;
-					} else {
-						scMatrix[row][col] = -1;
+		/**
+		 * Seed the matrix with syntactically known facts: unsatisfiable classes are subsumed by every class, told
+		 * subsumers subsume, told disjoint classes do not subsume a satisfiable class.
+		 */
+		final ToldHierarchy<I, L, K, R> toldHierarchy = new ToldHierarchy<>(tbox, abox.getDLTermFactory());
+		for (int i = 0; i < scMatrix.size(); ++i) {
+			if (unsatisfiable[i]) {
+				_logger.trace("{} is unsatisfiable, marking", classList.get(i));
+				for (int j = 0; j < scMatrix.size(); ++j) {
+					scMatrix.decide(i, j, true);
+				}
+			} else {
+				for (K told : toldHierarchy.getToldSubsumers(classList.get(i))) {
+					final int j = Collections.binarySearch(classList, told);
+					if (j >= 0) {
+						_logger.trace("(subClassOf {} {}) told, marking", classList.get(i), told);
+						scMatrix.decide(i, j, true);
 					}
-
-					propagateClassification(scMatrix, row, col);
 				}
 			}
 		}
-
-		/**
-		 * The dsMatrix contains the direct subclasses, only.
-		 *
-		 */
-		byte[][] dsMatrix = copy(scMatrix);
-
-		for (int i = 0; i < dsMatrix.length; ++i) {
-			for (int j = 0; j < dsMatrix[i].length; ++j) {
-				if (dsMatrix[i][j] == 1) {
-					for (int k = 0; k < dsMatrix.length; ++k) {
-						/* find a k, with i ⊑ k and k ⊑ j */
-						if ((i != k) && (j != k) && (dsMatrix[i][k] == 1) && (dsMatrix[k][j] == 1)) {
-							/* not a direct subclass */
-							dsMatrix[i][j] = 0;
-							break;
+		for (int i = 0; i < scMatrix.size(); ++i) {
+			if ((!unsatisfiable[i]) && (!toldHierarchy.getToldNegations(classList.get(i)).isEmpty())) {
+				for (int j = 0; j < scMatrix.size(); ++j) {
+					if ((!scMatrix.isDecided(i, j)) && toldHierarchy.isToldDisjoint(classList.get(i), classList.get(j))) {
+						_logger.trace("{} and {} told disjoint, marking", classList.get(i), classList.get(j));
+						scMatrix.decide(i, j, false);
+						if (!unsatisfiable[j]) {
+							scMatrix.decide(j, i, false);
 						}
 					}
 				}
@@ -200,76 +230,81 @@ public abstract class AbstractReasoner<I extends Comparable<? super I>, L extend
 		}
 
 		/**
-		 * clone the input ABox and add all direct subclass assertions to the clone
-		 *
+		 * Subsumption tests are grouped by row. Each row task skips all tests that have already been decided, either
+		 * directly or by propagation from another test.
 		 */
-		final IABox<I, L, K, R> classifiedABox = abox.clone();
-		final ITBox<I, L, K, R> classifiedTBox = classifiedABox.getTBox();
-		for (int i = 0; i < dsMatrix.length; ++i) {
-			for (int j = 0; j < dsMatrix.length; ++j) {
-				if ((i != j) && (dsMatrix[i][j] == 1)) {
-					final IDLClassReference<I, L, K, R> subClass = classifiedABox.getDLTermFactory().
-						getDLClassReference(classList.get(i));
-					final IDLClassReference<I, L, K, R> superClass = classifiedABox.getDLTermFactory().
-						getDLClassReference(classList.get(j));
-					final IDLImplies<I, L, K, R> imp = classifiedABox.getDLTermFactory().getDLImplies(subClass,
-																									  superClass);
-					classifications.add(imp);
+		final List<Callable<Void>> subTests = new ArrayList<>();
+		for (int row = 0; row < scMatrix.size(); ++row) {
+			final int testRow = row;
+			subTests.add(new Callable<Void>() {
+				@Override
+				public Void call() throws EReasonerException, EInconsistencyException
+				{
+					for (int col = 0; col < scMatrix.size(); ++col) {
+						if (!scMatrix.isDecided(testRow, col)) {
+							final IDLClassReference<I, L, K, R> subClass = baseABox.getDLTermFactory().
+								getDLClassReference(classList.get(testRow));
+							final IDLClassReference<I, L, K, R> superClass = baseABox.getDLTermFactory().
+								getDLClassReference(classList.get(col));
+							_logger.trace("Testing if (subClassOf {} {})", subClass, superClass);
+							final boolean isSub = isSubClassOf(baseABox, subClass, superClass);
+							scMatrix.decide(testRow, col, isSub);
+						}
+					}
+					return null;
 				}
-			}
+			});
 		}
+		runAll(executor, subTests);
 
-		return classifications;
-	}
-
-	private void propagateClassification(
-		final byte cfMatrix[][], final int changedRow, final int changedCol)
-	{
-		/**
-		 * (cgMatrix[i][j] == 1) ==> (i ⊑ j) (cgMatrix[i][j] == -1) ==> ¬(i ⊑ j)
-		 */
-		final Queue<Point> queue = new LinkedList<>();
-		queue.add(new Point(changedRow, changedCol));
-
-		while (!queue.isEmpty()) {
-			final Point item = queue.remove();
-			_logger.trace("Propagating from change at {}", item);
-			final int i = item.x;
-			final int j = item.y;
-			final int ij = cfMatrix[i][j];
-			for (int s = 0; s < cfMatrix.length; ++s) {
-				if (ij == 1) {
-					if ((cfMatrix[s][i] == 1) && (cfMatrix[s][j] == 0)) {
-						/* i ⊑ j, s ⊑ i => s ⊑ j */
-						cfMatrix[s][j] = 1;
-						queue.add(new Point(s, j));
-					}
-				} else if (ij == -1) {
-					if ((cfMatrix[s][j] == 1) && (cfMatrix[i][s] == 0)) {
-						cfMatrix[i][s] = -1;
-						queue.add(new Point(s, j));
+		for (int i = 0; i < scMatrix.size(); ++i) {
+			final K subClass = classList.get(i);
+			if (unsatisfiable[i]) {
+				builder.addKnownUnsatisfiable(subClass);
+			} else {
+				builder.addKnownSatisfiable(subClass);
+				for (int j = 0; j < scMatrix.size(); ++j) {
+					if (scMatrix.isDecided(i, j)) {
+						builder.addKnownSubsumption(subClass, classList.get(j), scMatrix.get(i, j) == 1);
 					}
 				}
 			}
 		}
 	}
 
-	private byte[][] createSquareMatrixArray(final List<K> classList)
+	/**
+	 * Return the executor used to run independent satisfiability and subsumption tests during
+	 * {@link #classify(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox)}.
+	 * <p />
+	 * The default implementation returns {@literal null}, which builds the class hierarchy sequentially in the calling
+	 * thread using a {@link TaxonomyBuilder}. Reasoners that are safe to call concurrently may override this to
+	 * classify in parallel.
+	 *
+	 * @return The executor for classification tests or {@literal null}.
+	 */
+	protected ExecutorService getClassificationExecutor()
 	{
-		byte[][] scMatrix = new byte[classList.size()][];
-		for (int i = 0; i < scMatrix.length; ++i) {
-			scMatrix[i] = new byte[classList.size()];
-			Arrays.fill(scMatrix[i], (byte) 0);
-		}
-		return scMatrix;
+		return null;
 	}
 
-	private byte[][] copy(final byte[][] src)
+	private void runAll(final ExecutorService executor, final List<Callable<Void>> tasks)
+		throws EReasonerException, EInconsistencyException
 	{
-		byte[][] tgt = new byte[src.length][];
-		for (int i = 0; i < tgt.length; ++i) {
-			tgt[i] = Arrays.copyOf(src[i], src[i].length);
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				try {
+					future.get();
+				} catch (ExecutionException ex) {
+					throw ex.getCause();
+				}
+			}
+		} catch (EReasonerException | EInconsistencyException | RuntimeException | Error ex) {
+			throw ex;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new EReasonerException("Classification interrupted", ex);
+		} catch (Throwable ex) {
+			throw new EReasonerException(ex);
 		}
-		return tgt;
 	}
 }
@@ -22,15 +22,24 @@
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
 
 import de.dhke.projects.cutil.collections.map.TransitiveHashMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.INodeMergeListener;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.BranchCreationInfo;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.IBranchAction;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 
@@ -48,6 +57,10 @@ import java.util.Map;
  * {@link #touchAll(java.util.Collection) },
  * {@link #touchNode(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode)}, and {@link #touchNodes(java.util.Collection)
  * } methods.
+ * <p />
+ * When trailing is enabled via {@link #enableTrail() }, the branch does not fork. Instead, each branching point is
+ * recorded as a choice point on the undo trail of the branch's ABox and the alternatives are explored one after the
+ * other on the same ABox via {@link #backtrack(de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ConsistencyInfo) }.
  *
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -68,9 +81,45 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 	private final NodeMergeListener _mergeListener = new NodeMergeListener();
 	private Map<NodeID, NodeID> _mergeMap = null;
 	private ConsistencyInfo<I, L, K, R> _consistencyInfo;
+	/**
+	 * The open choice points, innermost first. {@literal null}, if trailing is not enabled.
+	 */
+	private Deque<ChoicePoint> _choicePoints = null;
+	/**
+	 * The metrics of the current query, shared with all clones of the branch.
+	 */
+	private ReasonerMetrics _metrics;
+	/**
+	 * The nogoods learned during the current query, shared with all clones of the branch.
+	 */
+	private NogoodStore<I, L, K, R> _nogoods;
+	/**
+	 * The resource budget of the current query, shared with all clones of the branch.
+	 */
+	private ReasonerBudget _budget;
 
 	public Branch(final IABox<I, L, K, R> abox, final boolean enableMergeTracking)
 	{
+		this(abox, enableMergeTracking, new ReasonerMetrics());
+	}
+
+	public Branch(final IABox<I, L, K, R> abox, final boolean enableMergeTracking, final ReasonerMetrics metrics)
+	{
+		this(abox, enableMergeTracking, metrics, new NogoodStore<I, L, K, R>(0));
+	}
+
+	public Branch(final IABox<I, L, K, R> abox, final boolean enableMergeTracking, final ReasonerMetrics metrics,
+				  final NogoodStore<I, L, K, R> nogoods)
+	{
+		this(abox, enableMergeTracking, metrics, nogoods, ReasonerBudget.unlimited());
+	}
+
+	public Branch(final IABox<I, L, K, R> abox, final boolean enableMergeTracking, final ReasonerMetrics metrics,
+				  final NogoodStore<I, L, K, R> nogoods, final ReasonerBudget budget)
+	{
+		_metrics = metrics;
+		_nogoods = nogoods;
+		_budget = budget;
 		if (enableMergeTracking) {
 			_mergeMap = new TransitiveHashMap<>();
 		}
@@ -80,8 +129,12 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 		_consistencyInfo = new ConsistencyInfo<>();
 	}
 
-	private Branch(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap)
+	private Branch(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap, final ReasonerMetrics metrics,
+				   final NogoodStore<I, L, K, R> nogoods, final ReasonerBudget budget)
 	{
+		_metrics = metrics;
+		_nogoods = nogoods;
+		_budget = budget;
 		if (mergeMap != null) {
 			_mergeMap = new TransitiveHashMap<>(mergeMap);
 		}
@@ -102,6 +155,30 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 		return _consistencyInfo;
 	}
 
+	/**
+	 * @return The metrics of the query this branch belongs to.
+	 */
+	public ReasonerMetrics getMetrics()
+	{
+		return _metrics;
+	}
+
+	/**
+	 * @return The nogoods learned during the query this branch belongs to.
+	 */
+	public NogoodStore<I, L, K, R> getNogoods()
+	{
+		return _nogoods;
+	}
+
+	/**
+	 * @return The resource budget of the query this branch belongs to.
+	 */
+	public ReasonerBudget getBudget()
+	{
+		return _budget;
+	}
+
 	/**
 	 * @return The branch's {@link ABox}.
 	 */
@@ -114,17 +191,24 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 	{
 		final IABox<I, L, K, R> abox = getABox();
 
-		final Map<NodeID, NodeID> mergeMap = _mergeMap;
-		if (_mergeMap != null) {
-			boolean removed = _abox.getNodeMergeListeners().remove(_mergeListener);
-			assert removed;
-			_mergeMap = null;
-
+		if (_choicePoints != null) {
+			final Iterator<ChoicePoint> iter = _choicePoints.descendingIterator();
+			while (iter.hasNext()) {
+				final ChoicePoint choicePoint = iter.next();
+				if (!choicePoint._isExhausted) {
+					/* the outermost checkpoint still on the trail */
+					abox.popCheckpoint(choicePoint._checkpoint);
+					break;
+				}
+			}
+			_choicePoints.clear();
 		}
-		assert !_abox.getNodeMergeListeners().contains(_mergeListener);
+
+		final Map<NodeID, NodeID> mergeMap = _mergeMap;
 		setABox(null);
+		_mergeMap = null;
 
-		return ReasonerResult.create(abox, mergeMap);
+		return ReasonerResult.create(abox, mergeMap, _metrics);
 	}
 
 	@Override
@@ -135,7 +219,8 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 		 */
 		final IABox<I, L, K, R> aboxClone = cloneABox();
 
-		final Branch<I, L, K, R> klone = new Branch<>(aboxClone, _mergeMap);
+		final Branch<I, L, K, R> klone = new Branch<>(aboxClone, _mergeMap, _metrics, _nogoods, _budget);
+		_metrics.countBranchesCreated(1);
 
 		return klone;
 	}
@@ -183,6 +268,159 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 	}
 	/// </editor-fold>
 
+	/// <editor-fold defaultstate="collapsed" desc="Trail">
+	/**
+	 * Switch the current branch to trail based backtracking.
+	 */
+	public void enableTrail()
+	{
+		if (_choicePoints == null) {
+			_choicePoints = new ArrayDeque<>();
+		}
+	}
+
+	/**
+	 * @return {@literal true} if the current branch explores alternatives in place instead of forking.
+	 */
+	public boolean isTrailing()
+	{
+		return _choicePoints != null;
+	}
+
+	/**
+	 * @return {@literal true} if there are choice points with untried alternatives.
+	 */
+	public boolean hasChoicePoints()
+	{
+		if (_choicePoints != null) {
+			for (ChoicePoint choicePoint : _choicePoints) {
+				if (!choicePoint._isExhausted) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Open a new choice point and apply the first of {@literal alternatives} that can be committed.
+	 * <p />
+	 * The choice point opens a new branching level in the {@link IDependencyMap} of the branch's ABox. The remaining
+	 * alternatives are kept and tried in order by later calls to {@link #backtrack(de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ConsistencyInfo)
+	 * }.
+	 *
+	 * @param alternatives The alternatives of the choice point, in order.
+	 * @param isComplete {@literal false}, if other alternatives of the branching point were rejected in advance.
+	 * @return Information about the applied alternative or {@literal null} if no alternative could be applied.
+	 */
+	public BranchCreationInfo<I, L, K, R> pushChoicePoint(final List<? extends IBranchAction<I, L, K, R>> alternatives,
+														  final boolean isComplete)
+	{
+		assert isTrailing();
+		final int checkpoint = _abox.pushCheckpoint();
+		final ChoicePoint choicePoint = new ChoicePoint(checkpoint, _abox.getDependencyMap().getBranchLevel() + 1,
+			alternatives, _mergeMap, isComplete);
+		_choicePoints.push(choicePoint);
+		_metrics.countBranchesCreated(alternatives.size() - 1);
+		return resume(choicePoint);
+	}
+
+	/**
+	 * Undo the current branch up to the innermost choice point the clash described by {@literal clashInfo} depends
+	 * on and apply the next alternative of that choice point (dependency directed backtracking).
+	 * <p />
+	 * Choice points the clash does not depend on are skipped including all of their remaining alternatives, just
+	 * like pruned sibling branches in the branch tree. When all alternatives of a choice point have failed,
+	 * backtracking continues with the combined dependencies of these failures. If the dependencies of a clash are
+	 * not known, backtracking is chronological.
+	 *
+	 * @param clashInfo The clash information of the abandoned state.
+	 * @return {@literal true} if an alternative was applied, {@literal false} if the search space is exhausted.
+	 */
+	public boolean backtrack(final ConsistencyInfo<I, L, K, R> clashInfo)
+	{
+		assert isTrailing();
+		BranchDependencySet dependencies = clashInfo.getBranchDependencies();
+		while (!_choicePoints.isEmpty()) {
+			final ChoicePoint choicePoint = _choicePoints.peek();
+			if ((dependencies != null) && (!dependencies.contains(choicePoint._level))) {
+				/* the clash does not depend on this choice point, skip it */
+				_choicePoints.pop();
+				if (!choicePoint._isExhausted) {
+					_abox.popCheckpoint(choicePoint._checkpoint);
+					_metrics.countBranchPruned();
+				}
+			} else {
+				choicePoint.addFailure(dependencies);
+				if ((!choicePoint._isExhausted) && (resume(choicePoint) != null)) {
+					return true;
+				}
+				if ((!_choicePoints.isEmpty()) && (_choicePoints.peek() == choicePoint)) {
+					_choicePoints.pop();
+				}
+				dependencies = choicePoint._failureDependencies;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Create a result from a copy of the current ABox, so that the search can go on afterwards.
+	 *
+	 * @return A {@link ReasonerResult} for the current state.
+	 */
+	public ReasonerResult<I, L, K, R> snapshot()
+	{
+		if (_mergeMap != null) {
+			return ReasonerResult.create(cloneABox(), new TransitiveHashMap<>(_mergeMap), _metrics);
+		} else {
+			return ReasonerResult.create(cloneABox(), null, _metrics);
+		}
+	}
+
+	private BranchCreationInfo<I, L, K, R> resume(final ChoicePoint choicePoint)
+	{
+		while (choicePoint._alternatives.hasNext()) {
+			final IBranchAction<I, L, K, R> action = choicePoint._alternatives.next();
+			final int alternative = choicePoint._nextAlternative++;
+			if (choicePoint._wasApplied) {
+				_abox.rollback(choicePoint._checkpoint);
+				if (choicePoint._mergeMap != null) {
+					_mergeMap = new TransitiveHashMap<>(choicePoint._mergeMap);
+				}
+				_consistencyInfo = new ConsistencyInfo<>();
+			}
+			choicePoint._wasApplied = true;
+			if (!choicePoint._alternatives.hasNext()) {
+				/*
+				 * last alternative, the checkpoint is no longer needed. The choice point stays open to collect
+				 * the dependencies of the failures of its alternatives.
+				 */
+				choicePoint._isExhausted = true;
+				_abox.popCheckpoint(choicePoint._checkpoint);
+			}
+			final IDependencyMap<I, L, K, R> depMap = _abox.getDependencyMap();
+			final BranchDependencySet actionDependencies = depMap.getActionDependencies();
+			final int level = depMap.openBranchLevel(alternative);
+			assert level == choicePoint._level;
+			depMap.setActionDependencies(actionDependencies.union(BranchDependencySet.of(level)));
+			try {
+				final NodeMergeInfo<I, L, K, R> mergeInfo = action.commit(this);
+				return new BranchCreationInfo<>(this, action, mergeInfo);
+			} catch (ENodeMergeException ex) {
+				/* we do not know, why the alternative failed */
+				choicePoint.addFailure(null);
+			} finally {
+				depMap.setActionDependencies(actionDependencies);
+			}
+		}
+		if ((!_choicePoints.isEmpty()) && (_choicePoints.peek() == choicePoint)) {
+			_choicePoints.pop();
+		}
+		return null;
+	}
+	/// </editor-fold>
+
 	/// <editor-fold defaultstate="collapsed" desc="Merge tracking">
 	public Map<NodeID, NodeID> getMergeMap()
 	{
@@ -199,19 +437,14 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 	{
 		if (abox != _abox) {
 			if (_abox != null) {
-				if (_mergeMap != null) {
-					assert _mergeListener != null;
-					_abox.getNodeMergeListeners().remove(_mergeListener);
-				}
+				_abox.getNodeMergeListeners().remove(_mergeListener);
 				assert !_abox.getNodeMergeListeners().contains(_mergeListener);
 			}
 			if (abox != null) {
 				/*
-				 * add node merge listener only if merge tracking is enabled
+				 * the merge listener counts merges and records them, if merge tracking is enabled
 				 */
-				if (_mergeMap != null) {
-					abox.getNodeMergeListeners().add(_mergeListener);
-				}
+				abox.getNodeMergeListeners().add(_mergeListener);
 			}
 			_abox = abox;
 		}
@@ -221,17 +454,63 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 	private IABox<I, L, K, R> cloneABox()
 	{
 		if (_abox != null) {
-			if (_mergeMap != null) {
-				_abox.getNodeMergeListeners().remove(_mergeListener);
-			};
+			_abox.getNodeMergeListeners().remove(_mergeListener);
 			final IABox<I, L, K, R> aboxClone = _abox.clone();
 			_abox.getNodeMergeListeners().add(_mergeListener);
+			_metrics.countABoxClone(aboxClone.size());
 			return aboxClone;
 		} else {
 			return null;
 		}
 	}
 
+	/// <editor-fold defaultstate="collapsed" desc="class ChoicePoint">
+	/**
+	 * A branching point on the trail: the ABox checkpoint taken before the first alternative was applied, the
+	 * branching level of the choice point and the alternatives not tried yet.
+	 * <p />
+	 * A choice point stays on the trail after its last alternative was applied (it is then exhausted), so that
+	 * the branching levels of the open choice points remain unique.
+	 */
+	private final class ChoicePoint {
+		private final int _checkpoint;
+		private final int _level;
+		private final Iterator<? extends IBranchAction<I, L, K, R>> _alternatives;
+		private final Map<NodeID, NodeID> _mergeMap;
+		private int _nextAlternative = 0;
+		private boolean _wasApplied = false;
+		private boolean _isExhausted = false;
+		/**
+		 * The branching levels the failures of the alternatives tried so far depend on, except for the level of the
+		 * choice point itself. {@literal null}, if unknown.
+		 */
+		private BranchDependencySet _failureDependencies;
+
+		ChoicePoint(final int checkpoint, final int level, final List<? extends IBranchAction<I, L, K, R>> alternatives,
+					final Map<NodeID, NodeID> mergeMap, final boolean isComplete)
+		{
+			_checkpoint = checkpoint;
+			_level = level;
+			_alternatives = alternatives.iterator();
+			if (mergeMap != null) {
+				_mergeMap = new TransitiveHashMap<>(mergeMap);
+			} else {
+				_mergeMap = null;
+			}
+			_failureDependencies = isComplete ? BranchDependencySet.EMPTY : null;
+		}
+
+		void addFailure(final BranchDependencySet dependencies)
+		{
+			if (dependencies == null) {
+				_failureDependencies = null;
+			} else if (_failureDependencies != null) {
+				_failureDependencies = _failureDependencies.union(dependencies.without(_level));
+			}
+		}
+	}
+	/// </editor-fold>
+
 	/// <editor-fold defaultstate="collaped" desc="class NodeMergeListener">
 
 	final class NodeMergeListener
@@ -240,8 +519,10 @@ public class Branch<I extends Comparable<? super I>, L extends Comparable<? supe
 		public void beforeNodeMerge(IABoxNode<I, L, K, R> source,
 									IABoxNode<I, L, K, R> target)
 		{
-			assert _mergeMap != null;
-			_mergeMap.put(source.getNodeID(), target.getNodeID());
+			_metrics.countNodeMerge();
+			if (_mergeMap != null) {
+				_mergeMap.put(source.getNodeID(), target.getNodeID());
+			}
 		}
 	}
 	/// </editor-fold>
@@ -39,6 +39,70 @@ public class BranchTree<I extends Comparable<? super I>, L extends Comparable<?
 	extends DecisionTree<Branch<I, L, K, R>> {
 
 	private static final long serialVersionUID = 3820019753050796191L;
+	/**
+	 * The number of leaves (open branches) currently in the tree.
+	 */
+	private int _size = 0;
+	/**
+	 * The maximum of {@link #_size} since the tree was created.
+	 */
+	private int _peakSize = 0;
+
+
+	@Override
+	public Node<Branch<I, L, K, R>> fork(final Node<Branch<I, L, K, R>> sibling, final Branch<I, L, K, R> data)
+	{
+		final Node<Branch<I, L, K, R>> newNode = super.fork(sibling, data);
+		updateSize(1);
+		return newNode;
+	}
+
+
+	@Override
+	public Node<Branch<I, L, K, R>> branch(final Node<Branch<I, L, K, R>> sibling, final Branch<I, L, K, R> data)
+	{
+		final Node<Branch<I, L, K, R>> newNode = super.branch(sibling, data);
+		updateSize(1);
+		return newNode;
+	}
+
+
+	@Override
+	public void remove(final Node<Branch<I, L, K, R>> node, final boolean pullChildren)
+	{
+		final boolean isLeaf = node.hasData() && (!node.hasChildren());
+		super.remove(node, pullChildren);
+		if (isLeaf) {
+			updateSize(-1);
+		}
+	}
+
+
+	/**
+	 * @return The number of open branches in the tree.
+	 */
+	public int getSize()
+	{
+		return _size;
+	}
+
+
+	/**
+	 * @return The maximum number of open branches the tree contained at any time.
+	 */
+	public int getPeakSize()
+	{
+		return _peakSize;
+	}
+
+
+	private void updateSize(final int delta)
+	{
+		_size += delta;
+		if (_size > _peakSize) {
+			_peakSize = _size;
+		}
+	}
 
 
 	public String getBranchID(final Node<Branch<I, L, K, R>> node)
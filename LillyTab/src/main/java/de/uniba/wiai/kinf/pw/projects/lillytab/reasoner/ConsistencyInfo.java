@@ -24,6 +24,7 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
 import de.dhke.projects.cutil.collections.ExtractorCollection;
 import de.dhke.projects.cutil.collections.frozen.FrozenFlat3Set;
 import de.dhke.projects.cutil.collections.set.Flat3Set;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
@@ -40,6 +41,13 @@ import org.apache.commons.collections15.Transformer;
 
 
 /**
+ *
+ * Information about the consistency of a branch and the clashes found in it.
+ * <p />
+ * Besides the culprit terms of the recorded clashes, the consistency information keeps the union of the
+ * {@link BranchDependencySet branching levels} of the culprits and the branch path they were found on. A clash
+ * recurs in every branch that made the same choices up to the highest branching level the clash depends on
+ * (see {@link #recursIn(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox) }).
  *
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -55,6 +63,18 @@ public final class ConsistencyInfo<I extends Comparable<? super I>, L extends Co
 	 * The culprit set contains information about the ... XXX
 	 */
 	private final Set<Set<Set<TermEntry<I, L, K, R>>>> _culprits;
+	/**
+	 * The branching levels the culprits depend on.
+	 */
+	private BranchDependencySet _dependencies = BranchDependencySet.EMPTY;
+	/**
+	 * The branch path the culprits were found on.
+	 */
+	private int[] _branchPath = null;
+	/**
+	 * Set, if culprits were recorded without an ABox to determine their dependencies.
+	 */
+	private boolean _hasUntrackedCulprits = false;
 
 	public ConsistencyInfo(final ClashType clashType)
 	{
@@ -124,13 +144,20 @@ public final class ConsistencyInfo<I extends Comparable<? super I>, L extends Co
 		final IDependencyMap<I, L, K, R> depMap;
 		if (abox == null) {
 			depMap = null;
+			_hasUntrackedCulprits = true;
 		} else {
 			depMap = abox.getDependencyMap();
+			if ((_branchPath == null) || (_branchPath.length < depMap.getBranchLevel())) {
+				_branchPath = depMap.getBranchPath();
+			}
 		}
 
 		final Set<Set<TermEntry<I, L, K, R>>> culpritsSet = new Flat3Set<>();
 		for (Collection<TermEntry<I, L, K, R>> culpritEntries : culpritEntrySets) {
 			for (TermEntry<I, L, K, R> culpritEntry : culpritEntries) {
+				if (depMap != null) {
+					_dependencies = _dependencies.union(depMap.getBranchDependencies(culpritEntry));
+				}
 				final Set<TermEntry<I, L, K, R>> altSet = new Flat3Set<>();
 				TermEntry<I, L, K, R> currentEntry = culpritEntry;
 				while ((depMap != null) && (currentEntry != null) && altSet.add(currentEntry)) {
@@ -189,10 +216,68 @@ public final class ConsistencyInfo<I extends Comparable<? super I>, L extends Co
 		return false;
 	}
 
+	/**
+	 * 
+	 * Determine if the clash described by the current {@link ConsistencyInfo} also occurs in {@literal abox}.
+	 * <p />
+	 * This is the case, if {@literal abox} made the same branching decisions as the branch of the clash up to the
+	 * highest branching level the clash depends on. The check takes time linear in that level.
+	 * If the dependencies of the clash are not known, this falls back to
+	 * {@link #hasClashingTerms(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox) }.
+	 *
+	 * @param abox The {@link IABox} to check against.
+	 * @return {@literal true}, if the recorded clash is known to occur in {@literal abox}.
+	 */
+	public boolean recursIn(final IABox<I, L, K, R> abox)
+	{
+		final BranchDependencySet dependencies = getBranchDependencies();
+		if (dependencies == null) {
+			return hasClashingTerms(abox);
+		} else {
+			return abox.getDependencyMap().isOnBranchPath(_branchPath, dependencies.max());
+		}
+	}
+
+	/**
+	 * @return The branching levels the recorded clashes depend on or {@literal null}, if the dependencies are not
+	 * known (e.g. because no culprits were recorded).
+	 */
+	public BranchDependencySet getBranchDependencies()
+	{
+		if (_culprits.isEmpty() || _hasUntrackedCulprits || (_branchPath == null)) {
+			return null;
+		} else {
+			return _dependencies;
+		}
+	}
+
+	/**
+	 * @return The alternatives chosen at each branching level of the branch the clashes were recorded in or
+	 * {@literal null}, if not known. The array is shared and must not be modified.
+	 */
+	public int[] getBranchPath()
+	{
+		return _branchPath;
+	}
+
+	/**
+	 * @return The recorded clashes. Each clash is a set of alternative sets, the clash is present, if at least one
+	 * entry of every alternative set is present.
+	 */
+	public Set<Set<Set<TermEntry<I, L, K, R>>>> getCulprits()
+	{
+		return Collections.unmodifiableSet(_culprits);
+	}
+
 	public ConsistencyInfo<I, L, K, R> updateFrom(final ConsistencyInfo<I, L, K, R> other)
 	{
 		upgradeClashType(other.getClashType());
 		_culprits.addAll(other._culprits);
+		_dependencies = _dependencies.union(other._dependencies);
+		_hasUntrackedCulprits |= other._hasUntrackedCulprits;
+		if ((other._branchPath != null) && ((_branchPath == null) || (_branchPath.length < other._branchPath.length))) {
+			_branchPath = other._branchPath;
+		}
 		return this;
 	}
 
@@ -0,0 +1,56 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+/**
+ * Thrown by queries with a boolean answer, if their {@link ReasonerBudget} ran out before the answer was known.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class EReasonerBudgetException
+	extends EReasonerException {
+
+	private static final long serialVersionUID = 3815473024618305917L;
+	private final ReasonerBudget.Limit _limit;
+
+
+	/**
+	 * Constructs an instance of
+	 * <code>EReasonerBudgetException</code> for the exhausted limit.
+	 *
+	 * @param limit The limit that was hit, if known.
+	 */
+	public EReasonerBudgetException(final ReasonerBudget.Limit limit)
+	{
+		super("Reasoner budget exhausted: " + limit);
+		_limit = limit;
+	}
+
+
+	/**
+	 * @return The limit that was hit, if known.
+	 */
+	public ReasonerBudget.Limit getLimit()
+	{
+		return _limit;
+	}
+}
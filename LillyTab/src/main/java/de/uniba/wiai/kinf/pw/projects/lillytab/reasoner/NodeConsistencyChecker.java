@@ -31,6 +31,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IRABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntryFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.util.TermSetUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleProperty;
@@ -169,6 +170,11 @@ public class NodeConsistencyChecker<I extends Comparable<? super I>, L extends C
 			return clashTermSets;
 		}
 
+		if (((extraDescs == null) || extraDescs.isEmpty()) && !TermSetUtil.mayContainNegationPair(node.getTerms())) {
+			/* term IDs show no negation pair, skip the term-by-term check */
+			return clashTermSets;
+		}
+
 		termColl.add(node.getTerms());
 		if (extraDescs != null) {
 			for (IDLTerm<I, L, K, R> desc : extraDescs) {
@@ -0,0 +1,343 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * A bounded store of nogoods learned from clashes during a single query.
+ * <p />
+ * A nogood is a clash description taken from a {@link ConsistencyInfo}: a set of alternative sets of
+ * {@link TermEntry}s. A state contains the nogood, if it contains at least one entry of every alternative set. Branch
+ * actions that complete a nogood can be rejected before a branch is cloned for them, see
+ * {@link de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.BranchActionList}.
+ * <p />
+ * Term entries are matched by node ID and term. Node IDs of anonymous nodes are not unique across branches and an
+ * alternative set may contain entries (like parent terms) that do not clash on their own. A nogood thus only applies
+ * to branches that made the same choices as the branch it was learned in, up to the deepest branching level the clash
+ * depends on (see {@link ConsistencyInfo#recursIn(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox) }). Clashes
+ * with unknown dependencies are not learned.
+ * <p />
+ * Only minimal nogoods are kept: a new nogood is ignored, if it is a superset of an already known nogood that applies
+ * to at least the same branches, and such known nogoods that are supersets of a new nogood are discarded. The store
+ * discards the least recently used nogoods when it grows beyond its capacity. A store with a capacity of zero learns
+ * nothing.
+ * <p />
+ * The store is shared by all branches of a query and is safe for use by multiple threads.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class NogoodStore<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private final int _capacity;
+	/**
+	 * The known nogoods, least recently used first.
+	 */
+	private final LinkedHashMap<Set<Set<TermEntry<I, L, K, R>>>, Boolean> _nogoods;
+	/**
+	 * Maps each known nogood to the branch path prefix it applies to.
+	 */
+	private final Map<Set<Set<TermEntry<I, L, K, R>>>, int[]> _branchPrefixes;
+	/**
+	 * Maps each term entry to the nogoods that mention it.
+	 */
+	private final Map<TermEntry<I, L, K, R>, Set<Set<Set<TermEntry<I, L, K, R>>>>> _index;
+	private long _evictions = 0;
+
+	public NogoodStore(final int capacity)
+	{
+		_capacity = capacity;
+		_nogoods = new LinkedHashMap<>(16, 0.75f, true);
+		_index = new HashMap<>();
+		_branchPrefixes = new HashMap<>();
+	}
+
+	public int getCapacity()
+	{
+		return _capacity;
+	}
+
+	public synchronized int size()
+	{
+		return _nogoods.size();
+	}
+
+	/**
+	 * @return The number of nogoods discarded because the store was full.
+	 */
+	public synchronized long getEvictions()
+	{
+		return _evictions;
+	}
+
+	/**
+	 * Learn all clashes recorded in {@literal cInfo}.
+	 * <p />
+	 * Nothing is learned, if the branching levels the clashes depend on are not known.
+	 *
+	 * @param cInfo The consistency information of an inconsistent branch.
+	 * @return The number of nogoods actually added.
+	 */
+	public int learn(final ConsistencyInfo<I, L, K, R> cInfo)
+	{
+		int nAdded = 0;
+		if ((_capacity > 0) && cInfo.isInconsistent()) {
+			final BranchDependencySet dependencies = cInfo.getBranchDependencies();
+			if ((dependencies != null) && (dependencies.max() <= cInfo.getBranchPath().length)) {
+				final int[] branchPrefix = Arrays.copyOf(cInfo.getBranchPath(), dependencies.max());
+				for (Set<Set<TermEntry<I, L, K, R>>> clash : cInfo.getCulprits()) {
+					if (learn(clash, branchPrefix)) {
+						++nAdded;
+					}
+				}
+			}
+		}
+		return nAdded;
+	}
+
+	/**
+	 * Learn a single clash that applies to all branches.
+	 * <p />
+	 * The caller must guarantee that the clash holds unconditionally, i.e. that its entries clash no matter which
+	 * choices led to them. Clashes found by the reasoner depend on the branch they were found in and must be learned
+	 * with their branch prefix (see {@link #learn(java.util.Set, int[]) }).
+	 *
+	 * @param nogood The clash description.
+	 * @return {@literal true}, if {@literal nogood} was added, {@literal false} if it was empty or a subset of it was
+	 * already known.
+	 */
+	boolean learnGlobal(final Set<Set<TermEntry<I, L, K, R>>> nogood)
+	{
+		return learn(nogood, new int[0]);
+	}
+
+	/**
+	 * Learn a single clash.
+	 *
+	 * @param nogood The clash description.
+	 * @param branchPrefix The choices made up to the deepest branching level the clash depends on (see
+	 * {@link de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap#getBranchPath() }). The nogood only applies
+	 * to branches that made the same choices.
+	 * @return {@literal true}, if {@literal nogood} was added, {@literal false} if it was empty or a subset of it was
+	 * already known.
+	 */
+	public synchronized boolean learn(final Set<Set<TermEntry<I, L, K, R>>> nogood, final int[] branchPrefix)
+	{
+		if ((_capacity <= 0) || nogood.isEmpty()) {
+			return false;
+		}
+		final List<Set<Set<TermEntry<I, L, K, R>>>> supersets = new ArrayList<>();
+		for (Set<Set<TermEntry<I, L, K, R>>> known : getRelatedNogoods(nogood)) {
+			final int[] knownPrefix = _branchPrefixes.get(known);
+			if (nogood.containsAll(known) && isPrefix(knownPrefix, branchPrefix)) {
+				/* refresh the more general nogood */
+				_nogoods.get(known);
+				return false;
+			} else if (known.containsAll(nogood) && isPrefix(branchPrefix, knownPrefix)) {
+				supersets.add(known);
+			}
+		}
+		for (Set<Set<TermEntry<I, L, K, R>>> superset : supersets) {
+			remove(superset);
+		}
+		if (_nogoods.containsKey(nogood)) {
+			/* the same clash, learned on an unrelated branch. Keep the known one */
+			return false;
+		}
+
+		_nogoods.put(nogood, Boolean.TRUE);
+		_branchPrefixes.put(nogood, branchPrefix);
+		for (Set<TermEntry<I, L, K, R>> altSet : nogood) {
+			for (TermEntry<I, L, K, R> entry : altSet) {
+				Set<Set<Set<TermEntry<I, L, K, R>>>> entryNogoods = _index.get(entry);
+				if (entryNogoods == null) {
+					entryNogoods = new HashSet<>();
+					_index.put(entry, entryNogoods);
+				}
+				entryNogoods.add(nogood);
+			}
+		}
+
+		final Iterator<Set<Set<TermEntry<I, L, K, R>>>> iter = _nogoods.keySet().iterator();
+		while (_nogoods.size() > _capacity) {
+			final Set<Set<TermEntry<I, L, K, R>>> eldest = iter.next();
+			iter.remove();
+			unindex(eldest);
+			++_evictions;
+		}
+		return true;
+	}
+
+	/**
+	 * Check, if adding {@literal addedEntries} to {@literal abox} completes a known nogood.
+	 * <p />
+	 * Only nogoods that mention at least one of {@literal addedEntries} and that apply to the current branch of
+	 * {@literal abox} are considered. The candidates are copied while holding the store's lock, the (possibly
+	 * expensive) checks against {@literal abox} run without it.
+	 *
+	 * @param abox The current ABox
+	 * @param addedEntries The term entries that would be added to {@literal abox}
+	 * @return {@literal true}, if {@literal abox} together with {@literal addedEntries} is known to be inconsistent.
+	 */
+	public boolean isNogood(final IABox<I, L, K, R> abox, final Collection<TermEntry<I, L, K, R>> addedEntries)
+	{
+		if (addedEntries.isEmpty()) {
+			return false;
+		}
+		final Map<Set<Set<TermEntry<I, L, K, R>>>, int[]> candidates = new HashMap<>();
+		synchronized (this) {
+			if (_nogoods.isEmpty()) {
+				return false;
+			}
+			for (Set<Set<TermEntry<I, L, K, R>>> nogood : getCandidates(addedEntries)) {
+				candidates.put(nogood, _branchPrefixes.get(nogood));
+			}
+		}
+		final IDependencyMap<I, L, K, R> depMap = abox.getDependencyMap();
+		for (Map.Entry<Set<Set<TermEntry<I, L, K, R>>>, int[]> candidate : candidates.entrySet()) {
+			final Set<Set<TermEntry<I, L, K, R>>> nogood = candidate.getKey();
+			final int[] branchPrefix = candidate.getValue();
+			if (depMap.isOnBranchPath(branchPrefix, branchPrefix.length) && isContained(nogood, abox, addedEntries)) {
+				refresh(nogood);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public synchronized void clear()
+	{
+		_nogoods.clear();
+		_index.clear();
+		_branchPrefixes.clear();
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return "NogoodStore(" + _nogoods.size() + "/" + _capacity + ")";
+	}
+
+	/**
+	 * Mark {@literal nogood} as recently used. Nogoods evicted in the meantime are not added again.
+	 */
+	private synchronized void refresh(final Set<Set<TermEntry<I, L, K, R>>> nogood)
+	{
+		_nogoods.get(nogood);
+	}
+
+	private boolean isContained(final Set<Set<TermEntry<I, L, K, R>>> nogood, final IABox<I, L, K, R> abox,
+								final Collection<TermEntry<I, L, K, R>> addedEntries)
+	{
+		for (Set<TermEntry<I, L, K, R>> altSet : nogood) {
+			boolean containsOne = false;
+			for (TermEntry<I, L, K, R> alt : altSet) {
+				if (addedEntries.contains(alt) || abox.containsTermEntry(alt)) {
+					containsOne = true;
+					break;
+				}
+			}
+			if (!containsOne) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return {@literal true}, if {@literal prefix} is a prefix of {@literal branchPath}, i.e. a nogood learned for
+	 * {@literal prefix} applies to all branches {@literal branchPath} applies to.
+	 */
+	private static boolean isPrefix(final int[] prefix, final int[] branchPath)
+	{
+		if (prefix.length > branchPath.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; ++i) {
+			if (prefix[i] != branchPath[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Set<Set<Set<TermEntry<I, L, K, R>>>> getRelatedNogoods(final Set<Set<TermEntry<I, L, K, R>>> nogood)
+	{
+		final Set<Set<Set<TermEntry<I, L, K, R>>>> candidates = new HashSet<>();
+		for (Set<TermEntry<I, L, K, R>> altSet : nogood) {
+			candidates.addAll(getCandidates(altSet));
+		}
+		return candidates;
+	}
+
+	private Set<Set<Set<TermEntry<I, L, K, R>>>> getCandidates(final Collection<TermEntry<I, L, K, R>> entries)
+	{
+		final Set<Set<Set<TermEntry<I, L, K, R>>>> candidates = new HashSet<>();
+		for (TermEntry<I, L, K, R> entry : entries) {
+			final Set<Set<Set<TermEntry<I, L, K, R>>>> entryNogoods = _index.get(entry);
+			if (entryNogoods != null) {
+				candidates.addAll(entryNogoods);
+			}
+		}
+		return candidates;
+	}
+
+	private void remove(final Set<Set<TermEntry<I, L, K, R>>> nogood)
+	{
+		_nogoods.remove(nogood);
+		unindex(nogood);
+	}
+
+	private void unindex(final Set<Set<TermEntry<I, L, K, R>>> nogood)
+	{
+		_branchPrefixes.remove(nogood);
+		for (Set<TermEntry<I, L, K, R>> altSet : nogood) {
+			for (TermEntry<I, L, K, R> entry : altSet) {
+				final Set<Set<Set<TermEntry<I, L, K, R>>>> entryNogoods = _index.get(entry);
+				if (entryNogoods != null) {
+					entryNogoods.remove(nogood);
+					if (entryNogoods.isEmpty()) {
+						_index.remove(entry);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleProperty;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectAllRestriction;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectIntersection;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectSomeRestriction;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectUnion;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ *
+ * A flat summary of the root node of a complete, clash-free tableau (a pseudo model).
+ * <p />
+ * A pseudo model records the label of the root node, the roles of the existential restrictions (including their
+ * super roles) and the roles of the universal restrictions found in that label. If the pseudo models of two concepts
+ * do not interact, the two underlying models can be joined at their roots and the conjunction of the two concepts is
+ * satisfiable. In particular, {@literal C} is not subsumed by {@literal D}, if the pseudo models of {@literal C} and
+ * {@literal (not D)} are mergeable.
+ * <p />
+ * The merge test is sound, but incomplete. If it fails, nothing is known about the conjunction and a full tableau
+ * test is required. Pseudo models are only built for labels that contain plain class references, their negations,
+ * intersections, unions and object role restrictions. All other labels produce a pseudo model, that is not
+ * mergeable with any other model, see {@link #isFlat()}.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class PseudoModel<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private final boolean _isSatisfiable;
+	private final boolean _isFlat;
+	private final Set<IDLTerm<I, L, K, R>> _label;
+	private final Set<IDLClassReference<I, L, K, R>> _atoms;
+	private final Set<IDLClassReference<I, L, K, R>> _negatedAtoms;
+	/**
+	 * The roles of the existential restrictions in the root label, closed under super roles.
+	 */
+	private final Set<R> _existentialRoles;
+	private final Set<R> _universalRoles;
+	/**
+	 * The functional roles in {@link #_existentialRoles}.
+	 */
+	private final Set<R> _functionalRoles;
+	/**
+	 * Descriptions, that would trigger a conditional unfolding together with a term from the root label.
+	 */
+	private final Set<IDLClassExpression<I, L, K, R>> _conditionalPartners;
+
+	private PseudoModel(final boolean isSatisfiable, final boolean isFlat)
+	{
+		_isSatisfiable = isSatisfiable;
+		_isFlat = isFlat;
+		_label = Collections.emptySet();
+		_atoms = Collections.emptySet();
+		_negatedAtoms = Collections.emptySet();
+		_existentialRoles = Collections.emptySet();
+		_universalRoles = Collections.emptySet();
+		_functionalRoles = Collections.emptySet();
+		_conditionalPartners = Collections.emptySet();
+	}
+
+	private PseudoModel(final IABoxNode<I, L, K, R> root, final ITBox<I, L, K, R> tbox)
+	{
+		_isSatisfiable = true;
+		_label = new HashSet<>(root.getTerms());
+		_atoms = new HashSet<>();
+		_negatedAtoms = new HashSet<>();
+		_existentialRoles = new HashSet<>();
+		_universalRoles = new HashSet<>();
+		_functionalRoles = new HashSet<>();
+		_conditionalPartners = new HashSet<>();
+
+		final IRBox<I, L, K, R> rbox = tbox.getRBox();
+		boolean isFlat = true;
+		for (IDLTerm<I, L, K, R> term : _label) {
+			if (term instanceof IDLClassReference) {
+				_atoms.add((IDLClassReference<I, L, K, R>) term);
+			} else if ((term instanceof IDLObjectNegation)
+				&& (((IDLObjectNegation<I, L, K, R>) term).getTerm() instanceof IDLClassReference)) {
+				_negatedAtoms.add((IDLClassReference<I, L, K, R>) ((IDLObjectNegation<I, L, K, R>) term).getTerm());
+			} else if (term instanceof IDLObjectSomeRestriction) {
+				for (R superRole : rbox.getSuperRoles(((IDLObjectSomeRestriction<I, L, K, R>) term).getRole())) {
+					_existentialRoles.add(superRole);
+					if (rbox.hasRoleProperty(superRole, RoleProperty.FUNCTIONAL)) {
+						_functionalRoles.add(superRole);
+					}
+				}
+			} else if (term instanceof IDLObjectAllRestriction) {
+				_universalRoles.add(((IDLObjectAllRestriction<I, L, K, R>) term).getRole());
+			} else if ((!(term instanceof IDLObjectIntersection)) && (!(term instanceof IDLObjectUnion))) {
+				isFlat = false;
+			}
+			if (term instanceof IDLClassExpression) {
+				for (IDLImplies<I, L, K, R> conditional : tbox.getConditionalUnfoldings(
+					(IDLClassExpression<I, L, K, R>) term)) {
+					addConditionalPartners(conditional.getSubDescription());
+				}
+			}
+		}
+		_isFlat = isFlat;
+	}
+
+	/**
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @return A pseudo model for an unsatisfiable concept.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> PseudoModel<I, L, K, R> unsatisfiable()
+	{
+		return new PseudoModel<>(false, false);
+	}
+
+	/**
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @return A pseudo model for a satisfiable concept, whose model could not be summarized. It is not mergeable with
+	 * any other pseudo model.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> PseudoModel<I, L, K, R> opaque()
+	{
+		return new PseudoModel<>(true, false);
+	}
+
+	/**
+	 * Summarize the root node of a complete, clash-free tableau.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param root The root node of the model.
+	 * @param tbox The TBox the model was created for.
+	 * @return The pseudo model for {@literal root}.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> PseudoModel<I, L, K, R> fromNode(
+		final IABoxNode<I, L, K, R> root, final ITBox<I, L, K, R> tbox)
+	{
+		return new PseudoModel<>(root, tbox);
+	}
+
+	private void addConditionalPartners(final IDLClassExpression<I, L, K, R> subDesc)
+	{
+		if (subDesc instanceof IDLObjectIntersection) {
+			for (IDLClassExpression<I, L, K, R> conjunct : (IDLObjectIntersection<I, L, K, R>) subDesc) {
+				if (!_label.contains(conjunct)) {
+					_conditionalPartners.add(conjunct);
+				}
+			}
+		} else if (!_label.contains(subDesc)) {
+			_conditionalPartners.add(subDesc);
+		}
+	}
+
+	public boolean isSatisfiable()
+	{
+		return _isSatisfiable;
+	}
+
+	/**
+	 * @return {@literal true}, if this pseudo model describes a satisfiable concept and may be used in a merge test.
+	 */
+	public boolean isFlat()
+	{
+		return _isFlat;
+	}
+
+	public Set<IDLTerm<I, L, K, R>> getLabel()
+	{
+		return Collections.unmodifiableSet(_label);
+	}
+
+	public Set<R> getExistentialRoles()
+	{
+		return Collections.unmodifiableSet(_existentialRoles);
+	}
+
+	public Set<R> getUniversalRoles()
+	{
+		return Collections.unmodifiableSet(_universalRoles);
+	}
+
+	/**
+	 * Determine, if the models summarized by this pseudo model and {@literal other} can be joined at their roots
+	 * without interaction. This is the case, if
+	 * <ul>
+	 * <li>no class reference appears negated in the other root label,</li>
+	 * <li>no existential restriction of one model creates a successor, that is affected by a universal restriction of
+	 * the other model,</li>
+	 * <li>no functional role has successors in both models, and</li>
+	 * <li>the combined root label does not trigger a new conditional unfolding.</li>
+	 * </ul>
+	 *
+	 * @param other Another pseudo model for the same TBox.
+	 * @return {@literal true}, if the pseudo models are known to be mergeable. {@literal false}, if the pseudo models
+	 * may interact.
+	 */
+	public boolean isMergeable(final PseudoModel<I, L, K, R> other)
+	{
+		if ((!_isFlat) || (!other._isFlat)) {
+			return false;
+		} else {
+			return (!intersects(_atoms, other._negatedAtoms))
+				&& (!intersects(_negatedAtoms, other._atoms))
+				&& (!intersects(_existentialRoles, other._universalRoles))
+				&& (!intersects(_universalRoles, other._existentialRoles))
+				&& (!intersects(_functionalRoles, other._functionalRoles))
+				&& (!intersects(_conditionalPartners, other._label))
+				&& (!intersects(other._conditionalPartners, _label));
+		}
+	}
+
+	private static boolean intersects(final Set<?> first, final Set<?> second)
+	{
+		final Set<?> smaller = first.size() <= second.size() ? first : second;
+		final Set<?> larger = smaller == first ? second : first;
+		for (Object item : smaller) {
+			if (larger.contains(item)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (!_isSatisfiable) {
+			return "PseudoModel{unsatisfiable}";
+		} else if (!_isFlat) {
+			return "PseudoModel{opaque}";
+		} else {
+			return String.format("PseudoModel{atoms=%s, negated=%s, some=%s, only=%s}", _atoms, _negatedAtoms,
+				_existentialRoles, _universalRoles);
+		}
+	}
+}
@@ -22,19 +22,23 @@
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
 
 import de.dhke.projects.cutil.collections.CollectionUtil;
+import de.dhke.projects.cutil.collections.map.TransitiveHashMap;
 import de.dhke.projects.cutil.collections.tree.IDecisionTree;
 import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ABoxDelta;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistentABoxException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistentRBoxException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDatatypeABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IIndividualABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStrategy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking.CachedSatisfiabilityBlockingStrategy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking.DoubleBlockingStrategy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking.SubsetBlockingStrategy;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.ForAllCompleter;
@@ -45,8 +49,14 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.SemanticUnionC
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.SomeCompleter;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.TransitiveCompleter;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.UnionCompleter;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.IBranchingHeuristic;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.ICompleter;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.MostConstrainedBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.OldestFirstBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.SmallestDisjunctFirstBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.SortOrderBranchingHeuristic;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleProperty;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
@@ -56,10 +66,20 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.TermUtil;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,11 +104,25 @@ import org.slf4j.LoggerFactory;
  * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
  */
 public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
-	extends AbstractReasoner<I, L, K, R> {
+	extends AbstractReasoner<I, L, K, R>
+	implements AutoCloseable {
 	private static final Logger _logger = LoggerFactory.getLogger(Reasoner.class);
 	// private ABox<I, L, K, R> _initialAbox;
-	private ReasonerOptions _reasonerOptions;
-	private INodeConsistencyChecker<I, L, K, R> _nodeConsistencyChecker;
+	private volatile ReasonerOptions _reasonerOptions;
+	private volatile INodeConsistencyChecker<I, L, K, R> _nodeConsistencyChecker;
+	/**
+	 * Worker pool for parallel branch completion and classification, if a fixed parallelism was requested. Shut down
+	 * by {@link #close() }.
+	 */
+	private ForkJoinPool _completionPool;
+	/**
+	 * Satisfiability caches, one per TBox.
+	 */
+	private final Map<ITBox<I, L, K, R>, SatisfiabilityCache<I, L, K, R>> _satCaches = new WeakHashMap<>();
+	/**
+	 * The summed up metrics of all queries answered so far.
+	 */
+	private final ReasonerMetrics _metrics = new ReasonerMetrics();
 
 	public Reasoner(
 		final INodeConsistencyChecker<I, L, K, R> cChecker,
@@ -122,15 +156,24 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 	{
 
 		Branch<I, L, K, R> initialBranch;
+		IIndividualABoxNode<I, L, K, R> conceptNode;
 		try {
 			initialBranch = prepareInitialBranch(abox);
-			final IIndividualABoxNode<I, L, K, R> conceptNode = initialBranch.getABox().createIndividualNode();
-			conceptNode.addClassTerm(concept);
+			conceptNode = initialBranch.getABox().createIndividualNode();
+			conceptNode = (IIndividualABoxNode<I, L, K, R>) conceptNode.addClassTerm(concept).getCurrentNode();
 		} catch (ENodeMergeException ex) {
 			// XXX - better exception */
 			throw new EInconsistentABoxException(abox, "Node merge problem");
 		}
 
+		final SatisfiabilityCache<I, L, K, R> satCache = getSatisfiabilityCache(initialBranch.getABox());
+		if ((satCache != null) && satCache.isUnsatisfiable(conceptNode.getTerms())) {
+			initialBranch.getMetrics().countCacheHit();
+			_metrics.addAll(initialBranch.getMetrics());
+			return Collections.emptySet();
+		}
+		final Set<IDLTerm<I, L, K, R>> conceptLabel = new HashSet<>(conceptNode.getTerms());
+
 		final List<ICompleter<I, L, K, R>> generatingCompleters = chooseGeneratingCompleters(
 			initialBranch.getABox());
 		final List<ICompleter<I, L, K, R>> nonGeneratingCompleters = chooseNonGeneratingCompleters(
@@ -140,7 +183,12 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		branchTree.fork(branchTree.getRoot(), initialBranch);
 
 		final IBlockingStrategy<I, L, K, R> blockingStrategy = chooseBlockingStrategy(initialBranch.getABox());
-		return complete(branchTree, nonGeneratingCompleters, generatingCompleters, blockingStrategy, stopAtFirstModel);
+		final Collection<? extends IReasonerResult<I, L, K, R>> results = complete(branchTree, nonGeneratingCompleters,
+			generatingCompleters, blockingStrategy, stopAtFirstModel);
+		if ((satCache != null) && results.isEmpty() && abox.isEmpty()) {
+			satCache.putUnsatisfiable(conceptLabel);
+		}
+		return results;
 	}
 
 	@Override
@@ -170,6 +218,89 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		}
 	}
 
+	/**
+	 * Check the consistency of {@literal abox} extended by {@literal delta}, resuming from the saturated model of
+	 * {@literal previous}.
+	 * <p />
+	 * The assertions of {@literal delta} are added to a copy of the ABox of {@literal previous} and completion
+	 * continues from there, touching only the affected nodes. If no model is found this way and {@literal previous}
+	 * depends on a choice between alternatives (see {@link ReasonerResult#isDeterministic()}), the clash might be
+	 * resolved by another choice and the extended ABox is checked from scratch.
+	 * <p />
+	 * Resuming only finds models extending {@literal previous}, so all models ({@literal stopAtFirstModel == false})
+	 * are always determined from scratch.
+	 *
+	 * @param abox The ABox {@literal previous} was computed from. It is not modified.
+	 * @param previous A result of checking {@literal abox}.
+	 * @param delta The assertions to add to {@literal abox}.
+	 * @param stopAtFirstModel Shall we stop at the first model or determine all saturated tableaux
+	 * @return The models of {@literal abox} extended by {@literal delta}.
+	 * @throws EReasonerException A reasoner error occured
+	 * @throws EInconsistencyException The extended ABox is inconsistent.
+	 */
+	public Collection<? extends IReasonerResult<I, L, K, R>> checkConsistency(
+		final IABox<I, L, K, R> abox, final IReasonerResult<I, L, K, R> previous, final ABoxDelta<I, L, K, R> delta,
+		final boolean stopAtFirstModel) throws EReasonerException, EInconsistencyException
+	{
+		if (stopAtFirstModel) {
+			final boolean isDeterministic = (previous instanceof ReasonerResult)
+				&& ((ReasonerResult<I, L, K, R>) previous).isDeterministic();
+			try {
+				final Branch<I, L, K, R> initialBranch = prepareIncrementalBranch(previous, delta);
+
+				final List<ICompleter<I, L, K, R>> generatingCompleters = chooseGeneratingCompleters(
+					initialBranch.getABox());
+				final List<ICompleter<I, L, K, R>> nonGeneratingCompleters = chooseNonGeneratingCompleters(
+					initialBranch.getABox());
+
+				final IBlockingStrategy<I, L, K, R> blockingStrategy = chooseBlockingStrategy(initialBranch.getABox());
+				final Collection<? extends ReasonerResult<I, L, K, R>> results = complete(initialBranch,
+					nonGeneratingCompleters, generatingCompleters, blockingStrategy, true);
+				if (results.isEmpty()) {
+					if (isDeterministic) {
+						throw new EInconsistentABoxException(abox);
+					}
+				} else if (results.iterator().next().isUnknown()) {
+					return results;
+				} else {
+					final Collection<ReasonerResult<I, L, K, R>> resumedResults = new ArrayList<>(results.size());
+					for (ReasonerResult<I, L, K, R> result : results) {
+						resumedResults.add(new ReasonerResult<>(result.getABox(),
+							joinMergeMaps(previous.getMergeMap(), result.getMergeMap()), result.getMetrics(),
+							!isDeterministic));
+					}
+					return resumedResults;
+				}
+			} catch (ENodeMergeException ex) {
+				if (isDeterministic) {
+					throw new EInconsistentABoxNodeException(ex.getSourceNode());
+				}
+			}
+			_logger.debug("Extension of {} clashes with an earlier choice, rechecking from scratch", abox.getID());
+		}
+
+		final IABox<I, L, K, R> extendedABox = abox.clone();
+		try {
+			delta.applyTo(extendedABox);
+		} catch (ENodeMergeException ex) {
+			throw new EInconsistentABoxNodeException(ex.getSourceNode());
+		}
+		return checkConsistency(extendedABox, stopAtFirstModel);
+	}
+
+	private Map<NodeID, NodeID> joinMergeMaps(final Map<NodeID, NodeID> first, final Map<NodeID, NodeID> second)
+	{
+		if (first == null) {
+			return second;
+		} else if (second == null) {
+			return new TransitiveHashMap<>(first);
+		} else {
+			final Map<NodeID, NodeID> joined = new TransitiveHashMap<>(first);
+			joined.putAll(second);
+			return joined;
+		}
+	}
+
 	@Override
 	public boolean isSubClassOf(final IABox<I, L, K, R> abox, final IDLClassExpression<I, L, K, R> presumedSub,
 								final IDLClassExpression<I, L, K, R> presumedSuper) throws EReasonerException, EInconsistencyException
@@ -184,14 +315,56 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 				IIndividualABoxNode<I, L, K, R> node = initialBranch.getABox().createIndividualNode();
 				final IDLTermFactory<I, L, K, R> termFactory = initialBranch.getABox().getDLTermFactory();
 				final IDLClassExpression<I, L, K, R> sub = TermUtil.toNNF(presumedSub, termFactory);
-				IDLClassExpression<I, L, K, R> negSuper = termFactory.getDLObjectNegation(presumedSuper);
-				negSuper = TermUtil.toNNF(negSuper, termFactory);
+				IDLClassExpression<I, L, K, R> negSuper;
+				if (presumedSuper.equals(termFactory.getDLNothing())) {
+					/* keep the node label canonical for the satisfiability cache */
+					negSuper = termFactory.getDLThing();
+				} else {
+					negSuper = termFactory.getDLObjectNegation(presumedSuper);
+					negSuper = TermUtil.toNNF(negSuper, termFactory);
+				}
 
 				/**
 				 * track node merges
 				 */
 				node = (IIndividualABoxNode<I, L, K, R>) node.addClassTerm(sub).getCurrentNode();
-				/* node = */ node.addClassTerm(negSuper).getCurrentNode();
+				node = (IIndividualABoxNode<I, L, K, R>) node.addClassTerm(negSuper).getCurrentNode();
+
+				/**
+				 * Unsatisfiable label sets are unsatisfiable in any ABox. Satisfiable label sets
+				 * are satisfiable in an empty ABox.
+				 */
+				final SatisfiabilityCache<I, L, K, R> satCache = getSatisfiabilityCache(initialBranch.getABox());
+				if (satCache != null) {
+					final Boolean isSatisfiable = satCache.get(node.getTerms());
+					if (Boolean.FALSE.equals(isSatisfiable) || (Boolean.TRUE.equals(isSatisfiable) && abox.isEmpty())) {
+						initialBranch.getMetrics().countCacheHit();
+						_metrics.addAll(initialBranch.getMetrics());
+						return Boolean.FALSE.equals(isSatisfiable);
+					}
+				}
+
+				/**
+				 * On an empty ABox, sub is not subsumed by super, if the pseudo models of sub and (not super) do not
+				 * interact.
+				 */
+				if ((satCache != null) && abox.isEmpty() && _reasonerOptions.isPseudoModelMerging()
+					&& satCache.isContextIndependent(node.getTerms())) {
+					final PseudoModel<I, L, K, R> subModel = getPseudoModel(abox, satCache, sub);
+					final PseudoModel<I, L, K, R> negSuperModel = subModel.isSatisfiable()
+						? getPseudoModel(abox, satCache, negSuper) : null;
+					if ((negSuperModel == null) || (!negSuperModel.isSatisfiable())) {
+						initialBranch.getMetrics().countCacheHit();
+						_metrics.addAll(initialBranch.getMetrics());
+						return true;
+					} else if (subModel.isMergeable(negSuperModel)) {
+						initialBranch.getMetrics().countPseudoModelMerge();
+						_metrics.addAll(initialBranch.getMetrics());
+						return false;
+					}
+				}
+				final Set<IDLTerm<I, L, K, R>> nodeLabel = new HashSet<>(node.getTerms());
+
 				final List<ICompleter<I, L, K, R>> generatingCompleters = chooseGeneratingCompleters(
 					initialBranch.getABox());
 				final List<ICompleter<I, L, K, R>> nonGeneratingCompleters = chooseNonGeneratingCompleters(
@@ -201,6 +374,9 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 				final Collection<? extends IReasonerResult<I, L, K, R>> results
 					= complete(initialBranch, nonGeneratingCompleters, generatingCompleters, blockingStrategy, true);
 
+				if (!ReasonerResult.hasModel(results) && (satCache != null) && abox.isEmpty()) {
+					satCache.putUnsatisfiable(nodeLabel);
+				}
 				return results.isEmpty();
 			}
 		} catch (ENodeMergeException ex) {
@@ -210,10 +386,115 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 
 	protected IBlockingStrategy<I, L, K, R> chooseBlockingStrategy(final IABox<I, L, K, R> abox)
 	{
+		final boolean anywhereBlocking = _reasonerOptions.isAnywhereBlocking();
 		if (abox.getRBox().hasInverseRoles()) {
-			return new DoubleBlockingStrategy<>();
+			return new DoubleBlockingStrategy<>(anywhereBlocking);
+		} else {
+			final SatisfiabilityCache<I, L, K, R> satCache = getSatisfiabilityCache(abox);
+			if (satCache != null) {
+				return new CachedSatisfiabilityBlockingStrategy<>(new SubsetBlockingStrategy<I, L, K, R>(
+					anywhereBlocking), satCache);
+			} else {
+				return new SubsetBlockingStrategy<>(anywhereBlocking);
+			}
+		}
+	}
+
+	/**
+	 * @return The summed up metrics of all queries answered by this reasoner. The metrics of a single query are
+	 * available from its results, see {@link IReasonerResult#getMetrics() }.
+	 */
+	public ReasonerMetrics getMetrics()
+	{
+		return _metrics;
+	}
+
+	/**
+	 * Retrieve the satisfiability cache for the TBox of {@literal abox}.
+	 *
+	 * @param abox The current ABox
+	 * @return The {@link SatisfiabilityCache} for the TBox of {@literal abox} or {@literal null}, if satisfiability
+	 * caching is disabled.
+	 */
+	protected SatisfiabilityCache<I, L, K, R> getSatisfiabilityCache(final IABox<I, L, K, R> abox)
+	{
+		if (getReasonerOptions().isSatisfiabilityCaching()) {
+			final ITBox<I, L, K, R> tbox = abox.getTBox();
+			SatisfiabilityCache<I, L, K, R> satCache;
+			synchronized (_satCaches) {
+				satCache = _satCaches.get(tbox);
+				if (satCache == null) {
+					satCache = new SatisfiabilityCache<>(getReasonerOptions().getSatisfiabilityCacheSize());
+					_satCaches.put(tbox, satCache);
+				}
+			}
+			satCache.validate(tbox);
+			return satCache;
 		} else {
-			return new SubsetBlockingStrategy<>();
+			return null;
+		}
+	}
+
+	/**
+	 * Retrieve the pseudo model of {@literal concept} from {@literal satCache}. If the pseudo model is not yet known,
+	 * it is created from the first model of {@literal concept} on {@literal abox} and stored in the cache.
+	 *
+	 * @param abox An empty ABox
+	 * @param satCache The satisfiability cache for the TBox of {@literal abox}
+	 * @param concept A concept in NNF
+	 * @return The pseudo model of {@literal concept}.
+	 * @throws EReasonerException A reasoner error occured
+	 * @throws EInconsistencyException The initial ABox could not be prepared
+	 */
+	private PseudoModel<I, L, K, R> getPseudoModel(final IABox<I, L, K, R> abox,
+												   final SatisfiabilityCache<I, L, K, R> satCache,
+												   final IDLClassExpression<I, L, K, R> concept)
+		throws EReasonerException, EInconsistencyException
+	{
+		assert abox.isEmpty();
+		PseudoModel<I, L, K, R> pseudoModel = satCache.getPseudoModel(concept);
+		if (pseudoModel == null) {
+			final Branch<I, L, K, R> initialBranch = prepareInitialBranch(abox);
+			IIndividualABoxNode<I, L, K, R> root = initialBranch.getABox().createIndividualNode();
+			root = (IIndividualABoxNode<I, L, K, R>) root.addClassTerm(concept).getCurrentNode();
+			final NodeID rootID = root.getNodeID();
+			final Set<IDLTerm<I, L, K, R>> rootLabel = new HashSet<>(root.getTerms());
+
+			final IBlockingStrategy<I, L, K, R> blockingStrategy = chooseBlockingStrategy(initialBranch.getABox());
+			final Collection<? extends IReasonerResult<I, L, K, R>> results = complete(initialBranch,
+				chooseNonGeneratingCompleters(initialBranch.getABox()),
+				chooseGeneratingCompleters(initialBranch.getABox()), blockingStrategy, true);
+			if (!ReasonerResult.hasModel(results)) {
+				satCache.putUnsatisfiable(rootLabel);
+				pseudoModel = PseudoModel.unsatisfiable();
+			} else {
+				final IABox<I, L, K, R> model = results.iterator().next().getABox();
+				final IABoxNode<I, L, K, R> modelRoot = model.getNode(rootID);
+				if ((modelRoot != null) && modelRoot.getNodeID().equals(rootID)) {
+					pseudoModel = PseudoModel.fromNode(modelRoot, abox.getTBox());
+				} else {
+					pseudoModel = PseudoModel.opaque();
+				}
+			}
+			satCache.putPseudoModel(concept, pseudoModel);
+		}
+		return pseudoModel;
+	}
+
+	/**
+	 * Remember the term sets of all anonymous nodes of a complete and clash-free ABox as satisfiable.
+	 *
+	 * @param abox A complete and clash-free ABox.
+	 */
+	private void cacheSatisfiableLabels(final IABox<I, L, K, R> abox)
+	{
+		final SatisfiabilityCache<I, L, K, R> satCache = getSatisfiabilityCache(abox);
+		if (satCache != null) {
+			for (IABoxNode<I, L, K, R> node : abox) {
+				if (node.isAnonymous() && (!(node instanceof IDatatypeABoxNode))) {
+					satCache.putSatisfiable(node.getTerms());
+				}
+			}
 		}
 	}
 
@@ -364,7 +645,8 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 
 		final List<ICompleter<I, L, K, R>> nonGeneratingCompleters = new ArrayList<>();
 
-		if ((!rbox.getAssertedRBox().getRoleDomains().isEmpty()) || (!rbox.getAssertedRBox().getRoleRanges().isEmpty())) {
+		if ((!rbox.getAssertedRBox().getRoleDomains().isEmpty()) || (!rbox.getAssertedRBox().getRoleRanges().isEmpty())
+			|| abox.getTBox().hasRoleDomainUnfoldings()) {
 			nonGeneratingCompleters.
 				add(new RoleRestrictionCompleter<>(getNodeConsistencyChecker(), getReasonerOptions().isTracing()));
 		}
@@ -389,7 +671,7 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 				isTracing()));
 		} else {
 			nonGeneratingCompleters.add(new UnionCompleter<>(getNodeConsistencyChecker(), getReasonerOptions().
-				isTracing()));
+				isTracing(), chooseBranchingHeuristic(abox)));
 		}
 
 		/*
@@ -426,10 +708,34 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 	{
 		final List<ICompleter<I, L, K, R>> generatingCompleters = new ArrayList<>();
 
-		generatingCompleters.add(new SomeCompleter<>(getNodeConsistencyChecker(), getReasonerOptions().isTracing()));
+		generatingCompleters.add(new SomeCompleter<>(getNodeConsistencyChecker(), getReasonerOptions().isTracing(),
+			getSatisfiabilityCache(abox)));
 		return generatingCompleters;
 	}
 
+	/**
+	 * Create the branching heuristic selected by {@link ReasonerOptions#getBranchingHeuristic() }.
+	 * <p />
+	 * You can override this in derived classes to customize reasoner operation.
+	 *
+	 * @param abox The ABox to create the heuristic for
+	 * <p/>
+	 * @return The heuristic used for union expansion.
+	 */
+	protected IBranchingHeuristic<I, L, K, R> chooseBranchingHeuristic(final IABox<I, L, K, R> abox)
+	{
+		switch (getReasonerOptions().getBranchingHeuristic()) {
+			case MOST_CONSTRAINED:
+				return new MostConstrainedBranchingHeuristic<>();
+			case OLDEST_FIRST:
+				return new OldestFirstBranchingHeuristic<>();
+			case SMALLEST_DISJUNCT_FIRST:
+				return new SmallestDisjunctFirstBranchingHeuristic<>();
+			default:
+				return new SortOrderBranchingHeuristic<>();
+		}
+	}
+
 	/**
 	 *
 	 * Set the node consistency checker for reasoning.
@@ -515,7 +821,20 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		/*
 		 * start with a copy of the initial abox
 		 */
-		final Branch<I, L, K, R> initialBranch = new Branch<>(abox.clone(), _reasonerOptions.isMergeTracking());
+		final ReasonerMetrics metrics = new ReasonerMetrics();
+		metrics.countQuery();
+		final IABox<I, L, K, R> aboxClone;
+		final Set<NodeID> touchedNodes;
+		/* the input ABox may be shared by concurrent queries, reading the queues may update it */
+		synchronized (abox) {
+			metrics.countABoxClone(abox.size());
+			aboxClone = abox.clone();
+			touchedNodes = new HashSet<>(abox.getGeneratingQueue());
+			touchedNodes.addAll(abox.getNonGeneratingQueue());
+		}
+		final Branch<I, L, K, R> initialBranch = new Branch<>(aboxClone, _reasonerOptions.isMergeTracking(),
+			metrics, new NogoodStore<I, L, K, R>(_reasonerOptions.getNogoodCacheSize()),
+			ReasonerBudget.fromOptions(_reasonerOptions));
 
 		/**
 		 * Make sure, existing terms have been considered for lazy unfolding. This is no longer needed.
@@ -523,23 +842,60 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		// initialBranch.getABox().unfoldAll();
 
 		/* add global descriptions to all nodes */
-		final Set<NodeID> touchedNodes = new HashSet<>(abox.getGeneratingQueue());
-		touchedNodes.addAll(abox.getNonGeneratingQueue());
+		prepareTouchedNodes(initialBranch.getABox(), touchedNodes);
 
-		/**
-		 * Only unfold TBox for touched nodes.
-		 **/
+		return initialBranch;
+	}
+
+	/**
+	 * Prepare the initial branch for extending the model of {@literal previous} by {@literal delta}.
+	 * <p />
+	 * The ABox of {@literal previous} is complete, so only the nodes modified by {@literal delta} need to be touched.
+	 * Leaf nodes are touched, too, as blocked nodes are not revisited, when their blockers change.
+	 */
+	private Branch<I, L, K, R> prepareIncrementalBranch(final IReasonerResult<I, L, K, R> previous,
+														final ABoxDelta<I, L, K, R> delta)
+		throws ENodeMergeException, EInconsistentRBoxException
+	{
+		final IABox<I, L, K, R> model = previous.getABox();
+		final ReasonerMetrics metrics = new ReasonerMetrics();
+		metrics.countQuery();
+		final IABox<I, L, K, R> modelClone;
+		synchronized (model) {
+			metrics.countABoxClone(model.size());
+			modelClone = model.clone();
+		}
+		final Branch<I, L, K, R> initialBranch = new Branch<>(modelClone, _reasonerOptions.isMergeTracking(),
+			metrics, new NogoodStore<I, L, K, R>(_reasonerOptions.getNogoodCacheSize()),
+			ReasonerBudget.fromOptions(_reasonerOptions));
+		final IABox<I, L, K, R> abox = initialBranch.getABox();
+
+		final Set<NodeID> touchedNodes = delta.applyTo(abox);
+		prepareTouchedNodes(abox, touchedNodes);
+		for (IABoxNode<I, L, K, R> node : abox) {
+			if (node.isAnonymous() && node.getRABox().getSuccessors().isEmpty()) {
+				touchedNodes.add(node.getNodeID());
+			}
+		}
+		abox.touchAll(touchedNodes);
+		return initialBranch;
+	}
+
+	/**
+	 * Only unfold TBox and add the global descriptions for touched nodes.
+	 */
+	private void prepareTouchedNodes(final IABox<I, L, K, R> abox, final Collection<NodeID> touchedNodes)
+		throws ENodeMergeException
+	{
 		for (NodeID touchedNode : touchedNodes) {
-			final IABoxNode<I, L, K, R> node = initialBranch.getABox().getNode(touchedNode);
+			final IABoxNode<I, L, K, R> node = abox.getNode(touchedNode);
 			if (node instanceof IIndividualABoxNode) {
 				IIndividualABoxNode<I, L, K, R> iNode = (IIndividualABoxNode<I, L, K, R>) node;
 				final NodeMergeInfo<I, L, K, R> mergeInfo = unfoldAll(iNode);
 				iNode = (IIndividualABoxNode<I, L, K, R>) mergeInfo.getCurrentNode();
-				iNode.addTerms(initialBranch.getABox().getTBox().getGlobalDescriptions());
+				iNode.addTerms(abox.getTBox().getGlobalDescriptions());
 			}
 		}
-
-		return initialBranch;
 	}
 
 	//	private Queue<Branch<I, L, K, R>> prepareInitialBranchQueue(final Branch<I, L, K, R> initialBranch)
@@ -560,7 +916,7 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 			nonGeneratingCompleters,
 			generatingCompleters,
 			blockingStrategy, true);
-		return !results.isEmpty();
+		return ReasonerResult.hasModel(results);
 	}
 
 	private Collection<? extends ReasonerResult<I, L, K, R>> complete(final Branch<I, L, K, R> initialBranch,
@@ -596,6 +952,42 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 																	  final List<ICompleter<I, L, K, R>> generatingCompleters,
 																	  final IBlockingStrategy<I, L, K, R> blockingStrategy,
 																	  final boolean stopAtFirstModel) throws EReasonerException
+	{
+		final ReasonerMetrics metrics = branchTree.firstLeaf().getData().getMetrics();
+		final Collection<ReasonerResult<I, L, K, R>> reasonerResults;
+		if (getReasonerOptions().isParallelCompletion()) {
+			reasonerResults = completeParallel(branchTree, nonGeneratingCompleters, generatingCompleters,
+				blockingStrategy, stopAtFirstModel);
+		} else if (getReasonerOptions().isTrailBacktracking()) {
+			reasonerResults = completeTrail(branchTree, nonGeneratingCompleters, generatingCompleters,
+				blockingStrategy, stopAtFirstModel);
+		} else {
+			reasonerResults = completeSequential(branchTree, nonGeneratingCompleters, generatingCompleters,
+				blockingStrategy, stopAtFirstModel);
+		}
+		metrics.updatePeakBranchTreeSize(branchTree.getPeakSize());
+		_metrics.addAll(metrics);
+
+		if (getReasonerOptions().isTracing()) {
+			_logger.debug("Reasoning complete");
+			if (reasonerResults.isEmpty()) {
+				_logger.trace("No models found");
+			} else {
+				_logger.trace("The following models were found:");
+				for (ReasonerResult<I, L, K, R> result : reasonerResults) {
+					_logger.trace("{}", result);
+				}
+			}
+		}
+
+		return reasonerResults;
+	}
+
+	private Collection<ReasonerResult<I, L, K, R>> completeSequential(final BranchTree<I, L, K, R> branchTree,
+																	   final List<ICompleter<I, L, K, R>> nonGeneratingCompleters,
+																	   final List<ICompleter<I, L, K, R>> generatingCompleters,
+																	   final IBlockingStrategy<I, L, K, R> blockingStrategy,
+																	   final boolean stopAtFirstModel) throws EReasonerException
 	{
 		final Collection<ReasonerResult<I, L, K, R>> reasonerResults = new HashSet<>();
 
@@ -607,36 +999,193 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 			if (contState == ReasonerContinuationState.DONE) {
 				/* store completed branch, but only if it is consistent. */
 				if (!branchNode.getData().getConsistencyInfo().isInconsistent()) {
+					cacheSatisfiableLabels(branchNode.getData().getABox());
 					reasonerResults.add(branchNode.getData().dispose());
 				}
 				branchNode.remove();
+			} else if (contState == ReasonerContinuationState.UNKNOWN) {
+				reasonerResults.add(giveUp(branchNode.getData()));
+				return reasonerResults;
 			} else {
 				if (contState == ReasonerContinuationState.INCONSISTENT) {
 					/* prune branch tree according to the culprits recorded for the current branch */
 					_logger.trace("Inconsistent branch found: {}", branchNode.getData());
 					_logger.trace("Clash info: {}", branchNode.getData().getConsistencyInfo());
+					branchNode.getData().getNogoods().learn(branchNode.getData().getConsistencyInfo());
 				}
 				pruneBranchTree(branchTree, branchNode);
 			}
 
 			branchNode = pickBranch(branchTree);
 		}
+		return reasonerResults;
+	}
 
-		if (getReasonerOptions().isTracing()) {
-			_logger.debug("Reasoning complete");
-			if (reasonerResults.isEmpty()) {
-				_logger.trace("No models found");
-			} else {
-				_logger.trace("The following models were found:");
-				for (ReasonerResult<I, L, K, R> result : reasonerResults) {
-					_logger.trace("{}", result);
+	/**
+	 * Perform depth-first completion of the leaves of {@literal branchTree}, exploring alternatives in place.
+	 * <p />
+	 * Each leaf branch is switched to {@link Branch#enableTrail() trailing}, so branching points do not fork the
+	 * branch tree. When a clash is found, the branch jumps back to the innermost choice point the clash depends on
+	 * and continues with the next alternative of that choice point.
+	 *
+	 * @param branchTree The branch tree to complete.
+	 * @param stopAtFirstModel Shall we stop at the first model or determine ALL saturated tableaux
+	 * <p/>
+	 * @return A collection of consistent {@link IABox}es.
+	 * <p/>
+	 * @throws EReasonerException A reasoner error occured
+	 */
+	private Collection<ReasonerResult<I, L, K, R>> completeTrail(final BranchTree<I, L, K, R> branchTree,
+																  final List<ICompleter<I, L, K, R>> nonGeneratingCompleters,
+																  final List<ICompleter<I, L, K, R>> generatingCompleters,
+																  final IBlockingStrategy<I, L, K, R> blockingStrategy,
+																  final boolean stopAtFirstModel) throws EReasonerException
+	{
+		final Collection<ReasonerResult<I, L, K, R>> reasonerResults = new HashSet<>();
+
+		IDecisionTree.Node<Branch<I, L, K, R>> branchNode = pickBranch(branchTree);
+		while ((branchNode != null) && ((!stopAtFirstModel) || reasonerResults.isEmpty())) {
+			final Branch<I, L, K, R> branch = branchNode.getData();
+			branch.enableTrail();
+			boolean haveAlternative = true;
+			while (haveAlternative && ((!stopAtFirstModel) || reasonerResults.isEmpty())) {
+				final ReasonerContinuationState contState = completeBranch(branchNode,
+					nonGeneratingCompleters,
+					generatingCompleters, blockingStrategy);
+				if (contState == ReasonerContinuationState.DONE) {
+					if (branch.getConsistencyInfo().isInconsistent()) {
+						haveAlternative = branch.backtrack(new ConsistencyInfo<I, L, K, R>());
+					} else if (stopAtFirstModel || (!branch.hasChoicePoints())) {
+						cacheSatisfiableLabels(branch.getABox());
+						reasonerResults.add(branch.dispose());
+						haveAlternative = false;
+					} else {
+						cacheSatisfiableLabels(branch.getABox());
+						reasonerResults.add(branch.snapshot());
+						haveAlternative = branch.backtrack(new ConsistencyInfo<I, L, K, R>());
+					}
+				} else if (contState == ReasonerContinuationState.UNKNOWN) {
+					reasonerResults.add(giveUp(branch));
+					return reasonerResults;
+				} else if (contState == ReasonerContinuationState.INCONSISTENT) {
+					_logger.trace("Inconsistent branch found: {}", branch);
+					_logger.trace("Clash info: {}", branch.getConsistencyInfo());
+					branch.getNogoods().learn(branch.getConsistencyInfo());
+					haveAlternative = branch.backtrack(branch.getConsistencyInfo());
 				}
 			}
+			branchNode.remove();
+			branchNode = pickBranch(branchTree);
 		}
+		return reasonerResults;
+	}
 
+	/**
+	 * Perform completion on all leaves of {@literal branchTree} using a {@link ForkJoinPool}.
+	 * <p />
+	 * Each task owns a private {@link BranchTree}. Whenever completion forks new branches, all but the first leaf are
+	 * split off into new tasks, so no {@link IABox} is ever touched by more than one thread. Clash information is
+	 * published to all tasks, which use it for dependency directed pruning before they continue a branch.
+	 *
+	 * @param branchTree The branch tree to complete.
+	 * @param stopAtFirstModel Shall we stop at the first model or determine ALL saturated tableaux
+	 * <p/>
+	 * @return A collection of consistent {@link IABox}es.
+	 * <p/>
+	 * @throws EReasonerException A reasoner error occured
+	 */
+	private Collection<ReasonerResult<I, L, K, R>> completeParallel(final BranchTree<I, L, K, R> branchTree,
+																	 final List<ICompleter<I, L, K, R>> nonGeneratingCompleters,
+																	 final List<ICompleter<I, L, K, R>> generatingCompleters,
+																	 final IBlockingStrategy<I, L, K, R> blockingStrategy,
+																	 final boolean stopAtFirstModel) throws EReasonerException
+	{
+		final ParallelCompletion completion = new ParallelCompletion(nonGeneratingCompleters, generatingCompleters,
+			blockingStrategy, stopAtFirstModel);
+
+		final List<BranchCompletionTask> rootTasks = new ArrayList<>();
+		for (IDecisionTree.Node<Branch<I, L, K, R>> leaf : collectLeaves(branchTree.getRoot(),
+			new ArrayList<IDecisionTree.Node<Branch<I, L, K, R>>>())) {
+			/* TBox recalculation is lazy, make sure it has happened before the TBox is shared */
+			leaf.getData().getABox().getTBox().getGlobalDescriptions();
+			rootTasks.add(new BranchCompletionTask(completion, leaf.getData()));
+		}
+
+		getCompletionPool().invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute()
+			{
+				invokeAll(rootTasks);
+			}
+		});
+
+		if (completion._error != null) {
+			throw completion._error;
+		}
+		final Collection<ReasonerResult<I, L, K, R>> reasonerResults = new HashSet<>(completion._results);
+		if ((completion._unknown != null) && ((!stopAtFirstModel) || reasonerResults.isEmpty())) {
+			reasonerResults.add(completion._unknown);
+		}
 		return reasonerResults;
 	}
 
+	@Override
+	protected ExecutorService getClassificationExecutor()
+	{
+		if (getReasonerOptions().isParallelClassification()) {
+			return getCompletionPool();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Shut down the private worker pool used for parallel completion and classification with a fixed
+	 * {@link ReasonerOptions#getParallelism() parallelism}, if any. Running queries are completed.
+	 * <p />
+	 * Applications that create reasoners with a fixed parallelism should close them when done. The reasoner stays
+	 * usable, a later parallel query creates a new pool.
+	 */
+	@Override
+	public synchronized void close()
+	{
+		if (_completionPool != null) {
+			_completionPool.shutdown();
+			_completionPool = null;
+		}
+	}
+
+	private synchronized ForkJoinPool getCompletionPool()
+	{
+		final int parallelism = getReasonerOptions().getParallelism();
+		if (parallelism <= 0) {
+			return ForkJoinPool.commonPool();
+		} else {
+			if ((_completionPool == null) || (_completionPool.getParallelism() != parallelism)) {
+				if (_completionPool != null) {
+					_completionPool.shutdown();
+				}
+				_completionPool = new ForkJoinPool(parallelism);
+			}
+			return _completionPool;
+		}
+	}
+
+	private List<IDecisionTree.Node<Branch<I, L, K, R>>> collectLeaves(final IDecisionTree.Node<Branch<I, L, K, R>> node,
+																	   final List<IDecisionTree.Node<Branch<I, L, K, R>>> leaves)
+	{
+		if (node.hasChildren()) {
+			for (IDecisionTree.Node<Branch<I, L, K, R>> child : node.getChildren()) {
+				collectLeaves(child, leaves);
+			}
+		} else if (node.hasData()) {
+			leaves.add(node);
+		}
+		return leaves;
+	}
+
 	/**
 	 * Pick the first branch from {@literal branchQueue} and perform ABox completion on its {@link IABox}. <p />
 	 * Completition rules are applied according to the following algorithm. <ul>
@@ -687,10 +1236,15 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		 *
 		 */
 		final IABox<I, L, K, R> abox = branch.getABox();
+		final ReasonerMetrics metrics = branch.getMetrics();
+		final ReasonerBudget budget = branch.getBudget();
 		while (abox.hasMoreNonGeneratingNodes() || abox.hasMoreGeneratingNodes()) {
 			while (abox.hasMoreNonGeneratingNodes()) {
+				if (budget.checkExhausted(branch)) {
+					return ReasonerContinuationState.UNKNOWN;
+				}
 				final IABoxNode<I, L, K, R> nextNonGenNode = abox.nextNonGeneratingNode();
-				if (!blockingStrategy.isBlocked(nextNonGenNode)) {
+				if (!isBlocked(blockingStrategy, nextNonGenNode, metrics)) {
 					final ConsistencyInfo<I, L, K, R> cInfo = getNodeConsistencyChecker().
 						isConsistent(nextNonGenNode);
 					if (cInfo.isFinallyInconsistent()) {
@@ -703,9 +1257,10 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 						 * or branch tree, or we run out of nodes on the non-generating queue.
 						 */
 						for (ICompleter<I, L, K, R> nonGenCompleter : nonGeneratingCompleters) {
-							final ReasonerContinuationState contState = nonGenCompleter.completeNode(
-								branchNode, nextNonGenNode);
-							if ((contState == ReasonerContinuationState.RECHECK_BRANCH) || (contState == ReasonerContinuationState.INCONSISTENT)) {
+							final ReasonerContinuationState contState = completeNode(nonGenCompleter,
+								branchNode, nextNonGenNode, metrics);
+							if ((contState == ReasonerContinuationState.RECHECK_BRANCH) || (contState == ReasonerContinuationState.INCONSISTENT)
+								|| (contState == ReasonerContinuationState.UNKNOWN)) {
 								return contState;
 							} else if (contState == ReasonerContinuationState.RECHECK_NODE) {
 								break;
@@ -725,8 +1280,11 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 			IABoxNode<I, L, K, R> nextGenNode;
 			boolean wasGenerated = false;
 			do {
+				if (budget.checkExhausted(branch)) {
+					return ReasonerContinuationState.UNKNOWN;
+				}
 				nextGenNode = abox.nextGeneratingNode();
-				if ((nextGenNode != null) && (!blockingStrategy.isBlocked(nextGenNode))) {
+				if ((nextGenNode != null) && (!isBlocked(blockingStrategy, nextGenNode, metrics))) {
 					final ConsistencyInfo<I, L, K, R> cInfo = getNodeConsistencyChecker().isConsistent(
 						nextGenNode);
 					if (cInfo.isFinallyInconsistent()) {
@@ -739,10 +1297,11 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 						 *
 						 */
 						for (ICompleter<I, L, K, R> genCompleter : generatingCompleters) {
-							final ReasonerContinuationState contState = genCompleter.completeNode(branchNode,
-								nextGenNode);
+							final ReasonerContinuationState contState = completeNode(genCompleter, branchNode,
+								nextGenNode, metrics);
 
-							if ((contState == ReasonerContinuationState.RECHECK_BRANCH) || (contState == ReasonerContinuationState.INCONSISTENT)) {
+							if ((contState == ReasonerContinuationState.RECHECK_BRANCH) || (contState == ReasonerContinuationState.INCONSISTENT)
+								|| (contState == ReasonerContinuationState.UNKNOWN)) {
 								return contState;
 							} else if (contState == ReasonerContinuationState.RECHECK_NODE) {
 								wasGenerated = true;
@@ -764,6 +1323,41 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 		return ReasonerContinuationState.DONE;
 	}
 
+	private boolean isBlocked(final IBlockingStrategy<I, L, K, R> blockingStrategy, final IABoxNode<I, L, K, R> node,
+							  final ReasonerMetrics metrics)
+	{
+		final boolean isBlocked = blockingStrategy.isBlocked(node);
+		metrics.countBlockingCheck(isBlocked);
+		return isBlocked;
+	}
+
+	private ReasonerContinuationState completeNode(final ICompleter<I, L, K, R> completer,
+												   final IDecisionTree.Node<Branch<I, L, K, R>> branchNode,
+												   final IABoxNode<I, L, K, R> node,
+												   final ReasonerMetrics metrics) throws EReasonerException
+	{
+		final long start = System.nanoTime();
+		try {
+			return completer.completeNode(branchNode, node);
+		} finally {
+			metrics.countCompleterCall(completer, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Stop working on {@literal branch}, because the budget of the query is exhausted.
+	 *
+	 * @param branch The branch being completed, when the budget ran out.
+	 * @return An unknown result holding the incomplete ABox of {@literal branch}.
+	 */
+	private ReasonerResult<I, L, K, R> giveUp(final Branch<I, L, K, R> branch)
+	{
+		final ReasonerBudget.Limit limit = branch.getBudget().getExhaustedLimit();
+		_logger.debug("Reasoner budget exhausted ({}), giving up", limit);
+		final ReasonerResult<I, L, K, R> result = branch.dispose();
+		return ReasonerResult.unknown(result.getABox(), result.getMergeMap(), result.getMetrics(), limit);
+	}
+
 	private IDecisionTree.Node<Branch<I, L, K, R>> pickBranch(final BranchTree<I, L, K, R> branchTree)
 	{
 		/*
@@ -776,15 +1370,25 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 								 final IDecisionTree.Node<Branch<I, L, K, R>> clashNode)
 	{
 		/**
-		 * implement dependency directed backtracking: remove braches when the contain the culprit terms for current
-		 * clash. (as determined by the clash information
+		 * implement dependency directed backtracking: remove branches that made the same branching decisions as the
+		 * clash node up to the highest branching level the clash depends on (as determined by the clash
+		 * information).
+		 *
+		 * An inconsistent clash node is always removed, even if no culprits were recorded for it
+		 * (e.g. because all branch actions were rejected).
 		 */
 		if ((clashNode != null) && (clashNode.getData() != null)) {
 			final ConsistencyInfo<I, L, K, R> cInfo = clashNode.getData().getConsistencyInfo();
+			final ReasonerMetrics metrics = clashNode.getData().getMetrics();
 			IDecisionTree.Node<Branch<I, L, K, R>> nextNode = pickBranch(branchTree);
 			int pruneCount = 0;
-			while ((nextNode != null) && cInfo.hasClashingTerms(nextNode.getData().getABox())) {
+			while ((nextNode != null)
+				&& (((nextNode == clashNode) && cInfo.isInconsistent())
+				|| cInfo.recursIn(nextNode.getData().getABox()))) {
 				++pruneCount;
+				if (nextNode != clashNode) {
+					metrics.countBranchPruned();
+				}
 				if ((_reasonerOptions.isTracing()) && (pruneCount > 1)) {
 					_logger.trace("DDB-pruning performed for, removed `{}'", nextNode);
 				}
@@ -793,4 +1397,167 @@ public class Reasoner<I extends Comparable<? super I>, L extends Comparable<? su
 			}
 		}
 	}
+
+	/// <editor-fold defaultstate="collapsed" desc="parallel completion">
+	/**
+	 * State shared between all {@link BranchCompletionTask}s of a single parallel completion run.
+	 */
+	private final class ParallelCompletion {
+		private final List<ICompleter<I, L, K, R>> _nonGeneratingCompleters;
+		private final List<ICompleter<I, L, K, R>> _generatingCompleters;
+		private final IBlockingStrategy<I, L, K, R> _blockingStrategy;
+		private final boolean _stopAtFirstModel;
+		/**
+		 * The clash information of all inconsistent branches found so far, in order of discovery.
+		 */
+		private final List<ConsistencyInfo<I, L, K, R>> _clashInfos = new CopyOnWriteArrayList<>();
+		private final Queue<ReasonerResult<I, L, K, R>> _results = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean _stopped = new AtomicBoolean(false);
+		private volatile EReasonerException _error;
+		/**
+		 * The unknown result, if the budget of the query ran out.
+		 */
+		private volatile ReasonerResult<I, L, K, R> _unknown;
+
+		ParallelCompletion(final List<ICompleter<I, L, K, R>> nonGeneratingCompleters,
+						   final List<ICompleter<I, L, K, R>> generatingCompleters,
+						   final IBlockingStrategy<I, L, K, R> blockingStrategy,
+						   final boolean stopAtFirstModel)
+		{
+			_nonGeneratingCompleters = nonGeneratingCompleters;
+			_generatingCompleters = generatingCompleters;
+			_blockingStrategy = blockingStrategy;
+			_stopAtFirstModel = stopAtFirstModel;
+		}
+
+		boolean isStopped()
+		{
+			return _stopped.get();
+		}
+
+		void addResult(final ReasonerResult<I, L, K, R> result)
+		{
+			if (!_stopAtFirstModel) {
+				_results.add(result);
+			} else if (_stopped.compareAndSet(false, true)) {
+				_results.add(result);
+			}
+		}
+
+		synchronized void giveUp(final ReasonerResult<I, L, K, R> unknown)
+		{
+			if (_unknown == null) {
+				_unknown = unknown;
+			}
+			_stopped.set(true);
+		}
+
+		synchronized void fail(final EReasonerException error)
+		{
+			if (_error == null) {
+				_error = error;
+			}
+			_stopped.set(true);
+		}
+	}
+
+	/**
+	 * Completes a single branch and all of its descendants that are not split off into tasks of their own.
+	 */
+	private final class BranchCompletionTask
+		extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final ParallelCompletion _completion;
+		private final Branch<I, L, K, R> _branch;
+
+		BranchCompletionTask(final ParallelCompletion completion, final Branch<I, L, K, R> branch)
+		{
+			_completion = completion;
+			_branch = branch;
+		}
+
+		@Override
+		protected void compute()
+		{
+			final List<BranchCompletionTask> subTasks = new ArrayList<>();
+			final BranchTree<I, L, K, R> branchTree = prepareBranchTree(_branch);
+			try {
+				IDecisionTree.Node<Branch<I, L, K, R>> branchNode = pickBranch(branchTree);
+				while ((branchNode != null) && (!_completion.isStopped())) {
+					if (isPrunedByForeignClash(branchNode.getData())) {
+						branchNode.remove();
+					} else {
+						final ReasonerContinuationState contState = completeBranch(branchNode,
+							_completion._nonGeneratingCompleters, _completion._generatingCompleters,
+							_completion._blockingStrategy);
+						if (contState == ReasonerContinuationState.DONE) {
+							if (!branchNode.getData().getConsistencyInfo().isInconsistent()) {
+								cacheSatisfiableLabels(branchNode.getData().getABox());
+								_completion.addResult(branchNode.getData().dispose());
+							}
+							branchNode.remove();
+						} else if (contState == ReasonerContinuationState.UNKNOWN) {
+							_completion.giveUp(giveUp(branchNode.getData()));
+						} else {
+							if (contState == ReasonerContinuationState.INCONSISTENT) {
+								_logger.trace("Inconsistent branch found: {}", branchNode.getData());
+								_logger.trace("Clash info: {}", branchNode.getData().getConsistencyInfo());
+								_completion._clashInfos.add(branchNode.getData().getConsistencyInfo());
+								branchNode.getData().getNogoods().learn(branchNode.getData().getConsistencyInfo());
+							}
+							pruneBranchTree(branchTree, branchNode);
+							splitBranches(branchTree, subTasks);
+						}
+					}
+					branchNode = pickBranch(branchTree);
+				}
+			} catch (EReasonerException ex) {
+				_completion.fail(ex);
+			}
+			_branch.getMetrics().updatePeakBranchTreeSize(branchTree.getPeakSize());
+			for (BranchCompletionTask subTask : subTasks) {
+				subTask.join();
+			}
+		}
+
+		/**
+		 * Move all leaves except the first one into new, forked tasks.
+		 */
+		private void splitBranches(final BranchTree<I, L, K, R> branchTree, final List<BranchCompletionTask> subTasks)
+		{
+			final List<IDecisionTree.Node<Branch<I, L, K, R>>> leaves = collectLeaves(branchTree.getRoot(),
+				new ArrayList<IDecisionTree.Node<Branch<I, L, K, R>>>());
+			for (IDecisionTree.Node<Branch<I, L, K, R>> leaf : leaves.subList(Math.min(1, leaves.size()), leaves.size())) {
+				final BranchCompletionTask subTask = new BranchCompletionTask(_completion, leaf.getData());
+				leaf.remove();
+				subTask.fork();
+				subTasks.add(subTask);
+			}
+		}
+
+		/**
+		 * Check the branch against all clashes published so far.
+		 * <p />
+		 * A clash that did not recur in the branch may still recur after the branch has been extended, so every check
+		 * starts over at the first clash.
+		 */
+		private boolean isPrunedByForeignClash(final Branch<I, L, K, R> branch)
+		{
+			boolean isPruned = false;
+			for (ConsistencyInfo<I, L, K, R> clashInfo : _completion._clashInfos) {
+				if (clashInfo.recursIn(branch.getABox())) {
+					isPruned = true;
+					break;
+				}
+			}
+			if (isPruned) {
+				branch.getMetrics().countBranchPruned();
+				if (_reasonerOptions.isTracing()) {
+					_logger.trace("DDB-pruning performed for, removed `{}'", branch);
+				}
+			}
+			return isPruned;
+		}
+	}
+	/// </editor-fold>
 }
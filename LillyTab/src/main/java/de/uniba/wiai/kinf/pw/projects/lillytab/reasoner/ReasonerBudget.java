@@ -0,0 +1,165 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The resource limits of a single reasoner query.
+ * <p />
+ * A budget is created when a query starts and is shared by all branches of the query. The reasoner checks it
+ * cooperatively between completion steps and before forking new branches (see {@link #checkExhausted(Branch)}).
+ * Once a limit has been hit, the budget stays exhausted and the query ends with an
+ * {@link de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult#isUnknown() unknown} result.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class ReasonerBudget
+{
+	private static final ReasonerBudget UNLIMITED = new ReasonerBudget(0, 0, 0, 0);
+	private final boolean _isUnlimited;
+	private final boolean _hasDeadline;
+	/**
+	 * The deadline, in terms of {@link System#nanoTime()}.
+	 */
+	private final long _deadline;
+	private final long _maxBranches;
+	private final long _maxABoxNodes;
+	private final long _maxClonedNodes;
+	private volatile Limit _exhaustedLimit = null;
+
+	/**
+	 * Create a new budget, starting now. Limits less than or equal to zero are not enforced.
+	 *
+	 * @param timeoutMillis The wall-clock time available to the query in milliseconds.
+	 * @param maxBranches The maximum number of branches created by the query.
+	 * @param maxABoxNodes The maximum number of nodes in a single ABox.
+	 * @param maxClonedNodes The maximum number of nodes copied while cloning ABoxes.
+	 */
+	public ReasonerBudget(final long timeoutMillis, final long maxBranches, final long maxABoxNodes,
+						  final long maxClonedNodes)
+	{
+		_hasDeadline = timeoutMillis > 0;
+		_deadline = _hasDeadline ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+		_maxBranches = maxBranches;
+		_maxABoxNodes = maxABoxNodes;
+		_maxClonedNodes = maxClonedNodes;
+		_isUnlimited = (!_hasDeadline) && (maxBranches <= 0) && (maxABoxNodes <= 0) && (maxClonedNodes <= 0);
+	}
+
+	/**
+	 * @return A budget without any limits.
+	 */
+	public static ReasonerBudget unlimited()
+	{
+		return UNLIMITED;
+	}
+
+	/**
+	 * Create a new budget with the query limits of {@literal options}, starting now.
+	 *
+	 * @param options The reasoner options.
+	 * @return A new budget.
+	 */
+	public static ReasonerBudget fromOptions(final ReasonerOptions options)
+	{
+		return new ReasonerBudget(options.getTimeout(), options.getMaxBranches(), options.getMaxABoxNodes(),
+			options.getMaxClonedNodes());
+	}
+
+	/**
+	 * Check the limits of the budget against the current state of {@literal branch}.
+	 *
+	 * @param branch The branch currently being completed.
+	 * @return {@literal true}, if the budget is exhausted.
+	 */
+	public boolean checkExhausted(final Branch<?, ?, ?, ?> branch)
+	{
+		if (_isUnlimited) {
+			return false;
+		} else if (_exhaustedLimit == null) {
+			final ReasonerMetrics metrics = branch.getMetrics();
+			if (_hasDeadline && ((System.nanoTime() - _deadline) >= 0)) {
+				_exhaustedLimit = Limit.DEADLINE;
+			} else if ((_maxBranches > 0) && (metrics.getBranchesCreated() >= _maxBranches)) {
+				_exhaustedLimit = Limit.BRANCHES;
+			} else if ((_maxABoxNodes > 0) && (branch.getABox().size() >= _maxABoxNodes)) {
+				_exhaustedLimit = Limit.ABOX_NODES;
+			} else if ((_maxClonedNodes > 0) && (metrics.getNodesCloned() >= _maxClonedNodes)) {
+				_exhaustedLimit = Limit.CLONED_NODES;
+			}
+		}
+		return _exhaustedLimit != null;
+	}
+
+	/**
+	 * @return {@literal true}, if a limit of the budget has been hit.
+	 */
+	public boolean isExhausted()
+	{
+		return _exhaustedLimit != null;
+	}
+
+	/**
+	 * @return The limit that has been hit first, or {@literal null}, if the budget is not exhausted.
+	 */
+	public Limit getExhaustedLimit()
+	{
+		return _exhaustedLimit;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (_isUnlimited) {
+			return "unlimited";
+		} else if (_exhaustedLimit != null) {
+			return "exhausted (" + _exhaustedLimit + ")";
+		} else {
+			return "available";
+		}
+	}
+
+	/**
+	 * The limits of a budget.
+	 */
+	public enum Limit
+	{
+		/**
+		 * The wall-clock deadline has passed.
+		 */
+		DEADLINE,
+		/**
+		 * Too many branches were created.
+		 */
+		BRANCHES,
+		/**
+		 * An ABox grew too large.
+		 */
+		ABOX_NODES,
+		/**
+		 * Too many nodes were copied while cloning ABoxes.
+		 */
+		CLONED_NODES
+	}
+}
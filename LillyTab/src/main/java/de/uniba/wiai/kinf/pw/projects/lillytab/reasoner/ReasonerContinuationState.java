@@ -52,5 +52,10 @@ public enum ReasonerContinuationState {
 	 * as normal.
 	 *
 	 */
-	DONE
+	DONE,
+	/**
+	 * The {@link ReasonerBudget} of the query is exhausted. Reasoning stops without a definite answer.
+	 *
+	 */
+	UNKNOWN
 }
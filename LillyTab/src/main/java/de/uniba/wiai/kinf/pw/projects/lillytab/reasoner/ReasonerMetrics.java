@@ -0,0 +1,337 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.ICompleter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters describing the work performed by the {@link Reasoner}.
+ * <p />
+ * Each query collects its own metrics, which are shared by all branches of the query and attached to the query's
+ * {@link IReasonerResult}s. The reasoner sums up the metrics of all queries, see {@link Reasoner#getMetrics() }.
+ * <p />
+ * All counters are thread safe and cheap enough to stay enabled.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class ReasonerMetrics
+{
+	private final LongAdder _queries = new LongAdder();
+	private final ConcurrentMap<Class<?>, CompleterMetrics> _completerMetrics = new ConcurrentHashMap<>();
+	private final LongAdder _branchesCreated = new LongAdder();
+	private final LongAdder _branchesPruned = new LongAdder();
+	private final LongAdder _aboxClones = new LongAdder();
+	private final LongAdder _nodesCloned = new LongAdder();
+	private final LongAdder _nodeMerges = new LongAdder();
+	private final LongAdder _blockingChecks = new LongAdder();
+	private final LongAdder _blockedNodes = new LongAdder();
+	private final LongAdder _cacheHits = new LongAdder();
+	private final LongAdder _nogoodHits = new LongAdder();
+	private final LongAdder _pseudoModelMerges = new LongAdder();
+	private final LongAccumulator _peakBranchTreeSize = new LongAccumulator(Math::max, 0);
+
+	public ReasonerMetrics()
+	{
+	}
+
+	/// <editor-fold defaultstate="collapsed" desc="counting">
+	public void countQuery()
+	{
+		_queries.increment();
+	}
+
+	/**
+	 * Record a single invocation of a completer.
+	 *
+	 * @param completer The invoked completer.
+	 * @param nanos The time spent in the completer in nanoseconds.
+	 */
+	public void countCompleterCall(final ICompleter<?, ?, ?, ?> completer, final long nanos)
+	{
+		getCompleterMetrics(completer.getClass()).count(1, nanos);
+	}
+
+	public void countBranchesCreated(final int count)
+	{
+		_branchesCreated.add(count);
+	}
+
+	public void countBranchPruned()
+	{
+		_branchesPruned.increment();
+	}
+
+	/**
+	 * Record an ABox copy.
+	 *
+	 * @param nodeCount The number of nodes in the copied ABox.
+	 */
+	public void countABoxClone(final int nodeCount)
+	{
+		_aboxClones.increment();
+		_nodesCloned.add(nodeCount);
+	}
+
+	public void countNodeMerge()
+	{
+		_nodeMerges.increment();
+	}
+
+	public void countBlockingCheck(final boolean isBlocked)
+	{
+		_blockingChecks.increment();
+		if (isBlocked) {
+			_blockedNodes.increment();
+		}
+	}
+
+	public void countCacheHit()
+	{
+		_cacheHits.increment();
+	}
+
+	public void countNogoodHit()
+	{
+		_nogoodHits.increment();
+	}
+
+	public void countPseudoModelMerge()
+	{
+		_pseudoModelMerges.increment();
+	}
+
+	public void updatePeakBranchTreeSize(final int size)
+	{
+		_peakBranchTreeSize.accumulate(size);
+	}
+
+	/**
+	 * Add the counters of {@literal other} to the current metrics. The peak branch tree size becomes the maximum of
+	 * both.
+	 *
+	 * @param other The metrics to add.
+	 */
+	public void addAll(final ReasonerMetrics other)
+	{
+		_queries.add(other.getQueries());
+		for (Map.Entry<Class<?>, CompleterMetrics> entry : other._completerMetrics.entrySet()) {
+			getCompleterMetrics(entry.getKey()).count(entry.getValue().getCalls(), entry.getValue().getNanos());
+		}
+		_branchesCreated.add(other.getBranchesCreated());
+		_branchesPruned.add(other.getBranchesPruned());
+		_aboxClones.add(other.getABoxClones());
+		_nodesCloned.add(other.getNodesCloned());
+		_nodeMerges.add(other.getNodeMerges());
+		_blockingChecks.add(other.getBlockingChecks());
+		_blockedNodes.add(other.getBlockedNodes());
+		_cacheHits.add(other.getCacheHits());
+		_nogoodHits.add(other.getNogoodHits());
+		_pseudoModelMerges.add(other.getPseudoModelMerges());
+		_peakBranchTreeSize.accumulate(other.getPeakBranchTreeSize());
+	}
+
+	public void reset()
+	{
+		_queries.reset();
+		_completerMetrics.clear();
+		_branchesCreated.reset();
+		_branchesPruned.reset();
+		_aboxClones.reset();
+		_nodesCloned.reset();
+		_nodeMerges.reset();
+		_blockingChecks.reset();
+		_blockedNodes.reset();
+		_cacheHits.reset();
+		_nogoodHits.reset();
+		_pseudoModelMerges.reset();
+		_peakBranchTreeSize.reset();
+	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="getters">
+	public long getQueries()
+	{
+		return _queries.sum();
+	}
+
+	/**
+	 * @return The metrics of all completers invoked so far, indexed by completer class.
+	 */
+	public Map<Class<?>, CompleterMetrics> getCompleterMetrics()
+	{
+		return Collections.unmodifiableMap(_completerMetrics);
+	}
+
+	/**
+	 * @return The number of branches opened in addition to the initial branch, either as a fork of the branch tree or
+	 * as an alternative of a choice point.
+	 */
+	public long getBranchesCreated()
+	{
+		return _branchesCreated.sum();
+	}
+
+	/**
+	 * @return The number of branches skipped by dependency directed backtracking.
+	 */
+	public long getBranchesPruned()
+	{
+		return _branchesPruned.sum();
+	}
+
+	public long getABoxClones()
+	{
+		return _aboxClones.sum();
+	}
+
+	public long getNodesCloned()
+	{
+		return _nodesCloned.sum();
+	}
+
+	public long getNodeMerges()
+	{
+		return _nodeMerges.sum();
+	}
+
+	public long getBlockingChecks()
+	{
+		return _blockingChecks.sum();
+	}
+
+	public long getBlockedNodes()
+	{
+		return _blockedNodes.sum();
+	}
+
+	/**
+	 * @return The number of satisfiability cache lookups that made a tableau expansion unnecessary.
+	 */
+	public long getCacheHits()
+	{
+		return _cacheHits.sum();
+	}
+
+	/**
+	 * @return The number of branch actions rejected, because they would have completed a learned nogood.
+	 */
+	public long getNogoodHits()
+	{
+		return _nogoodHits.sum();
+	}
+
+	/**
+	 * @return The number of subsumption tests answered by merging pseudo models.
+	 */
+	public long getPseudoModelMerges()
+	{
+		return _pseudoModelMerges.sum();
+	}
+
+	/**
+	 * @return The maximum number of open leaves of a single branch tree.
+	 */
+	public long getPeakBranchTreeSize()
+	{
+		return _peakBranchTreeSize.get();
+	}
+	/// </editor-fold>
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append("ReasonerMetrics{queries=").append(getQueries());
+		sb.append(", branchesCreated=").append(getBranchesCreated());
+		sb.append(", branchesPruned=").append(getBranchesPruned());
+		sb.append(", aboxClones=").append(getABoxClones());
+		sb.append(", nodesCloned=").append(getNodesCloned());
+		sb.append(", nodeMerges=").append(getNodeMerges());
+		sb.append(", blockingChecks=").append(getBlockingChecks());
+		sb.append(", blockedNodes=").append(getBlockedNodes());
+		sb.append(", cacheHits=").append(getCacheHits());
+		sb.append(", nogoodHits=").append(getNogoodHits());
+		sb.append(", pseudoModelMerges=").append(getPseudoModelMerges());
+		sb.append(", peakBranchTreeSize=").append(getPeakBranchTreeSize());
+		final Map<String, CompleterMetrics> completerMetrics = new TreeMap<>();
+		for (Map.Entry<Class<?>, CompleterMetrics> entry : _completerMetrics.entrySet()) {
+			completerMetrics.put(entry.getKey().getSimpleName(), entry.getValue());
+		}
+		sb.append(", completers=").append(completerMetrics);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private CompleterMetrics getCompleterMetrics(final Class<?> completerClass)
+	{
+		CompleterMetrics metrics = _completerMetrics.get(completerClass);
+		if (metrics == null) {
+			metrics = _completerMetrics.computeIfAbsent(completerClass, k -> new CompleterMetrics());
+		}
+		return metrics;
+	}
+
+	/// <editor-fold defaultstate="collapsed" desc="class CompleterMetrics">
+	/**
+	 * Invocation count and accumulated run time of a single completer.
+	 */
+	public static final class CompleterMetrics
+	{
+		private final LongAdder _calls = new LongAdder();
+		private final LongAdder _nanos = new LongAdder();
+
+		void count(final long calls, final long nanos)
+		{
+			_calls.add(calls);
+			_nanos.add(nanos);
+		}
+
+		public long getCalls()
+		{
+			return _calls.sum();
+		}
+
+		/**
+		 * @return The accumulated time spent in the completer in nanoseconds.
+		 */
+		public long getNanos()
+		{
+			return _nanos.sum();
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("{calls=%d, ms=%.3f}", getCalls(), getNanos() / 1e6);
+		}
+	}
+	/// </editor-fold>
+}
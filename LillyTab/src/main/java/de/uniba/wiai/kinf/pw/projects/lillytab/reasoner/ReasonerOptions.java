@@ -56,6 +56,82 @@ public final class ReasonerOptions
 	 *
 	 */
 	private boolean _semanticBranching = false;
+	/**
+	 * Complete independent branches of the branch tree concurrently.
+	 * <p />
+	 * Each branch's ABox is confined to a single worker thread.
+	 *
+	 */
+	private boolean _parallelCompletion = false;
+	/**
+	 * The number of worker threads used for parallel branch completion.
+	 * Values less than one select the number of available processors.
+	 *
+	 */
+	private int _parallelism = 0;
+	/**
+	 * Run independent satisfiability and subsumption tests concurrently during classification.
+	 *
+	 */
+	private boolean _parallelClassification = false;
+	/**
+	 * Remember the satisfiability of node label sets across branches and queries.
+	 *
+	 */
+	private boolean _satisfiabilityCaching = true;
+	/**
+	 * The maximum number of label sets kept in the satisfiability cache of a single TBox.
+	 *
+	 */
+	private int _satisfiabilityCacheSize = 4096;
+	/**
+	 * Explore disjunctive alternatives depth-first on a single ABox, undoing changes via a trail,
+	 * instead of cloning the ABox for each alternative. Not used with parallel completion.
+	 *
+	 */
+	private boolean _trailBacktracking = false;
+	/**
+	 * The heuristic that selects the union to branch on and the order of its disjuncts.
+	 *
+	 */
+	private BranchingHeuristic _branchingHeuristic = BranchingHeuristic.SORT_ORDER;
+	/**
+	 * The maximum number of learned nogoods (clashing term entry sets) kept per query. Zero disables nogood learning.
+	 *
+	 */
+	private int _nogoodCacheSize = 256;
+	/**
+	 * Allow nodes to be blocked by any older node with a suitable label, instead of only by their ancestors.
+	 *
+	 */
+	private boolean _anywhereBlocking = false;
+	/**
+	 * Answer subsumption tests negatively, if the cached pseudo models of the presumed sub class and of the negated
+	 * presumed super class can be merged. Requires satisfiability caching.
+	 *
+	 */
+	private boolean _pseudoModelMerging = true;
+	/**
+	 * The wall-clock time available to a single query in milliseconds. Zero disables the limit.
+	 *
+	 * @see ReasonerBudget
+	 */
+	private long _timeout = 0;
+	/**
+	 * The maximum number of branches a single query may create. Zero disables the limit.
+	 *
+	 */
+	private long _maxBranches = 0;
+	/**
+	 * The maximum number of nodes in a single ABox of a query. Zero disables the limit.
+	 *
+	 */
+	private long _maxABoxNodes = 0;
+	/**
+	 * The maximum number of nodes a single query may copy while cloning ABoxes. Zero disables the limit.
+	 *
+	 */
+	private long _maxClonedNodes = 0;
 
 	public ReasonerOptions()
 	{
@@ -93,6 +169,118 @@ public final class ReasonerOptions
 		return _semanticBranching;
 	}
 
+	/**
+	 * @return the _parallelCompletion
+	 */
+	public boolean isParallelCompletion()
+	{
+		return _parallelCompletion;
+	}
+
+	/**
+	 * @return the _parallelism
+	 */
+	public int getParallelism()
+	{
+		return _parallelism;
+	}
+
+	/**
+	 * @return the _parallelClassification
+	 */
+	public boolean isParallelClassification()
+	{
+		return _parallelClassification;
+	}
+
+	/**
+	 * @return the _satisfiabilityCaching
+	 */
+	public boolean isSatisfiabilityCaching()
+	{
+		return _satisfiabilityCaching;
+	}
+
+	/**
+	 * @return the _satisfiabilityCacheSize
+	 */
+	public int getSatisfiabilityCacheSize()
+	{
+		return _satisfiabilityCacheSize;
+	}
+
+	/**
+	 * @return the _trailBacktracking
+	 */
+	public boolean isTrailBacktracking()
+	{
+		return _trailBacktracking;
+	}
+
+	/**
+	 * @return the _branchingHeuristic
+	 */
+	public BranchingHeuristic getBranchingHeuristic()
+	{
+		return _branchingHeuristic;
+	}
+
+	/**
+	 * @return the _nogoodCacheSize
+	 */
+	public int getNogoodCacheSize()
+	{
+		return _nogoodCacheSize;
+	}
+
+	/**
+	 * @return the _anywhereBlocking
+	 */
+	public boolean isAnywhereBlocking()
+	{
+		return _anywhereBlocking;
+	}
+
+	/**
+	 * @return the _pseudoModelMerging
+	 */
+	public boolean isPseudoModelMerging()
+	{
+		return _pseudoModelMerging;
+	}
+
+	/**
+	 * @return the _timeout
+	 */
+	public long getTimeout()
+	{
+		return _timeout;
+	}
+
+	/**
+	 * @return the _maxBranches
+	 */
+	public long getMaxBranches()
+	{
+		return _maxBranches;
+	}
+
+	/**
+	 * @return the _maxABoxNodes
+	 */
+	public long getMaxABoxNodes()
+	{
+		return _maxABoxNodes;
+	}
+
+	/**
+	 * @return the _maxClonedNodes
+	 */
+	public long getMaxClonedNodes()
+	{
+		return _maxClonedNodes;
+	}
+
 	/**
 	 * @param tracing the _tracing to set
 	 */
@@ -124,4 +312,139 @@ public final class ReasonerOptions
 	{
 		this._semanticBranching = semanticBranching;
 	}
+
+	/**
+	 * @param parallelCompletion the _parallelCompletion to set
+	 */
+	public void setParallelCompletion(boolean parallelCompletion)
+	{
+		this._parallelCompletion = parallelCompletion;
+	}
+
+	/**
+	 * @param parallelism the _parallelism to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this._parallelism = parallelism;
+	}
+
+	/**
+	 * @param parallelClassification the _parallelClassification to set
+	 */
+	public void setParallelClassification(boolean parallelClassification)
+	{
+		this._parallelClassification = parallelClassification;
+	}
+
+	/**
+	 * @param satisfiabilityCaching the _satisfiabilityCaching to set
+	 */
+	public void setSatisfiabilityCaching(boolean satisfiabilityCaching)
+	{
+		this._satisfiabilityCaching = satisfiabilityCaching;
+	}
+
+	/**
+	 * @param satisfiabilityCacheSize the _satisfiabilityCacheSize to set
+	 */
+	public void setSatisfiabilityCacheSize(int satisfiabilityCacheSize)
+	{
+		this._satisfiabilityCacheSize = satisfiabilityCacheSize;
+	}
+
+	/**
+	 * @param trailBacktracking the _trailBacktracking to set
+	 */
+	public void setTrailBacktracking(boolean trailBacktracking)
+	{
+		this._trailBacktracking = trailBacktracking;
+	}
+
+	/**
+	 * @param branchingHeuristic the _branchingHeuristic to set
+	 */
+	public void setBranchingHeuristic(BranchingHeuristic branchingHeuristic)
+	{
+		this._branchingHeuristic = branchingHeuristic;
+	}
+
+	/**
+	 * @param nogoodCacheSize the _nogoodCacheSize to set
+	 */
+	public void setNogoodCacheSize(int nogoodCacheSize)
+	{
+		this._nogoodCacheSize = nogoodCacheSize;
+	}
+
+	/**
+	 * @param anywhereBlocking the _anywhereBlocking to set
+	 */
+	public void setAnywhereBlocking(boolean anywhereBlocking)
+	{
+		this._anywhereBlocking = anywhereBlocking;
+	}
+
+	/**
+	 * @param pseudoModelMerging the _pseudoModelMerging to set
+	 */
+	public void setPseudoModelMerging(boolean pseudoModelMerging)
+	{
+		this._pseudoModelMerging = pseudoModelMerging;
+	}
+
+	/**
+	 * @param timeout the _timeout to set
+	 */
+	public void setTimeout(long timeout)
+	{
+		this._timeout = timeout;
+	}
+
+	/**
+	 * @param maxBranches the _maxBranches to set
+	 */
+	public void setMaxBranches(long maxBranches)
+	{
+		this._maxBranches = maxBranches;
+	}
+
+	/**
+	 * @param maxABoxNodes the _maxABoxNodes to set
+	 */
+	public void setMaxABoxNodes(long maxABoxNodes)
+	{
+		this._maxABoxNodes = maxABoxNodes;
+	}
+
+	/**
+	 * @param maxClonedNodes the _maxClonedNodes to set
+	 */
+	public void setMaxClonedNodes(long maxClonedNodes)
+	{
+		this._maxClonedNodes = maxClonedNodes;
+	}
+
+	/**
+	 * The available branching heuristics for union expansion.
+	 */
+	public enum BranchingHeuristic
+	{
+		/**
+		 * Branch on the first union in term order, try disjuncts as listed.
+		 */
+		SORT_ORDER,
+		/**
+		 * Branch on the union with the fewest remaining disjuncts, try disjuncts by Jeroslow-Wang score.
+		 */
+		MOST_CONSTRAINED,
+		/**
+		 * Branch on the union with the shortest derivation, try disjuncts as listed.
+		 */
+		OLDEST_FIRST,
+		/**
+		 * Branch on the first union in term order, try the smallest disjuncts first.
+		 */
+		SMALLEST_DISJUNCT_FIRST
+	}
 }
@@ -24,6 +24,7 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
 import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
@@ -39,24 +40,99 @@ public class ReasonerResult<I extends Comparable<? super I>, L extends Comparabl
 	implements IReasonerResult<I, L, K, R> {
 	private final IABox<I, L, K, R> _abox;
 	private final Map<NodeID, NodeID> _mergeMap;
+	private final ReasonerMetrics _metrics;
+	/**
+	 * {@literal true}, if the result was derived from another result, that was not deterministic.
+	 */
+	private final boolean _inheritsChoices;
+	/**
+	 * The limit that stopped the query, if the result is unknown.
+	 */
+	private final ReasonerBudget.Limit _exhaustedLimit;
+
+
+	protected ReasonerResult(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap,
+							 final ReasonerMetrics metrics)
+	{
+		this(abox, mergeMap, metrics, false);
+	}
+
+
+	protected ReasonerResult(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap,
+							 final ReasonerMetrics metrics, final boolean inheritsChoices)
+	{
+		this(abox, mergeMap, metrics, inheritsChoices, null);
+	}
 
 
-	protected ReasonerResult(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap)
+	private ReasonerResult(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap,
+						   final ReasonerMetrics metrics, final boolean inheritsChoices,
+						   final ReasonerBudget.Limit exhaustedLimit)
 	{
 		_abox = abox;
 		_mergeMap = mergeMap;
+		_metrics = metrics;
+		_inheritsChoices = inheritsChoices;
+		_exhaustedLimit = exhaustedLimit;
+	}
+
+
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> ReasonerResult<I, L, K, R> create(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap, final ReasonerMetrics metrics)
+	{
+		return new ReasonerResult<>(abox, mergeMap, metrics);
 	}
 
 
 		public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> ReasonerResult<I, L, K, R> create(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap)
 	{
-		return new ReasonerResult<>(abox, mergeMap);
+		return new ReasonerResult<>(abox, mergeMap, new ReasonerMetrics());
 	}
 
 
 		public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> ReasonerResult<I, L, K, R> create(final IABox<I, L, K, R> abox)
 	{
-		return new ReasonerResult<>(abox, null);
+		return new ReasonerResult<>(abox, null, new ReasonerMetrics());
+	}
+
+
+	/**
+	 * Create an unknown result for a query that ran out of budget.
+	 *
+	 * @param abox The incomplete ABox the query stopped at.
+	 * @param mergeMap The node merges performed so far.
+	 * @param metrics The metrics of the query.
+	 * @param exhaustedLimit The limit that was hit.
+	 * @return A new, unknown result.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> ReasonerResult<I, L, K, R> unknown(final IABox<I, L, K, R> abox, final Map<NodeID, NodeID> mergeMap, final ReasonerMetrics metrics, final ReasonerBudget.Limit exhaustedLimit)
+	{
+		return new ReasonerResult<>(abox, mergeMap, metrics, true, exhaustedLimit);
+	}
+
+
+	/**
+	 * Determine, if a query found a model.
+	 *
+	 * @param results The results of a query.
+	 * @return {@literal true}, if {@literal results} contains at least one model.
+	 * @throws EReasonerBudgetException The query ran out of budget before a model was found or ruled out.
+	 */
+	public static boolean hasModel(final Collection<? extends IReasonerResult<?, ?, ?, ?>> results)
+		throws EReasonerBudgetException
+	{
+		IReasonerResult<?, ?, ?, ?> unknown = null;
+		for (IReasonerResult<?, ?, ?, ?> result : results) {
+			if (!result.isUnknown()) {
+				return true;
+			} else {
+				unknown = result;
+			}
+		}
+		if (unknown != null) {
+			throw new EReasonerBudgetException(
+				(unknown instanceof ReasonerResult) ? ((ReasonerResult<?, ?, ?, ?>) unknown).getExhaustedLimit() : null);
+		}
+		return false;
 	}
 
 
@@ -70,7 +146,48 @@ public class ReasonerResult<I extends Comparable<? super I>, L extends Comparabl
 	@Override
 	public Map<NodeID, NodeID> getMergeMap()
 	{
-		return Collections.unmodifiableMap(_mergeMap);
+		if (_mergeMap == null) {
+			return null;
+		} else {
+			return Collections.unmodifiableMap(_mergeMap);
+		}
+	}
+
+
+	@Override
+	public ReasonerMetrics getMetrics()
+	{
+		return _metrics;
+	}
+
+
+	@Override
+	public boolean isUnknown()
+	{
+		return _exhaustedLimit != null;
+	}
+
+
+	/**
+	 * @return The limit that stopped the query, or {@literal null}, if the result is not unknown.
+	 */
+	public ReasonerBudget.Limit getExhaustedLimit()
+	{
+		return _exhaustedLimit;
+	}
+
+
+	/**
+	 * Determine, if no choice between alternatives was made on the way to this result. Every model of the input
+	 * ABox then extends the ABox of a deterministic result.
+	 * <p />
+	 * The check is conservative, as the metrics are shared by all results of a query.
+	 *
+	 * @return {@literal true}, if the result is known to be deterministic.
+	 */
+	public boolean isDeterministic()
+	{
+		return (!_inheritsChoices) && (_metrics.getBranchesCreated() == 0);
 	}
 
 
@@ -0,0 +1,275 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.TBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.TermUtil;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ *
+ * A bounded cache of satisfiability verdicts for node label sets.
+ * <p />
+ * A label set is satisfiable, if it appeared as the term set of a node in a complete, clash-free tableau. It is
+ * unsatisfiable, if a tableau starting from a single node with that label set and an otherwise empty ABox could not be
+ * completed. Both verdicts only depend on the TBox and the RBox, so the cache is shared by all branches and queries
+ * against the same TBox. Unsatisfiable verdicts are valid in any context. Satisfiable verdicts may only be used to
+ * skip the expansion of a node, if the node cannot influence the rest of the ABox, see
+ * {@link #isContextIndependent(Collection)}.
+ * <p />
+ * The cache also keeps {@link PseudoModel}s of single concepts. Pseudo models are built from a tableau for the
+ * concept on an otherwise empty ABox and are only meaningful for such ABoxes.
+ * <p />
+ * The cache discards the least recently used entries, when it grows beyond its capacity. It is cleared automatically,
+ * when the TBox or the RBox changes.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class SatisfiabilityCache<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private final Map<Set<IDLTerm<I, L, K, R>>, Boolean> _verdicts;
+	private final Map<IDLClassExpression<I, L, K, R>, PseudoModel<I, L, K, R>> _pseudoModels;
+	private boolean _isValid = false;
+	/**
+	 * The TBox generation (or a hash of the TBox, if it does not keep a generation) the cache is valid for.
+	 */
+	private int _tboxGeneration;
+	/**
+	 * The modification count of the RBox the cache is valid for.
+	 */
+	private int _rboxModificationCount;
+	private boolean _haveNominals;
+	private boolean _haveInverseRoles;
+	private long _hits = 0;
+	private long _misses = 0;
+
+	public SatisfiabilityCache(final int capacity)
+	{
+		_verdicts = new LinkedHashMap<Set<IDLTerm<I, L, K, R>>, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Set<IDLTerm<I, L, K, R>>, Boolean> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+		_pseudoModels = new LinkedHashMap<IDLClassExpression<I, L, K, R>, PseudoModel<I, L, K, R>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+				final Map.Entry<IDLClassExpression<I, L, K, R>, PseudoModel<I, L, K, R>> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Make sure the cache matches the current state of {@literal tbox} and its RBox. If the TBox or the RBox have
+	 * changed since the last call, all verdicts are discarded.
+	 * <p />
+	 * Changes are detected by the generation of the TBox and the modification count of the RBox (see
+	 * {@link de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IAssertedRBox#getModificationCount() }), so this is cheap
+	 * for an unmodified TBox.
+	 *
+	 * @param tbox The TBox this cache belongs to.
+	 */
+	public synchronized void validate(final ITBox<I, L, K, R> tbox)
+	{
+		final int tboxGeneration;
+		if (tbox instanceof TBox) {
+			tboxGeneration = ((TBox<I, L, K, R>) tbox).getGeneration();
+		} else {
+			tboxGeneration = unorderedHash(tbox);
+		}
+		final int rboxModificationCount = tbox.getAssertedRBox().getModificationCount();
+		if ((!_isValid) || (tboxGeneration != _tboxGeneration) || (rboxModificationCount != _rboxModificationCount)) {
+			_verdicts.clear();
+			_pseudoModels.clear();
+			_isValid = true;
+			_tboxGeneration = tboxGeneration;
+			_rboxModificationCount = rboxModificationCount;
+			_haveInverseRoles = tbox.getRBox().hasInverseRoles();
+			_haveNominals = false;
+			for (IDLTerm<I, L, K, R> term : tbox) {
+				if (hasNominals(term)) {
+					_haveNominals = true;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param label A node label set
+	 * @return {@literal true}, if {@literal label} is known to be satisfiable.
+	 */
+	public boolean isSatisfiable(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		return Boolean.TRUE.equals(get(label));
+	}
+
+	/**
+	 * @param label A node label set
+	 * @return {@literal true}, if {@literal label} is known to be unsatisfiable.
+	 */
+	public boolean isUnsatisfiable(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		return Boolean.FALSE.equals(get(label));
+	}
+
+	/**
+	 * @param label A node label set
+	 * @return The cached verdict for {@literal label} or {@literal null}, if the satisfiability of {@literal label}
+	 * is not known.
+	 */
+	public synchronized Boolean get(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		final Boolean verdict = _verdicts.get(new HashSet<>(label));
+		if (verdict == null) {
+			++_misses;
+		} else {
+			++_hits;
+		}
+		return verdict;
+	}
+
+	public void putSatisfiable(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		put(label, true);
+	}
+
+	public void putUnsatisfiable(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		put(label, false);
+	}
+
+	private synchronized void put(final Collection<? extends IDLTerm<I, L, K, R>> label, final boolean isSatisfiable)
+	{
+		final Set<IDLTerm<I, L, K, R>> key = Collections.unmodifiableSet(new HashSet<>(label));
+		final Boolean oldVerdict = _verdicts.put(key, isSatisfiable);
+		assert (oldVerdict == null) || (oldVerdict == isSatisfiable);
+	}
+
+	/**
+	 * @param concept A concept in NNF
+	 * @return The cached pseudo model for {@literal concept} or {@literal null}, if none is known.
+	 */
+	public synchronized PseudoModel<I, L, K, R> getPseudoModel(final IDLClassExpression<I, L, K, R> concept)
+	{
+		return _pseudoModels.get(concept);
+	}
+
+	public synchronized void putPseudoModel(final IDLClassExpression<I, L, K, R> concept,
+											final PseudoModel<I, L, K, R> pseudoModel)
+	{
+		_pseudoModels.put(concept, pseudoModel);
+	}
+
+	/**
+	 * Determine, if the satisfiability of a node with the specified label is independent of the rest of the ABox.
+	 * This is the case, if there are no inverse roles, that could propagate information back to the node's
+	 * predecessors, and no nominals that could connect the node's successors to other parts of the ABox.
+	 *
+	 * @param label A node label set
+	 * @return {@literal true}, if a satisfiable verdict for {@literal label} may be used in place of expanding the
+	 * node.
+	 */
+	public synchronized boolean isContextIndependent(final Collection<? extends IDLTerm<I, L, K, R>> label)
+	{
+		if (_haveInverseRoles || _haveNominals) {
+			return false;
+		}
+		for (IDLTerm<I, L, K, R> term : label) {
+			if (hasNominals(term)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public synchronized int size()
+	{
+		return _verdicts.size();
+	}
+
+	public synchronized long getHits()
+	{
+		return _hits;
+	}
+
+	public synchronized long getMisses()
+	{
+		return _misses;
+	}
+
+	public synchronized void clear()
+	{
+		_verdicts.clear();
+		_pseudoModels.clear();
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return String.format("SatisfiabilityCache{size=%d, hits=%d, misses=%d}", _verdicts.size(), _hits, _misses);
+	}
+
+	/**
+	 * @param term A term
+	 * @return {@literal true}, if {@literal term} contains a nominal.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean hasNominals(final IDLTerm<I, L, K, R> term)
+	{
+		/* the class literal of the generic IDLIndividualReference is necessarily raw */
+		final Class<IDLIndividualReference<I, L, K, R>> nominalType = (Class<IDLIndividualReference<I, L, K, R>>) (Class<?>) IDLIndividualReference.class;
+		return !TermUtil.collectSubTerms(term, nominalType).isEmpty();
+	}
+
+	private static int unorderedHash(final Iterable<?> items)
+	{
+		int hash = 0;
+		if (items != null) {
+			for (Object item : items) {
+				hash += item.hashCode();
+			}
+		}
+		return hash;
+	}
+}
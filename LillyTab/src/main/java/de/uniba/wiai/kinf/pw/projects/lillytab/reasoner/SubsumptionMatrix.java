@@ -0,0 +1,130 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ *
+ * A square matrix of (possibly still unknown) subsumption relations between the classes of a class list.
+ * <p />
+ * {@literal (get(i, j) == 1) ==> (i ⊑ j)}, {@literal (get(i, j) == -1) ==> ¬(i ⊑ j)} and {@literal get(i, j) == 0}
+ * if the relation has not been decided, yet.
+ * <p />
+ * All accessors are synchronized, so that concurrently running subsumption tests can share the results of
+ * propagation and skip tests that have already been decided.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+final class SubsumptionMatrix {
+	private static final Logger _logger = LoggerFactory.getLogger(SubsumptionMatrix.class);
+	private final byte[][] _matrix;
+
+	SubsumptionMatrix(final int size)
+	{
+		_matrix = new byte[size][];
+		for (int i = 0; i < size; ++i) {
+			_matrix[i] = new byte[size];
+			Arrays.fill(_matrix[i], (byte) 0);
+		}
+	}
+
+	public int size()
+	{
+		return _matrix.length;
+	}
+
+	public synchronized byte get(final int row, final int col)
+	{
+		return _matrix[row][col];
+	}
+
+	public synchronized boolean isDecided(final int row, final int col)
+	{
+		return _matrix[row][col] != 0;
+	}
+
+	/**
+	 * Set a single entry without propagation.
+	 *
+	 * @param row The row (subclass) index.
+	 * @param col The column (superclass) index.
+	 * @param value The new value.
+	 */
+	public synchronized void set(final int row, final int col, final byte value)
+	{
+		_matrix[row][col] = value;
+	}
+
+	/**
+	 * Record the result of a subsumption test and propagate it to all entries that can be derived from it.
+	 *
+	 * @param row The row (subclass) index.
+	 * @param col The column (superclass) index.
+	 * @param isSub The result of the subsumption test.
+	 * @return {@literal false}, if the entry was already decided by another test.
+	 */
+	public synchronized boolean decide(final int row, final int col, final boolean isSub)
+	{
+		if (_matrix[row][col] != 0) {
+			return false;
+		} else {
+			_matrix[row][col] = isSub ? (byte) 1 : (byte) -1;
+			propagate(row, col);
+			return true;
+		}
+	}
+
+	private void propagate(final int changedRow, final int changedCol)
+	{
+		final Queue<int[]> queue = new ArrayDeque<>();
+		queue.add(new int[]{changedRow, changedCol});
+
+		while (!queue.isEmpty()) {
+			final int[] item = queue.remove();
+			final int i = item[0];
+			final int j = item[1];
+			_logger.trace("Propagating from change at ({}, {})", i, j);
+			final int ij = _matrix[i][j];
+			for (int s = 0; s < _matrix.length; ++s) {
+				if (ij == 1) {
+					if ((_matrix[s][i] == 1) && (_matrix[s][j] == 0)) {
+						/* i ⊑ j, s ⊑ i => s ⊑ j */
+						_matrix[s][j] = 1;
+						queue.add(new int[]{s, j});
+					}
+				} else if (ij == -1) {
+					if ((_matrix[s][j] == 1) && (_matrix[i][s] == 0)) {
+						/* ¬(i ⊑ j), s ⊑ j => ¬(i ⊑ s) */
+						_matrix[i][s] = -1;
+						queue.add(new int[]{i, s});
+					}
+				}
+			}
+		}
+	}
+}
@@ -26,6 +26,7 @@ import de.dhke.projects.cutil.collections.aspect.AspectSortedSet;
 import de.dhke.projects.cutil.collections.aspect.ICollectionListener;
 import de.dhke.projects.cutil.collections.factories.ICollectionFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ABoxNodeEvent;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
@@ -48,6 +49,8 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IAssertedRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLLiteralReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLRoleOperator;
@@ -57,9 +60,11 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.TermUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.util.LinearSequenceNumberGenerator;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -88,7 +93,7 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 	 * node id sequence generator
 	 *
 	 */
-	protected final LinearSequenceNumberGenerator _nodeIDGenerator;
+	protected LinearSequenceNumberGenerator _nodeIDGenerator;
 	/**
 	 * The node map maps both node names and {@link NodeID}s to nodes.
 	 *
@@ -126,7 +131,7 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 	 * The ABox-internal state blocking state cache used by {@link IBlockingStrategy}.
 	 *
 	 */
-	private final IBlockingStateCache _blockingStateCache;
+	private IBlockingStateCache _blockingStateCache;
 	/**
 	 * The set of node {@link ITermSetListener}s.
 	 *
@@ -141,7 +146,7 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 	 * The {@link IDependencyMap}
 	 *
 	 */
-	private final DependencyMap<I, L, K, R> _dependencyMap;
+	private DependencyMap<I, L, K, R> _dependencyMap;
 	private final List<INodeMergeListener<I, L, K, R>> _nodeMergeListeners = new ArrayList<>();
 	/**
 	 * Node queue management
@@ -150,6 +155,10 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 	private final SortedSet<NodeID> _generatingQueue = new TreeSet<>();
 
 	private WeakReference<IABox<I, L, K, R>> _immutable = null;
+	/**
+	 * The undo trail, innermost checkpoint first. {@literal null} until the first checkpoint is created.
+	 */
+	private Deque<ABoxCheckpoint<I, L, K, R>> _checkpoints = null;
 
 	/// <editor-fold defaultstate="collapsed" desc="constructors">
 	public ABox(
@@ -195,17 +204,19 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 		_id = new NodeID(_common.getAboxIDFactory().next());
 		_nodeIDGenerator = klonee._nodeIDGenerator.clone();
 		_blockingStateCache = klonee._blockingStateCache.clone();
-		_nodes = new ABoxNodeSet<>(this);
 		_nodeMap = _common.getNodeMapFactory().getInstance();
-		_tbox = klonee._tbox.clone();
+		/* the TBox and its compiled snapshot are shared between clones */
+		_tbox = klonee._tbox;
 		_tboxGeneration = klonee._tboxGeneration;
 
 		_nonGeneratingQueue.addAll(klonee._nonGeneratingQueue);
 		_generatingQueue.addAll(klonee._generatingQueue);
 
-		for (IABoxNode<I, L, K, R> node : klonee) {
-			add(node.clone(this));
-		}
+		/**
+		 * Node clones share their term sets and link maps with the source nodes until first written to.
+		 * The queues are copied verbatim above, so the nodes are not touched again here.
+		 */
+		_nodes = klonee._nodes.clone(this);
 		if (clearSynthentic) {
 			_synthenticNodes = _common.getNodeIDSetFactory().getInstance();
 		} else {
@@ -327,6 +338,13 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 			 */
 			notifyNodeMergeListeners(source, target);
 
+			/*
+			 * We do not track why nodes are merged, so the merged node conservatively depends on all branching
+			 * decisions made so far.
+			 */
+			_dependencyMap.addBranchDependencies(target.getNodeID(),
+				BranchDependencySet.upTo(_dependencyMap.getBranchLevel()));
+
 			/*
 			 * create a new empty merge info tracker
 			 */
@@ -384,10 +402,49 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 			 * return target node
 			 */
 			mergeInfo.recordMerge(target);
+
+			/*
+			 * conditional unfoldings may have become applicable by joining the term sets
+			 */
+			if (target instanceof IndividualABoxNode) {
+				applyConditionalUnfoldings(sourceTerms, mergeInfo);
+			}
 			return mergeInfo;
 		}
 	}
 
+	/**
+	 * Apply conditional unfoldings that are triggered by one of the {@literal mergedTerms} and that have all of their
+	 * conditions satisfied on the current node of {@literal mergeInfo}.
+	 *
+	 * @param mergedTerms The terms that were added to the current node by the merge.
+	 * @param mergeInfo The merge info to update.
+	 * @throws ENodeMergeException
+	 */
+	private void applyConditionalUnfoldings(final Collection<IDLTerm<I, L, K, R>> mergedTerms,
+											final NodeMergeInfo<I, L, K, R> mergeInfo)
+		throws ENodeMergeException
+	{
+		final ITBox<I, L, K, R> tbox = getTBox();
+		for (IDLTerm<I, L, K, R> term : mergedTerms) {
+			if (term instanceof IDLClassExpression) {
+				for (IDLImplies<I, L, K, R> conditional : tbox.getConditionalUnfoldings(
+					(IDLClassExpression<I, L, K, R>) term)) {
+					final IABoxNode<I, L, K, R> currentNode = mergeInfo.getCurrentNode();
+					final Collection<IDLClassExpression<I, L, K, R>> conditions = IndividualABoxNode.getConditions(
+						conditional);
+					final IDLClassExpression<I, L, K, R> unfoldee = conditional.getSuperDescription();
+					if ((!currentNode.getTerms().contains(unfoldee)) && currentNode.getTerms().containsAll(conditions)) {
+						for (IDLClassExpression<I, L, K, R> condition : conditions) {
+							getDependencyMap().addParent(currentNode, unfoldee, currentNode, condition);
+						}
+						mergeInfo.append(currentNode.addTerm(unfoldee));
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Notify all node merge listeners of an immanent node merge.
 	 *
@@ -826,6 +883,7 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 		}
 
 		touchNode(node);
+		_blockingStateCache.getLabelIndex().invalidate(node.getNodeID());
 
 		final TermChangeEvent<I, L, K, R> ev = new TermChangeEvent<>(this, node, term);
 		if (!_termSetListeners.isEmpty()) {
@@ -853,6 +911,7 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 		}
 
 		touchNode(node);
+		_blockingStateCache.getLabelIndex().invalidate(node.getNodeID());
 
 		if (!_termSetListeners.isEmpty()) {
 			for (ITermSetListener<I, L, K, R> listener : _termSetListeners) {
@@ -896,6 +955,121 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 		return ((node != null) && node.getTerms().contains(entry.getTerm()));
 	}
 
+	/// <editor-fold defaultstate="collapsed" desc="Trail">
+	@Override
+	public int pushCheckpoint()
+	{
+		if (_checkpoints == null) {
+			_checkpoints = new ArrayDeque<>();
+		}
+		_checkpoints.push(new ABoxCheckpoint<>(_nonGeneratingQueue, _generatingQueue, _nodeIDGenerator.clone(),
+			_blockingStateCache.clone(), _dependencyMap.clone(), _tboxGeneration));
+		return _checkpoints.size();
+	}
+
+	@Override
+	public void rollback(final int checkpoint)
+	{
+		checkCheckpoint(checkpoint);
+		while (_checkpoints.size() > checkpoint) {
+			restoreNodes(_checkpoints.pop(), false);
+		}
+		final ABoxCheckpoint<I, L, K, R> target = _checkpoints.peek();
+		restoreNodes(target, true);
+
+		_nonGeneratingQueue.clear();
+		_nonGeneratingQueue.addAll(target.getNonGeneratingQueue());
+		_generatingQueue.clear();
+		_generatingQueue.addAll(target.getGeneratingQueue());
+		_nodeIDGenerator = target.getNodeIDGenerator().clone();
+		_blockingStateCache = target.getBlockingStateCache().clone();
+		_dependencyMap = target.getDependencyMap().clone();
+		_tboxGeneration = target.getTBoxGeneration();
+		_immutable = null;
+	}
+
+	@Override
+	public void popCheckpoint(final int checkpoint)
+	{
+		checkCheckpoint(checkpoint);
+		while (_checkpoints.size() >= checkpoint) {
+			final ABoxCheckpoint<I, L, K, R> discarded = _checkpoints.pop();
+			if (!_checkpoints.isEmpty()) {
+				discarded.mergeInto(_checkpoints.peek());
+			}
+		}
+	}
+
+	@Override
+	public int getCheckpointCount()
+	{
+		if (_checkpoints == null) {
+			return 0;
+		} else {
+			return _checkpoints.size();
+		}
+	}
+
+	/**
+	 * Record {@literal node} on the innermost checkpoint, if any, before it is modified.
+	 * <p />
+	 * Called by the node set, the node term sets and the link maps before each modification.
+	 *
+	 * @param node The node about to be modified, added or removed.
+	 */
+	void recordNode(final IABoxNode<I, L, K, R> node)
+	{
+		if ((_checkpoints != null) && (!_checkpoints.isEmpty())) {
+			_checkpoints.peek().record(this, node);
+		}
+	}
+
+	private void checkCheckpoint(final int checkpoint)
+	{
+		if ((checkpoint < 1) || (checkpoint > getCheckpointCount())) {
+			throw new IllegalArgumentException(String.format("Unknown checkpoint %d", checkpoint));
+		}
+	}
+
+	/**
+	 * Put back the nodes recorded on {@literal checkpoint}, removing nodes that did not exist at the checkpoint.
+	 * <p />
+	 * The node set and the node map are manipulated directly, bypassing the node set notifications: the
+	 * links of the remaining nodes are restored from the checkpoint as well and must not be touched.
+	 *
+	 * @param checkpoint The checkpoint to restore.
+	 * @param keep If {@literal true}, the checkpoint stays valid and copies of the recorded nodes are installed.
+	 */
+	private void restoreNodes(final ABoxCheckpoint<I, L, K, R> checkpoint, final boolean keep)
+	{
+		final Map<NodeID, ABoxNode<?, I, L, K, R>> savedNodes = checkpoint.getSavedNodes();
+		for (NodeID nodeID : savedNodes.keySet()) {
+			final IABoxNode<I, L, K, R> current = _nodeMap.get(nodeID);
+			if (current != null) {
+				_nodes.getDecoratee().remove(current);
+				_nodeMap.remove(nodeID);
+				for (Object name : current.getNames()) {
+					if (_nodeMap.get(name) == current) {
+						_nodeMap.remove(name);
+					}
+				}
+			}
+			_synthenticNodes.remove(nodeID);
+		}
+		for (ABoxNode<?, I, L, K, R> savedNode : savedNodes.values()) {
+			if (savedNode != null) {
+				final ABoxNode<?, I, L, K, R> node = keep ? savedNode.clone(this) : savedNode;
+				_nodes.getDecoratee().add(node);
+				_nodeMap.put(node.getNodeID(), node);
+				for (Object name : node.getNames()) {
+					_nodeMap.put(name, node);
+				}
+			}
+		}
+		_synthenticNodes.addAll(checkpoint.getSyntheticNodes());
+	}
+	/// </editor-fold>
+
 	/// <editor-fold defaultstate="collapsed" desc="DependencyMap">
 	@Override
 	public DependencyMap<I, L, K, R> getDependencyMap()
@@ -1086,7 +1260,9 @@ public class ABox<I extends Comparable<? super I>, L extends Comparable<? super
 
 		final TermChangeEvent<I, L, K, R> ev = new TermChangeEvent<>(this, node, term);
 
+		_dependencyMap.recordBranchDependencies(node.getNodeID(), term);
 		touchNode(node);
+		_blockingStateCache.getLabelIndex().invalidate(node.getNodeID());
 
 		if (!_termSetListeners.isEmpty()) {
 			for (ITermSetListener<I, L, K, R> listener : _termSetListeners) {
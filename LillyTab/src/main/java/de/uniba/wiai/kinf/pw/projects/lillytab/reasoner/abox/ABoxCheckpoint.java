@@ -0,0 +1,159 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStateCache;
+import de.uniba.wiai.kinf.pw.projects.lillytab.util.LinearSequenceNumberGenerator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+
+/**
+ * A single entry on the undo trail of an {@link ABox}.
+ * <p />
+ * A checkpoint keeps a copy of the ABox-global state (node queues, node ID sequence, blocking state cache and
+ * dependency map) as it was when the checkpoint was created. Nodes are not copied in advance. Instead, the ABox
+ * records a node the first time it is about to be modified after the checkpoint was created. Because node term sets
+ * and link maps are copy-on-write, the recorded node shares its storage with the live node until the live node is
+ * actually written to.
+ * <p />
+ * A recorded value of {@literal null} indicates that the node did not exist when the checkpoint was created.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+final class ABoxCheckpoint<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+
+	private final Map<NodeID, ABoxNode<?, I, L, K, R>> _savedNodes = new HashMap<>();
+	private final Set<NodeID> _syntheticNodes = new HashSet<>();
+	private final SortedSet<NodeID> _nonGeneratingQueue;
+	private final SortedSet<NodeID> _generatingQueue;
+	private final LinearSequenceNumberGenerator _nodeIDGenerator;
+	private final IBlockingStateCache _blockingStateCache;
+	private final DependencyMap<I, L, K, R> _dependencyMap;
+	private final int _tboxGeneration;
+
+	ABoxCheckpoint(final SortedSet<NodeID> nonGeneratingQueue, final SortedSet<NodeID> generatingQueue,
+				   final LinearSequenceNumberGenerator nodeIDGenerator, final IBlockingStateCache blockingStateCache,
+				   final DependencyMap<I, L, K, R> dependencyMap, final int tboxGeneration)
+	{
+		_nonGeneratingQueue = new TreeSet<>(nonGeneratingQueue);
+		_generatingQueue = new TreeSet<>(generatingQueue);
+		_nodeIDGenerator = nodeIDGenerator;
+		_blockingStateCache = blockingStateCache;
+		_dependencyMap = dependencyMap;
+		_tboxGeneration = tboxGeneration;
+	}
+
+	/**
+	 * Record the state of {@literal node} before it is modified for the first time after this checkpoint.
+	 *
+	 * @param abox The ABox the checkpoint belongs to.
+	 * @param node The node that is about to be modified, added or removed.
+	 */
+	void record(final ABox<I, L, K, R> abox, final IABoxNode<I, L, K, R> node)
+	{
+		final NodeID nodeID = node.getNodeID();
+		if (!_savedNodes.containsKey(nodeID)) {
+			if (abox.getNode(nodeID) == node) {
+				_savedNodes.put(nodeID, ((ABoxNode<?, I, L, K, R>) node).clone(abox));
+				if (abox.isSynthetic(nodeID)) {
+					_syntheticNodes.add(nodeID);
+				}
+			} else {
+				/* node is not (yet) part of the ABox */
+				_savedNodes.put(nodeID, null);
+			}
+		}
+	}
+
+	/**
+	 * Hand over the recorded nodes to the enclosing checkpoint when this checkpoint is discarded.
+	 * <p />
+	 * Nodes already recorded by {@literal parent} were modified before this checkpoint was created and keep their
+	 * older state.
+	 *
+	 * @param parent The enclosing checkpoint.
+	 */
+	void mergeInto(final ABoxCheckpoint<I, L, K, R> parent)
+	{
+		for (Map.Entry<NodeID, ABoxNode<?, I, L, K, R>> entry : _savedNodes.entrySet()) {
+			final NodeID nodeID = entry.getKey();
+			if (!parent._savedNodes.containsKey(nodeID)) {
+				parent._savedNodes.put(nodeID, entry.getValue());
+				if (_syntheticNodes.contains(nodeID)) {
+					parent._syntheticNodes.add(nodeID);
+				}
+			}
+		}
+	}
+
+	Map<NodeID, ABoxNode<?, I, L, K, R>> getSavedNodes()
+	{
+		return _savedNodes;
+	}
+
+	Set<NodeID> getSyntheticNodes()
+	{
+		return _syntheticNodes;
+	}
+
+	SortedSet<NodeID> getNonGeneratingQueue()
+	{
+		return _nonGeneratingQueue;
+	}
+
+	SortedSet<NodeID> getGeneratingQueue()
+	{
+		return _generatingQueue;
+	}
+
+	LinearSequenceNumberGenerator getNodeIDGenerator()
+	{
+		return _nodeIDGenerator;
+	}
+
+	IBlockingStateCache getBlockingStateCache()
+	{
+		return _blockingStateCache;
+	}
+
+	DependencyMap<I, L, K, R> getDependencyMap()
+	{
+		return _dependencyMap;
+	}
+
+	int getTBoxGeneration()
+	{
+		return _tboxGeneration;
+	}
+}
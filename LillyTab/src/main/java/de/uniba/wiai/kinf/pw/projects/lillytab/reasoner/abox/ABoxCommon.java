@@ -51,11 +51,12 @@ public final class ABoxCommon<I extends Comparable<? super I>, L extends Compara
 	private final ICollectionFactory<NodeID, SortedSet<NodeID>> _nodeIDSetFactory = new TreeSetFactory<>();
 	private final ICollectionFactory<IABoxNode<I, L, K, R>, SortedSet<IABoxNode<I, L, K, R>>> _nodeSetFactory = new TreeSetFactory<>();
 	private final IMapFactory<Object, IABoxNode<I, L, K, R>, Map<Object, IABoxNode<I, L, K, R>>> _nodeMapFactory = new HashMapFactory<>();
-	private final TermEntryFactory<I, L, K, R> _termEntryFactory = new TermEntryFactory<>();
+	private final TermEntryFactory<I, L, K, R> _termEntryFactory;
 
 	public ABoxCommon(IDLTermFactory<I, L, K, R> termFactory)
 	{
 		this._termFactory = termFactory;
+		this._termEntryFactory = new TermEntryFactory<>(termFactory);
 	}
 
 
@@ -122,7 +122,7 @@ public abstract class ABoxNode<N extends Comparable<? super N>, I extends Compar
 		_id = klonee.getNodeID();
 		_isDatatypeNode = klonee.isDatatypeNode();
 		_abox = newABox;
-		_names.addAll(klonee.getNames());
+		_names.addAll(klonee._names);
 		_terms = klonee._terms.clone(this);
 		if (_isDatatypeNode) {
 			_noAddTerms = new NoAddTermSet<>(TermTypes.DATATYPE_ONLY, _terms, this);
@@ -26,6 +26,7 @@ import de.dhke.projects.cutil.collections.aspect.CollectionEvent;
 import de.dhke.projects.cutil.collections.aspect.CollectionItemEvent;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import java.util.Collection;
+import java.util.Map;
 import java.util.TreeSet;
 
 
@@ -46,11 +47,28 @@ public class ABoxNodeSet<I extends Comparable<? super I>, L extends Comparable<?
 		super(new TreeSet<IABoxNode<I, L, K, R>>(), abox);
 	}
 
+	/**
+	 * Create a new node set for {@literal newABox}, containing clones of the nodes in {@literal klonee}.
+	 * <p />
+	 * The node clones share their term sets and link maps with their originals (copy-on-write), so the cost of the
+	 * clone is mostly the node shells themselves. The clones are added directly to the backing set and the node map of
+	 * {@literal newABox} is populated without going through the add notifications. In particular, cloning does not
+	 * touch the cloned nodes, the node queues of the new ABox are expected to be copied from the source ABox.
+	 *
+	 * @param newABox The target ABox. Its node map must already be initialized and empty.
+	 * @param klonee The source node set.
+	 */
 	public ABoxNodeSet(final ABox<I, L, K, R> newABox, final ABoxNodeSet<I, L, K, R> klonee)
 	{
 		this(newABox);
-		for (IABoxNode<I, L, K, R> node : klonee) {
-			getDecoratee().add(node.clone(newABox));
+		final Map<Object, IABoxNode<I, L, K, R>> nodeMap = newABox._nodeMap;
+		for (IABoxNode<I, L, K, R> node : klonee.getDecoratee()) {
+			final IABoxNode<I, L, K, R> klone = node.clone(newABox);
+			getDecoratee().add(klone);
+			nodeMap.put(klone.getNodeID(), klone);
+			for (Object name : klone.getNames()) {
+				nodeMap.put(name, klone);
+			}
 		}
 	}
 
@@ -77,6 +95,7 @@ public class ABoxNodeSet<I extends Comparable<? super I>, L extends Comparable<?
 		 * Check node map consistency before add.
 		 */
 		final IABoxNode<I, L, K, R> node = e.getItem();
+		getABox().recordNode(node);
 		if (getABox()._nodeMap.containsKey(node.getNodeID())) {
 			throw new IllegalArgumentException(
 				"Node with id " + node.getNodeID().toString() + " already in node map.");
@@ -109,6 +128,7 @@ public class ABoxNodeSet<I extends Comparable<? super I>, L extends Comparable<?
 		CollectionItemEvent<IABoxNode<I, L, K, R>, Collection<IABoxNode<I, L, K, R>>> e)
 	{
 		super.notifyBeforeElementRemoved(e);
+		getABox().recordNode(e.getItem());
 		e.getItem().getRABox().getAssertedPredecessors().clear();
 		e.getItem().getRABox().getAssertedSuccessors().clear();
 		getABox().removeNodeFromQueues(e.getItem());
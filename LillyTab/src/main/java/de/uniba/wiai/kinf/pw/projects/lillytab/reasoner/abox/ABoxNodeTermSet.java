@@ -23,18 +23,26 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
 
 import de.dhke.projects.cutil.collections.aspect.CollectionEvent;
 import de.dhke.projects.cutil.collections.aspect.CollectionItemEvent;
+import de.dhke.projects.cutil.collections.aspect.CollectionItemReplacedEvent;
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
 import de.dhke.projects.cutil.collections.cow.CopyOnWriteSortedSet;
-import de.dhke.projects.cutil.collections.factories.TreeSetFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLLiteralReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import java.util.Collection;
 import java.util.SortedSet;
-import java.util.TreeSet;
 
 /**
+ *
+ * The term set of an {@link ABoxNode}.
+ * <p />
+ * Besides the terms themselves, the set keeps the IDs (as assigned by {@link IDLTermFactory#getTermID(de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm)
+ * }) of its terms and of the operands of its object negations as bit sets. These are kept up to date by the
+ * modification hooks and allow subset and clash tests on word level.
  *
  * @param <I> The type for nominals
  * @param <L> The type for literals
@@ -46,24 +54,61 @@ import java.util.TreeSet;
 public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
 	extends TermSet<I, L, K, R> {
 
+	private CopyOnWriteBitSet _termIDs;
+	private CopyOnWriteBitSet _negatedTermIDs;
+	/**
+	 * {@literal false}, if the term set was modified while no term factory was available and the ID sets need to be
+	 * rebuilt.
+	 */
+	private boolean _termIDsValid;
+
+
 	public ABoxNodeTermSet(final ABoxNode<?, I, L, K, R> sender)
 	{
-		this(
-			CopyOnWriteSortedSet.decorate(new TreeSet<IDLTerm<I, L, K, R>>(), new TreeSetFactory<IDLTerm<I, L, K, R>>()),
-			sender);
+		this(new TermBucketSet<I, L, K, R>(), sender);
 	}
 
 
 	public ABoxNodeTermSet(final SortedSet<IDLTerm<I, L, K, R>> baseSet, final ABoxNode<?, I, L, K, R> sender)
+	{
+		this(baseSet, sender, new CopyOnWriteBitSet(), new CopyOnWriteBitSet(), baseSet.isEmpty());
+	}
+
+
+	private ABoxNodeTermSet(final SortedSet<IDLTerm<I, L, K, R>> baseSet, final ABoxNode<?, I, L, K, R> sender,
+							final CopyOnWriteBitSet termIDs, final CopyOnWriteBitSet negatedTermIDs,
+							final boolean termIDsValid)
 	{
 		super(TermTypes.ANY, baseSet, sender);
+		_termIDs = termIDs;
+		_negatedTermIDs = negatedTermIDs;
+		_termIDsValid = termIDsValid;
+	}
+
+
+	public ABoxNodeTermSet<I, L, K, R> clone(final ABoxNode<?, I, L, K, R> newNode)
+	{
+		final SortedSet<IDLTerm<I, L, K, R>> klonedSet;
+		if (getDecoratee() instanceof TermBucketSet) {
+			klonedSet = ((TermBucketSet<I, L, K, R>) getDecoratee()).clone();
+		} else {
+			klonedSet = ((CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>) getDecoratee()).clone();
+		}
+		return new ABoxNodeTermSet<>(klonedSet, newNode, _termIDs.clone(), _negatedTermIDs.clone(), _termIDsValid);
+	}
+
+
+	@Override
+	public CopyOnWriteBitSet getTermIDs()
+	{
+		return validateTermIDs() ? _termIDs : null;
 	}
 
 
-		public ABoxNodeTermSet<I, L, K, R> clone(final ABoxNode<?, I, L, K, R> newNode)
+	@Override
+	public CopyOnWriteBitSet getNegatedTermIDs()
 	{
-		final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> klonedSet = ((CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>) getDecoratee()).clone();
-		return new ABoxNodeTermSet<>(klonedSet, newNode);
+		return validateTermIDs() ? _negatedTermIDs : null;
 	}
 
 
@@ -91,6 +136,7 @@ public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparab
 			}
 			abox.notifyTermAdded(source, e.getItem());
 		}
+		addTermID(e.getItem());
 		super.notifyAfterElementAdded(e);
 	}
 
@@ -103,6 +149,7 @@ public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparab
 		final IABoxNode<I, L, K, R> node = getNode();
 		final IABox<I, L, K, R> abox = node.getABox();
 		if (abox != null) {
+			getNode().getABox().recordNode(node);
 			if (ev.getItem() instanceof IDLIndividualReference) {
 				final IDLIndividualReference<I, L, K, R> indRef = (IDLIndividualReference<I, L, K, R>) ev.getItem();
 				if ((abox.getIndividualNode(indRef.getIndividual()) != null)
@@ -122,6 +169,30 @@ public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparab
 	}
 
 
+	@Override
+	protected void notifyBeforeElementRemoved(
+		CollectionItemEvent<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>> ev)
+	{
+		super.notifyBeforeElementRemoved(ev);
+		final ABoxNode<?, I, L, K, R> node = getNode();
+		if (node.getABox() != null) {
+			node.getABox().recordNode(node);
+		}
+	}
+
+
+	@Override
+	protected void notifyBeforeCollectionCleared(
+		CollectionEvent<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>> ev)
+	{
+		super.notifyBeforeCollectionCleared(ev);
+		final ABoxNode<?, I, L, K, R> node = getNode();
+		if (node.getABox() != null) {
+			node.getABox().recordNode(node);
+		}
+	}
+
+
 	@Override
 	protected void notifyAfterElementRemoved(
 		CollectionItemEvent<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>> ev)
@@ -137,10 +208,21 @@ public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparab
 			}
 			abox.notifyTermRemoved(node, ev.getItem());
 		}
+		removeTermID(ev.getItem());
 		super.notifyAfterElementRemoved(ev);
 	}
 
 
+	@Override
+	protected void notifyAfterElementReplaced(
+		CollectionItemReplacedEvent<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>> ev)
+	{
+		removeTermID(ev.getItem());
+		addTermID(ev.getNewItem());
+		super.notifyAfterElementReplaced(ev);
+	}
+
+
 	@Override
 	protected void notifyAfterCollectionCleared(
 		CollectionEvent<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>> ev)
@@ -156,10 +238,75 @@ public class ABoxNodeTermSet<I extends Comparable<? super I>, L extends Comparab
 			}
 			abox.notifyTermSetCleared(node);
 		}
+		_termIDs.clear();
+		_negatedTermIDs.clear();
+		_termIDsValid = true;
 		super.notifyAfterCollectionCleared(ev);
 	}
 
 
+	private IDLTermFactory<I, L, K, R> getTermFactory()
+	{
+		final ABox<I, L, K, R> abox = getNode().getABox();
+		return abox != null ? abox.getDLTermFactory() : null;
+	}
+
+
+	private void addTermID(final IDLTerm<I, L, K, R> term)
+	{
+		if (_termIDsValid) {
+			final IDLTermFactory<I, L, K, R> termFactory = getTermFactory();
+			if (termFactory != null) {
+				_termIDs.set(termFactory.getTermID(term));
+				if (term instanceof IDLObjectNegation) {
+					_negatedTermIDs.set(termFactory.getTermID(((IDLObjectNegation<I, L, K, R>) term).getTerm()));
+				}
+			} else {
+				_termIDsValid = false;
+			}
+		}
+	}
+
+
+	private void removeTermID(final IDLTerm<I, L, K, R> term)
+	{
+		if (_termIDsValid) {
+			final IDLTermFactory<I, L, K, R> termFactory = getTermFactory();
+			if (termFactory != null) {
+				_termIDs.clear(termFactory.getTermID(term));
+				if (term instanceof IDLObjectNegation) {
+					_negatedTermIDs.clear(termFactory.getTermID(((IDLObjectNegation<I, L, K, R>) term).getTerm()));
+				}
+			} else {
+				_termIDsValid = false;
+			}
+		}
+	}
+
+
+	/**
+	 * Rebuild the term ID sets, if they have become invalid.
+	 *
+	 * @return {@literal true}, if the term ID sets are valid.
+	 */
+	private boolean validateTermIDs()
+	{
+		if (!_termIDsValid) {
+			final IDLTermFactory<I, L, K, R> termFactory = getTermFactory();
+			if (termFactory == null) {
+				return false;
+			}
+			_termIDs.clear();
+			_negatedTermIDs.clear();
+			_termIDsValid = true;
+			for (IDLTerm<I, L, K, R> term : getDecoratee()) {
+				addTermID(term);
+			}
+		}
+		return true;
+	}
+
+
 	@SuppressWarnings("unchecked")
 	 ABoxNode<?, I, L, K, R> getNode(
 		)
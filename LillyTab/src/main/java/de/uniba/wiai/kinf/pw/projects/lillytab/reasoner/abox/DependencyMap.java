@@ -21,9 +21,7 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
 
-import de.dhke.projects.cutil.collections.CollectionUtil;
-import de.dhke.projects.cutil.collections.factories.TreeSetFactory;
-import de.dhke.projects.cutil.collections.map.GenericMultiHashMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
@@ -31,15 +29,40 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntryFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.immutable.ImmutableDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.util.LongObjectMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.util.LongSetMultiMap;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeSet;
+import org.apache.commons.collections15.MultiMap;
 
 /**
+ *
+ * The dependency map of an {@link ABox}.
+ * <p />
+ * Term entries are stored by their primitive keys (see {@link TermEntry#getKey() }). The map keeps the direct
+ * parents and the direct children of each entry in {@link LongSetMultiMap}s, so that lookups in both directions
+ * work without scanning the whole map. Governing terms are indexed by their node ID.
+ * <p />
+ * Transitive parent sets are computed from the cached parent sets of the direct parents and are cached until
+ * the map is modified in a way that may affect them. Adding parents to an entry that has no children yet only
+ * invalidates the cached parent set of that entry.
+ * <p />
+ * Collections returned by the map are views that translate keys back into {@link TermEntry} instances via the
+ * {@link TermEntryFactory}.
+ * <p />
+ * The map also tracks the branching levels each term entry depends on (see {@link BranchDependencySet}). The
+ * dependencies of an entry are computed from the dependencies of its parents, when the term is added to its node
+ * (see {@link #recordBranchDependencies(de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID, de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm)
+ * }). Parents thus must be registered before the term is added. Nodes carry the dependencies of their links.
  *
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -48,33 +71,75 @@ import java.util.TreeSet;
  *
  * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
  */
-// public class DependencyMap<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> 
 public class DependencyMap<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
-	extends GenericMultiHashMap<TermEntry<I, L, K, R>, TermEntry<I, L, K, R>>
 	implements IDependencyMap<I, L, K, R> {
 
-	private static final long serialVersionUID = 1947663804178866730L;
 	private final TermEntryFactory<I, L, K, R> _entryFactory;
-	private final Set<TermEntry<I, L, K, R>> _governingTerms = new TreeSet<>();
+	/**
+	 * child entry key -&gt; parent entry keys
+	 */
+	private final LongSetMultiMap _parents;
+	/**
+	 * parent entry key -&gt; child entry keys
+	 */
+	private final LongSetMultiMap _children;
+	/**
+	 * node ID -&gt; governing term entry keys
+	 */
+	private final LongSetMultiMap _governingTerms;
+	/**
+	 * entry key -&gt; transitive parent entry keys
+	 */
+	private final LongSetMultiMap _parentClosures;
+	/**
+	 * entry key -&gt; branching levels
+	 */
+	private final LongObjectMap<BranchDependencySet> _entryDependencies;
+	/**
+	 * node ID -&gt; branching levels
+	 */
+	private final LongObjectMap<BranchDependencySet> _nodeDependencies;
+	/**
+	 * The alternatives chosen at each branching level. Never modified in place.
+	 */
+	private int[] _branchPath;
+	private BranchDependencySet _actionDependencies = BranchDependencySet.EMPTY;
+	private Collection<TermEntry<I, L, K, R>> _governingTermView = null;
 
 
 	public DependencyMap(final TermEntryFactory<I, L, K, R> entryFactory)
 	{
-		super(new TreeSetFactory<TermEntry<I, L, K, R>>());
+		this(entryFactory, new LongSetMultiMap(), new LongSetMultiMap(), new LongSetMultiMap(), new LongSetMultiMap(),
+			 new LongObjectMap<BranchDependencySet>(), new LongObjectMap<BranchDependencySet>(), new int[0]);
+	}
+
+
+	private DependencyMap(final TermEntryFactory<I, L, K, R> entryFactory, final LongSetMultiMap parents,
+						  final LongSetMultiMap children, final LongSetMultiMap governingTerms,
+						  final LongSetMultiMap parentClosures,
+						  final LongObjectMap<BranchDependencySet> entryDependencies,
+						  final LongObjectMap<BranchDependencySet> nodeDependencies, final int[] branchPath)
+	{
 		_entryFactory = entryFactory;
+		_parents = parents;
+		_children = children;
+		_governingTerms = governingTerms;
+		_parentClosures = parentClosures;
+		_entryDependencies = entryDependencies;
+		_nodeDependencies = nodeDependencies;
+		_branchPath = branchPath;
 	}
 
 
+	/// <editor-fold defaultstate="collapsed" desc="parents">
 	@Override
 	public Collection<TermEntry<I, L, K, R>> getParents(final TermEntry<I, L, K, R> entry)
 	{
-		final Collection<TermEntry<I, L, K, R>> parents = get(entry);
-		if (parents != null) {
-			return parents;
+		if (_parents.containsKey(entry.getKey())) {
+			return new ParentSetView(entry.getKey());
 		} else {
 			return Collections.<TermEntry<I, L, K, R>>emptySet();
 		}
-
 	}
 
 
@@ -93,33 +158,14 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 		return getParents(_entryFactory.getEntry(node, term));
 	}
 
-//	private void getParentsRecursive(final TermEntry<I, L, K, R> entry, final Collection<TermEntry<I, L, K, R>> targetSet)
-//	{
-//		targetSet.add(entry);
-//		final Collection<TermEntry<I, L, K, R>> directParents = getParents(entry);
-//		for (TermEntry<I, L, K, R> child: directParents) {
-//			if (! targetSet.contains(child))
-//				getParentsRecursive(child, targetSet);
-//		}
-//		
-//		targetSet.addAll(directParents);
-//		
-//	}
 
 	@Override
 	public Collection<TermEntry<I, L, K, R>> getParents(TermEntry<I, L, K, R> entry, boolean recursive)
 	{
-		Collection<TermEntry<I, L, K, R>> directParents = getParents(entry);
 		if (!recursive) {
-			return directParents;
-		} else if (directParents != null) {
-			final Set<TermEntry<I, L, K, R>> allParents = new TreeSet<>();
-			for (TermEntry<I, L, K, R> parentEntry : directParents) {
-				assert !allParents.contains(parentEntry);
-				allParents.addAll(getParents(parentEntry, true));
-			}
-			allParents.addAll(directParents);
-			return allParents;
+			return getParents(entry);
+		} else if (_parents.containsKey(entry.getKey())) {
+			return new KeyArrayView(getParentClosure(entry.getKey()));
 		} else {
 			return null;
 		}
@@ -143,29 +189,16 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 	}
 
 
-	@Override
-	public boolean containsKey(final IABoxNode<I, L, K, R> node, final IDLTerm<I, L, K, R> term)
-	{
-		return containsKey(_entryFactory.getEntry(node, term));
-	}
-
-
-	@Override
-	public boolean containsValue(IABoxNode<I, L, K, R> node,
-								 IDLTerm<I, L, K, R> term,
-								 IABoxNode<I, L, K, R> parentNode,
-								 IDLTerm<I, L, K, R> parentTerm)
-	{
-		return containsValue(node.getNodeID(), term, parentNode.getNodeID(), parentTerm);
-	}
-
-
-	@Override
-	public boolean containsValue(NodeID nodeID,
-								 IDLTerm<I, L, K, R> term, NodeID parentNodeID,
-								 IDLTerm<I, L, K, R> parentTerm)
+	/**
+	 * Get the keys of all direct and indirect parents of the entry with key {@literal key}.
+	 *
+	 * @param key An entry key.
+	 * @return The sorted keys of the transitive parents of {@literal key}. The array is shared and must not be
+	 * modified.
+	 */
+	public long[] getParentClosure(final long key)
 	{
-		return containsValue(_entryFactory.getEntry(nodeID, term), _entryFactory.getEntry(parentNodeID, parentTerm));
+		return getClosure(_parents, key, _parentClosures);
 	}
 
 
@@ -182,7 +215,7 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 	{
 		if (termEntry.equals(parentEntry))
 			throw new IllegalArgumentException("Term cannot be its own parent");
-		put(termEntry, parentEntry);
+		addLink(termEntry.getKey(), parentEntry.getKey());
 	}
 
 
@@ -209,35 +242,141 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 	{
 		addParent(_entryFactory.getEntry(nodeID, term), _entryFactory.getEntry(parentNodeID, parentTerm));
 	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="branch dependencies">
+	@Override
+	public BranchDependencySet getBranchDependencies(final TermEntry<I, L, K, R> entry)
+	{
+		return getBranchDependencies(entry.getKey());
+	}
 
 
 	@Override
-	public DependencyMap<I, L, K, R> clone()
+	public BranchDependencySet getBranchDependencies(final NodeID nodeID)
 	{
-		final DependencyMap<I, L, K, R> klone = new DependencyMap<>(_entryFactory);
-		klone.putAll(this);
-		klone._governingTerms.addAll(getGoverningTerms());
-		return klone;
+		final BranchDependencySet nodeDependencies = _nodeDependencies.get(nodeID.getID());
+		return nodeDependencies == null ? BranchDependencySet.EMPTY : nodeDependencies;
 	}
 
 
 	@Override
-	public IDependencyMap<I, L, K, R> getImmutable()
+	public void addBranchDependencies(final NodeID nodeID, final BranchDependencySet dependencies)
 	{
-		return ImmutableDependencyMap.decorate(this);
+		final BranchDependencySet nodeDependencies = getBranchDependencies(nodeID);
+		final BranchDependencySet newDependencies = nodeDependencies.union(dependencies);
+		if (newDependencies != nodeDependencies) {
+			_nodeDependencies.put(nodeID.getID(), newDependencies);
+		}
 	}
 
 
 	@Override
-	public Collection<TermEntry<I, L, K, R>> getChildren(TermEntry<I, L, K, R> parent)
+	public void addLinkDependencies(final NodeID source, final NodeID target, final TermEntry<I, L, K, R> cause)
+	{
+		final BranchDependencySet dependencies = getBranchDependencies(cause).union(_actionDependencies);
+		addBranchDependencies(source, dependencies);
+		addBranchDependencies(target, dependencies);
+	}
+
+
+	@Override
+	public int getBranchLevel()
+	{
+		return _branchPath.length;
+	}
+
+
+	@Override
+	public int openBranchLevel(final int alternative)
+	{
+		final int level = _branchPath.length + 1;
+		final int[] branchPath = Arrays.copyOf(_branchPath, level);
+		branchPath[level - 1] = alternative;
+		_branchPath = branchPath;
+		return level;
+	}
+
+
+	@Override
+	public int[] getBranchPath()
+	{
+		return _branchPath;
+	}
+
+
+	@Override
+	public boolean isOnBranchPath(final int[] branchPath, final int level)
+	{
+		if ((level > _branchPath.length) || (level > branchPath.length)) {
+			return false;
+		}
+		for (int i = 0; i < level; ++i) {
+			if (_branchPath[i] != branchPath[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	@Override
+	public BranchDependencySet getActionDependencies()
+	{
+		return _actionDependencies;
+	}
+
+
+	@Override
+	public void setActionDependencies(final BranchDependencySet dependencies)
 	{
-		final Set<TermEntry<I, L, K, R>> children = new HashSet<>();
-		for (Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>> mapEntry : entrySet()) {
-			if (mapEntry.getValue().contains(parent)) {
-				children.add(mapEntry.getKey());
+		_actionDependencies = dependencies;
+	}
+
+
+	/**
+	 * Compute the branching levels of the entry composed of {@literal nodeID} and {@literal term} from its
+	 * current parents and the current action dependencies.
+	 * <p />
+	 * Called by the {@link ABox} whenever a term is added to a node.
+	 *
+	 * @param nodeID The node ID of the new entry.
+	 * @param term The term of the new entry.
+	 */
+	void recordBranchDependencies(final NodeID nodeID, final IDLTerm<I, L, K, R> term)
+	{
+		final long key = _entryFactory.getKey(nodeID, term);
+		BranchDependencySet dependencies = _actionDependencies;
+		final long[] parents = _parents.get(key);
+		if (parents != null) {
+			for (long parentKey : parents) {
+				dependencies = dependencies.union(getBranchDependencies(parentKey));
 			}
 		}
-		return children;
+		_entryDependencies.put(key, dependencies);
+	}
+
+
+	private BranchDependencySet getBranchDependencies(final long key)
+	{
+		final BranchDependencySet entryDependencies = _entryDependencies.get(key);
+		final BranchDependencySet nodeDependencies = _nodeDependencies.get(TermEntry.keyNodeID(key));
+		if (entryDependencies == null) {
+			return nodeDependencies == null ? BranchDependencySet.EMPTY : nodeDependencies;
+		} else if (nodeDependencies == null) {
+			return entryDependencies;
+		} else {
+			return entryDependencies.union(nodeDependencies);
+		}
+	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="children">
+	@Override
+	public Collection<TermEntry<I, L, K, R>> getChildren(TermEntry<I, L, K, R> parent)
+	{
+		final long[] children = _children.get(parent.getKey());
+		return new KeyArrayView(children == null ? LongSetMultiMap.EMPTY : children);
 	}
 
 
@@ -261,9 +400,7 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 		TermEntry<I, L, K, R> entry, boolean recursive)
 	{
 		if (recursive) {
-			final Set<TermEntry<I, L, K, R>> allChildren = new TreeSet<>();
-			getChildrenRecursive(entry, allChildren);
-			return allChildren;
+			return new KeyArrayView(getClosure(_children, entry.getKey(), new LongSetMultiMap()));
 		} else {
 			return getChildren(entry);
 		}
@@ -287,15 +424,15 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 	@Override
 	public boolean hasChild(TermEntry<I, L, K, R> parent, TermEntry<I, L, K, R> child)
 	{
-		final Collection<TermEntry<I, L, K, R>> parents = getParents(child);
-		return parents.contains(parent);
+		return _parents.contains(child.getKey(), parent.getKey());
 	}
 
 
 	@Override
 	public boolean hasChild(NodeID parentNodeID, IDLTerm<I, L, K, R> parentTerm, NodeID childNodeID, IDLTerm<I, L, K, R> childTerm)
 	{
-		return hasChild(_entryFactory.getEntry(parentNodeID, parentTerm), _entryFactory.getEntry(childNodeID, childTerm));
+		return _parents.contains(_entryFactory.getKey(childNodeID, childTerm),
+								 _entryFactory.getKey(parentNodeID, parentTerm));
 	}
 
 
@@ -307,145 +444,807 @@ public class DependencyMap<I extends Comparable<? super I>, L extends Comparable
 
 
 	@Override
-	public String toString()
+	public Collection<TermEntry<I, L, K, R>> getNodeRoots(final NodeID nodeID)
 	{
-		/* a wild guess at the required capacity */
-		final StringBuilder sb = new StringBuilder(_governingTerms.size() * 4);
-		sb.append("{");
-		boolean isFirst = true;
-		for (TermEntry<I, L, K, R> termEntry : _governingTerms) {
-			if (isFirst) {
-				isFirst = false;
-			} else {
-				sb.append(", @");
-			}
-			sb.append(termEntry);
-		}
-		for (Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>> entry : this.entrySet()) {
-			sb.append("<");
-			if (isFirst) {
-				isFirst = false;
-			} else {
-				sb.append(", ");
+		final Collection<TermEntry<I, L, K, R>> nodeRoots = new ArrayList<>();
+		for (long key : _children.keys()) {
+			if ((TermEntry.keyNodeID(key) == nodeID.getID()) && (!_parents.containsKey(key))) {
+				nodeRoots.add(_entryFactory.getEntry(key));
 			}
-			sb.append(entry.getKey());
-			sb.append(": ");
-			sb.append(CollectionUtil.deepToString(entry.getValue()));
-			sb.append(">");
 		}
-		sb.append("}");
-		return sb.toString();
+		return nodeRoots;
 	}
 
 
 	@Override
-	public TermEntryFactory<I, L, K, R> getTermEntryFactory()
+	public Collection<TermEntry<I, L, K, R>> getNodeRoots(final IABoxNode<I, L, K, R> node)
 	{
-		return _entryFactory;
+		return getNodeRoots(node.getNodeID());
 	}
+	/// </editor-fold>
 
-
+	/// <editor-fold defaultstate="collapsed" desc="governing terms">
 	@Override
 	public Collection<TermEntry<I, L, K, R>> getGoverningTerms()
 	{
-		return _governingTerms;
+		if (_governingTermView == null) {
+			_governingTermView = new GoverningTermView();
+		}
+		return _governingTermView;
 	}
 
 
 	@Override
 	public boolean addGoverningTerm(IABoxNode<I, L, K, R> node, IDLTerm<I, L, K, R> term)
 	{
-		return _governingTerms.add(_entryFactory.getEntry(node, term));
+		return addGoverningTerm(node.getNodeID(), term);
 	}
 
 
 	@Override
 	public boolean addGoverningTerm(NodeID nodeID, IDLTerm<I, L, K, R> term)
 	{
-		return _governingTerms.add(_entryFactory.getEntry(nodeID, term));
+		return _governingTerms.put(nodeID.getID(), _entryFactory.getKey(nodeID, term));
 	}
 
 
 	@Override
 	public boolean addGoverningTerm(TermEntry<I, L, K, R> termEntry)
 	{
-		return _governingTerms.add(termEntry);
+		return _governingTerms.put(termEntry.getNodeID().getID(), termEntry.getKey());
 	}
 
 
 	@Override
-	public Collection<TermEntry<I, L, K, R>> getNodeRoots(final NodeID nodeID)
+	public boolean hasGoverningTerm(IABoxNode<I, L, K, R> node, IDLTerm<I, L, K, R> term)
 	{
-		final Collection<TermEntry<I, L, K, R>> nodeRoots = new ArrayList<>();
-		for (TermEntry<I, L, K, R> entry : this.values()) {
-			if ((entry.getNodeID().equals(nodeID) && ((!containsKey(entry)) || (get(entry) == null) || (get(entry).
-				isEmpty())))) {
-				nodeRoots.add(entry);
+		return hasGoverningTerm(node.getNodeID(), term);
+	}
+
+
+	@Override
+	public boolean hasGoverningTerm(
+		TermEntry<I, L, K, R> termEntry)
+	{
+		return _governingTerms.contains(termEntry.getNodeID().getID(), termEntry.getKey());
+	}
+
+
+	@Override
+	public boolean hasGoverningTerm(
+		NodeID nodeID, IDLTerm<I, L, K, R> term)
+	{
+		return _governingTerms.contains(nodeID.getID(), _entryFactory.getKey(nodeID, term));
+	}
+
+
+	@Override
+	public boolean hasGoverningTerm(NodeID nodeID)
+	{
+		return _governingTerms.containsKey(nodeID.getID());
+	}
+
+
+	@Override
+	public boolean hasGoverningTerm(IABoxNode<I, L, K, R> node)
+	{
+		return hasGoverningTerm(node.getNodeID());
+	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="IDependencyMap helpers">
+	@Override
+	public boolean containsKey(final IABoxNode<I, L, K, R> node, final IDLTerm<I, L, K, R> term)
+	{
+		return _parents.containsKey(_entryFactory.getKey(node.getNodeID(), term));
+	}
+
+
+	@Override
+	public boolean containsValue(IABoxNode<I, L, K, R> node,
+								 IDLTerm<I, L, K, R> term,
+								 IABoxNode<I, L, K, R> parentNode,
+								 IDLTerm<I, L, K, R> parentTerm)
+	{
+		return containsValue(node.getNodeID(), term, parentNode.getNodeID(), parentTerm);
+	}
+
+
+	@Override
+	public boolean containsValue(NodeID nodeID,
+								 IDLTerm<I, L, K, R> term, NodeID parentNodeID,
+								 IDLTerm<I, L, K, R> parentTerm)
+	{
+		return _parents.contains(_entryFactory.getKey(nodeID, term), _entryFactory.getKey(parentNodeID, parentTerm));
+	}
+
+
+	@Override
+	public DependencyMap<I, L, K, R> clone()
+	{
+		final DependencyMap<I, L, K, R> klone = new DependencyMap<>(_entryFactory, _parents.clone(), _children.clone(),
+																	 _governingTerms.clone(), _parentClosures.clone(),
+																	 _entryDependencies.clone(),
+																	 _nodeDependencies.clone(), _branchPath);
+		klone._actionDependencies = _actionDependencies;
+		return klone;
+	}
+
+
+	@Override
+	public IDependencyMap<I, L, K, R> getImmutable()
+	{
+		return ImmutableDependencyMap.decorate(this);
+	}
+
+
+	@Override
+	public TermEntryFactory<I, L, K, R> getTermEntryFactory()
+	{
+		return _entryFactory;
+	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="interface MultiMap">
+	@Override
+	@SuppressWarnings("unchecked")
+	public TermEntry<I, L, K, R> remove(Object key, Object item)
+	{
+		if ((key instanceof TermEntry) && (item instanceof TermEntry)
+			&& removeLink(((TermEntry<?, ?, ?, ?>) key).getKey(), ((TermEntry<?, ?, ?, ?>) item).getKey())) {
+			return (TermEntry<I, L, K, R>) item;
+		} else {
+			return null;
+		}
+	}
+
+
+	@Override
+	public int size(Object key)
+	{
+		return (key instanceof TermEntry) ? _parents.size(((TermEntry<?, ?, ?, ?>) key).getKey()) : 0;
+	}
+
+
+	/**
+	 * @return The number of entries that have parents.
+	 */
+	@Override
+	public int size()
+	{
+		return _parents.keyCount();
+	}
+
+
+	@Override
+	public Collection<TermEntry<I, L, K, R>> get(Object key)
+	{
+		if ((key instanceof TermEntry) && _parents.containsKey(((TermEntry<?, ?, ?, ?>) key).getKey())) {
+			return new ParentSetView(((TermEntry<?, ?, ?, ?>) key).getKey());
+		} else {
+			return null;
+		}
+	}
+
+
+	@Override
+	public boolean containsValue(Object value)
+	{
+		return (value instanceof TermEntry) && _children.containsKey(((TermEntry<?, ?, ?, ?>) value).getKey());
+	}
+
+
+	@Override
+	public boolean containsValue(Object key, Object value)
+	{
+		return (key instanceof TermEntry) && (value instanceof TermEntry)
+			&& _parents.contains(((TermEntry<?, ?, ?, ?>) key).getKey(), ((TermEntry<?, ?, ?, ?>) value).getKey());
+	}
+
+
+	@Override
+	public TermEntry<I, L, K, R> put(TermEntry<I, L, K, R> key, TermEntry<I, L, K, R> value)
+	{
+		return addLink(key.getKey(), value.getKey()) ? value : null;
+	}
+
+
+	@Override
+	public Collection<TermEntry<I, L, K, R>> remove(Object key)
+	{
+		if (key instanceof TermEntry) {
+			final long childKey = ((TermEntry<?, ?, ?, ?>) key).getKey();
+			final long[] parents = _parents.removeKey(childKey);
+			if (parents != null) {
+				for (long parentKey : parents) {
+					_children.remove(parentKey, childKey);
+				}
+				_parentClosures.clear();
+				return new KeyArrayView(parents);
 			}
 		}
-		return nodeRoots;
+		return null;
 	}
 
 
 	@Override
-	public Collection<TermEntry<I, L, K, R>> getNodeRoots(final IABoxNode<I, L, K, R> node)
+	public Collection<TermEntry<I, L, K, R>> values()
 	{
-		return getNodeRoots(node.getNodeID());
+		return new AbstractCollection<TermEntry<I, L, K, R>>() {
+			@Override
+			public Iterator<TermEntry<I, L, K, R>> iterator()
+			{
+				return new ValueIterator();
+			}
+
+
+			@Override
+			public int size()
+			{
+				return _parents.size();
+			}
+		};
 	}
 
 
 	@Override
-	public boolean hasGoverningTerm(IABoxNode<I, L, K, R> node, IDLTerm<I, L, K, R> term)
+	public boolean isEmpty()
 	{
-		return hasGoverningTerm(getTermEntryFactory().getEntry(node, term));
+		return _parents.isEmpty();
 	}
 
 
 	@Override
-	public boolean hasGoverningTerm(
-		TermEntry<I, L, K, R> termEntry)
+	public boolean containsKey(Object key)
 	{
-		return _governingTerms.contains(termEntry);
+		return (key instanceof TermEntry) && _parents.containsKey(((TermEntry<?, ?, ?, ?>) key).getKey());
 	}
 
 
 	@Override
-	public boolean hasGoverningTerm(
-		NodeID nodeID, IDLTerm<I, L, K, R> term)
+	public void putAll(Map<? extends TermEntry<I, L, K, R>, ? extends TermEntry<I, L, K, R>> map)
+	{
+		for (Map.Entry<? extends TermEntry<I, L, K, R>, ? extends TermEntry<I, L, K, R>> entry : map.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+
+	@Override
+	public void putAll(MultiMap<? extends TermEntry<I, L, K, R>, ? extends TermEntry<I, L, K, R>> map)
 	{
-		return hasGoverningTerm(getTermEntryFactory().getEntry(nodeID, term));
+		for (TermEntry<I, L, K, R> key : map.keySet()) {
+			putAll(key, map.get(key));
+		}
 	}
 
 
 	@Override
-	public boolean hasGoverningTerm(NodeID nodeID)
+	public boolean putAll(TermEntry<I, L, K, R> key, Collection<? extends TermEntry<I, L, K, R>> values)
 	{
-		for (TermEntry<I, L, K, R> govTerm : _governingTerms) {
-			if (govTerm.getNodeID().equals(nodeID))
-				return true;
+		boolean changed = false;
+		if (values != null) {
+			for (TermEntry<I, L, K, R> value : values) {
+				changed |= addLink(key.getKey(), value.getKey());
+			}
 		}
-		return false;
+		return changed;
 	}
 
 
 	@Override
-	public boolean hasGoverningTerm(IABoxNode<I, L, K, R> node)
+	public Iterator<TermEntry<I, L, K, R>> iterator(Object key)
 	{
-		return hasGoverningTerm(node.getNodeID());
+		final Collection<TermEntry<I, L, K, R>> parents = get(key);
+		if (parents == null) {
+			return Collections.<TermEntry<I, L, K, R>>emptySet().iterator();
+		} else {
+			return parents.iterator();
+		}
+	}
+
+
+	@Override
+	public void clear()
+	{
+		_parents.clear();
+		_children.clear();
+		_governingTerms.clear();
+		_parentClosures.clear();
+	}
+
+
+	@Override
+	public Set<TermEntry<I, L, K, R>> keySet()
+	{
+		return new AbstractKeySetView() {
+			@Override
+			protected long[] getKeys()
+			{
+				return _parents.keys();
+			}
+
+
+			@Override
+			protected boolean containsKey(long key)
+			{
+				return _parents.containsKey(key);
+			}
+
+
+			@Override
+			protected boolean removeKey(long key)
+			{
+				return DependencyMap.this.remove(_entryFactory.getEntry(key)) != null;
+			}
+
+
+			@Override
+			public int size()
+			{
+				return _parents.keyCount();
+			}
+		};
+	}
+
+
+	@Override
+	public Set<Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>>() {
+			@Override
+			public Iterator<Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>> iterator()
+			{
+				final Iterator<TermEntry<I, L, K, R>> keyIter = keySet().iterator();
+				return new Iterator<Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>>() {
+					@Override
+					public boolean hasNext()
+					{
+						return keyIter.hasNext();
+					}
+
+
+					@Override
+					public Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>> next()
+					{
+						final TermEntry<I, L, K, R> key = keyIter.next();
+						return new AbstractMap.SimpleImmutableEntry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>(
+							key, new ParentSetView(key.getKey()));
+					}
+
+
+					@Override
+					public void remove()
+					{
+						keyIter.remove();
+					}
+				};
+			}
+
+
+			@Override
+			public int size()
+			{
+				return _parents.keyCount();
+			}
+		};
 	}
 
 
-		private void getChildrenRecursive(
-		final TermEntry<I, L, K, R> entry, final Collection<TermEntry<I, L, K, R>> targetSet)
+	@Override
+	public Map<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>> map()
 	{
-		final Collection<TermEntry<I, L, K, R>> directChildren = getChildren(entry);
-		for (TermEntry<I, L, K, R> child : directChildren) {
-			if (!targetSet.contains(child)) {
-				targetSet.add(child);
-				getChildrenRecursive(child, targetSet);
+		return new AbstractMap<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>() {
+			@Override
+			public Set<Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>>> entrySet()
+			{
+				return DependencyMap.this.entrySet();
 			}
+
+
+			@Override
+			public Collection<TermEntry<I, L, K, R>> get(Object key)
+			{
+				return DependencyMap.this.get(key);
+			}
+
+
+			@Override
+			public boolean containsKey(Object key)
+			{
+				return DependencyMap.this.containsKey(key);
+			}
+		};
+	}
+
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof MultiMap) {
+			return map().equals(((MultiMap<?, ?>) obj).map());
+		} else {
+			return false;
 		}
+	}
+
 
-		targetSet.addAll(directChildren);
+	@Override
+	public int hashCode()
+	{
+		return map().hashCode();
+	}
+	/// </editor-fold>
+
+
+	@Override
+	public String toString()
+	{
+		/* a wild guess at the required capacity */
+		final StringBuilder sb = new StringBuilder(_governingTerms.size() * 4);
+		sb.append("{");
+		boolean isFirst = true;
+		for (TermEntry<I, L, K, R> termEntry : getGoverningTerms()) {
+			if (isFirst) {
+				isFirst = false;
+			} else {
+				sb.append(", @");
+			}
+			sb.append(termEntry);
+		}
+		for (Map.Entry<TermEntry<I, L, K, R>, Collection<TermEntry<I, L, K, R>>> entry : this.entrySet()) {
+			sb.append("<");
+			if (isFirst) {
+				isFirst = false;
+			} else {
+				sb.append(", ");
+			}
+			sb.append(entry.getKey());
+			sb.append(": ");
+			sb.append(entry.getValue());
+			sb.append(">");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+
+	private boolean addLink(final long childKey, final long parentKey)
+	{
+		if (_parents.put(childKey, parentKey)) {
+			if (_children.containsKey(childKey)) {
+				/* the transitive parents of all descendants change */
+				_parentClosures.clear();
+			} else {
+				_parentClosures.removeKey(childKey);
+			}
+			_children.put(parentKey, childKey);
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+
+	private boolean removeLink(final long childKey, final long parentKey)
+	{
+		if (_parents.remove(childKey, parentKey)) {
+			_children.remove(parentKey, childKey);
+			_parentClosures.clear();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Compute the transitive closure of {@literal key} in {@literal graph}, reusing and filling the results cached in
+	 * {@literal closures}.
+	 */
+	private static long[] getClosure(final LongSetMultiMap graph, final long key, final LongSetMultiMap closures)
+	{
+		long[] closure = closures.get(key);
+		if (closure == null) {
+			final long[] direct = graph.get(key);
+			if (direct == null) {
+				closure = LongSetMultiMap.EMPTY;
+			} else {
+				/* guard against cycles */
+				closures.replace(key, LongSetMultiMap.EMPTY);
+				closure = direct;
+				for (long next : direct) {
+					closure = LongSetMultiMap.union(closure, getClosure(graph, next, closures));
+				}
+			}
+			closures.replace(key, closure);
+		}
+		return closure;
+	}
+
+	/// <editor-fold defaultstate="collapsed" desc="views">
+	/**
+	 * Base class for sets of term entries that are backed by an array of entry keys.
+	 */
+	private abstract class AbstractKeySetView
+		extends AbstractSet<TermEntry<I, L, K, R>> {
+
+		/**
+		 * @return The current keys of the view. The array is not modified by the view.
+		 */
+		protected abstract long[] getKeys();
+
+
+		protected abstract boolean containsKey(final long key);
+
+
+		protected boolean removeKey(final long key)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+
+		@Override
+		public boolean contains(Object o)
+		{
+			return (o instanceof TermEntry) && containsKey(((TermEntry<?, ?, ?, ?>) o).getKey());
+		}
+
+
+		@Override
+		public boolean remove(Object o)
+		{
+			return (o instanceof TermEntry) && removeKey(((TermEntry<?, ?, ?, ?>) o).getKey());
+		}
+
+
+		@Override
+		public int size()
+		{
+			return getKeys().length;
+		}
+
+
+		@Override
+		public Iterator<TermEntry<I, L, K, R>> iterator()
+		{
+			final long[] keys = getKeys();
+			return new Iterator<TermEntry<I, L, K, R>>() {
+				private int _next = 0;
+
+
+				@Override
+				public boolean hasNext()
+				{
+					return _next < keys.length;
+				}
+
+
+				@Override
+				public TermEntry<I, L, K, R> next()
+				{
+					if (_next >= keys.length) {
+						throw new NoSuchElementException();
+					}
+					return _entryFactory.getEntry(keys[_next++]);
+				}
+
+
+				@Override
+				public void remove()
+				{
+					if ((_next == 0) || (!removeKey(keys[_next - 1]))) {
+						throw new IllegalStateException();
+					}
+				}
+			};
+		}
+	}
+
+	/**
+	 * An unmodifiable set of term entries for a fixed array of sorted keys.
+	 */
+	private final class KeyArrayView
+		extends AbstractKeySetView {
+
+		private final long[] _keys;
+
+
+		KeyArrayView(final long[] keys)
+		{
+			_keys = keys;
+		}
+
+
+		@Override
+		protected long[] getKeys()
+		{
+			return _keys;
+		}
+
+
+		@Override
+		protected boolean containsKey(long key)
+		{
+			return Arrays.binarySearch(_keys, key) >= 0;
+		}
+	}
+
+	/**
+	 * The live set of direct parents of an entry.
+	 */
+	private final class ParentSetView
+		extends AbstractKeySetView {
+
+		private final long _childKey;
+
+
+		ParentSetView(final long childKey)
+		{
+			_childKey = childKey;
+		}
+
+
+		@Override
+		protected long[] getKeys()
+		{
+			final long[] parents = _parents.get(_childKey);
+			return parents == null ? LongSetMultiMap.EMPTY : parents;
+		}
+
+
+		@Override
+		protected boolean containsKey(long key)
+		{
+			return _parents.contains(_childKey, key);
+		}
+
+
+		@Override
+		protected boolean removeKey(long key)
+		{
+			return removeLink(_childKey, key);
+		}
+
+
+		@Override
+		public boolean add(TermEntry<I, L, K, R> e)
+		{
+			return addLink(_childKey, e.getKey());
+		}
+	}
+
+	/**
+	 * The live set of governing terms.
+	 */
+	private final class GoverningTermView
+		extends AbstractSet<TermEntry<I, L, K, R>> {
+
+		@Override
+		public boolean contains(Object o)
+		{
+			return (o instanceof TermEntry) && _governingTerms.contains(
+				TermEntry.keyNodeID(((TermEntry<?, ?, ?, ?>) o).getKey()), ((TermEntry<?, ?, ?, ?>) o).getKey());
+		}
+
+
+		@Override
+		public boolean add(TermEntry<I, L, K, R> e)
+		{
+			return addGoverningTerm(e);
+		}
+
+
+		@Override
+		public boolean remove(Object o)
+		{
+			return (o instanceof TermEntry) && removeGoverningTerm(((TermEntry<?, ?, ?, ?>) o).getKey());
+		}
+
+
+		@Override
+		public int size()
+		{
+			return _governingTerms.size();
+		}
+
+
+		@Override
+		public void clear()
+		{
+			_governingTerms.clear();
+		}
+
+
+		@Override
+		public Iterator<TermEntry<I, L, K, R>> iterator()
+		{
+			final long[] keys = new long[_governingTerms.size()];
+			int i = 0;
+			for (long nodeID : _governingTerms.keys()) {
+				for (long key : _governingTerms.get(nodeID)) {
+					keys[i++] = key;
+				}
+			}
+			Arrays.sort(keys);
+			return new Iterator<TermEntry<I, L, K, R>>() {
+				private int _next = 0;
+				private long _lastKey;
+				private boolean _hasLast = false;
+
+
+				@Override
+				public boolean hasNext()
+				{
+					return _next < keys.length;
+				}
+
+
+				@Override
+				public TermEntry<I, L, K, R> next()
+				{
+					if (_next >= keys.length) {
+						throw new NoSuchElementException();
+					}
+					_lastKey = keys[_next++];
+					_hasLast = true;
+					return _entryFactory.getEntry(_lastKey);
+				}
+
+
+				@Override
+				public void remove()
+				{
+					if (!_hasLast) {
+						throw new IllegalStateException();
+					}
+					removeGoverningTerm(_lastKey);
+					_hasLast = false;
+				}
+			};
+		}
+
+
+		private boolean removeGoverningTerm(final long key)
+		{
+			return _governingTerms.remove(TermEntry.keyNodeID(key), key);
+		}
+	}
+
+	/**
+	 * Iterates over the parents of all entries.
+	 */
+	private final class ValueIterator
+		implements Iterator<TermEntry<I, L, K, R>> {
+
+		private final long[] _childKeys = _parents.keys();
+		private int _nextChild = 0;
+		private long[] _values = LongSetMultiMap.EMPTY;
+		private int _nextValue = 0;
+
+
+		@Override
+		public boolean hasNext()
+		{
+			while ((_nextValue >= _values.length) && (_nextChild < _childKeys.length)) {
+				final long[] values = _parents.get(_childKeys[_nextChild++]);
+				_values = values == null ? LongSetMultiMap.EMPTY : values;
+				_nextValue = 0;
+			}
+			return _nextValue < _values.length;
+		}
+
+
+		@Override
+		public TermEntry<I, L, K, R> next()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return _entryFactory.getEntry(_values[_nextValue++]);
+		}
 	}
+	/// </editor-fold>
 }
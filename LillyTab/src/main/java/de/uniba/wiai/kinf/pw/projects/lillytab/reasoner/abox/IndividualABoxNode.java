@@ -29,10 +29,17 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IIndividualABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectIntersection;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectSomeRestriction;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.TermUtil;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import org.apache.commons.collections15.MultiMap;
+import org.apache.commons.collections15.multimap.MultiHashMap;
 
 
 /**
@@ -71,6 +78,8 @@ public class IndividualABoxNode<I extends Comparable<? super I>, L extends Compa
 		final IDLClassExpression<I, L, K, R> nnfTerm = TermUtil.toNNF(term, abox.getCommon().getTermFactory());
 
 		final SortedMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> addQueue = new TreeMap<>();
+		/* additional parents for terms introduced by conditional unfoldings */
+		final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> extraParents = new MultiHashMap<>();
 
 		addQueue.put(nnfTerm, null);
 		final NodeMergeInfo<I, L, K, R> mergeInfo = new NodeMergeInfo<>(this, false);
@@ -94,6 +103,16 @@ public class IndividualABoxNode<I extends Comparable<? super I>, L extends Compa
 						assert abox.contains(currentNode);
 					}
 				}
+				/* register parents first, the dependency map picks them up when the term is added */
+				if ((parent != null) && (!addTerm.equals(parent))) {
+					depMap.addParent(currentNode, addTerm, currentNode, parent);
+				}
+				final Collection<IDLClassExpression<I, L, K, R>> otherParents = extraParents.remove(addTerm);
+				if (otherParents != null) {
+					for (IDLClassExpression<I, L, K, R> otherParent : otherParents) {
+						depMap.addParent(currentNode, addTerm, currentNode, otherParent);
+					}
+				}
 				if (currentNode._terms.add(addTerm)) {
 					mergeInfo.setModified(currentNode);
 				}
@@ -102,8 +121,26 @@ public class IndividualABoxNode<I extends Comparable<? super I>, L extends Compa
 						addQueue.put(unfoldee, addTerm);
 					}
 				}
-				if ((parent != null) && (!addTerm.equals(parent))) {
-					depMap.addParent(currentNode, addTerm, currentNode, parent);
+				if (addTerm instanceof IDLObjectSomeRestriction) {
+					/* the existential will create a successor, apply absorbed domains early */
+					final R role = ((IDLObjectSomeRestriction<I, L, K, R>) addTerm).getRole();
+					for (IDLClassExpression<I, L, K, R> domain : tbox.getRoleDomainUnfoldings(role)) {
+						if (!currentNode.getTerms().contains(domain)) {
+							addQueue.put(domain, addTerm);
+						}
+					}
+				}
+				for (IDLImplies<I, L, K, R> conditional : tbox.getConditionalUnfoldings(addTerm)) {
+					final IDLClassExpression<I, L, K, R> unfoldee = conditional.getSuperDescription();
+					if ((!currentNode.getTerms().contains(unfoldee))
+						&& currentNode.getTerms().containsAll(getConditions(conditional))) {
+						addQueue.put(unfoldee, addTerm);
+						for (IDLClassExpression<I, L, K, R> condition : getConditions(conditional)) {
+							if (!condition.equals(addTerm)) {
+								extraParents.put(unfoldee, condition);
+							}
+						}
+					}
 				}
 			}
 		}
@@ -132,6 +169,21 @@ public class IndividualABoxNode<I extends Comparable<? super I>, L extends Compa
 	}
 
 	/// </editor-fold>
+	/**
+	 * @param conditional A conditional unfolding
+	 * @return The descriptions that need to be present on a node for {@literal conditional} to fire.
+	 */
+	static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> Collection<IDLClassExpression<I, L, K, R>> getConditions(
+		final IDLImplies<I, L, K, R> conditional)
+	{
+		final IDLClassExpression<I, L, K, R> subDesc = conditional.getSubDescription();
+		if (subDesc instanceof IDLObjectIntersection) {
+			return (IDLObjectIntersection<I, L, K, R>) subDesc;
+		} else {
+			return Collections.singleton(subDesc);
+		}
+	}
+
 	@Override
 	public IndividualABoxNode<I, L, K, R> clone(
 		IABox<I, L, K, R> newABox)
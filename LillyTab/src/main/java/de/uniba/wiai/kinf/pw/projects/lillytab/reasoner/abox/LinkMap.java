@@ -143,6 +143,22 @@ public class LinkMap<I extends Comparable<? super I>, L extends Comparable<? sup
 	}
 
 
+	@Override
+	protected void notifyBeforeElementAdded(final CollectionItemEvent<Entry<R, NodeID>, MultiMap<R, NodeID>> e)
+	{
+		recordNode();
+		super.notifyBeforeElementAdded(e);
+	}
+
+
+	@Override
+	protected void notifyBeforeElementRemoved(final CollectionItemEvent<Entry<R, NodeID>, MultiMap<R, NodeID>> e)
+	{
+		recordNode();
+		super.notifyBeforeElementRemoved(e);
+	}
+
+
 	@Override
 	public void notifyBeforeCollectionCleared(CollectionEvent<Entry<R, NodeID>, MultiMap<R, NodeID>> e)
 	{
@@ -150,6 +166,7 @@ public class LinkMap<I extends Comparable<? super I>, L extends Comparable<? sup
 		final IABox<I, L, K, R> abox = source.getABox();
 
 		if (abox != null) {
+			recordNode();
 			if (isPredecessorMap(source, e.getCollection())) {
 				/* we cannot iterate through the map, because it gets modified by the remove() callbacks */
 				final Collection<Pair<R, IABoxNode<I, L, K, R>>> predEntries = getAllEntries(abox, e.
@@ -260,4 +277,17 @@ public class LinkMap<I extends Comparable<? super I>, L extends Comparable<? sup
 		}
 		return list;
 	}
+
+
+	/**
+	 * Record the owning node on the ABox's undo trail before the link map is modified.
+	 */
+	@SuppressWarnings("unchecked")
+	private void recordNode()
+	{
+		final IABoxNode<I, L, K, R> node = getNode();
+		if (node.getABox() instanceof ABox) {
+			((ABox<I, L, K, R>) node.getABox()).recordNode(node);
+		}
+	}
 }
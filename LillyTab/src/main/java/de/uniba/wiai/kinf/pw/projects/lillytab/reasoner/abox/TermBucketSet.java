@@ -0,0 +1,485 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
+
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteSortedSet;
+import de.dhke.projects.cutil.collections.factories.TreeSetFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ *
+ * A sorted term set that is partitioned by {@link DLTermOrder}.
+ * <p />
+ * Each term kind is kept in its own (copy-on-write) bucket, indexed by the ordinal of the term order. Since terms are
+ * ordered by their {@link DLTermOrder} first, iterating the buckets in sequence yields the terms in their natural
+ * order. Access to the terms of a single kind via {@link #bucket(de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder)
+ * } does not need a range view and is thus free of allocations, once the bucket exists.
+ * <p />
+ * Buckets are created on first use and never removed, so that views on a bucket stay valid.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TermBucketSet<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	extends AbstractSet<IDLTerm<I, L, K, R>>
+	implements SortedSet<IDLTerm<I, L, K, R>>, Cloneable {
+
+	private static final int BUCKET_COUNT = DLTermOrder.values().length;
+	private final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>[] _buckets;
+
+
+	@SuppressWarnings("unchecked")
+	public TermBucketSet()
+	{
+		_buckets = (CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>[]) new CopyOnWriteSortedSet<?>[BUCKET_COUNT];
+	}
+
+
+	private TermBucketSet(final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>[] buckets)
+	{
+		_buckets = buckets;
+	}
+
+
+	/**
+	 * Retrieve the live bucket for the terms of the specified kind.
+	 * <p />
+	 * Modifications to the returned set modify this set. Only terms of the specified kind may be added to it.
+	 *
+	 * @param termType The term kind.
+	 * @return The bucket for the terms of kind {@literal termType}.
+	 */
+	public SortedSet<IDLTerm<I, L, K, R>> bucket(final DLTermOrder termType)
+	{
+		return getBucket(termType.ordinal());
+	}
+
+
+	@Override
+	public boolean add(final IDLTerm<I, L, K, R> e)
+	{
+		return getBucket(e.getDLTermOrder().ordinal()).add(e);
+	}
+
+
+	@Override
+	public boolean remove(final Object o)
+	{
+		if (o instanceof IDLTerm) {
+			final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket = _buckets[((IDLTerm<?, ?, ?, ?>) o).getDLTermOrder().ordinal()];
+			return (bucket != null) && bucket.remove(o);
+		} else {
+			return false;
+		}
+	}
+
+
+	@Override
+	public boolean contains(final Object o)
+	{
+		if (o instanceof IDLTerm) {
+			final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket = _buckets[((IDLTerm<?, ?, ?, ?>) o).getDLTermOrder().ordinal()];
+			return (bucket != null) && bucket.contains(o);
+		} else {
+			return false;
+		}
+	}
+
+
+	@Override
+	public int size()
+	{
+		int size = 0;
+		for (CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket : _buckets) {
+			if (bucket != null) {
+				size += bucket.size();
+			}
+		}
+		return size;
+	}
+
+
+	@Override
+	public boolean isEmpty()
+	{
+		for (CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket : _buckets) {
+			if ((bucket != null) && (!bucket.isEmpty())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	@Override
+	public void clear()
+	{
+		for (CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket : _buckets) {
+			if (bucket != null) {
+				bucket.clear();
+			}
+		}
+	}
+
+
+	@Override
+	public Iterator<IDLTerm<I, L, K, R>> iterator()
+	{
+		return new BucketIterator(null, null);
+	}
+
+
+	@Override
+	public Comparator<? super IDLTerm<I, L, K, R>> comparator()
+	{
+		return null;
+	}
+
+
+	@Override
+	public SortedSet<IDLTerm<I, L, K, R>> subSet(final IDLTerm<I, L, K, R> fromElement,
+												  final IDLTerm<I, L, K, R> toElement)
+	{
+		if (fromElement.compareTo(toElement) > 0) {
+			throw new IllegalArgumentException("fromElement > toElement");
+		}
+		return new RangeView(fromElement, toElement);
+	}
+
+
+	@Override
+	public SortedSet<IDLTerm<I, L, K, R>> headSet(final IDLTerm<I, L, K, R> toElement)
+	{
+		return new RangeView(null, toElement);
+	}
+
+
+	@Override
+	public SortedSet<IDLTerm<I, L, K, R>> tailSet(final IDLTerm<I, L, K, R> fromElement)
+	{
+		return new RangeView(fromElement, null);
+	}
+
+
+	@Override
+	public IDLTerm<I, L, K, R> first()
+	{
+		return first(null, null);
+	}
+
+
+	@Override
+	public IDLTerm<I, L, K, R> last()
+	{
+		return last(null, null);
+	}
+
+
+	/**
+	 * Create a copy of this term set. The buckets are shared copy-on-write.
+	 *
+	 * @return A copy of this term set.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public TermBucketSet<I, L, K, R> clone()
+	{
+		final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>[] buckets = (CopyOnWriteSortedSet<IDLTerm<I, L, K, R>>[]) new CopyOnWriteSortedSet<?>[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			if (_buckets[i] != null) {
+				buckets[i] = _buckets[i].clone();
+			}
+		}
+		return new TermBucketSet<>(buckets);
+	}
+
+
+	private CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> getBucket(final int index)
+	{
+		CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket = _buckets[index];
+		if (bucket == null) {
+			bucket = CopyOnWriteSortedSet.decorate(new TreeSet<IDLTerm<I, L, K, R>>(),
+												   new TreeSetFactory<IDLTerm<I, L, K, R>>());
+			_buckets[index] = bucket;
+		}
+		return bucket;
+	}
+
+
+	/**
+	 * @return The part of bucket {@literal index} that lies between {@literal from} (inclusive) and {@literal to}
+	 * (exclusive) or {@literal null}, if the bucket does not exist.
+	 */
+	private SortedSet<IDLTerm<I, L, K, R>> getSlice(final int index, final IDLTerm<I, L, K, R> from,
+													  final IDLTerm<I, L, K, R> to)
+	{
+		final CopyOnWriteSortedSet<IDLTerm<I, L, K, R>> bucket = _buckets[index];
+		if (bucket == null) {
+			return null;
+		}
+		final boolean fromHere = (from != null) && (from.getDLTermOrder().ordinal() == index);
+		final boolean toHere = (to != null) && (to.getDLTermOrder().ordinal() == index);
+		if (fromHere && toHere) {
+			return bucket.subSet(from, to);
+		} else if (fromHere) {
+			return bucket.tailSet(from);
+		} else if (toHere) {
+			return bucket.headSet(to);
+		} else {
+			return bucket;
+		}
+	}
+
+
+	private static int lowIndex(final IDLTerm<?, ?, ?, ?> from)
+	{
+		return from == null ? 0 : from.getDLTermOrder().ordinal();
+	}
+
+
+	private static int highIndex(final IDLTerm<?, ?, ?, ?> to)
+	{
+		return to == null ? BUCKET_COUNT - 1 : to.getDLTermOrder().ordinal();
+	}
+
+
+	private IDLTerm<I, L, K, R> first(final IDLTerm<I, L, K, R> from, final IDLTerm<I, L, K, R> to)
+	{
+		for (int i = lowIndex(from); i <= highIndex(to); ++i) {
+			final SortedSet<IDLTerm<I, L, K, R>> slice = getSlice(i, from, to);
+			if ((slice != null) && (!slice.isEmpty())) {
+				return slice.first();
+			}
+		}
+		throw new NoSuchElementException();
+	}
+
+
+	private IDLTerm<I, L, K, R> last(final IDLTerm<I, L, K, R> from, final IDLTerm<I, L, K, R> to)
+	{
+		for (int i = highIndex(to); i >= lowIndex(from); --i) {
+			final SortedSet<IDLTerm<I, L, K, R>> slice = getSlice(i, from, to);
+			if ((slice != null) && (!slice.isEmpty())) {
+				return slice.last();
+			}
+		}
+		throw new NoSuchElementException();
+	}
+
+	/// <editor-fold defaultstate="collapsed" desc="class BucketIterator">
+	private final class BucketIterator
+		implements Iterator<IDLTerm<I, L, K, R>> {
+
+		private final IDLTerm<I, L, K, R> _from;
+		private final IDLTerm<I, L, K, R> _to;
+		private final int _highIndex;
+		private int _index;
+		private Iterator<IDLTerm<I, L, K, R>> _sliceIter = null;
+		private Iterator<IDLTerm<I, L, K, R>> _lastIter = null;
+
+
+		BucketIterator(final IDLTerm<I, L, K, R> from, final IDLTerm<I, L, K, R> to)
+		{
+			_from = from;
+			_to = to;
+			_index = lowIndex(from);
+			_highIndex = highIndex(to);
+		}
+
+
+		@Override
+		public boolean hasNext()
+		{
+			while ((_sliceIter == null) || (!_sliceIter.hasNext())) {
+				if (_index > _highIndex) {
+					return false;
+				}
+				final SortedSet<IDLTerm<I, L, K, R>> slice = getSlice(_index++, _from, _to);
+				_sliceIter = slice == null ? null : slice.iterator();
+			}
+			return true;
+		}
+
+
+		@Override
+		public IDLTerm<I, L, K, R> next()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			_lastIter = _sliceIter;
+			return _sliceIter.next();
+		}
+
+
+		@Override
+		public void remove()
+		{
+			if (_lastIter == null) {
+				throw new IllegalStateException();
+			}
+			_lastIter.remove();
+			_lastIter = null;
+		}
+	}
+	/// </editor-fold>
+
+	/// <editor-fold defaultstate="collapsed" desc="class RangeView">
+	/**
+	 * A live view on the terms between {@literal from} (inclusive) and {@literal to} (exclusive). Either bound may be
+	 * {@literal null} for an open range.
+	 */
+	private final class RangeView
+		extends AbstractSet<IDLTerm<I, L, K, R>>
+		implements SortedSet<IDLTerm<I, L, K, R>> {
+
+		private final IDLTerm<I, L, K, R> _from;
+		private final IDLTerm<I, L, K, R> _to;
+
+
+		RangeView(final IDLTerm<I, L, K, R> from, final IDLTerm<I, L, K, R> to)
+		{
+			_from = from;
+			_to = to;
+		}
+
+
+		@Override
+		public boolean add(final IDLTerm<I, L, K, R> e)
+		{
+			if (!isInRange(e)) {
+				throw new IllegalArgumentException("Term out of range: " + e);
+			}
+			return TermBucketSet.this.add(e);
+		}
+
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(final Object o)
+		{
+			return (o instanceof IDLTerm) && isInRange((IDLTerm<I, L, K, R>) o) && TermBucketSet.this.remove(o);
+		}
+
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(final Object o)
+		{
+			return (o instanceof IDLTerm) && isInRange((IDLTerm<I, L, K, R>) o) && TermBucketSet.this.contains(o);
+		}
+
+
+		@Override
+		public int size()
+		{
+			int size = 0;
+			for (int i = lowIndex(_from); i <= highIndex(_to); ++i) {
+				final SortedSet<IDLTerm<I, L, K, R>> slice = getSlice(i, _from, _to);
+				if (slice != null) {
+					size += slice.size();
+				}
+			}
+			return size;
+		}
+
+
+		@Override
+		public Iterator<IDLTerm<I, L, K, R>> iterator()
+		{
+			return new BucketIterator(_from, _to);
+		}
+
+
+		@Override
+		public Comparator<? super IDLTerm<I, L, K, R>> comparator()
+		{
+			return null;
+		}
+
+
+		@Override
+		public SortedSet<IDLTerm<I, L, K, R>> subSet(final IDLTerm<I, L, K, R> fromElement,
+													  final IDLTerm<I, L, K, R> toElement)
+		{
+			checkBound(fromElement);
+			checkBound(toElement);
+			return TermBucketSet.this.subSet(fromElement, toElement);
+		}
+
+
+		@Override
+		public SortedSet<IDLTerm<I, L, K, R>> headSet(final IDLTerm<I, L, K, R> toElement)
+		{
+			checkBound(toElement);
+			return new RangeView(_from, toElement);
+		}
+
+
+		@Override
+		public SortedSet<IDLTerm<I, L, K, R>> tailSet(final IDLTerm<I, L, K, R> fromElement)
+		{
+			checkBound(fromElement);
+			return new RangeView(fromElement, _to);
+		}
+
+
+		@Override
+		public IDLTerm<I, L, K, R> first()
+		{
+			return TermBucketSet.this.first(_from, _to);
+		}
+
+
+		@Override
+		public IDLTerm<I, L, K, R> last()
+		{
+			return TermBucketSet.this.last(_from, _to);
+		}
+
+
+		private boolean isInRange(final IDLTerm<I, L, K, R> term)
+		{
+			return ((_from == null) || (term.compareTo(_from) >= 0)) && ((_to == null) || (term.compareTo(_to) < 0));
+		}
+
+
+		private void checkBound(final IDLTerm<I, L, K, R> bound)
+		{
+			if (((_from != null) && (bound.compareTo(_from) < 0)) || ((_to != null) && (bound.compareTo(_to) > 0))) {
+				throw new IllegalArgumentException("Bound out of range: " + bound);
+			}
+		}
+	}
+	/// </editor-fold>
+}
@@ -24,6 +24,8 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
 import de.dhke.projects.cutil.collections.aspect.AspectSortedSet;
 import de.dhke.projects.cutil.collections.aspect.CollectionItemEvent;
 import de.dhke.projects.cutil.collections.aspect.CollectionItemReplacedEvent;
+import de.dhke.projects.cutil.collections.aspect.ICollectionListener;
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ITermSet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.immutable.ImmutableTermSet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLDummyTerm;
@@ -31,9 +33,9 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataRange;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.apache.commons.collections15.IteratorUtils;
@@ -52,7 +54,13 @@ public class TermSet<I extends Comparable<? super I>, L extends Comparable<? sup
 	extends AspectSortedSet<IDLTerm<I, L, K, R>>
 	implements ITermSet<I, L, K, R> {
 
+	private static final DLTermOrder[] TERM_ORDERS = DLTermOrder.values();
 	private final TermTypes _types;
+	/**
+	 * Cached views returned by {@link #subSet(de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder) }, indexed
+	 * by the ordinal of the term order.
+	 */
+	private SortedSet<IDLTerm<I, L, K, R>>[] _kindViews = null;
 
 
 	public TermSet(final TermTypes types)
@@ -83,19 +91,27 @@ public class TermSet<I extends Comparable<? super I>, L extends Comparable<? sup
 
 
 	/// <editor-fold defaultstate="collapsed" desc="interface ITermSet">
+	/**
+	 * {@inheritDoc}
+	 * <p />
+	 * The per-kind views are created on first use and cached, so repeated calls do not allocate. If the base set is a
+	 * {@link TermBucketSet}, the view operates directly on the bucket for {@literal termType}.
+	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public SortedSet<IDLTerm<I, L, K, R>> subSet(
 		DLTermOrder termType)
 	{
-		final DLTermOrder[] values = DLTermOrder.values();
-		final int typeIndex = Arrays.binarySearch(values, termType);
-		assert (typeIndex > 0) && (typeIndex < values.length - 1);
-		final DLTermOrder before = values[typeIndex - 1];
-		final DLTermOrder after = values[typeIndex + 1];
-		final DLDummyTerm<I, L, K, R> beforeTerm = new DLDummyTerm<>(before);
-		final DLDummyTerm<I, L, K, R> afterTerm = new DLDummyTerm<>(after);
-
-		return subSet(beforeTerm, afterTerm);
+		if (_kindViews == null) {
+			_kindViews = (SortedSet<IDLTerm<I, L, K, R>>[]) new SortedSet<?>[TERM_ORDERS.length];
+		}
+		final int typeIndex = termType.ordinal();
+		SortedSet<IDLTerm<I, L, K, R>> kindView = _kindViews[typeIndex];
+		if (kindView == null) {
+			kindView = new KindView<>(createKindSet(termType), getListeners());
+			_kindViews[typeIndex] = kindView;
+		}
+		return kindView;
 	}
 
 
@@ -113,6 +129,54 @@ public class TermSet<I extends Comparable<? super I>, L extends Comparable<? sup
 	}
 
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public CopyOnWriteBitSet getTermIDs()
+	{
+		if (getDecoratee() instanceof ITermSet) {
+			return ((ITermSet<I, L, K, R>) getDecoratee()).getTermIDs();
+		} else {
+			return null;
+		}
+	}
+
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CopyOnWriteBitSet getNegatedTermIDs()
+	{
+		if (getDecoratee() instanceof ITermSet) {
+			return ((ITermSet<I, L, K, R>) getDecoratee()).getNegatedTermIDs();
+		} else {
+			return null;
+		}
+	}
+
+
+	/**
+	 * Create the live base set for the terms of the specified kind.
+	 *
+	 * @param termType The term kind.
+	 * @return A live subset of the decorated set containing the terms of kind {@literal termType}.
+	 */
+	@SuppressWarnings("unchecked")
+	private SortedSet<IDLTerm<I, L, K, R>> createKindSet(final DLTermOrder termType)
+	{
+		final SortedSet<IDLTerm<I, L, K, R>> baseSet = getDecoratee();
+		if (baseSet instanceof TermBucketSet) {
+			return ((TermBucketSet<I, L, K, R>) baseSet).bucket(termType);
+		} else if (baseSet instanceof ITermSet) {
+			return ((ITermSet<I, L, K, R>) baseSet).subSet(termType);
+		} else {
+			final int typeIndex = termType.ordinal();
+			assert (typeIndex > 0) && (typeIndex < TERM_ORDERS.length - 1);
+			final DLDummyTerm<I, L, K, R> beforeTerm = new DLDummyTerm<>(TERM_ORDERS[typeIndex - 1]);
+			final DLDummyTerm<I, L, K, R> afterTerm = new DLDummyTerm<>(TERM_ORDERS[typeIndex + 1]);
+			return baseSet.subSet(beforeTerm, afterTerm);
+		}
+	}
+
+
 	TermTypes getAllowedTermTypes()
 	{
 		return _types;
@@ -165,6 +229,22 @@ public class TermSet<I extends Comparable<? super I>, L extends Comparable<? sup
 	}
 	/// </editor-fold>
 
+	/// <editor-fold defaultstate="collapsed" desc="class KindView">
+	/**
+	 * A view on the terms of a single kind that shares the listeners of its parent set.
+	 */
+	private static final class KindView<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+		extends AspectSortedSet<IDLTerm<I, L, K, R>> {
+
+		KindView(final SortedSet<IDLTerm<I, L, K, R>> kindSet,
+				 final List<ICollectionListener<IDLTerm<I, L, K, R>, Collection<IDLTerm<I, L, K, R>>>> listeners)
+		{
+			super(kindSet);
+			setListeners(listeners);
+		}
+	}
+	/// </editor-fold>
+
 	/// <editor-fold defaultstate="collapsed" desc="class TermsOfTypeIterator" >
 	final class TermsOfTypeIterator<T>
 		implements Iterator<T> {
@@ -0,0 +1,77 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.blocking;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDatatypeABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStrategy;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.SatisfiabilityCache;
+
+
+/**
+ * A blocking strategy that additionally blocks synthetic nodes whose term set is already known to be satisfiable.
+ * <p />
+ * Such nodes do not need to be expanded any further, as their satisfiability has been established by an earlier
+ * tableau. This is only safe, if the node cannot influence the remaining ABox (see
+ * {@link SatisfiabilityCache#isContextIndependent(java.util.Collection)}). Any other node is delegated to the
+ * wrapped blocking strategy.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class CachedSatisfiabilityBlockingStrategy<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	implements IBlockingStrategy<I, L, K, R> {
+
+	private final IBlockingStrategy<I, L, K, R> _baseStrategy;
+	private final SatisfiabilityCache<I, L, K, R> _satCache;
+
+	public CachedSatisfiabilityBlockingStrategy(final IBlockingStrategy<I, L, K, R> baseStrategy,
+												final SatisfiabilityCache<I, L, K, R> satCache)
+	{
+		_baseStrategy = baseStrategy;
+		_satCache = satCache;
+	}
+
+	@Override
+	public boolean isBlocked(final IABoxNode<I, L, K, R> blockedNode)
+	{
+		if (_baseStrategy.isBlocked(blockedNode)) {
+			return true;
+		} else {
+			return blockedNode.isSynthentic()
+				&& blockedNode.isAnonymous()
+				&& (!(blockedNode instanceof IDatatypeABoxNode))
+				&& _satCache.isSatisfiable(blockedNode.getTerms())
+				&& _satCache.isContextIndependent(blockedNode.getTerms());
+		}
+	}
+
+	@Override
+	public void validateBlocks(final IABoxNode<I, L, K, R> influencer)
+	{
+		_baseStrategy.validateBlocks(influencer);
+	}
+}
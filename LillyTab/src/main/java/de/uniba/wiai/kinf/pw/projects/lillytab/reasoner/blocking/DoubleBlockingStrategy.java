@@ -9,29 +9,60 @@ import de.dhke.projects.cutil.collections.CollectionUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.util.TermSetUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.BlockInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.BlockableAncestorIterable;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStateCache;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStrategy;
+import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.LabelSignatureIndex;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
 
 
 /**
+ *
+ * Pairwise blocking for description logics with inverse roles.
+ * <p />
+ * A pair (x0, x1) is blocked by (y0, y1), if the labels of x0 and y0 and the labels of x1 and y1 are equal and both
+ * pairs are connected by the same roles. Candidates with equal labels are looked up in the
+ * {@link LabelSignatureIndex} of the ABox. With anywhere blocking, y1 may be any (older) node, otherwise y0 must be
+ * an ancestor of x0.
  *
  * @author Peter Wullinger <java@dhke.de>
  */
 public class DoubleBlockingStrategy<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
 	implements IBlockingStrategy<I, L, K, R> {
 
+	private final boolean _anywhereBlocking;
+
+	public DoubleBlockingStrategy()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param anywhereBlocking If {@literal true}, node pairs may be blocked by any pair in front of them, not just by
+	 * pairs of ancestors.
+	 */
+	public DoubleBlockingStrategy(final boolean anywhereBlocking)
+	{
+		_anywhereBlocking = anywhereBlocking;
+	}
+
+	public boolean isAnywhereBlocking()
+	{
+		return _anywhereBlocking;
+	}
+
 	protected boolean isLabelBlocked(final IABoxNode<I, L, K, R> blocker, final IABoxNode<I, L, K, R> blocked)
 	{
 		return blocker.isAnonymous()
 			&& blocked.isAnonymous()
 			&& blocker.getTerms().size() == blocked.getTerms().size()
-			&& blocker.getTerms().containsAll(blocked.getTerms());
+			&& TermSetUtil.containsAll(blocker.getTerms(), blocked.getTerms());
 	}
 
 	/**
@@ -94,7 +125,7 @@ public class DoubleBlockingStrategy<I extends Comparable<? super I>, L extends C
 		if (!isLabelBlocked(x0, y0)) {
 			return false;
 		}
-		if (isLabelBlocked(y1, y1) && isRoleLabelBlocked(x0, x1, y0, y1)) {
+		if (isLabelBlocked(y1, x1) && isRoleLabelBlocked(x0, x1, y0, y1)) {
 			return true;
 		}
 		return false;
@@ -119,11 +150,52 @@ public class DoubleBlockingStrategy<I extends Comparable<? super I>, L extends C
 	}
 
 	public BlockInfo findBlocker(IABoxNode<I, L, K, R> x1)
+	{
+		final IABox<I, L, K, R> abox = x1.getABox();
+		final LabelSignatureIndex labelIndex = abox.getBlockingStateCache().getLabelIndex();
+		final Long x1Signature = LabelSignatureIndex.getSignature(x1);
+		if (x1Signature == null) {
+			return findAncestorBlocker(x1, null);
+		}
+		final SortedSet<NodeID> y1Candidates = labelIndex.getEqualCandidates(abox, x1Signature);
+		if (y1Candidates.isEmpty()) {
+			/* no other node with the same label */
+			return null;
+		} else if (_anywhereBlocking) {
+			for (NodeID y1ID : y1Candidates.headSet(x1.getNodeID())) {
+				final IABoxNode<I, L, K, R> y1 = abox.getNode(y1ID);
+				if (y1 != null) {
+					for (IABoxNode<I, L, K, R> x0 : x1.getRABox().getPredecessorNodes()) {
+						for (IABoxNode<I, L, K, R> y0 : y1.getRABox().getPredecessorNodes()) {
+							if (isBlocker(x0, x1, y0, y1)) {
+								return new DoubleBlockingBlockInfo(x0.getNodeID(), x1.getNodeID(), y0.getNodeID(),
+									y1.getNodeID());
+							}
+						}
+					}
+				}
+			}
+			return null;
+		} else {
+			return findAncestorBlocker(x1, y1Candidates);
+		}
+	}
+
+	/**
+	 * Search the ancestors of the predecessors of {@literal x1} for a blocking pair.
+	 *
+	 * @param x1 The node to block
+	 * @param y1Candidates The nodes with labels equal to {@literal x1} from the label index or {@literal null} to
+	 * check all successors of all ancestors.
+	 * @return The block info for the first blocking pair or {@literal null}.
+	 */
+	private BlockInfo findAncestorBlocker(final IABoxNode<I, L, K, R> x1, final SortedSet<NodeID> y1Candidates)
 	{
 		for (IABoxNode<I, L, K, R> x0 : x1.getRABox().getPredecessorNodes()) {
 			for (final IABoxNode<I, L, K, R> y0 : new BlockableAncestorIterable<>(x0)) {
 				for (IABoxNode<I, L, K, R> y1 : y0.getRABox().getSuccessorNodes()) {
-					if (isBlocker(x0, x1, y0, y1)) {
+					if (((y1Candidates == null) || y1Candidates.contains(y1.getNodeID()))
+						&& isBlocker(x0, x1, y0, y1)) {
 						return new DoubleBlockingBlockInfo(x0.getNodeID(), x1.getNodeID(), y0.getNodeID(), y1.
 							getNodeID());
 					}
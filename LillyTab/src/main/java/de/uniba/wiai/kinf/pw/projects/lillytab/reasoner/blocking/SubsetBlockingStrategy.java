@@ -25,15 +25,22 @@ import de.dhke.projects.cutil.collections.CollectionUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.util.TermSetUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.BlockInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.BlockableAncestorIterable;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStateCache;
 import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.IBlockingStrategy;
+import de.uniba.wiai.kinf.pw.projects.lillytab.blocking.LabelSignatureIndex;
 import java.util.Collection;
+import java.util.SortedSet;
 
 
 /**
  * An implementation of subset blocking as it is sufficient for description logics without inverse roles.
+ * <p />
+ * Candidate blockers are looked up in the {@link LabelSignatureIndex} of the ABox first. With ancestor blocking,
+ * the ancestor walk is skipped, if there are no candidates at all, and only candidates are compared otherwise. With
+ * anywhere blocking, any (older) candidate node may block.
  *
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -45,20 +52,100 @@ import java.util.Collection;
 public class SubsetBlockingStrategy<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
 	implements IBlockingStrategy<I, L, K, R> {
 
+	private final boolean _anywhereBlocking;
+
+	public SubsetBlockingStrategy()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param anywhereBlocking If {@literal true}, nodes may be blocked by any node in front of them, not just by
+	 * their ancestors.
+	 */
+	public SubsetBlockingStrategy(final boolean anywhereBlocking)
+	{
+		_anywhereBlocking = anywhereBlocking;
+	}
+
+	public boolean isAnywhereBlocking()
+	{
+		return _anywhereBlocking;
+	}
+
 	public BlockInfo findBlocker(IABoxNode<I, L, K, R> targetNode)
 	{
 		final IABox<I, L, K, R> abox = targetNode.getABox();
 		assert abox != null;
 		final IBlockingStateCache stateCache = abox.getBlockingStateCache();
 
+		if (!targetNode.isSynthentic()) {
+			return null;
+		}
+
 		/* search for potential blockers */
+		final IABoxNode<I, L, K, R> blocker;
+		final Long signature = LabelSignatureIndex.getSignature(targetNode);
+		if (signature == null) {
+			blocker = findAncestorBlocker(targetNode, null);
+		} else {
+			final SortedSet<NodeID> candidates = stateCache.getLabelIndex().getSupersetCandidates(abox, signature,
+				targetNode.getNodeID());
+			if (candidates.isEmpty()) {
+				blocker = null;
+			} else if (_anywhereBlocking) {
+				blocker = findAnywhereBlocker(targetNode, candidates);
+			} else {
+				blocker = findAncestorBlocker(targetNode, candidates);
+			}
+		}
+
+		if (blocker != null) {
+			final BlockInfo blockInfo = new BlockInfo(blocker.getNodeID());
+			stateCache.setBlockInfo(targetNode.getNodeID(), blockInfo);
+			/* found blocker, stop */
+			// logFinest("node '%s' blocked by '%s'", this, blocker);
+			return blockInfo;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Search the ancestors of {@literal targetNode} for a blocker.
+	 *
+	 * @param targetNode The node to block
+	 * @param candidates The candidate blockers from the label index or {@literal null} to check all ancestors.
+	 * @return The first ancestor blocking {@literal targetNode} or {@literal null}.
+	 */
+	private IABoxNode<I, L, K, R> findAncestorBlocker(final IABoxNode<I, L, K, R> targetNode,
+													  final SortedSet<NodeID> candidates)
+	{
 		for (IABoxNode<I, L, K, R> candidate : new BlockableAncestorIterable<>(targetNode)) {
-			if (isPotentialBlocker(candidate, targetNode)) {
-				final BlockInfo blockInfo = new BlockInfo(candidate.getNodeID());
-				stateCache.setBlockInfo(targetNode.getNodeID(), blockInfo);
-				/* found blocker, stop */
-				// logFinest("node '%s' blocked by '%s'", this, blocker);
-				return blockInfo;
+			if (((candidates == null) || candidates.contains(candidate.getNodeID()))
+				&& isPotentialBlocker(candidate, targetNode)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Search the candidate nodes in node order for a blocker.
+	 *
+	 * @param targetNode The node to block
+	 * @param candidates The candidate blockers from the label index.
+	 * @return The first candidate blocking {@literal targetNode} or {@literal null}.
+	 */
+	private IABoxNode<I, L, K, R> findAnywhereBlocker(final IABoxNode<I, L, K, R> targetNode,
+													  final SortedSet<NodeID> candidates)
+	{
+		final IABox<I, L, K, R> abox = targetNode.getABox();
+		for (NodeID candidateID : candidates) {
+			final IABoxNode<I, L, K, R> candidate = abox.getNode(candidateID);
+			if ((candidate != null) && (candidate.compareTo(targetNode) < 0)
+				&& isPotentialBlocker(candidate, targetNode)) {
+				return candidate;
 			}
 		}
 		return null;
@@ -85,20 +172,27 @@ public class SubsetBlockingStrategy<I extends Comparable<? super I>, L extends C
 		 * - the target is synthetic
 		 * - if the target's set of concept terms is a superset of the blocker's (i.e. if target is less specific that the current node.)
 		 *
-		 * The size check is a very simple performance trick, that helps for some ontologies
+		 * The size check is a very simple performance trick, that helps for some ontologies.
+		 * The subset test itself is performed on the term ID sets, if available.
 		 */
 		return target.isSynthentic()
 			&& blocker.isAnonymous()
 			&& blocker.getTerms().size() >= target.getTerms().size()
-			&& blocker.getTerms().containsAll(target.getTerms());
+			&& TermSetUtil.containsAll(blocker.getTerms(), target.getTerms());
 	}
 
 	@Override
 	public boolean isBlocked(IABoxNode<I, L, K, R> blockedNode)
 	{
-		final BlockInfo blockInfo = blockedNode.getABox().getBlockingStateCache().getBlockInfo(blockedNode.getNodeID());
+		final IABox<I, L, K, R> abox = blockedNode.getABox();
+		final BlockInfo blockInfo = abox.getBlockingStateCache().getBlockInfo(blockedNode.getNodeID());
 		if (blockInfo != null) {
-			return false;
+			/* the term sets may have changed, make sure the cached blocker is still valid */
+			final IABoxNode<I, L, K, R> blocker = abox.getNode(blockInfo.getBlocker());
+			if ((blocker != null) && isPotentialBlocker(blocker, blockedNode)) {
+				return true;
+			}
+			abox.getBlockingStateCache().setBlockInfo(blockedNode.getNodeID(), null);
 		}
 		return findBlocker(blockedNode) != null;
 	}
@@ -34,6 +34,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerContinuationState;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.EIllegalTermTypeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.AbstractCompleter;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLDataAllRestriction;
@@ -41,6 +42,9 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectAllRestriction;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataRange;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 
 /**
@@ -116,8 +120,8 @@ public class RoleRestrictionCompleter<I extends Comparable<? super I>, L extends
 					return ReasonerContinuationState.INCONSISTENT;
 				}
 			}
-			final Collection<IDLClassExpression<I, L, K, R>> domains = branch.getABox().getTBox().getRBox().getRoleDomains(outRole);
-			if ((domains != null) && (!node.getTerms().containsAll(domains))) {
+			final Collection<IDLClassExpression<I, L, K, R>> domains = getDomains(branch.getABox().getTBox(), outRole);
+			if ((!domains.isEmpty()) && (!node.getTerms().containsAll(domains))) {
 				try {
 					for (IDLClassExpression<I, L, K, R> domain: domains) {
 						if (! node.getTerms().contains(domain)) {
@@ -142,4 +146,26 @@ public class RoleRestrictionCompleter<I extends Comparable<? super I>, L extends
 		}
 		return ReasonerContinuationState.CONTINUE;
 	}
+
+	/**
+	 * Collect the domains of {@literal role} from the RBox and the role domain unfoldings absorbed into the TBox.
+	 */
+	private Collection<IDLClassExpression<I, L, K, R>> getDomains(final ITBox<I, L, K, R> tbox, final R role)
+	{
+		final Collection<IDLClassExpression<I, L, K, R>> rboxDomains = tbox.getRBox().getRoleDomains(role);
+		final Collection<IDLClassExpression<I, L, K, R>> tboxDomains = tbox.getRoleDomainUnfoldings(role);
+		if (tboxDomains.isEmpty()) {
+			if (rboxDomains != null) {
+				return rboxDomains;
+			} else {
+				return Collections.emptySet();
+			}
+		} else {
+			final Set<IDLClassExpression<I, L, K, R>> domains = new HashSet<>(tboxDomains);
+			if (rboxDomains != null) {
+				domains.addAll(rboxDomains);
+			}
+			return domains;
+		}
+	}
 }
@@ -21,12 +21,13 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer;
 
-import de.dhke.projects.cutil.collections.CollectionUtil;
 import de.dhke.projects.cutil.collections.iterator.ChainIterator;
 import de.dhke.projects.cutil.collections.tree.IDecisionTree;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.util.TermSetUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ConsistencyInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerError;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
@@ -104,7 +105,7 @@ public class SemanticUnionCompleter<I extends Comparable<? super I>, L extends C
 				/* union condition: If not already one of the subterms present */
 				final TermEntry<I, L, K, R> parentTerm = node.getABox().getTermEntryFactory().
 					getEntry(node, desc);
-				if (!CollectionUtil.containsOne(node.getTerms(), union.getTerms())) {
+				if (!TermSetUtil.containsOne(node.getABox().getDLTermFactory(), node.getTerms(), union.getTerms())) {
 					final int size = union.getTerms().size();
 					if (size > MAX_UNION_SIZE) {
 						throw new EReasonerError(String.
@@ -153,9 +154,11 @@ public class SemanticUnionCompleter<I extends Comparable<? super I>, L extends C
 				 *
 				 */
 				if (!branchActions.isEmpty()) {
-					if (branchCreationInfos.isEmpty()) {
-						/* this only happens for node merge clashes, not otherwise */
-						/* XXX - do we need to change the branches consistency info? */
+					if (branchCreationInfos.isEmpty() && branchNode.getData().getBudget().isExhausted()) {
+						return ReasonerContinuationState.UNKNOWN;
+					} else if (branchCreationInfos.isEmpty()) {
+						/* all alternatives clash, either by node merge or by a learned nogood */
+						branchNode.getData().getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
 						return ReasonerContinuationState.INCONSISTENT;
 					} else {
 						if (isTracing()) {
@@ -35,6 +35,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ConsistencyInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerContinuationState;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.SatisfiabilityCache;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.EIllegalTermTypeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.AbstractCompleter;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.ICompleter;
@@ -63,12 +64,24 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 	implements ICompleter<I, L, K, R> {
 
 	private static final Logger _logger = LoggerFactory.getLogger(SomeCompleter.class);
+	/**
+	 * Known satisfiability verdicts for node term sets, may be {@literal null}.
+	 */
+	private final SatisfiabilityCache<I, L, K, R> _satCache;
 
 
 	public SomeCompleter(final INodeConsistencyChecker<I, L, K, R> cChecker,
-						 final boolean trace)
+						 final boolean trace, final SatisfiabilityCache<I, L, K, R> satCache)
 	{
 		super(cChecker, trace);
+		_satCache = satCache;
+	}
+
+
+	public SomeCompleter(final INodeConsistencyChecker<I, L, K, R> cChecker,
+						 final boolean trace)
+	{
+		this(cChecker, trace, null);
 	}
 
 
@@ -149,6 +162,8 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 			if (abox.getDependencyMap().getGoverningTerms().remove(someTermEntry)) {
 				abox.getDependencyMap().addGoverningTerm(subTermEntry);
 			}
+			/* the link and everything derived along it depends on the some restriction */
+			abox.getDependencyMap().addLinkDependencies(node.getNodeID(), succ.getNodeID(), someTermEntry);
 			if (!abox.getDependencyMap().containsKey(succ, subTerm)) {
 				abox.getDependencyMap().addParent(succ, subTerm, node, someRestriction);
 			}
@@ -163,6 +178,11 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 		}
 
 		if (haveGenerated) {
+			if (isKnownUnsatisfiable(succ)) {
+				branch.getConsistencyInfo().addCulprits(node, someRestriction);
+				branch.getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
+				return ReasonerContinuationState.INCONSISTENT;
+			}
 			return ReasonerContinuationState.RECHECK_NODE;
 		} else {
 			return ReasonerContinuationState.CONTINUE;
@@ -224,6 +244,9 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 
 			try {
 				IABoxNode<I, L, K, R> newNode = abox.createNode(isDataProperty, true);
+				/* the link and everything derived along it depends on the some restriction */
+				abox.getDependencyMap().addLinkDependencies(node.getNodeID(), newNode.getNodeID(),
+					abox.getTermEntryFactory().getEntry(node, someRestriction));
 				/**
 				 * update dependency map
 				 */
@@ -257,6 +280,17 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 					_logger.trace("%s: Generated node: %s", branchNode, newNode);
 				}
 
+				/*
+				 * the new node only contains the unfolding of the subterm and the global descriptions, so if its
+				 * term set is known to be unsatisfiable, the clash depends on the some restriction, only.
+				 */
+				if (isKnownUnsatisfiable(newNode)) {
+					branch.getMetrics().countCacheHit();
+					branch.getConsistencyInfo().addCulprits(node, someRestriction);
+					branch.getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
+					return ReasonerContinuationState.INCONSISTENT;
+				}
+
 				/*
 				 * apply only ONE generating rule at a time
 				 */
@@ -269,4 +303,11 @@ public class SomeCompleter<I extends Comparable<? super I>, L extends Comparable
 		}
 		return ReasonerContinuationState.CONTINUE;
 	}
+
+
+	private boolean isKnownUnsatisfiable(final IABoxNode<I, L, K, R> newNode)
+	{
+		return (_satCache != null) && newNode.isAnonymous() && (!(newNode instanceof IDatatypeABoxNode))
+			&& _satCache.isUnsatisfiable(newNode.getTerms());
+	}
 }
@@ -21,26 +21,40 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer;
 
-import de.dhke.projects.cutil.collections.CollectionUtil;
 import de.dhke.projects.cutil.collections.iterator.ChainIterator;
 import de.dhke.projects.cutil.collections.tree.IDecisionTree;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntryFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.util.TermSetUtil;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ConsistencyInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerContinuationState;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.AbstractCompleter;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.BranchActionList;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.BranchCreationInfo;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.IBranchingHeuristic;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.ICompleter;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.SortOrderBranchingHeuristic;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.TermAddBranchAction;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,11 +71,20 @@ public class UnionCompleter<I extends Comparable<? super I>, L extends Comparabl
 	implements ICompleter<I, L, K, R> {
 
 	private static final Logger _logger = LoggerFactory.getLogger(UnionCompleter.class);
+	private final IBranchingHeuristic<I, L, K, R> _branchingHeuristic;
 
 
-	public UnionCompleter(final INodeConsistencyChecker<I, L, K, R> cChecker, final boolean trace)
+	public UnionCompleter(final INodeConsistencyChecker<I, L, K, R> cChecker, final boolean trace,
+						  final IBranchingHeuristic<I, L, K, R> branchingHeuristic)
 	{
 		super(cChecker, trace);
+		_branchingHeuristic = branchingHeuristic;
+	}
+
+
+	public UnionCompleter(final INodeConsistencyChecker<I, L, K, R> cChecker, final boolean trace)
+	{
+		this(cChecker, trace, new SortOrderBranchingHeuristic<I, L, K, R>());
 	}
 
 
@@ -71,61 +94,154 @@ public class UnionCompleter<I extends Comparable<? super I>, L extends Comparabl
 	}
 
 
+	/**
+	 * Expand the unions on {@literal node}.
+	 * <p />
+	 * Before any branch is created, all unions of the node are checked for disjuncts that are contradicted by the
+	 * node's terms (boolean constraint propagation). A union with all disjuncts contradicted is an immediate clash. A
+	 * union with only a single disjunct left is expanded in place, without creating a new branch. Only if no union
+	 * can be decided this way, a branch point for one of the open unions is created, where contradicted disjuncts are
+	 * skipped. The union and the order of its disjuncts are chosen by the {@link IBranchingHeuristic}.
+	 */
 	@Override
 	public ReasonerContinuationState completeNode(final IDecisionTree.Node<Branch<I, L, K, R>> branchNode,
 												  IABoxNode<I, L, K, R> node)
 		throws EReasonerException
 	{
+		final Branch<I, L, K, R> branch = branchNode.getData();
+		final IDLTermFactory<I, L, K, R> termFactory = node.getABox().getDLTermFactory();
+		final TermEntryFactory<I, L, K, R> termEntryFactory = node.getABox().getTermEntryFactory();
+
+		/*
+		 * collect the unions not yet satisfied before expanding any of them, propagation modifies the term set
+		 */
+		final List<IDLUnion<I, L, K, R>> openUnions = new ArrayList<>();
 		final Iterator<IDLTerm<I, L, K, R>> iter = ChainIterator.decorate(
 			node.getTerms().subSet(DLTermOrder.DL_OBJECT_UNION).iterator(),
 			node.getTerms().subSet(DLTermOrder.DL_DATA_UNION).iterator());
-
-		final BranchActionList<I, L, K, R> branchActions = new BranchActionList<>();
-
 		while (iter.hasNext()) {
 			final IDLTerm<I, L, K, R> desc = iter.next();
 			if (desc instanceof IDLUnion) {
 				final IDLUnion<I, L, K, R> union = (IDLUnion<I, L, K, R>) desc;
 				/* union condition: If not already one of the subterms present */
-				final TermEntry<I, L, K, R> parentTerm = node.getABox().getTermEntryFactory().
-					getEntry(node, desc);
-
-				if (!CollectionUtil.containsOne(node.getTerms(), union.getTerms())) {
-					for (IDLNodeTerm<I, L, K, R> subTerm : union.getTerms()) {
-						branchActions.add(new TermAddBranchAction<>(parentTerm, node, subTerm));
-					}
-					assert !branchActions.isEmpty();
+				if (TermSetUtil.containsOne(termFactory, node.getTerms(), union.getTerms())) {
+					/* remove the union as a governing term */
+					node.getABox().getDependencyMap().getGoverningTerms().remove(termEntryFactory.getEntry(node, union));
+				} else {
+					openUnions.add(union);
+				}
+			}
+		}
+
+		final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates = new LinkedHashMap<>();
+		for (IDLUnion<I, L, K, R> union : openUnions) {
+			final List<IDLNodeTerm<I, L, K, R>> alternatives = new ArrayList<>(union.getTerms().size());
+			final List<IDLTerm<I, L, K, R>> culprits = new ArrayList<>();
+			for (IDLNodeTerm<I, L, K, R> subTerm : union.getTerms()) {
+				if (!isContradicted(termFactory, node, subTerm, culprits)) {
+					alternatives.add(subTerm);
+				}
+			}
+
+			if (alternatives.isEmpty()) {
+				/* all disjuncts are contradicted */
+				culprits.add(union);
+				branch.getConsistencyInfo().addCulprits(node, culprits);
+				branch.getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
+				return ReasonerContinuationState.INCONSISTENT;
+			} else if (alternatives.size() == 1) {
+				/* only one disjunct left, no need to branch */
+				final TermEntry<I, L, K, R> parentTerm = termEntryFactory.getEntry(node, union);
+				final IDependencyMap<I, L, K, R> depMap = node.getABox().getDependencyMap();
+				depMap.getGoverningTerms().remove(parentTerm);
+				/* the remaining disjunct also depends on the terms that contradict the other disjuncts */
+				final BranchDependencySet actionDependencies = depMap.getActionDependencies();
+				BranchDependencySet dependencies = actionDependencies;
+				for (IDLTerm<I, L, K, R> culprit : culprits) {
+					dependencies = dependencies.union(depMap.getBranchDependencies(termEntryFactory.getEntry(node, culprit)));
+				}
+				depMap.setActionDependencies(dependencies);
+				try {
+					new TermAddBranchAction<>(parentTerm, node, alternatives.get(0)).commit(branch);
+				} catch (ENodeMergeException ex) {
+					culprits.add(union);
+					branch.getConsistencyInfo().addCulprits(node, culprits);
+					branch.getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
+					return ReasonerContinuationState.INCONSISTENT;
+				} finally {
+					depMap.setActionDependencies(actionDependencies);
 				}
+				return ReasonerContinuationState.RECHECK_NODE;
+			} else {
+				candidates.put(union, alternatives);
+			}
+		}
+
+		if (!candidates.isEmpty()) {
+			final IDLUnion<I, L, K, R> branchUnion = _branchingHeuristic.selectUnion(node, candidates);
+			final List<IDLNodeTerm<I, L, K, R>> branchAlternatives = _branchingHeuristic.orderDisjuncts(node,
+				branchUnion, candidates);
+			final TermEntry<I, L, K, R> parentTerm = termEntryFactory.getEntry(node, branchUnion);
+			final BranchActionList<I, L, K, R> branchActions = new BranchActionList<>();
+			for (IDLNodeTerm<I, L, K, R> subTerm : branchAlternatives) {
+				branchActions.add(new TermAddBranchAction<>(parentTerm, node, subTerm));
+			}
+
+			/* remove the union as a governing term */
+			node.getABox().getDependencyMap().getGoverningTerms().remove(parentTerm);
+
+			final List<BranchCreationInfo<I, L, K, R>> branchCreationInfos =
+				branchActions.commit(branch, getNodeConsistencyChecker());
 
-				/* remove the union as a governing term */
-				node.getABox().getDependencyMap().getGoverningTerms().remove(node.getABox().getTermEntryFactory().
-					getEntry(node, union));
-
-				final List<BranchCreationInfo<I, L, K, R>> branchCreationInfos =
-					branchActions.commit(branchNode.getData(), getNodeConsistencyChecker());
-
-				/**
-				 * If we needed to branch, but all branches are inconsistent. Don't throw Exception, when we did not
-				 * find a branch point.
-				 */
-				if (!branchActions.isEmpty()) {
-					if (branchCreationInfos.isEmpty()) {
-						/* this only happens for node merge clashes, not otherwise */
-						/* XXX - do we need to change the branches consistency info? */
-						return ReasonerContinuationState.INCONSISTENT;
-					} else {
-						if (isTracing()) {
-							_logger.trace("Created %d branches", branchCreationInfos.size());
-						}
-						final ReasonerContinuationState contState = handleBranchCreation(branchCreationInfos, branchNode,
-																						 node);
-						if (contState != ReasonerContinuationState.CONTINUE) {
-							return contState;
-						}
-					}
+			/**
+			 * If we needed to branch, but all branches are inconsistent. Don't throw Exception, when we did not
+			 * find a branch point.
+			 */
+			if (branchCreationInfos.isEmpty() && branch.getBudget().isExhausted()) {
+				return ReasonerContinuationState.UNKNOWN;
+			} else if (branchCreationInfos.isEmpty()) {
+				/* all alternatives clash, either by node merge or by a learned nogood */
+				branch.getConsistencyInfo().upgradeClashType(ConsistencyInfo.ClashType.FINAL);
+				return ReasonerContinuationState.INCONSISTENT;
+			} else {
+				if (isTracing()) {
+					_logger.trace("Created {} branches", branchCreationInfos.size());
 				}
+				return handleBranchCreation(branchCreationInfos, branchNode, node);
 			}
 		}
 		return ReasonerContinuationState.CONTINUE;
 	}
+
+
+	/**
+	 * Check, if the disjunct {@literal subTerm} is contradicted by a term already present on {@literal node}.
+	 *
+	 * @param termFactory The term factory
+	 * @param node The node to expand
+	 * @param subTerm The disjunct to check
+	 * @param culprits Receives the term responsible for the contradiction, if any.
+	 * @return {@literal true}, if adding {@literal subTerm} to {@literal node} would cause an immediate clash.
+	 */
+	private boolean isContradicted(final IDLTermFactory<I, L, K, R> termFactory, final IABoxNode<I, L, K, R> node,
+								   final IDLNodeTerm<I, L, K, R> subTerm, final Collection<IDLTerm<I, L, K, R>> culprits)
+	{
+		if (subTerm.equals(termFactory.getDLNothing())) {
+			return true;
+		} else if (subTerm instanceof IDLObjectNegation) {
+			final IDLClassExpression<I, L, K, R> negated = ((IDLObjectNegation<I, L, K, R>) subTerm).getTerm();
+			if (node.getTerms().contains(negated)) {
+				culprits.add(negated);
+				return true;
+			}
+		} else if (subTerm instanceof IDLClassExpression) {
+			final IDLClassExpression<I, L, K, R> negation = termFactory.getDLObjectNegation(
+				(IDLClassExpression<I, L, K, R>) subTerm);
+			if (node.getTerms().contains(negation)) {
+				culprits.add(negation);
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -24,6 +24,9 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  *
@@ -67,4 +70,11 @@ public abstract class AbstractBranchAction<I extends Comparable<? super I>, L ex
 	{
 		return _targetNodeID;
 	}
+
+
+	@Override
+	public Set<TermEntry<I, L, K, R>> getAddedTermEntries(final Branch<I, L, K, R> branch)
+	{
+		return Collections.emptySet();
+	}
 }
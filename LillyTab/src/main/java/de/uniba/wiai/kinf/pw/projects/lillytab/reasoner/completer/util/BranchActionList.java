@@ -21,7 +21,9 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
 
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
@@ -36,6 +38,12 @@ import java.util.List;
  * Committing a {@link BranchActionList} to an initial branch creates a sufficient number of successor branches from the
  * initial branch and applies any applicable action. The base branch is re-used as the first branch in the returned
  * successor list.
+ * <p />
+ * If the base branch is {@link Branch#isTrailing() trailing}, no successor branches are created. Instead, the
+ * applicable actions are pushed as a choice point onto the base branch and only the first one is applied.
+ * <p />
+ * Each created branch opens a new branching level in the {@link IDependencyMap} of its ABox, terms added by
+ * the action depend on that level.
  * 
  * @param <I> The type for individuals/nominals
  * @param <L> The type for literals
@@ -53,12 +61,16 @@ public class BranchActionList<I extends Comparable<? super I>, L extends Compara
 	 * <p />
 	 * No branches are created for action, that have been determined not to be applicable (e.g. lead to inconsistencies)
 	 * (via {@link IBranchAction#isShouldCommit(de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.Branch, de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.INodeConsistencyChecker)
-	 * }. in advance.
+	 * }. in advance. Actions that would complete a nogood learned from an earlier clash
+	 * (see {@link Branch#getNogoods()}) are not applicable, either.
 	 * <p />
 	 * Commit the actions to the branches
 	 * <p />
 	 * It is safe to assume (if the branch list is not all empty), that the base branch is always the first branch in
 	 * the returned list.
+	 * <p />
+	 * No branches are created, if the {@link Branch#getBudget() budget} of the query is exhausted. Callers must check
+	 * the budget before treating an empty list as a clash.
 	 * 
 	 *
 	 *
@@ -75,10 +87,21 @@ public class BranchActionList<I extends Comparable<? super I>, L extends Compara
 		final BitSet commitList = new BitSet(nBranches);
 		// happens automatically: commitList.clear();
 
+		if (baseBranch.getBudget().checkExhausted(baseBranch)) {
+			return creationInfos;
+		}
+
 		/* build commit list */
 		int nCommittableActions = 0;
 		for (int i = 0; i < nBranches; ++i) {
-			final boolean isShouldCommit = get(i).isShouldCommit(baseBranch, cChecker);
+			final IBranchAction<I, L, K, R> action = get(i);
+			boolean isShouldCommit = action.isShouldCommit(baseBranch, cChecker);
+			if (isShouldCommit && baseBranch.getNogoods().isNogood(baseBranch.getABox(),
+				action.getAddedTermEntries(baseBranch))) {
+				/* known to clash */
+				baseBranch.getMetrics().countNogoodHit();
+				isShouldCommit = false;
+			}
 			if (isShouldCommit) {
 				/* mark the current action as applicable. */
 				commitList.set(i);
@@ -86,7 +109,17 @@ public class BranchActionList<I extends Comparable<? super I>, L extends Compara
 			}
 		}
 
-		if (nCommittableActions > 0) {
+		if ((nCommittableActions > 1) && baseBranch.isTrailing()) {
+			final List<IBranchAction<I, L, K, R>> alternatives = new ArrayList<>(nCommittableActions);
+			for (int iAction = commitList.nextSetBit(0); iAction >= 0; iAction = commitList.nextSetBit(iAction + 1)) {
+				alternatives.add(get(iAction));
+			}
+			final BranchCreationInfo<I, L, K, R> creationInfo = baseBranch.pushChoicePoint(alternatives,
+				nCommittableActions == nBranches);
+			if (creationInfo != null) {
+				creationInfos.add(creationInfo);
+			}
+		} else if (nCommittableActions > 0) {
 			/* create branch clones */
 			branches.add(baseBranch);
 			for (int i = 1; i < nCommittableActions; ++i) {
@@ -110,12 +143,24 @@ public class BranchActionList<I extends Comparable<? super I>, L extends Compara
 
 					/* get the next branch and apply the action to it */
 					final Branch<I, L, K, R> targetBranch = branches.get(iBranch);
+					final IDependencyMap<I, L, K, R> depMap = targetBranch.getABox().getDependencyMap();
+					final BranchDependencySet actionDependencies = depMap.getActionDependencies();
+					if (nCommittableActions > 1) {
+						/* a new branching level, terms added by the action depend on it */
+						depMap.setActionDependencies(actionDependencies.union(BranchDependencySet.of(
+							depMap.openBranchLevel(iAction))));
+					} else if (nCommittableActions < nBranches) {
+						/* the other alternatives were rejected for reasons we do not track */
+						depMap.setActionDependencies(BranchDependencySet.upTo(depMap.getBranchLevel()));
+					}
 					try {
 						final NodeMergeInfo<I, L, K, R> mergeInfo = action.commit(targetBranch);
 						creationInfos.add(new BranchCreationInfo<>(targetBranch, action, mergeInfo));
 						++iBranch;
 					} catch (ENodeMergeException ex) {
 						/* ignore for now */
+					} finally {
+						depMap.setActionDependencies(actionDependencies);
 					}
 
 				}
@@ -23,8 +23,10 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
 
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
+import java.util.Set;
 
 /**
  * 
@@ -69,6 +71,17 @@ public interface IBranchAction<I extends Comparable<? super I>, L extends Compar
 	boolean isShouldCommit(Branch<I, L, K, R> branch, INodeConsistencyChecker<I, L, K, R> cChecker);
 
 
+	/**
+	 * Determine the term entries that would be added to the target branch by committing the current action.
+	 * <p />
+	 * Used to check the action against the nogoods learned from earlier clashes.
+	 *
+	 * @param branch The target branch
+	 * @return The term entries added by the current action, possibly empty.
+	 */
+	Set<TermEntry<I, L, K, R>> getAddedTermEntries(Branch<I, L, K, R> branch);
+
+
 	/**
 	 * Apply the changes indicated by this branch action to the specified branch.
 	 *
@@ -0,0 +1,67 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides where the tableau branches, when no union of a node can be decided deterministically.
+ * <p />
+ * The union completer passes all unions of a node that are not satisfied, yet, together with their remaining
+ * disjuncts. The heuristic picks the union to branch on and the order of its disjuncts. Because completion continues
+ * with the first branch, the first disjunct is explored first.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public interface IBranchingHeuristic<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+{
+	/**
+	 * Select the union to branch on.
+	 *
+	 * @param node The node to expand.
+	 * @param candidates The unsatisfied unions of {@literal node} in term order, each mapped to its disjuncts that
+	 * are not contradicted on {@literal node}. Every union has at least two disjuncts.
+	 * @return A key of {@literal candidates}.
+	 */
+	IDLUnion<I, L, K, R> selectUnion(final IABoxNode<I, L, K, R> node,
+									 final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates);
+
+	/**
+	 * Determine the order in which the disjuncts of {@literal union} are explored.
+	 *
+	 * @param node The node to expand.
+	 * @param union The selected union.
+	 * @param candidates The candidates passed to {@link #selectUnion(de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode, java.util.Map) }.
+	 * @return The disjuncts of {@literal union} from {@literal candidates}, in the order they should be tried.
+	 */
+	List<IDLNodeTerm<I, L, K, R>> orderDisjuncts(final IABoxNode<I, L, K, R> node, final IDLUnion<I, L, K, R> union,
+												 final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates);
+}
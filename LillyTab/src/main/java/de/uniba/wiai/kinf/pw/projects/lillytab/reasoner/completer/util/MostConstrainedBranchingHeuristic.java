@@ -0,0 +1,90 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Branches on the most constrained union, i.e. the union with the fewest remaining disjuncts (MOMS). The disjuncts
+ * are ordered by their Jeroslow-Wang score: A disjunct that also appears in other open unions of the node scores
+ * {@code 2^-n} for each union with {@literal n} remaining disjuncts it appears in. Disjuncts with higher scores
+ * satisfy more (and smaller) unions at once and are tried first.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class MostConstrainedBranchingHeuristic<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	implements IBranchingHeuristic<I, L, K, R>
+{
+	@Override
+	public IDLUnion<I, L, K, R> selectUnion(final IABoxNode<I, L, K, R> node,
+											final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		IDLUnion<I, L, K, R> selected = null;
+		int minSize = Integer.MAX_VALUE;
+		for (Map.Entry<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidate : candidates.entrySet()) {
+			if (candidate.getValue().size() < minSize) {
+				selected = candidate.getKey();
+				minSize = candidate.getValue().size();
+			}
+		}
+		return selected;
+	}
+
+	@Override
+	public List<IDLNodeTerm<I, L, K, R>> orderDisjuncts(final IABoxNode<I, L, K, R> node,
+														final IDLUnion<I, L, K, R> union,
+														final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		final Map<IDLNodeTerm<I, L, K, R>, Double> scores = new HashMap<>();
+		for (List<IDLNodeTerm<I, L, K, R>> disjuncts : candidates.values()) {
+			final double weight = Math.pow(2.0, -disjuncts.size());
+			for (IDLNodeTerm<I, L, K, R> disjunct : disjuncts) {
+				final Double score = scores.get(disjunct);
+				scores.put(disjunct, (score == null) ? weight : (score + weight));
+			}
+		}
+
+		final List<IDLNodeTerm<I, L, K, R>> ordered = new ArrayList<>(candidates.get(union));
+		/* stable, ties keep term order */
+		Collections.sort(ordered, new Comparator<IDLNodeTerm<I, L, K, R>>() {
+			@Override
+			public int compare(final IDLNodeTerm<I, L, K, R> o1, final IDLNodeTerm<I, L, K, R> o2)
+			{
+				return Double.compare(scores.get(o2), scores.get(o1));
+			}
+		});
+		return ordered;
+	}
+}
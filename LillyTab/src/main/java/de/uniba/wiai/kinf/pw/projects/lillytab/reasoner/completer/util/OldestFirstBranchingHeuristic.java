@@ -0,0 +1,95 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntryFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Branches on the oldest open union first. The age of a union is estimated from its derivation depth in the
+ * dependency map of the ABox: asserted unions come first, then unions derived in a single step, and so on. The
+ * disjuncts are tried in the order they are listed.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class OldestFirstBranchingHeuristic<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	implements IBranchingHeuristic<I, L, K, R>
+{
+	@Override
+	public IDLUnion<I, L, K, R> selectUnion(final IABoxNode<I, L, K, R> node,
+											final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		final IDependencyMap<I, L, K, R> depMap = node.getABox().getDependencyMap();
+		final TermEntryFactory<I, L, K, R> termEntryFactory = node.getABox().getTermEntryFactory();
+		IDLUnion<I, L, K, R> selected = null;
+		int minDepth = Integer.MAX_VALUE;
+		for (IDLUnion<I, L, K, R> union : candidates.keySet()) {
+			final int depth = getDerivationDepth(depMap, termEntryFactory.getEntry(node, union));
+			if (depth < minDepth) {
+				selected = union;
+				minDepth = depth;
+			}
+		}
+		return selected;
+	}
+
+	@Override
+	public List<IDLNodeTerm<I, L, K, R>> orderDisjuncts(final IABoxNode<I, L, K, R> node,
+														final IDLUnion<I, L, K, R> union,
+														final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		return candidates.get(union);
+	}
+
+	/**
+	 * @return The length of the chain of first parents of {@literal entry}.
+	 */
+	private int getDerivationDepth(final IDependencyMap<I, L, K, R> depMap, final TermEntry<I, L, K, R> entry)
+	{
+		final Set<TermEntry<I, L, K, R>> visited = new HashSet<>();
+		TermEntry<I, L, K, R> currentEntry = entry;
+		int depth = 0;
+		while (visited.add(currentEntry)) {
+			final Collection<TermEntry<I, L, K, R>> parents = depMap.getParents(currentEntry);
+			if ((parents == null) || parents.isEmpty()) {
+				break;
+			}
+			currentEntry = parents.iterator().next();
+			++depth;
+		}
+		return depth;
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.ITermList;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IUnaryOperator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Branches on the first open union in term order, but tries its disjuncts ordered by size, smallest first. Small
+ * disjuncts (e.g. atomic classes) are cheap to expand and frequently lead to an early model or an early clash.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class SmallestDisjunctFirstBranchingHeuristic<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>>
+	implements IBranchingHeuristic<I, L, K, R>
+{
+	@Override
+	public IDLUnion<I, L, K, R> selectUnion(final IABoxNode<I, L, K, R> node,
+											final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		return candidates.keySet().iterator().next();
+	}
+
+	@Override
+	public List<IDLNodeTerm<I, L, K, R>> orderDisjuncts(final IABoxNode<I, L, K, R> node,
+														final IDLUnion<I, L, K, R> union,
+														final Map<IDLUnion<I, L, K, R>, List<IDLNodeTerm<I, L, K, R>>> candidates)
+	{
+		final List<IDLNodeTerm<I, L, K, R>> ordered = new ArrayList<>(candidates.get(union));
+		/* stable, ties keep term order */
+		Collections.sort(ordered, new Comparator<IDLNodeTerm<I, L, K, R>>() {
+			@Override
+			public int compare(final IDLNodeTerm<I, L, K, R> o1, final IDLNodeTerm<I, L, K, R> o2)
+			{
+				return Integer.compare(getTermSize(o1), getTermSize(o2));
+			}
+		});
+		return ordered;
+	}
+
+	/**
+	 * @return The number of operators and atoms in {@literal term}.
+	 */
+	private static int getTermSize(final Object term)
+	{
+		int size = 1;
+		if (term instanceof ITermList) {
+			for (Object subTerm : (ITermList<?>) term) {
+				size += getTermSize(subTerm);
+			}
+		} else if (term instanceof IUnaryOperator) {
+			size += getTermSize(((IUnaryOperator<?>) term).getTerm());
+		}
+		return size;
+	}
+}
@@ -27,6 +27,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeMergeInfo;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntryFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Branch;
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.INodeConsistencyChecker;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
@@ -126,6 +127,18 @@ public class TermAddBranchAction<I extends Comparable<? super I>, L extends Comp
 	}
 
 
+	@Override
+	public Set<TermEntry<I, L, K, R>> getAddedTermEntries(final Branch<I, L, K, R> branch)
+	{
+		final TermEntryFactory<I, L, K, R> termEntryFactory = branch.getABox().getTermEntryFactory();
+		final Set<TermEntry<I, L, K, R>> addedEntries = new TreeSet<>();
+		for (IDLNodeTerm<I, L, K, R> desc : _descriptions) {
+			addedEntries.add(termEntryFactory.getEntry(getTargetNodeID(), desc));
+		}
+		return addedEntries;
+	}
+
+
 	@Override
 	public boolean isShouldCommit(Branch<I, L, K, R> branch,
 								  INodeConsistencyChecker<I, L, K, R> cChecker)
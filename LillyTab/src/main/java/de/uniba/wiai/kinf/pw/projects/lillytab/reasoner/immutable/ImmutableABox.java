@@ -526,6 +526,30 @@ public class ImmutableABox<I extends Comparable<? super I>, L extends Comparable
 		return _baseABox.getGeneratingQueue();
 	}
 
+	@Override
+	public int pushCheckpoint()
+	{
+		throw new UnsupportedOperationException("Cannot modify ImmutableABox");
+	}
+
+	@Override
+	public void rollback(final int checkpoint)
+	{
+		throw new UnsupportedOperationException("Cannot modify ImmutableABox");
+	}
+
+	@Override
+	public void popCheckpoint(final int checkpoint)
+	{
+		throw new UnsupportedOperationException("Cannot modify ImmutableABox");
+	}
+
+	@Override
+	public int getCheckpointCount()
+	{
+		return _baseABox.getCheckpointCount();
+	}
+
 	protected IABox<I, L, K, R> getBaseABox()
 	{
 		return _baseABox;
@@ -22,6 +22,7 @@
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.immutable;
 
 import de.dhke.projects.cutil.collections.immutable.ImmutableMultiMap;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.BranchDependencySet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IDependencyMap;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
@@ -320,6 +321,66 @@ public class ImmutableDependencyMap<I extends Comparable<? super I>, L extends C
 		return getDecoratee().hasGoverningTerm(nodeID);
 	}
 
+	@Override
+	public BranchDependencySet getBranchDependencies(TermEntry<I, L, K, R> entry)
+	{
+		return getDecoratee().getBranchDependencies(entry);
+	}
+
+	@Override
+	public BranchDependencySet getBranchDependencies(NodeID nodeID)
+	{
+		return getDecoratee().getBranchDependencies(nodeID);
+	}
+
+	@Override
+	public void addBranchDependencies(NodeID nodeID, BranchDependencySet dependencies)
+	{
+		throw new UnsupportedOperationException("Cannot modify an ImmutableDependencyMap");
+	}
+
+	@Override
+	public void addLinkDependencies(NodeID source, NodeID target, TermEntry<I, L, K, R> cause)
+	{
+		throw new UnsupportedOperationException("Cannot modify an ImmutableDependencyMap");
+	}
+
+	@Override
+	public int getBranchLevel()
+	{
+		return getDecoratee().getBranchLevel();
+	}
+
+	@Override
+	public int openBranchLevel(int alternative)
+	{
+		throw new UnsupportedOperationException("Cannot modify an ImmutableDependencyMap");
+	}
+
+	@Override
+	public int[] getBranchPath()
+	{
+		return getDecoratee().getBranchPath();
+	}
+
+	@Override
+	public boolean isOnBranchPath(int[] branchPath, int level)
+	{
+		return getDecoratee().isOnBranchPath(branchPath, level);
+	}
+
+	@Override
+	public BranchDependencySet getActionDependencies()
+	{
+		return getDecoratee().getActionDependencies();
+	}
+
+	@Override
+	public void setActionDependencies(BranchDependencySet dependencies)
+	{
+		throw new UnsupportedOperationException("Cannot modify an ImmutableDependencyMap");
+	}
+
 	@Override
 	public String toString()
 	{
@@ -22,6 +22,7 @@
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.immutable;
 
 import de.dhke.projects.cutil.IDecorator;
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
 import de.dhke.projects.cutil.collections.immutable.GenericImmutableSet;
 import de.dhke.projects.cutil.collections.immutable.GenericImmutableSortedSet;
 import de.dhke.projects.cutil.collections.immutable.ImmutableIterator;
@@ -84,6 +85,18 @@ public class ImmutableTermSet<I extends Comparable<? super I>, L extends Compara
 		return ImmutableIterator.decorate(getDecoratee().iterator(termType, klass));
 	}
 
+	@Override
+	public CopyOnWriteBitSet getTermIDs()
+	{
+		return getDecoratee().getTermIDs();
+	}
+
+	@Override
+	public CopyOnWriteBitSet getNegatedTermIDs()
+	{
+		return getDecoratee().getNegatedTermIDs();
+	}
+
 	@Override
 	public Comparator<? super IDLTerm<I, L, K, R>> comparator()
 	{
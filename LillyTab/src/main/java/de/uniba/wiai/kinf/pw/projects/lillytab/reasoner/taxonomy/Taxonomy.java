@@ -0,0 +1,231 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+
+/**
+ *
+ * A class hierarchy stored as a directed acyclic graph of {@link Node}s.
+ * <p />
+ * Each node holds a set of equivalent classes and links to its direct super- and subclass nodes. The hierarchy always
+ * has a top node (equivalent to _Thing_) and a bottom node (equivalent to _Nothing_, holding unsatisfiable classes).
+ * Memory usage is linear in the number of nodes and direct subsumption edges.
+ *
+ * @param <K> The type for DL classes
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class Taxonomy<K extends Comparable<? super K>> {
+	private final Node<K> _top = new Node<>();
+	private final Node<K> _bottom = new Node<>();
+	private final Map<K, Node<K>> _nodeMap = new HashMap<>();
+
+	public Taxonomy()
+	{
+		_top._children.add(_bottom);
+		_bottom._parents.add(_top);
+	}
+
+	public Node<K> getTop()
+	{
+		return _top;
+	}
+
+	public Node<K> getBottom()
+	{
+		return _bottom;
+	}
+
+	/**
+	 * @param klass A class.
+	 * @return The node {@literal klass} has been inserted into or {@literal null}, if {@literal klass} is not part of
+	 * the taxonomy.
+	 */
+	public Node<K> getNode(final K klass)
+	{
+		return _nodeMap.get(klass);
+	}
+
+	public boolean contains(final K klass)
+	{
+		return _nodeMap.containsKey(klass);
+	}
+
+	/**
+	 * Add {@literal klass} as an equivalent class to the existing {@literal node}.
+	 *
+	 * @param klass The class to add.
+	 * @param node The target node.
+	 */
+	public void addEquivalent(final K klass, final Node<K> node)
+	{
+		node._classes.add(klass);
+		_nodeMap.put(klass, node);
+	}
+
+	/**
+	 * Create a new node for {@literal klass} and insert it between the specified direct super- and subclass nodes.
+	 * Any direct links between the parents and the children are removed, as they are no longer direct.
+	 *
+	 * @param klass The class to insert.
+	 * @param parents The direct superclass nodes of the new node. Must not be empty.
+	 * @param children The direct subclass nodes of the new node. Must not be empty.
+	 * @return The newly created node.
+	 */
+	public Node<K> insert(final K klass, final Collection<Node<K>> parents, final Collection<Node<K>> children)
+	{
+		assert !parents.isEmpty();
+		assert !children.isEmpty();
+		final Node<K> node = new Node<>();
+		for (Node<K> parent : parents) {
+			for (Node<K> child : children) {
+				parent._children.remove(child);
+				child._parents.remove(parent);
+			}
+		}
+		for (Node<K> parent : parents) {
+			parent._children.add(node);
+			node._parents.add(parent);
+		}
+		for (Node<K> child : children) {
+			child._parents.add(node);
+			node._children.add(child);
+		}
+		addEquivalent(klass, node);
+		return node;
+	}
+
+	/**
+	 * Convert the taxonomy into a set of direct subsumption axioms.
+	 * <p />
+	 * Each node is represented by its first class. Every other class of a node is linked to the representative in both
+	 * directions. Each node's representative is declared a subclass of the representatives of all its direct
+	 * superclass nodes. Nodes without classes (e.g. an anonymous top or bottom node) do not produce any axioms.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <R> The type for properties (roles)
+	 * @param termFactory The term factory used to create the axioms.
+	 * @return The set of direct subsumption axioms.
+	 */
+	public <I extends Comparable<? super I>, L extends Comparable<? super L>, R extends Comparable<? super R>> Set<IDLImplies<I, L, K, R>> toImplications(
+		final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		final Set<IDLImplies<I, L, K, R>> implications = new TreeSet<>();
+		for (Node<K> node : getNodes()) {
+			if (!node._classes.isEmpty()) {
+				final IDLClassReference<I, L, K, R> rep = termFactory.getDLClassReference(node._classes.first());
+				for (K klass : node._classes.tailSet(node._classes.first(), false)) {
+					final IDLClassReference<I, L, K, R> equivalent = termFactory.getDLClassReference(klass);
+					implications.add(termFactory.getDLImplies(equivalent, rep));
+					implications.add(termFactory.getDLImplies(rep, equivalent));
+				}
+				for (Node<K> parent : node._parents) {
+					if (!parent._classes.isEmpty()) {
+						implications.add(termFactory.getDLImplies(rep, termFactory.getDLClassReference(parent._classes.first())));
+					}
+				}
+			}
+		}
+		return implications;
+	}
+
+	/**
+	 * @return All nodes of the taxonomy in breadth first order, starting with the top node.
+	 */
+	public Set<Node<K>> getNodes()
+	{
+		final Set<Node<K>> nodes = new LinkedHashSet<>();
+		final Queue<Node<K>> queue = new ArrayDeque<>();
+		queue.add(_top);
+		nodes.add(_top);
+		while (!queue.isEmpty()) {
+			for (Node<K> child : queue.remove()._children) {
+				if (nodes.add(child)) {
+					queue.add(child);
+				}
+			}
+		}
+		return nodes;
+	}
+
+	/// <editor-fold defaultstate="collapsed" desc="class Node">
+	/**
+	 * A taxonomy node holding a set of equivalent classes.
+	 *
+	 * @param <K> The type for DL classes
+	 */
+	public static final class Node<K extends Comparable<? super K>> {
+		private final TreeSet<K> _classes = new TreeSet<>();
+		private final Set<Node<K>> _parents = new HashSet<>();
+		private final Set<Node<K>> _children = new HashSet<>();
+
+		Node()
+		{
+		}
+
+		public SortedSet<K> getClasses()
+		{
+			return Collections.unmodifiableSortedSet(_classes);
+		}
+
+		/**
+		 * @return The representative class of this node or {@literal null}, if the node does not contain any classes.
+		 */
+		public K getRepresentative()
+		{
+			return _classes.isEmpty() ? null : _classes.first();
+		}
+
+		public Set<Node<K>> getParents()
+		{
+			return Collections.unmodifiableSet(_parents);
+		}
+
+		public Set<Node<K>> getChildren()
+		{
+			return Collections.unmodifiableSet(_children);
+		}
+
+		@Override
+		public String toString()
+		{
+			return _classes.toString();
+		}
+	}
+	/// </editor-fold>
+}
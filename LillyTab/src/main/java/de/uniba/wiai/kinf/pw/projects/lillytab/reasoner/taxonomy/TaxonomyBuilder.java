@@ -0,0 +1,480 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ *
+ * Builds a {@link Taxonomy} by inserting classes one at a time using enhanced traversal.
+ * <p />
+ * For each new class, a top-down search determines its most specific subsumers and a bottom-up search its most general
+ * subsumees. A node is only tested, if all its parents (top-down) or children (bottom-up) have tested positive.
+ * Classes are inserted in an order where told subsumers (taken from the TBox unfolding) come first. Told subsumptions
+ * and told disjointness (see {@link ToldHierarchy}) are used instead of reasoner calls.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TaxonomyBuilder<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private static final Logger _logger = LoggerFactory.getLogger(TaxonomyBuilder.class);
+	private final IReasoner<I, L, K, R> _reasoner;
+	private final IABox<I, L, K, R> _abox;
+	private final IDLTermFactory<I, L, K, R> _termFactory;
+	private final Taxonomy<K> _taxonomy = new Taxonomy<>();
+	/**
+	 * Classes that are known to be satisfiable and do not need to be tested.
+	 */
+	private final Set<K> _knownSatisfiable = new HashSet<>();
+	/**
+	 * Classes that are known to be unsatisfiable and do not need to be tested.
+	 */
+	private final Set<K> _knownUnsatisfiable = new HashSet<>();
+	/**
+	 * Subsumption relations decided in advance, indexed by subclass and superclass.
+	 */
+	private final Map<K, Map<K, Boolean>> _knownSubsumptions = new HashMap<>();
+	private final ToldHierarchy<I, L, K, R> _toldHierarchy;
+	private final Map<K, Set<K>> _toldSubsumees = new HashMap<>();
+	private int _subsumptionTests = 0;
+	private int _toldSubsumptions = 0;
+	private int _satisfiabilityTests = 0;
+
+	public TaxonomyBuilder(final IReasoner<I, L, K, R> reasoner, final IABox<I, L, K, R> abox)
+	{
+		_reasoner = reasoner;
+		_abox = abox;
+		_termFactory = abox.getDLTermFactory();
+		_toldHierarchy = new ToldHierarchy<>(abox.getTBox(), _termFactory);
+	}
+
+	/**
+	 * Mark {@literal klass} as satisfiable, skipping the satisfiability test.
+	 *
+	 * @param klass A class known to be satisfiable.
+	 */
+	public void addKnownSatisfiable(final K klass)
+	{
+		_knownSatisfiable.add(klass);
+	}
+
+	/**
+	 * Mark {@literal klass} as unsatisfiable, skipping the satisfiability test.
+	 *
+	 * @param klass A class known to be unsatisfiable.
+	 */
+	public void addKnownUnsatisfiable(final K klass)
+	{
+		_knownUnsatisfiable.add(klass);
+	}
+
+	/**
+	 * Record the result of a subsumption test performed in advance, so that {@link #build(java.util.Collection)} does
+	 * not need to repeat it.
+	 *
+	 * @param sub The presumed subclass. Must be satisfiable.
+	 * @param sup The presumed superclass.
+	 * @param isSub {@literal true}, if {@literal sub} is subsumed by {@literal sup}.
+	 */
+	public void addKnownSubsumption(final K sub, final K sup, final boolean isSub)
+	{
+		Map<K, Boolean> supers = _knownSubsumptions.get(sub);
+		if (supers == null) {
+			supers = new HashMap<>();
+			_knownSubsumptions.put(sub, supers);
+		}
+		supers.put(sup, isSub);
+	}
+
+	/**
+	 * Insert all classes from {@literal classes} into the taxonomy.
+	 *
+	 * @param classes The classes to classify.
+	 * @return The taxonomy.
+	 * @throws EReasonerException A reasoner error occured
+	 * @throws EInconsistencyException The ABox is inconsistent
+	 */
+	public Taxonomy<K> build(final Collection<K> classes)
+		throws EReasonerException, EInconsistencyException
+	{
+		final Set<K> classSet = new HashSet<>(classes);
+		final K thing = _termFactory.getDLThing().getElement();
+		final K nothing = _termFactory.getDLNothing().getElement();
+		if (classSet.contains(thing)) {
+			_taxonomy.addEquivalent(thing, _taxonomy.getTop());
+		}
+		if (classSet.contains(nothing)) {
+			_taxonomy.addEquivalent(nothing, _taxonomy.getBottom());
+		}
+
+		for (K klass : classSet) {
+			for (K told : getToldSubsumers(klass)) {
+				Set<K> subsumees = _toldSubsumees.get(told);
+				if (subsumees == null) {
+					subsumees = new HashSet<>();
+					_toldSubsumees.put(told, subsumees);
+				}
+				subsumees.add(klass);
+			}
+		}
+
+		for (K klass : getInsertionOrder(classes, classSet)) {
+			if (!_taxonomy.contains(klass)) {
+				insert(klass);
+			}
+		}
+		_logger.debug("Taxonomy built with {} satisfiability and {} subsumption tests", _satisfiabilityTests,
+			_subsumptionTests);
+		return _taxonomy;
+	}
+
+	public Taxonomy<K> getTaxonomy()
+	{
+		return _taxonomy;
+	}
+
+	/**
+	 * @return the number of subsumption tests performed by the reasoner.
+	 */
+	public int getSubsumptionTests()
+	{
+		return _subsumptionTests;
+	}
+
+	/**
+	 * @return the number of subsumptions decided from told information without calling the reasoner.
+	 */
+	public int getToldSubsumptions()
+	{
+		return _toldSubsumptions;
+	}
+
+	/**
+	 * @return the number of satisfiability tests performed by the reasoner.
+	 */
+	public int getSatisfiabilityTests()
+	{
+		return _satisfiabilityTests;
+	}
+
+	private void insert(final K klass)
+		throws EReasonerException, EInconsistencyException
+	{
+		if (!isSatisfiable(klass)) {
+			_logger.trace("{} is unsatisfiable", klass);
+			_taxonomy.addEquivalent(klass, _taxonomy.getBottom());
+			return;
+		}
+
+		final Set<Taxonomy.Node<K>> parents = topSearch(klass);
+		if (parents.size() == 1) {
+			final Taxonomy.Node<K> parent = parents.iterator().next();
+			/* an anonymous top node cannot be tested for equivalence, but also needs no representation */
+			if ((parent.getRepresentative() != null) && isSubClassOf(parent.getRepresentative(), klass)) {
+				_logger.trace("{} is equivalent to {}", klass, parent);
+				_taxonomy.addEquivalent(klass, parent);
+				return;
+			}
+		}
+		final Set<Taxonomy.Node<K>> children = bottomSearch(klass, parents);
+		_logger.trace("Inserting {} below {} and above {}", klass, parents, children);
+		_taxonomy.insert(klass, parents, children);
+	}
+
+	/**
+	 * Find the most specific nodes subsuming {@literal klass}.
+	 */
+	private Set<Taxonomy.Node<K>> topSearch(final K klass)
+		throws EReasonerException, EInconsistencyException
+	{
+		final Map<Taxonomy.Node<K>, Boolean> subsumes = new HashMap<>();
+		subsumes.put(_taxonomy.getTop(), true);
+		/* told subsumers and all their ancestors subsume klass */
+		for (K told : getToldSubsumers(klass)) {
+			final Taxonomy.Node<K> toldNode = _taxonomy.getNode(told);
+			if ((toldNode != null) && (toldNode != _taxonomy.getBottom())) {
+				markClosure(toldNode, subsumes, true);
+			}
+		}
+
+		final Set<Taxonomy.Node<K>> mostSpecific = new HashSet<>();
+		final Set<Taxonomy.Node<K>> visited = new HashSet<>();
+		final Deque<Taxonomy.Node<K>> stack = new ArrayDeque<>();
+		stack.push(_taxonomy.getTop());
+		while (!stack.isEmpty()) {
+			final Taxonomy.Node<K> node = stack.pop();
+			if (visited.add(node)) {
+				boolean hasPositiveChild = false;
+				for (Taxonomy.Node<K> child : node.getChildren()) {
+					if ((child != _taxonomy.getBottom()) && subsumes(child, klass, subsumes)) {
+						hasPositiveChild = true;
+						stack.push(child);
+					}
+				}
+				if (!hasPositiveChild) {
+					mostSpecific.add(node);
+				}
+			}
+		}
+		return mostSpecific;
+	}
+
+	/**
+	 * Find the most general nodes subsumed by {@literal klass}.
+	 * <p />
+	 * Only nodes below all of {@literal parents} can be subsumed by {@literal klass}.
+	 */
+	private Set<Taxonomy.Node<K>> bottomSearch(final K klass, final Set<Taxonomy.Node<K>> parents)
+		throws EReasonerException, EInconsistencyException
+	{
+		Set<Taxonomy.Node<K>> candidates = null;
+		for (Taxonomy.Node<K> parent : parents) {
+			if (parent != _taxonomy.getTop()) {
+				final Set<Taxonomy.Node<K>> descendants = getDescendants(parent);
+				if (candidates == null) {
+					candidates = descendants;
+				} else {
+					candidates.retainAll(descendants);
+				}
+			}
+		}
+
+		final Map<Taxonomy.Node<K>, Boolean> subsumed = new HashMap<>();
+		subsumed.put(_taxonomy.getBottom(), true);
+		final Set<K> toldSubsumees = _toldSubsumees.get(klass);
+		if (toldSubsumees != null) {
+			for (K told : toldSubsumees) {
+				final Taxonomy.Node<K> toldNode = _taxonomy.getNode(told);
+				if (toldNode != null) {
+					markClosure(toldNode, subsumed, false);
+				}
+			}
+		}
+
+		final Set<Taxonomy.Node<K>> mostGeneral = new HashSet<>();
+		final Set<Taxonomy.Node<K>> visited = new HashSet<>();
+		final Deque<Taxonomy.Node<K>> stack = new ArrayDeque<>();
+		stack.push(_taxonomy.getBottom());
+		while (!stack.isEmpty()) {
+			final Taxonomy.Node<K> node = stack.pop();
+			if (visited.add(node)) {
+				boolean hasPositiveParent = false;
+				for (Taxonomy.Node<K> parent : node.getParents()) {
+					if ((parent != _taxonomy.getTop()) && ((candidates == null) || candidates.contains(parent))
+						&& isSubsumedBy(parent, klass, subsumed, candidates)) {
+						hasPositiveParent = true;
+						stack.push(parent);
+					}
+				}
+				if (!hasPositiveParent) {
+					mostGeneral.add(node);
+				}
+			}
+		}
+		return mostGeneral;
+	}
+
+	/**
+	 * Check, if {@literal node} subsumes {@literal klass}, testing only if all parents of {@literal node} subsume
+	 * {@literal klass}.
+	 */
+	private boolean subsumes(final Taxonomy.Node<K> node, final K klass, final Map<Taxonomy.Node<K>, Boolean> subsumes)
+		throws EReasonerException, EInconsistencyException
+	{
+		Boolean isSub = subsumes.get(node);
+		if (isSub == null) {
+			isSub = true;
+			for (Taxonomy.Node<K> parent : node.getParents()) {
+				if (!subsumes(parent, klass, subsumes)) {
+					isSub = false;
+					break;
+				}
+			}
+			if (isSub) {
+				isSub = isSubClassOf(klass, node.getRepresentative());
+			}
+			subsumes.put(node, isSub);
+		}
+		return isSub;
+	}
+
+	/**
+	 * Check, if {@literal node} is subsumed by {@literal klass}, testing only if all children of {@literal node} are
+	 * subsumed by {@literal klass}.
+	 */
+	private boolean isSubsumedBy(final Taxonomy.Node<K> node, final K klass,
+								 final Map<Taxonomy.Node<K>, Boolean> subsumed, final Set<Taxonomy.Node<K>> candidates)
+		throws EReasonerException, EInconsistencyException
+	{
+		Boolean isSub = subsumed.get(node);
+		if (isSub == null) {
+			if ((candidates != null) && (!candidates.contains(node))) {
+				isSub = false;
+			} else {
+				isSub = true;
+				for (Taxonomy.Node<K> child : node.getChildren()) {
+					if (!isSubsumedBy(child, klass, subsumed, candidates)) {
+						isSub = false;
+						break;
+					}
+				}
+				if (isSub) {
+					isSub = isSubClassOf(node.getRepresentative(), klass);
+				}
+			}
+			subsumed.put(node, isSub);
+		}
+		return isSub;
+	}
+
+	/**
+	 * Mark {@literal node} and all its ancestors ({@literal upwards}) or descendants (otherwise) with {@literal true}.
+	 */
+	private void markClosure(final Taxonomy.Node<K> node, final Map<Taxonomy.Node<K>, Boolean> marks,
+							 final boolean upwards)
+	{
+		final Deque<Taxonomy.Node<K>> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			final Taxonomy.Node<K> current = stack.pop();
+			if (!Boolean.TRUE.equals(marks.put(current, true))) {
+				stack.addAll(upwards ? current.getParents() : current.getChildren());
+			}
+		}
+	}
+
+	private Set<Taxonomy.Node<K>> getDescendants(final Taxonomy.Node<K> node)
+	{
+		final Set<Taxonomy.Node<K>> descendants = new HashSet<>();
+		final Deque<Taxonomy.Node<K>> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			for (Taxonomy.Node<K> child : stack.pop().getChildren()) {
+				if (descendants.add(child)) {
+					stack.push(child);
+				}
+			}
+		}
+		return descendants;
+	}
+
+	private boolean isSatisfiable(final K klass)
+		throws EReasonerException
+	{
+		if (_knownSatisfiable.contains(klass)) {
+			return true;
+		} else if (_knownUnsatisfiable.contains(klass)) {
+			return false;
+		} else {
+			++_satisfiabilityTests;
+			try {
+				return ReasonerResult.hasModel(_reasoner.checkConsistency(_abox, _termFactory.getDLClassReference(klass),
+					true));
+			} catch (EInconsistencyException ex) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Check, if {@literal sub} is subsumed by {@literal sup}. {@literal sub} must be known to be satisfiable, as told
+	 * disjointness is taken as non-subsumption.
+	 */
+	private boolean isSubClassOf(final K sub, final K sup)
+		throws EReasonerException, EInconsistencyException
+	{
+		final Boolean toldSubsumption = _toldHierarchy.getToldSubsumption(sub, sup);
+		if (toldSubsumption != null) {
+			++_toldSubsumptions;
+			_logger.trace("Told (subClassOf {} {}): {}", sub, sup, toldSubsumption);
+			return toldSubsumption;
+		}
+		final Map<K, Boolean> knownSupers = _knownSubsumptions.get(sub);
+		if ((knownSupers != null) && knownSupers.containsKey(sup)) {
+			return knownSupers.get(sup);
+		}
+		++_subsumptionTests;
+		_logger.trace("Testing if (subClassOf {} {})", sub, sup);
+		return _reasoner.isSubClassOf(_abox, sub, sup);
+	}
+
+	/**
+	 * @return The direct told subsumers of {@literal klass} taken from the TBox unfolding.
+	 */
+	private Set<K> getToldSubsumers(final K klass)
+	{
+		return _toldHierarchy.getDirectToldSubsumers(klass);
+	}
+
+	/**
+	 * Order classes so that told subsumers are inserted before their subclasses.
+	 */
+	private List<K> getInsertionOrder(final Collection<K> classes, final Set<K> classSet)
+	{
+		final List<K> order = new ArrayList<>(classes.size());
+		final Set<K> visited = new HashSet<>();
+		final Deque<K> path = new ArrayDeque<>();
+		final Deque<Iterator<K>> iterStack = new ArrayDeque<>();
+		for (K root : classes) {
+			if (visited.add(root)) {
+				path.push(root);
+				iterStack.push(getToldSubsumers(root).iterator());
+				while (!iterStack.isEmpty()) {
+					final Iterator<K> iter = iterStack.peek();
+					if (iter.hasNext()) {
+						final K next = iter.next();
+						if (classSet.contains(next) && visited.add(next)) {
+							path.push(next);
+							iterStack.push(getToldSubsumers(next).iterator());
+						}
+					} else {
+						iterStack.pop();
+						order.add(path.pop());
+					}
+				}
+			}
+		}
+		return order;
+	}
+}
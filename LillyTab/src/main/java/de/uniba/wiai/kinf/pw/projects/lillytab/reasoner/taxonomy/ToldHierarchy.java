@@ -0,0 +1,248 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectIntersection;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+
+/**
+ *
+ * Told subsumption and disjointness information about named classes, derived syntactically from the unfoldings of a
+ * TBox.
+ * <p />
+ * A class {@literal B} is a direct told subsumer of {@literal A}, if {@literal B} appears in the unfolding of
+ * {@literal A}, either directly or as a conjunct of an intersection. The told subsumers of {@literal A} are the
+ * transitive closure of the direct told subsumers. Similarly, {@literal (not B)} in the unfolding of {@literal A} or
+ * of one of its told subsumers makes {@literal B} a told negation of {@literal A}. The conditional unfolding
+ * {@literal (implies (and A B) _Nothing_)} also makes {@literal A} and {@literal B} told disjoint.
+ * <p />
+ * Told subsumptions always hold. Told disjointness of {@literal A} and {@literal B} implies, that {@literal A} is not
+ * subsumed by {@literal B}, provided that {@literal A} is satisfiable.
+ * <p />
+ * Results are computed lazily and are only valid as long as the TBox is not modified.
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class ToldHierarchy<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+	private final ITBox<I, L, K, R> _tbox;
+	private final IDLTermFactory<I, L, K, R> _termFactory;
+	private final Map<K, Set<K>> _directSubsumers = new HashMap<>();
+	private final Map<K, Set<K>> _directNegations = new HashMap<>();
+	private final Map<K, Set<K>> _subsumers = new HashMap<>();
+	private final Map<K, Set<K>> _negations = new HashMap<>();
+
+	public ToldHierarchy(final ITBox<I, L, K, R> tbox, final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		_tbox = tbox;
+		_termFactory = termFactory;
+	}
+
+	/**
+	 * @param klass A named class
+	 * @return The direct told subsumers of {@literal klass}, not including {@literal klass} itself.
+	 */
+	public synchronized Set<K> getDirectToldSubsumers(final K klass)
+	{
+		collectDirect(klass);
+		return Collections.unmodifiableSet(_directSubsumers.get(klass));
+	}
+
+	/**
+	 * @param klass A named class
+	 * @return All told subsumers of {@literal klass}, not including {@literal klass} itself.
+	 */
+	public synchronized Set<K> getToldSubsumers(final K klass)
+	{
+		Set<K> subsumers = _subsumers.get(klass);
+		if (subsumers == null) {
+			subsumers = new TreeSet<>();
+			final Deque<K> stack = new ArrayDeque<>();
+			stack.push(klass);
+			while (!stack.isEmpty()) {
+				final K current = stack.pop();
+				collectDirect(current);
+				for (K told : _directSubsumers.get(current)) {
+					if (subsumers.add(told)) {
+						stack.push(told);
+					}
+				}
+			}
+			subsumers.remove(klass);
+			_subsumers.put(klass, subsumers);
+		}
+		return Collections.unmodifiableSet(subsumers);
+	}
+
+	/**
+	 * @param klass A named class
+	 * @return The classes, whose negation is a told subsumer of {@literal klass}.
+	 */
+	public synchronized Set<K> getToldNegations(final K klass)
+	{
+		Set<K> negations = _negations.get(klass);
+		if (negations == null) {
+			collectDirect(klass);
+			negations = new TreeSet<>(_directNegations.get(klass));
+			for (K told : getToldSubsumers(klass)) {
+				collectDirect(told);
+				negations.addAll(_directNegations.get(told));
+			}
+			_negations.put(klass, negations);
+		}
+		return Collections.unmodifiableSet(negations);
+	}
+
+	/**
+	 * @param sub The presumed sub class
+	 * @param sup The presumed super class
+	 * @return {@literal true}, if {@literal sup} is a told subsumer of {@literal sub} or if {@literal sub} is told
+	 * unsatisfiable.
+	 */
+	public synchronized boolean isToldSubsumer(final K sub, final K sup)
+	{
+		if (sub.equals(sup) || sup.equals(_termFactory.getDLThing().getElement())) {
+			return true;
+		} else {
+			final Set<K> subsumers = getToldSubsumers(sub);
+			return subsumers.contains(sup) || subsumers.contains(_termFactory.getDLNothing().getElement());
+		}
+	}
+
+	/**
+	 * @param first A named class
+	 * @param second Another named class
+	 * @return {@literal true}, if {@literal first} and {@literal second} are told disjoint.
+	 */
+	public synchronized boolean isToldDisjoint(final K first, final K second)
+	{
+		return isToldNegated(first, second) || isToldNegated(second, first);
+	}
+
+	/**
+	 * Syntactically decide a subsumption.
+	 *
+	 * @param sub The presumed sub class, must be satisfiable
+	 * @param sup The presumed super class
+	 * @return {@link Boolean#TRUE}, if {@literal sup} is a told subsumer of {@literal sub}, {@link Boolean#FALSE}, if
+	 * {@literal sub} and {@literal sup} are told disjoint, and {@literal null}, if the subsumption cannot be decided
+	 * syntactically.
+	 */
+	public synchronized Boolean getToldSubsumption(final K sub, final K sup)
+	{
+		if (isToldSubsumer(sub, sup)) {
+			return Boolean.TRUE;
+		} else if (isToldDisjoint(sub, sup)) {
+			return Boolean.FALSE;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @return {@literal true}, if {@literal second} or one of its told subsumers is a told negation of
+	 * {@literal first}.
+	 */
+	private boolean isToldNegated(final K first, final K second)
+	{
+		final Set<K> negations = getToldNegations(first);
+		if (negations.isEmpty()) {
+			return false;
+		} else if (negations.contains(second)) {
+			return true;
+		} else {
+			for (K told : getToldSubsumers(second)) {
+				if (negations.contains(told)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private void collectDirect(final K klass)
+	{
+		if (!_directSubsumers.containsKey(klass)) {
+			final Set<K> subsumers = new TreeSet<>();
+			final Set<K> negations = new TreeSet<>();
+			final IDLClassReference<I, L, K, R> klassRef = _termFactory.getDLClassReference(klass);
+			final Collection<IDLClassExpression<I, L, K, R>> unfolding = _tbox.getUnfolding(klassRef);
+			if (unfolding != null) {
+				for (IDLClassExpression<I, L, K, R> unfoldee : unfolding) {
+					collectDirect(unfoldee, subsumers, negations);
+				}
+			}
+			final IDLClassExpression<I, L, K, R> nothing = _termFactory.getDLNothing();
+			for (IDLImplies<I, L, K, R> conditional : _tbox.getConditionalUnfoldings(klassRef)) {
+				if (nothing.equals(conditional.getSuperDescription())
+					&& (conditional.getSubDescription() instanceof IDLObjectIntersection)) {
+					final IDLObjectIntersection<I, L, K, R> lhs = (IDLObjectIntersection<I, L, K, R>) conditional.
+						getSubDescription();
+					if (lhs.size() == 2) {
+						for (IDLClassExpression<I, L, K, R> conjunct : lhs) {
+							if ((!conjunct.equals(klassRef)) && (conjunct instanceof IDLClassReference)) {
+								negations.add(((IDLClassReference<I, L, K, R>) conjunct).getElement());
+							}
+						}
+					}
+				}
+			}
+			subsumers.remove(klass);
+			_directSubsumers.put(klass, subsumers);
+			_directNegations.put(klass, negations);
+		}
+	}
+
+	private void collectDirect(final IDLClassExpression<I, L, K, R> desc, final Set<K> subsumers,
+							   final Set<K> negations)
+	{
+		if (desc instanceof IDLClassReference) {
+			subsumers.add(((IDLClassReference<I, L, K, R>) desc).getElement());
+		} else if ((desc instanceof IDLObjectNegation)
+			&& (((IDLObjectNegation<I, L, K, R>) desc).getTerm() instanceof IDLClassReference)) {
+			negations.add(((IDLClassReference<I, L, K, R>) ((IDLObjectNegation<I, L, K, R>) desc).getTerm()).
+				getElement());
+		} else if (desc instanceof IDLObjectIntersection) {
+			for (IDLClassExpression<I, L, K, R> subDesc : (IDLObjectIntersection<I, L, K, R>) desc) {
+				collectDirect(subDesc, subsumers, negations);
+			}
+		}
+	}
+}
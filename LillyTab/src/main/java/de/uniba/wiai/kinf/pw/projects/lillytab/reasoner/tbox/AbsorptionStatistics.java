@@ -0,0 +1,146 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox;
+
+
+/**
+ *
+ * Counters describing how the axioms of a {@link TBox} were absorbed during the last recalculation.
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class AbsorptionStatistics
+{
+	/**
+	 * Axioms with a named class or nominal on the left hand side.
+	 */
+	private int _unfoldable = 0;
+	/**
+	 * Axioms with an intersection of named classes on the left hand side.
+	 */
+	private int _conditional = 0;
+	/**
+	 * Axioms with a named class next to complex descriptions on the left hand side.
+	 */
+	private int _concept = 0;
+	/**
+	 * Axioms absorbed into role domains or inverse role restrictions.
+	 */
+	private int _role = 0;
+	/**
+	 * Axioms that could not be absorbed and remain global.
+	 */
+	private int _global = 0;
+
+	AbsorptionStatistics()
+	{
+	}
+
+	void clear()
+	{
+		_unfoldable = 0;
+		_conditional = 0;
+		_concept = 0;
+		_role = 0;
+		_global = 0;
+	}
+
+	void incUnfoldable()
+	{
+		++_unfoldable;
+	}
+
+	void incConditional()
+	{
+		++_conditional;
+	}
+
+	void incConcept()
+	{
+		++_concept;
+	}
+
+	void incRole()
+	{
+		++_role;
+	}
+
+	void incGlobal()
+	{
+		++_global;
+	}
+
+	/**
+	 * @return the _unfoldable
+	 */
+	public int getUnfoldable()
+	{
+		return _unfoldable;
+	}
+
+	/**
+	 * @return the _conditional
+	 */
+	public int getConditional()
+	{
+		return _conditional;
+	}
+
+	/**
+	 * @return the _concept
+	 */
+	public int getConcept()
+	{
+		return _concept;
+	}
+
+	/**
+	 * @return the _role
+	 */
+	public int getRole()
+	{
+		return _role;
+	}
+
+	/**
+	 * @return the _global
+	 */
+	public int getGlobal()
+	{
+		return _global;
+	}
+
+	/**
+	 * @return The number of axioms that were absorbed, i.e. that did not end up in the set of global descriptions.
+	 */
+	public int getAbsorbed()
+	{
+		return _unfoldable + _conditional + _concept + _role;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("unfoldable: %d, conditional: %d, concept: %d, role: %d, global: %d", _unfoldable,
+			_conditional, _concept, _role, _global);
+	}
+}
@@ -21,6 +21,11 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox;
 
+import de.dhke.projects.cutil.collections.aspect.AbstractCollectionListener;
+import de.dhke.projects.cutil.collections.aspect.AspectMultiMap;
+import de.dhke.projects.cutil.collections.aspect.CollectionEvent;
+import de.dhke.projects.cutil.collections.aspect.CollectionItemEvent;
+import de.dhke.projects.cutil.collections.aspect.CollectionItemReplacedEvent;
 import de.dhke.projects.cutil.collections.factories.EnumSetFactory;
 import de.dhke.projects.cutil.collections.factories.ICollectionFactory;
 import de.dhke.projects.cutil.collections.factories.SortedListSetFactory;
@@ -61,6 +66,10 @@ public class AssertedRBox<I extends Comparable<? super I>, L extends Comparable<
 	private final MultiMap<R, RoleProperty> _rolePropertyMap;
 	private final Map<R, RoleType> _roleTypeMap;
 	private final MultiMap<RoleType, R> _typeRoleMap;
+	/**
+	 * Incremented on every modification, see {@link #getModificationCount() }.
+	 */
+	private volatile int _modificationCount = 0;
 	// </editor-fold>
 
 
@@ -69,8 +78,22 @@ public class AssertedRBox<I extends Comparable<? super I>, L extends Comparable<
 		super();
 		_tboxRef = new WeakReference<>(tbox);
 
-		_roleDomains = new GenericMultiHashMap<>(new TreeSetFactory<IDLClassExpression<I, L, K, R>>());
-		_roleRanges = new GenericMultiHashMap<>(new TreeSetFactory<IDLNodeTerm<I, L, K, R>>());
+		/* domains and ranges are modified directly by the caller, count these modifications, too */
+		final MultiMap<R, IDLClassExpression<I, L, K, R>> roleDomains = new GenericMultiHashMap<>(
+			new TreeSetFactory<IDLClassExpression<I, L, K, R>>());
+		final AspectMultiMap<R, IDLClassExpression<I, L, K, R>, MultiMap<R, IDLClassExpression<I, L, K, R>>> aspectRoleDomains
+			= AspectMultiMap.decorate(roleDomains, this);
+		aspectRoleDomains.getListeners().add(
+			new ModificationListener<Map.Entry<R, IDLClassExpression<I, L, K, R>>, MultiMap<R, IDLClassExpression<I, L, K, R>>>());
+		_roleDomains = aspectRoleDomains;
+
+		final MultiMap<R, IDLNodeTerm<I, L, K, R>> roleRanges = new GenericMultiHashMap<>(
+			new TreeSetFactory<IDLNodeTerm<I, L, K, R>>());
+		final AspectMultiMap<R, IDLNodeTerm<I, L, K, R>, MultiMap<R, IDLNodeTerm<I, L, K, R>>> aspectRoleRanges
+			= AspectMultiMap.decorate(roleRanges, this);
+		aspectRoleRanges.getListeners().add(
+			new ModificationListener<Map.Entry<R, IDLNodeTerm<I, L, K, R>>, MultiMap<R, IDLNodeTerm<I, L, K, R>>>());
+		_roleRanges = aspectRoleRanges;
 
 		final ICollectionFactory<R, ? extends Collection<R>> roleSetFactory = new SortedListSetFactory<>();
 
@@ -135,6 +158,7 @@ public class AssertedRBox<I extends Comparable<? super I>, L extends Comparable<
 		final RoleType roleType = _roleTypeMap.remove(role);
 		if (roleType != null) {
 			_typeRoleMap.remove(roleType, role);
+			++_modificationCount;
 
 			_roleDomains.remove(role);
 			_roleRanges.remove(role);
@@ -718,8 +742,47 @@ public Collection<R> getRoles(RoleType type)
 	}
 
 
+	@Override
+	public int getModificationCount()
+	{
+		return _modificationCount;
+	}
+
+
 		private void recalculate() throws EInconsistentRBoxException
 	{
+		++_modificationCount;
 		_rbox.recalculate();
 	}
+
+	/**
+	 * Counts the modifications of the domain and range maps.
+	 */
+	private final class ModificationListener<E, C>
+		extends AbstractCollectionListener<E, C> {
+
+		@Override
+		public void afterElementAdded(final CollectionItemEvent<E, C> e)
+		{
+			++_modificationCount;
+		}
+
+		@Override
+		public void afterElementRemoved(final CollectionItemEvent<E, C> e)
+		{
+			++_modificationCount;
+		}
+
+		@Override
+		public void afterElementReplaced(final CollectionItemReplacedEvent<E, C> e)
+		{
+			++_modificationCount;
+		}
+
+		@Override
+		public void afterCollectionCleared(final CollectionEvent<E, C> e)
+		{
+			++_modificationCount;
+		}
+	}
 }
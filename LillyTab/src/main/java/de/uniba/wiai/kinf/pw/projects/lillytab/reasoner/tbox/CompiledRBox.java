@@ -0,0 +1,169 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleProperty;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.commons.collections15.MultiMap;
+
+
+/**
+ * <p>
+ * Frozen view of the closed role hierarchy of an {@link RBox}.
+ * </p><p>
+ * A new snapshot is created every time the RBox is recalculated. The snapshot itself is never modified, so it
+ * may be shared freely between ABox clones and between threads without any locking.
+ * </p>
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class CompiledRBox<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+
+	private final Map<R, Set<R>> _inverseRoles;
+	private final Map<R, Set<R>> _equivalentRoles;
+	private final Map<R, Set<R>> _subRoles;
+	private final Map<R, Set<R>> _superRoles;
+	private final Map<RoleProperty, Set<R>> _propertyRoleMap;
+	private final Map<R, Set<RoleProperty>> _rolePropertyMap;
+
+	CompiledRBox(
+		final MultiMap<R, R> inverseRoles,
+		final MultiMap<R, R> equivalentRoles,
+		final MultiMap<R, R> subRoles,
+		final MultiMap<R, R> superRoles,
+		final MultiMap<RoleProperty, R> propertyRoleMap,
+		final MultiMap<R, RoleProperty> rolePropertyMap)
+	{
+		_inverseRoles = freeze(inverseRoles);
+		_equivalentRoles = freeze(equivalentRoles);
+		_subRoles = freeze(subRoles);
+		_superRoles = freeze(superRoles);
+		_propertyRoleMap = freeze(propertyRoleMap);
+
+		final Map<R, Set<RoleProperty>> roleProperties = new HashMap<>();
+		for (R role : rolePropertyMap.keySet()) {
+			final Collection<RoleProperty> properties = rolePropertyMap.get(role);
+			if ((properties != null) && (!properties.isEmpty())) {
+				roleProperties.put(role, Collections.unmodifiableSet(EnumSet.copyOf(properties)));
+			}
+		}
+		_rolePropertyMap = Collections.unmodifiableMap(roleProperties);
+	}
+
+	public Collection<R> getEquivalentRoles(final R role)
+	{
+		return lookup(_equivalentRoles, role);
+	}
+
+	public Collection<R> getInverseRoles(final R role)
+	{
+		return lookup(_inverseRoles, role);
+	}
+
+	public Collection<R> getSubRoles(final R role)
+	{
+		return lookup(_subRoles, role);
+	}
+
+	public Collection<R> getSuperRoles(final R role)
+	{
+		return lookup(_superRoles, role);
+	}
+
+	public Collection<R> getRoles(final RoleProperty property)
+	{
+		return lookup(_propertyRoleMap, property);
+	}
+
+	public Collection<RoleProperty> getRoleProperties(final R role)
+	{
+		final Set<RoleProperty> properties = _rolePropertyMap.get(role);
+		if (properties != null) {
+			return properties;
+		} else {
+			return Collections.emptySet();
+		}
+	}
+
+	public boolean hasRoleProperty(final R role, final RoleProperty property)
+	{
+		return getRoleProperties(role).contains(property);
+	}
+
+	public boolean isEquivalentRole(final R first, final R second)
+	{
+		return getEquivalentRoles(first).contains(second);
+	}
+
+	public boolean isInverseRole(final R first, final R second)
+	{
+		return getInverseRoles(first).contains(second);
+	}
+
+	public boolean isSubRole(final R sup, final R sub)
+	{
+		return getSubRoles(sup).contains(sub);
+	}
+
+	public boolean isSuperRole(final R sub, final R sup)
+	{
+		return getSuperRoles(sub).contains(sup);
+	}
+
+	public boolean hasInverseRoles()
+	{
+		return !_inverseRoles.isEmpty();
+	}
+
+	private static <T, R extends Comparable<? super R>> Map<T, Set<R>> freeze(final MultiMap<T, R> source)
+	{
+		final Map<T, Set<R>> target = new HashMap<>();
+		for (T key : source.keySet()) {
+			final Collection<R> values = source.get(key);
+			if ((values != null) && (!values.isEmpty())) {
+				target.put(key, Collections.unmodifiableSet(new TreeSet<>(values)));
+			}
+		}
+		return Collections.unmodifiableMap(target);
+	}
+
+	private static <T, R> Collection<R> lookup(final Map<T, Set<R>> map, final T key)
+	{
+		final Set<R> values = map.get(key);
+		if (values != null) {
+			return values;
+		} else {
+			return Collections.emptySet();
+		}
+	}
+}
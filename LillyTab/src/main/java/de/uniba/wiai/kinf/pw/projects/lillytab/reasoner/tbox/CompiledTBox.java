@@ -0,0 +1,184 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.collections15.MultiMap;
+
+
+/**
+ * <p>
+ * Frozen result of a single {@link TBox} recalculation.
+ * </p><p>
+ * The snapshot holds the global descriptions (in negation normal form), the unfolding indexes
+ * and the role domain unfoldings already closed over the role hierarchy of the {@link CompiledRBox} it
+ * was built against. It is never modified after construction, so ABox clones and concurrent queries
+ * may reference the same instance without copying or locking.
+ * </p>
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class CompiledTBox<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+
+	private final int _generation;
+	private final CompiledRBox<I, L, K, R> _rbox;
+	private final Set<IDLClassExpression<I, L, K, R>> _globalDescriptions;
+	private final Map<IDLClassExpression<I, L, K, R>, Collection<IDLClassExpression<I, L, K, R>>> _unfolding;
+	private final Map<IDLClassExpression<I, L, K, R>, Collection<IDLImplies<I, L, K, R>>> _conditionalUnfolding;
+	/**
+	 * Role domain unfoldings per role, including the unfoldings of all super roles.
+	 */
+	private final Map<R, Set<IDLClassExpression<I, L, K, R>>> _roleDomainUnfolding;
+	private final boolean _hasRoleDomainUnfoldings;
+	private final AbsorptionStatistics _absorptionStatistics;
+
+	CompiledTBox(
+		final int generation,
+		final IRBox<I, L, K, R> rbox,
+		final CompiledRBox<I, L, K, R> compiledRBox,
+		final Set<IDLClassExpression<I, L, K, R>> globalDescriptions,
+		final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> unfolding,
+		final MultiMap<IDLClassExpression<I, L, K, R>, IDLImplies<I, L, K, R>> conditionalUnfolding,
+		final MultiMap<R, IDLClassExpression<I, L, K, R>> roleDomainUnfolding,
+		final AbsorptionStatistics absorptionStatistics)
+	{
+		_generation = generation;
+		_rbox = compiledRBox;
+		_globalDescriptions = Collections.unmodifiableSet(new HashSet<>(globalDescriptions));
+		_unfolding = freeze(unfolding);
+		_conditionalUnfolding = freeze(conditionalUnfolding);
+		_hasRoleDomainUnfoldings = !roleDomainUnfolding.isEmpty();
+		_absorptionStatistics = absorptionStatistics;
+
+		final Map<R, Set<IDLClassExpression<I, L, K, R>>> roleDomains = new HashMap<>();
+		if (_hasRoleDomainUnfoldings) {
+			for (R role : rbox.getRoles()) {
+				final Set<IDLClassExpression<I, L, K, R>> domains = new HashSet<>();
+				final Collection<IDLClassExpression<I, L, K, R>> ownDomains = roleDomainUnfolding.get(role);
+				if (ownDomains != null) {
+					domains.addAll(ownDomains);
+				}
+				for (R superRole : rbox.getSuperRoles(role)) {
+					final Collection<IDLClassExpression<I, L, K, R>> superDomains = roleDomainUnfolding.get(superRole);
+					if (superDomains != null) {
+						domains.addAll(superDomains);
+					}
+				}
+				if (!domains.isEmpty()) {
+					roleDomains.put(role, Collections.unmodifiableSet(domains));
+				}
+			}
+		}
+		_roleDomainUnfolding = Collections.unmodifiableMap(roleDomains);
+	}
+
+	/**
+	 * @return The generation number of the TBox this snapshot was built from.
+	 */
+	public int getGeneration()
+	{
+		return _generation;
+	}
+
+	/**
+	 * @return The role hierarchy snapshot this TBox snapshot was built against. May be {@literal null}, if the
+	 * RBox was inconsistent at the time of compilation.
+	 */
+	public CompiledRBox<I, L, K, R> getRBox()
+	{
+		return _rbox;
+	}
+
+	/**
+	 * @return The set of non-unfoldable descriptions, in negation normal form.
+	 */
+	public Set<IDLClassExpression<I, L, K, R>> getGlobalDescriptions()
+	{
+		return _globalDescriptions;
+	}
+
+	public Collection<IDLClassExpression<I, L, K, R>> getUnfolding(final IDLClassExpression<I, L, K, R> unfoldee)
+	{
+		return lookup(_unfolding, unfoldee);
+	}
+
+	public Collection<IDLImplies<I, L, K, R>> getConditionalUnfoldings(final IDLClassExpression<I, L, K, R> trigger)
+	{
+		return lookup(_conditionalUnfolding, trigger);
+	}
+
+	public Collection<IDLClassExpression<I, L, K, R>> getRoleDomainUnfoldings(final R role)
+	{
+		final Set<IDLClassExpression<I, L, K, R>> domains = _roleDomainUnfolding.get(role);
+		if (domains != null) {
+			return domains;
+		} else {
+			return Collections.emptySet();
+		}
+	}
+
+	public boolean hasRoleDomainUnfoldings()
+	{
+		return _hasRoleDomainUnfoldings;
+	}
+
+	public AbsorptionStatistics getAbsorptionStatistics()
+	{
+		return _absorptionStatistics;
+	}
+
+	private static <T, V> Map<T, Collection<V>> freeze(final MultiMap<T, V> source)
+	{
+		final Map<T, Collection<V>> target = new HashMap<>();
+		for (T key : source.keySet()) {
+			final Collection<V> values = source.get(key);
+			if ((values != null) && (!values.isEmpty())) {
+				target.put(key, Collections.unmodifiableList(new ArrayList<>(values)));
+			}
+		}
+		return Collections.unmodifiableMap(target);
+	}
+
+	private static <T, V> Collection<V> lookup(final Map<T, Collection<V>> map, final T key)
+	{
+		final Collection<V> values = map.get(key);
+		if (values != null) {
+			return values;
+		} else {
+			return Collections.emptySet();
+		}
+	}
+}
@@ -130,6 +130,12 @@ public class ImmutableAssertedRBox<I extends Comparable<? super I>, L extends Co
 		throw new UnsupportedOperationException("Cannot modify ImmutableAssertedRBox");
 	}
 
+	@Override
+	public int getModificationCount()
+	{
+		return _assertedRBox.getModificationCount();
+	}
+
 	@Override
 	public IAssertedRBox<I, L, K, R> getImmutable()
 	{
@@ -21,12 +21,14 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox;
 
+import de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet;
 import de.dhke.projects.cutil.collections.immutable.ImmutableIterator;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IAssertedRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
 import java.util.Collection;
 import java.util.Collections;
@@ -77,6 +79,25 @@ public class ImmutableTBox<I extends Comparable<? super I>, L extends Comparable
 		return _baseTBox.getUnfolding(unfoldee);
 	}
 
+	@Override
+	public Collection<IDLImplies<I, L, K, R>> getConditionalUnfoldings(
+		IDLClassExpression<I, L, K, R> trigger)
+	{
+		return Collections.unmodifiableCollection(_baseTBox.getConditionalUnfoldings(trigger));
+	}
+
+	@Override
+	public Collection<IDLClassExpression<I, L, K, R>> getRoleDomainUnfoldings(R role)
+	{
+		return Collections.unmodifiableCollection(_baseTBox.getRoleDomainUnfoldings(role));
+	}
+
+	@Override
+	public boolean hasRoleDomainUnfoldings()
+	{
+		return _baseTBox.hasRoleDomainUnfoldings();
+	}
+
 	@Override
 	public String toString(String prefix)
 	{
@@ -115,6 +136,18 @@ public class ImmutableTBox<I extends Comparable<? super I>, L extends Comparable
 		return Collections.unmodifiableSortedSet(_baseTBox.subSet(termType));
 	}
 
+	@Override
+	public CopyOnWriteBitSet getTermIDs()
+	{
+		return _baseTBox.getTermIDs();
+	}
+
+	@Override
+	public CopyOnWriteBitSet getNegatedTermIDs()
+	{
+		return _baseTBox.getNegatedTermIDs();
+	}
+
 	@Override
 	public Comparator<? super IDLTerm<I, L, K, R>> comparator()
 	{
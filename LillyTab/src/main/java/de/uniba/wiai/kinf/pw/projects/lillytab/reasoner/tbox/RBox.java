@@ -62,6 +62,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 	private final MultiMap<R, RoleProperty> _rolePropertyMap;
 
 	private WeakReference<IRBox<I, L, K, R>> _immutable;
+	/**
+	 * The frozen role closure of the last successful recalculation, {@literal null} while recalculating.
+	 */
+	private volatile CompiledRBox<I, L, K, R> _compiled;
 
 	protected RBox(final AssertedRBox<I, L, K, R> assertedRBox)
 	{
@@ -77,6 +81,7 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 
 		_subRoles = new GenericMultiHashMap<>(roleSetFactory);
 		_superRoles = new GenericMultiHashMap<>(roleSetFactory);
+		_compiled = compile();
 	}
 
 	@Override
@@ -118,6 +123,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 			throw new IllegalArgumentException(String.format("Unknown role `%s'", role));
 		}
 
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getEquivalentRoles(role);
+		}
 		final Collection<R> roles = _equivalentRoles.get(role);
 		if (roles != null) {
 			return Collections.unmodifiableCollection(roles);
@@ -133,6 +142,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 			throw new IllegalArgumentException(String.format("Unknown role `%s'", role));
 		}
 
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getInverseRoles(role);
+		}
 		final Collection<R> roles = _inverseRoles.get(role);
 		if (roles != null) {
 			return Collections.unmodifiableCollection(roles);
@@ -175,6 +188,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public Collection<RoleProperty> getRoleProperties(R role)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getRoleProperties(role);
+		}
 		final Collection<RoleProperty> properties = _rolePropertyMap.get(role);
 		if (properties != null) {
 			return Collections.unmodifiableCollection(properties);
@@ -204,6 +221,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public Collection<R> getRoles(RoleProperty property)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getRoles(property);
+		}
 		final Collection<R> roles = _propertyRoleMap.get(property);
 		if (roles != null) {
 			return Collections.unmodifiableCollection(roles);
@@ -225,6 +246,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 			throw new IllegalArgumentException(String.format("Unknown role `%s'", role));
 		}
 
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getSubRoles(role);
+		}
 		final Collection<R> subRoles = _subRoles.get(role);
 		if (subRoles != null) {
 			return Collections.unmodifiableCollection(subRoles);
@@ -240,6 +265,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 			throw new IllegalArgumentException(String.format("Unknown role `%s'", role));
 		}
 
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.getSuperRoles(role);
+		}
 		final Collection<R> superRoles = _superRoles.get(role);
 		if (superRoles != null) {
 			return Collections.unmodifiableCollection(superRoles);
@@ -251,6 +280,10 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public boolean hasRoleProperty(R role, RoleProperty property)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.hasRoleProperty(role, property);
+		}
 		return _rolePropertyMap.containsValue(role, property);
 	}
 
@@ -263,30 +296,50 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public boolean isEquivalentRole(R first, R second)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.isEquivalentRole(first, second);
+		}
 		return _equivalentRoles.containsValue(first, second);
 	}
 
 	@Override
 	public boolean isInverseRole(R first, R second)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.isInverseRole(first, second);
+		}
 		return _inverseRoles.containsValue(first, second);
 	}
 
 	@Override
 	public boolean hasInverseRoles()
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.hasInverseRoles();
+		}
 		return !_inverseRoles.isEmpty();
 	}
 
 	@Override
 	public boolean isSubRole(R sup, R sub)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.isSubRole(sup, sub);
+		}
 		return _subRoles.containsValue(sup, sub);
 	}
 
 	@Override
 	public boolean isSuperRole(R sub, R sup)
 	{
+		final CompiledRBox<I, L, K, R> compiled = _compiled;
+		if (compiled != null) {
+			return compiled.isSuperRole(sub, sup);
+		}
 		return _superRoles.containsValue(sub, sup);
 	}
 
@@ -316,8 +369,27 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 		return immutable;
 	}
 
+	/**
+	 * Retrieve the frozen role closure of this RBox.
+	 * <p>
+	 * The returned snapshot is immutable and stays valid (but possibly outdated) when the RBox is modified.
+	 * A changed RBox always produces a new snapshot instance.
+	 * </p>
+	 *
+	 * @return The frozen role closure of this RBox or {@literal null} if the RBox is currently being recalculated.
+	 */
+	public CompiledRBox<I, L, K, R> getCompiled()
+	{
+		return _compiled;
+	}
+
 	protected void recalculate() throws EInconsistentRBoxException
 	{
+		/*
+		 * drop the old snapshot, the fixpoint iteration below must see the working collections
+		 */
+		_compiled = null;
+
 		/*
 		 * clear local collections, initialize from asserted RBox
 		 */
@@ -356,6 +428,14 @@ public class RBox<I extends Comparable<? super I>, L extends Comparable<? super
 			isChanged |= updateTopSubSuper();
 			isChanged |= propagateRoleProperties();
 		}
+
+		_compiled = compile();
+	}
+
+	private CompiledRBox<I, L, K, R> compile()
+	{
+		return new CompiledRBox<>(_inverseRoles, _equivalentRoles, _subRoles, _superRoles, _propertyRoleMap,
+								  _rolePropertyMap);
 	}
 
 	private boolean propagateRoleProperties()
@@ -30,11 +30,15 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.IRBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.ITBox;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.*;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.TermUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import org.apache.commons.collections15.MultiMap;
 import org.apache.commons.collections15.multimap.MultiHashMap;
 
@@ -64,6 +68,10 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	implements ITBox<I, L, K, R>
 {
 	private final IDLTermFactory<I, L, K, R> _termFactory;
+	/*
+	 * The collections below are only the working state of recalculate(). Readers always go through the
+	 * compiled snapshot.
+	 */
 	/**
 	 * The set of non-unfoldable global descriptions
 	 *
@@ -74,17 +82,34 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	 * unfoldings associated with that class. The class reference itself is not included in the mapped set.
 	 */
 	private final MultiMap<IDLClassExpression<I, L, K, R>, IDLClassExpression<I, L, K, R>> _unfolding = new MultiHashMap<>();
-	private boolean _needRecalculate = true;
+	/**
+	 * A map of conditional unfoldings, i.e. absorbed axioms of the form {@literal (implies (and A B) C)}. Each
+	 * implication is registered for every description in its left hand side.
+	 */
+	private final MultiMap<IDLClassExpression<I, L, K, R>, IDLImplies<I, L, K, R>> _conditionalUnfolding = new MultiHashMap<>();
+	/**
+	 * Descriptions absorbed from axioms of the form {@literal (implies (some r _Thing_) C)}, indexed by role.
+	 */
+	private final MultiMap<R, IDLClassExpression<I, L, K, R>> _roleDomainUnfolding = new MultiHashMap<>();
+	private AbsorptionStatistics _absorptionStatistics = new AbsorptionStatistics();
+	/**
+	 * Set, when the term set was modified. Checked without locking, recalculation synchronizes on the TBox, as the
+	 * TBox is shared by concurrent queries.
+	 */
+	private volatile boolean _needRecalculate = true;
 	/**
 	 * The generation number of the current TBox. Incremented every time, a recalculation has been performed.
 	 *
 	 */
 	private int _generation = 0;
-	// private final Set<
+	/**
+	 * The frozen result of the last recalculation, shared by all ABoxes and threads referencing this TBox.
+	 */
+	private volatile CompiledTBox<I, L, K, R> _compiled;
 	/**
 	 * The RBox associated with this TBox.
 	 */
-	private final IRBox<I, L, K, R> _rbox;
+	private final RBox<I, L, K, R> _rbox;
 
 	public TBox(final IDLTermFactory<I, L, K, R> termFactory)
 	{
@@ -100,8 +125,7 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public Set<IDLClassExpression<I, L, K, R>> getGlobalDescriptions()
 	{
-		recalculateIfNeeded();
-		return Collections.unmodifiableSet(_globalDescriptionSet);
+		return getCompiled().getGlobalDescriptions();
 	}
 
 	/**
@@ -111,18 +135,54 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	@Override
 	public Collection<IDLClassExpression<I, L, K, R>> getUnfolding(final IDLClassExpression<I, L, K, R> unfoldee)
 	{
-		recalculateIfNeeded();
-		if (_unfolding.containsKey(unfoldee)) {
-			return _unfolding.get(unfoldee);
-		} else {
-			return Collections.emptySet();
-		}
+		return getCompiled().getUnfolding(unfoldee);
+	}
+
+	@Override
+	public Collection<IDLImplies<I, L, K, R>> getConditionalUnfoldings(final IDLClassExpression<I, L, K, R> trigger)
+	{
+		return getCompiled().getConditionalUnfoldings(trigger);
+	}
+
+	@Override
+	public Collection<IDLClassExpression<I, L, K, R>> getRoleDomainUnfoldings(final R role)
+	{
+		return getCompiled().getRoleDomainUnfoldings(role);
+	}
+
+	@Override
+	public boolean hasRoleDomainUnfoldings()
+	{
+		return getCompiled().hasRoleDomainUnfoldings();
+	}
+
+	/**
+	 * @return Statistics about the absorption of the TBox axioms into unfoldings.
+	 */
+	public AbsorptionStatistics getAbsorptionStatistics()
+	{
+		return getCompiled().getAbsorptionStatistics();
 	}
 
 	public int getGeneration()
+	{
+		return getCompiled().getGeneration();
+	}
+
+	/**
+	 * Retrieve the compiled snapshot of the current TBox generation, recalculating it first, if the TBox
+	 * or its RBox was modified.
+	 * <p>
+	 * The snapshot is immutable. Callers that need a consistent view across several lookups
+	 * (e.g. a whole query) should fetch it once and keep the reference.
+	 * </p>
+	 *
+	 * @return The compiled snapshot of the current TBox generation.
+	 */
+	public CompiledTBox<I, L, K, R> getCompiled()
 	{
 		recalculateIfNeeded();
-		return _generation;
+		return _compiled;
 	}
 
 	@Override
@@ -150,7 +210,7 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	 */
 		public boolean isNeedRecalculate()
 	{
-		return _needRecalculate;
+		return _needRecalculate || isRBoxChanged();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -204,72 +264,280 @@ public class TBox<I extends Comparable<? super I>, L extends Comparable<? super
 	/**
 	 *  Recalculate the internal state from the term set. <p /> Should only be called, when needed, i.e. when the
 	 * term set was changed since the last access. 
+	 * <p />
+	 * General concept inclusions are absorbed into (conditional) unfoldings and role domain unfoldings where possible,
+	 * only the remaining axioms end up in the set of global descriptions.
 	 */
 		private void recalculateIfNeeded(
 		)
 	{
-		if (_needRecalculate) {
-			_unfolding.clear();
-			_globalDescriptionSet.clear();
-
-			/* first, we unfold any top level intersections recursively */
-			Set<IDLTerm<I, L, K, R>> termSet = TermUtil.unfoldIntersections(this, _termFactory);
-
-			Iterator<IDLTerm<I, L, K, R>> iter = termSet.iterator();
-
-			while (iter.hasNext()) {
-				IDLTerm<I, L, K, R> term = iter.next();
-				if (term instanceof IDLClassExpression) {
-					/* pick up descriptions only */
-					IDLClassExpression<I, L, K, R> desc = (IDLClassExpression<I, L, K, R>) term;
-					/* simplify description */
-					desc = TermUtil.simplify(desc, _termFactory);
-					if (desc instanceof IDLImplies) {
-						handleImplication(desc);
-					} else if (desc instanceof IDLObjectIntersection) {
-						/**
-						 * if the description is an intersection, look at it's parts and treat them individually.
-						 *
-						 */
-						IDLObjectIntersection<I, L, K, R> intersection = (IDLObjectIntersection<I, L, K, R>) desc;
-						for (IDLClassExpression<I, L, K, R> subTerm : intersection) {
-							if (subTerm instanceof IDLImplies) {
-								handleImplication(subTerm);
-							} else {
-								_globalDescriptionSet.add(TermUtil.toNNF(subTerm, _termFactory));
-							}
+		if (isNeedRecalculate()) {
+			synchronized (this) {
+				if (isNeedRecalculate()) {
+					recalculate();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Absorption depends on the role hierarchy, so a changed RBox invalidates the compiled TBox, too.
+	 * An RBox in the middle of (or after a failed) recalculation has no snapshot and is ignored.
+	 */
+	private boolean isRBoxChanged()
+	{
+		final CompiledTBox<I, L, K, R> compiled = _compiled;
+		final CompiledRBox<I, L, K, R> compiledRBox = _rbox.getCompiled();
+		return (compiled != null) && (compiledRBox != null) && (compiled.getRBox() != compiledRBox);
+	}
+
+	private void recalculate()
+	{
+		final CompiledRBox<I, L, K, R> compiledRBox = _rbox.getCompiled();
+		_unfolding.clear();
+		_conditionalUnfolding.clear();
+		_roleDomainUnfolding.clear();
+		_globalDescriptionSet.clear();
+		/* the previous statistics object is part of the previous snapshot */
+		_absorptionStatistics = new AbsorptionStatistics();
+
+		/* first, we unfold any top level intersections recursively */
+		Set<IDLTerm<I, L, K, R>> termSet = TermUtil.unfoldIntersections(this, _termFactory);
+
+		Iterator<IDLTerm<I, L, K, R>> iter = termSet.iterator();
+
+		while (iter.hasNext()) {
+			IDLTerm<I, L, K, R> term = iter.next();
+			if (term instanceof IDLClassExpression) {
+				/* pick up descriptions only */
+				IDLClassExpression<I, L, K, R> desc = (IDLClassExpression<I, L, K, R>) term;
+				/* simplify description */
+				desc = TermUtil.simplify(desc, _termFactory);
+				if (desc instanceof IDLImplies) {
+					handleImplication(desc);
+				} else if (desc instanceof IDLObjectIntersection) {
+					/**
+					 * if the description is an intersection, look at it's parts and treat them individually.
+					 *
+					 */
+					IDLObjectIntersection<I, L, K, R> intersection = (IDLObjectIntersection<I, L, K, R>) desc;
+					for (IDLClassExpression<I, L, K, R> subTerm : intersection) {
+						if (subTerm instanceof IDLImplies) {
+							handleImplication(subTerm);
+						} else {
+							handleGlobalDescription(subTerm);
 						}
-					} else {
-						_globalDescriptionSet.add(TermUtil.toNNF(desc, _termFactory));
 					}
+				} else {
+					handleGlobalDescription(desc);
 				}
 			}
-			/* don't forget to add _Thing_ */
-			_globalDescriptionSet.add(_termFactory.getDLThing());
-			/* increment generation counter */
-			++_generation;
-			_needRecalculate = false;
 		}
+		/* don't forget to add _Thing_ */
+		_globalDescriptionSet.add(_termFactory.getDLThing());
+		/* increment generation counter */
+		++_generation;
+		_compiled = new CompiledTBox<>(_generation, _rbox, compiledRBox, _globalDescriptionSet, _unfolding,
+									   _conditionalUnfolding, _roleDomainUnfolding, _absorptionStatistics);
+		_needRecalculate = false;
 	}
 
 		private void handleImplication(IDLClassExpression<I, L, K, R> desc)
 	{
 		/**
 		 * if description is an implication AND the left hand side is a simple class or nominal reference, update the
-		 * map of unfoldings, otherwise add the description to the global term set.
+		 * map of unfoldings, otherwise try to absorb the axiom and add it to the global term set, if that fails.
 		 *
 		 */
 		@SuppressWarnings("unchecked")
 		IDLImplies<I, L, K, R> implies = (IDLImplies<I, L, K, R>) desc;
 		IDLClassExpression<I, L, K, R> subDesc = TermUtil.toNNF(implies.getSubDescription(), _termFactory);
+		IDLClassExpression<I, L, K, R> superDesc = TermUtil.toNNF(implies.getSuperDescription(), _termFactory);
+		absorb(subDesc, superDesc);
+	}
 
+	/**
+	 * Handle a global description that is not an implication. A disjunction containing a negated class name
+	 * {@literal (or (not A) C)} is equivalent to {@literal (implies A C)}, a disjunction containing {@literal (only r
+	 * _Nothing_)} is equivalent to {@literal (implies (some r _Thing_) C)}. Both are absorbed.
+	 */
+		private void handleGlobalDescription(final IDLClassExpression<I, L, K, R> desc)
+	{
+		final IDLClassExpression<I, L, K, R> nnfDesc = TermUtil.toNNF(desc, _termFactory);
+		final List<IDLClassExpression<I, L, K, R>> disjuncts = new ArrayList<>();
+		if (nnfDesc instanceof IDLObjectUnion) {
+			for (IDLClassExpression<I, L, K, R> disjunct : (IDLObjectUnion<I, L, K, R>) nnfDesc) {
+				disjuncts.add(disjunct);
+			}
+		} else {
+			disjuncts.add(nnfDesc);
+		}
+		for (int i = 0; i < disjuncts.size(); ++i) {
+			final IDLClassExpression<I, L, K, R> negDisjunct = TermUtil.toNNF(
+				_termFactory.getDLObjectNegation(disjuncts.get(i)), _termFactory);
+			if ((negDisjunct instanceof IDLClassReference) || isRoleDomainRestriction(negDisjunct)) {
+				final List<IDLClassExpression<I, L, K, R>> rest = new ArrayList<>(disjuncts);
+				rest.remove(i);
+				absorb(negDisjunct, disjoin(rest));
+				return;
+			}
+		}
+		_absorptionStatistics.incGlobal();
+		_globalDescriptionSet.add(nnfDesc);
+	}
+
+	/**
+	 * Absorb the axiom {@literal (implies subDesc superDesc)}. Both descriptions must be in NNF.
+	 * <ul>
+	 * <li>Named classes and nominals on the left hand side are unfolded lazily.</li>
+	 * <li>Intersections of named classes are turned into conditional unfoldings that fire only when all conjuncts are
+	 * present on a node (binary absorption).</li>
+	 * <li>Remaining complex conjuncts are moved to the right hand side, negated (concept absorption).</li>
+	 * <li>{@literal (some r _Thing_)} becomes a role domain unfolding, {@literal (some r C)} becomes
+	 * {@literal (implies C (only r- D))}, if an inverse role {@literal r-} is known (role absorption).</li>
+	 * <li>Unions on the left hand side are split into separate axioms.</li>
+	 * </ul>
+	 * Everything else ends up in the set of global descriptions.
+	 */
+		private void absorb(final IDLClassExpression<I, L, K, R> subDesc, final IDLClassExpression<I, L, K, R> superDesc)
+	{
 		if ((subDesc instanceof IDLClassReference) || (subDesc instanceof IDLIndividualReference)) {
-			if (!subDesc.equals(implies.getSuperDescription())) {
-				_unfolding.put(implies.getSubDescription(), TermUtil.toNNF(implies.getSuperDescription(),
-																		   _termFactory));
+			if (!subDesc.equals(superDesc)) {
+				_unfolding.put(subDesc, superDesc);
+			}
+			_absorptionStatistics.incUnfoldable();
+		} else if (subDesc instanceof IDLObjectUnion) {
+			for (IDLClassExpression<I, L, K, R> disjunct : (IDLObjectUnion<I, L, K, R>) subDesc) {
+				absorb(disjunct, superDesc);
+			}
+		} else if (subDesc instanceof IDLObjectIntersection) {
+			absorbIntersection((IDLObjectIntersection<I, L, K, R>) subDesc, superDesc);
+		} else if (!absorbRole(subDesc, superDesc)) {
+			addGlobalImplication(subDesc, superDesc);
+		}
+	}
+
+		private void absorbIntersection(final IDLObjectIntersection<I, L, K, R> subDesc,
+										final IDLClassExpression<I, L, K, R> superDesc)
+	{
+		final SortedSet<IDLClassExpression<I, L, K, R>> names = new TreeSet<>();
+		final List<IDLClassExpression<I, L, K, R>> others = new ArrayList<>();
+		for (IDLClassExpression<I, L, K, R> conjunct : subDesc) {
+			if ((conjunct instanceof IDLClassReference) || (conjunct instanceof IDLIndividualReference)) {
+				names.add(conjunct);
+			} else {
+				others.add(conjunct);
 			}
+		}
+
+		if (!names.isEmpty()) {
+			final IDLClassExpression<I, L, K, R> conclusion;
+			if (others.isEmpty()) {
+				conclusion = superDesc;
+			} else {
+				/* concept absorption: (implies (and A C) D) => (implies A (or (not C) D)) */
+				conclusion = disjoin(Arrays.asList(negate(conjoin(others)), superDesc));
+				_absorptionStatistics.incConcept();
+			}
+			if (names.size() == 1) {
+				_unfolding.put(names.first(), conclusion);
+				if (others.isEmpty()) {
+					_absorptionStatistics.incUnfoldable();
+				}
+			} else {
+				final IDLImplies<I, L, K, R> conditional = _termFactory.getDLImplies(conjoin(names), conclusion);
+				for (IDLClassExpression<I, L, K, R> name : names) {
+					_conditionalUnfolding.put(name, conditional);
+				}
+				if (others.isEmpty()) {
+					_absorptionStatistics.incConditional();
+				}
+			}
+		} else {
+			/* try to find a role restriction among the conjuncts */
+			for (int i = 0; i < others.size(); ++i) {
+				if (isAbsorbableRoleRestriction(others.get(i))) {
+					final List<IDLClassExpression<I, L, K, R>> rest = new ArrayList<>(others);
+					rest.remove(i);
+					absorbRole(others.get(i), disjoin(Arrays.asList(negate(conjoin(rest)), superDesc)));
+					return;
+				}
+			}
+			addGlobalImplication(subDesc, superDesc);
+		}
+	}
+
+	/**
+	 * Perform role absorption for {@literal (implies (some r C) superDesc)}.
+	 *
+	 * @return {@literal false}, if {@literal subDesc} could not be absorbed.
+	 */
+		private boolean absorbRole(final IDLClassExpression<I, L, K, R> subDesc, final IDLClassExpression<I, L, K, R> superDesc)
+	{
+		if (isRoleDomainRestriction(subDesc)) {
+			_roleDomainUnfolding.put(((IDLObjectSomeRestriction<I, L, K, R>) subDesc).getRole(), superDesc);
+			_absorptionStatistics.incRole();
+			return true;
+		} else if (isAbsorbableRoleRestriction(subDesc)) {
+			final IDLObjectSomeRestriction<I, L, K, R> someRes = (IDLObjectSomeRestriction<I, L, K, R>) subDesc;
+			final R inverseRole = _rbox.getInverseRoles(someRes.getRole()).iterator().next();
+			_absorptionStatistics.incRole();
+			absorb(someRes.getTerm(), _termFactory.getDLObjectAllRestriction(inverseRole, superDesc));
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+		private boolean isRoleDomainRestriction(final IDLClassExpression<I, L, K, R> desc)
+	{
+		return (desc instanceof IDLObjectSomeRestriction)
+			&& ((IDLObjectSomeRestriction<I, L, K, R>) desc).getTerm().equals(_termFactory.getDLThing());
+	}
+
+		private boolean isAbsorbableRoleRestriction(final IDLClassExpression<I, L, K, R> desc)
+	{
+		if (isRoleDomainRestriction(desc)) {
+			return true;
+		} else if (desc instanceof IDLObjectSomeRestriction) {
+			final R role = ((IDLObjectSomeRestriction<I, L, K, R>) desc).getRole();
+			return _rbox.hasRole(role) && (!_rbox.getInverseRoles(role).isEmpty());
+		} else {
+			return false;
+		}
+	}
+
+		private void addGlobalImplication(final IDLClassExpression<I, L, K, R> subDesc,
+										  final IDLClassExpression<I, L, K, R> superDesc)
+	{
+		_absorptionStatistics.incGlobal();
+		_globalDescriptionSet.add(TermUtil.toNNF(_termFactory.getDLImplies(subDesc, superDesc), _termFactory));
+	}
+
+		private IDLClassExpression<I, L, K, R> negate(final IDLClassExpression<I, L, K, R> desc)
+	{
+		return TermUtil.toNNF(_termFactory.getDLObjectNegation(desc), _termFactory);
+	}
+
+		private IDLClassExpression<I, L, K, R> conjoin(final Collection<? extends IDLClassExpression<I, L, K, R>> descs)
+	{
+		if (descs.isEmpty()) {
+			return _termFactory.getDLThing();
+		} else if (descs.size() == 1) {
+			return descs.iterator().next();
+		} else {
+			return _termFactory.getDLObjectIntersection(descs);
+		}
+	}
+
+		private IDLClassExpression<I, L, K, R> disjoin(final Collection<? extends IDLClassExpression<I, L, K, R>> descs)
+	{
+		if (descs.isEmpty()) {
+			return _termFactory.getDLNothing();
+		} else if (descs.size() == 1) {
+			return descs.iterator().next();
 		} else {
-			_globalDescriptionSet.add(TermUtil.toNNF(desc, _termFactory));
+			return TermUtil.simplify(_termFactory.getDLObjectUnion(descs), _termFactory);
 		}
 	}
 
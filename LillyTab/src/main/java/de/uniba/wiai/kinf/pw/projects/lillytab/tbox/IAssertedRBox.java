@@ -234,6 +234,15 @@ public interface IAssertedRBox<I extends Comparable<? super I>, L extends Compar
 	MultiMap<R, IDLNodeTerm<I, L, K, R>> getRoleRanges();
 
 
+	/**
+	 * The modification count changes on every modification of the RBox, including modifications of
+	 * {@link #getRoleDomains() } and {@link #getRoleRanges() }.
+	 *
+	 * @return The current modification count.
+	 */
+	int getModificationCount();
+
+
 	@Override
 	IAssertedRBox<I, L, K, R> getImmutable();
 //	@Override
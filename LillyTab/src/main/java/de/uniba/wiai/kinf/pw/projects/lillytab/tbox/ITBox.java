@@ -25,6 +25,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
 import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ITermSet;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
 import java.util.Collection;
 import java.util.Set;
 
@@ -86,6 +87,33 @@ public interface ITBox<I extends Comparable<? super I>, L extends Comparable<? s
 	 */
 	Collection<IDLClassExpression<I, L, K, R>> getUnfolding(IDLClassExpression<I, L, K, R> unfoldee);
 
+	/**
+	 * 
+	 * The set of conditional unfoldings triggered by the specified description. A conditional unfolding
+	 * {@literal (implies (and A B) C)} is returned for both {@literal A} and {@literal B}. The right hand side must
+	 * only be added to a node, if all conjuncts of the left hand side are present.
+	 *
+	 * @param trigger The description that was added to a node
+	 * @return The conditional unfoldings that have {@literal trigger} in their left hand side.
+	 */
+	Collection<IDLImplies<I, L, K, R>> getConditionalUnfoldings(IDLClassExpression<I, L, K, R> trigger);
+
+	/**
+	 * 
+	 * The descriptions that need to be added to every node that has an outgoing edge labeled with {@literal role}
+	 * (or one of its sub-roles). These originate from absorbed axioms of the form
+	 * {@literal (implies (some r _Thing_) C)}.
+	 *
+	 * @param role The role of the outgoing edge
+	 * @return The set of descriptions to add to the source node of {@literal role}.
+	 */
+	Collection<IDLClassExpression<I, L, K, R>> getRoleDomainUnfoldings(R role);
+
+	/**
+	 * @return {@literal true}, if at least one axiom was absorbed into a role domain unfolding.
+	 */
+	boolean hasRoleDomainUnfoldings();
+
 	String toString(String prefix);
 
 	ITBox<I, L, K, R> clone();
@@ -111,4 +111,24 @@ public interface IDLTermFactory<I extends Comparable<? super I>, L extends Compa
 	IDLDataSomeRestriction<I, L, K, R> getDLDataSomeRestriction(R role, IDLDataRange<I, L, K, R> d);
 
 	IDLDataAllRestriction<I, L, K, R> getDLDataAllRestriction(R role, IDLDataRange<I, L, K, R> d);
+
+	/**
+	 * Get the dense integer ID of {@literal term}.
+	 * <p />
+	 * Equal terms always receive the same ID and IDs are never reused by the same factory.
+	 * IDs are handed out in ascending order starting from zero, so they are suitable as bit indices.
+	 *
+	 * @param term The term to number.
+	 * @return The ID of {@literal term}.
+	 */
+	int getTermID(final IDLTerm<I, L, K, R> term);
+
+	/**
+	 * Get the term with the specified ID.
+	 *
+	 * @param termID A term ID as returned by {@link #getTermID(de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm) }.
+	 * @return The term with ID {@literal termID}.
+	 * @throws IllegalArgumentException No term with the specified ID has been numbered by this factory.
+	 */
+	IDLTerm<I, L, K, R> getTerm(final int termID);
 }
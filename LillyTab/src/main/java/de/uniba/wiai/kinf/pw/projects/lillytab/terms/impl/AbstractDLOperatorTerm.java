@@ -23,8 +23,10 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl;
 
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IOperatorTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.visitor.IDLTermVisitor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 /**
@@ -46,6 +48,10 @@ public abstract class AbstractDLOperatorTerm<I extends Comparable<? super I>, L
 {
 	private final String _operatorName;
 	private final DLTermOrder _dlTermOrder;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<AbstractDLOperatorTerm, TermMemo> _memoUpdater = AtomicReferenceFieldUpdater.
+		newUpdater(AbstractDLOperatorTerm.class, TermMemo.class, "_memo");
+	private transient volatile TermMemo<I, L, K, R> _memo;
 	
 	protected AbstractDLOperatorTerm(final DLTermOrder termOrder, final String operatorName, final int size)
 	{
@@ -53,6 +59,15 @@ public abstract class AbstractDLOperatorTerm<I extends Comparable<? super I>, L
 		_operatorName = operatorName;
 		_dlTermOrder = termOrder;
 	}
+
+	/**
+	 * @param termFactory The term factory to bind a newly created memo to.
+	 * @return The memo of transformation results for this term, created on first access.
+	 */
+	TermMemo<I, L, K, R> getMemo(final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		return TermMemo.attach(this, _memoUpdater, termFactory);
+	}
 	
 	@Override
 	public String getOperatorName()
@@ -89,6 +89,19 @@ public abstract class AbstractDLRoleRestriction<I extends Comparable<? super I>,
 		return hCode;
 	}
 
+	/**
+	 * Compute the hash code of a role restriction without creating it.
+	 *
+	 * @param operatorName The operator name of the restriction.
+	 * @param role The restricted role.
+	 * @param term The restriction's filler.
+	 * @return The hash code of the role restriction.
+	 */
+	static int componentHashCode(final String operatorName, final Object role, final IDLTerm<?, ?, ?, ?> term)
+	{
+		return componentHashCode(operatorName, term) + role.hashCode();
+	}
+
 	@Override
 	public boolean equals(final Object obj)
 	{
@@ -51,4 +51,19 @@ public abstract class AbstractDLUnaryOperator<I extends Comparable<? super I>, L
 	{
 		return get(0);
 	}
+
+	/**
+	 * Compute the hash code of a unary operator term without creating it.
+	 * Must be kept in sync with {@link AbstractDLOperatorTerm#hashCode() } and
+	 * {@link AbstractFixedTermList#hashCode() }.
+	 *
+	 * @param operatorName The operator name of the term.
+	 * @param term The operand.
+	 * @return The hash code an operator term named {@literal operatorName} with the single operand
+	 * {@literal term} has.
+	 */
+	static int componentHashCode(final String operatorName, final IDLTerm<?, ?, ?, ?> term)
+	{
+		return operatorName.hashCode() + 31 + term.hashCode();
+	}
 }
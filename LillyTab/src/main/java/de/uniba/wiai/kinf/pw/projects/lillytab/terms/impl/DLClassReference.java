@@ -25,7 +25,9 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLDummyTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.visitor.IDLTermVisitor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 /**
@@ -41,12 +43,25 @@ public class DLClassReference<I extends Comparable<? super I>, L extends Compara
 	implements IDLClassReference<I, L, K, R>
 {
 	private final K _klass;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<DLClassReference, TermMemo> _memoUpdater = AtomicReferenceFieldUpdater.
+		newUpdater(DLClassReference.class, TermMemo.class, "_memo");
+	private transient volatile TermMemo<I, L, K, R> _memo;
 
 	public DLClassReference(final K klass)
 	{
 		_klass = klass;
 	}
 
+	/**
+	 * @param termFactory The term factory to bind a newly created memo to.
+	 * @return The memo of transformation results for this term, created on first access.
+	 */
+	TermMemo<I, L, K, R> getMemo(final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		return TermMemo.attach(this, _memoUpdater, termFactory);
+	}
+
 	@Override
 	public K getElement()
 	{
@@ -25,7 +25,9 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLDummyTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLIndividualReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.visitor.IDLTermVisitor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 /**
@@ -41,11 +43,24 @@ public class DLIndividualReference<I extends Comparable<? super I>, L extends Co
 	implements IDLIndividualReference<I, L, K, R>
 {
 	private final I _individual;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<DLIndividualReference, TermMemo> _memoUpdater = AtomicReferenceFieldUpdater.
+		newUpdater(DLIndividualReference.class, TermMemo.class, "_memo");
+	private transient volatile TermMemo<I, L, K, R> _memo;
 	
 	protected DLIndividualReference(final I individual)
 	{
 		_individual = individual;
 	}
+
+	/**
+	 * @param termFactory The term factory to bind a newly created memo to.
+	 * @return The memo of transformation results for this term, created on first access.
+	 */
+	TermMemo<I, L, K, R> getMemo(final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		return TermMemo.attach(this, _memoUpdater, termFactory);
+	}
 	
 	@Override
 	public I getIndividual()
@@ -40,10 +40,14 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataNegation;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataRange;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataUnion;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDatatype;
+import de.uniba.wiai.kinf.pw.projects.lillytab.util.InternTable;
 import de.uniba.wiai.kinf.pw.projects.lillytab.util.SoftItemCache;
-import java.lang.ref.WeakReference;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -51,8 +55,15 @@ import java.util.WeakHashMap;
  * <p />
  * The implementation stores information about existing term instances. If an instance for a term is requested, the
  * stored term is returned instead of a new object instance.
- * <p /> {@link WeakHashMap} and {@link WeakReference} are used to make sure, stored terms can be cleared up by the
- * garbage collector if they are not referenced elsewhere.
+ * <p /> Terms are stored in an {@link InternTable}, which only holds {@link SoftReference}s, so stored terms can be
+ * cleared up by the garbage collector if they are not referenced elsewhere. The table may be used concurrently
+ * from multiple reasoning threads.
+ * <p />
+ * Frequently requested terms (names, negations and role restrictions) are looked up by their components, so that
+ * no temporary term object is created, if the term already exists.
+ * <p />
+ * Terms that have been assigned an ID via {@link #getTermID(de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm) }
+ * are retained by the factory, so that the ID of a term stays stable for as long as the factory exists.
  *
  *
  * @param <I> The type for individuals/nominals
@@ -69,6 +80,12 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	private final IDLClassReference<I, L, K, R> _thing;
 	private final IDLClassReference<I, L, K, R> _nothing;
 	private final IDLDatatype<I, L, K, R> _topDatatype;
+	private final ConcurrentMap<IDLTerm<I, L, K, R>, Integer> _termIDs = new ConcurrentHashMap<>();
+	private final AtomicInteger _nextTermID = new AtomicInteger(0);
+	/**
+	 * Reverse lookup table for {@link #_termIDs}, indexed by term ID. Only grown while holding the table's lock.
+	 */
+	private volatile IDLTerm<?, ?, ?, ?>[] _termsByID = new IDLTerm<?, ?, ?, ?>[64];
 
 
 	public DLTermFactory(final K thing, final K nothing)
@@ -82,17 +99,26 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	@Override
 	public IDLClassReference<I, L, K, R> getDLClassReference(final K klass)
 	{
-		IDLClassReference<I, L, K, R> klassRef = new DLClassReference<>(klass);
-
-		return updateCache(klassRef);
+		return updateCache(klass.hashCode(),
+						   (t) -> (t instanceof DLClassReference) && klass.equals(((DLClassReference<?, ?, ?, ?>) t).getElement()),
+						   () -> new DLClassReference<>(klass));
 	}
 
 
 	@Override
 	public IDLObjectNegation<I, L, K, R> getDLObjectNegation(final IDLClassExpression<I, L, K, R> d)
 	{
-		final IDLObjectNegation<I, L, K, R> neg = new DLObjectNegation<>(d);
-		return updateCache(neg);
+		final TermMemo<I, L, K, R> memo = TermMemo.of(d, this);
+		IDLObjectNegation<I, L, K, R> neg = (memo != null) ? memo.getNegation() : null;
+		if (neg == null) {
+			neg = updateCache(AbstractDLUnaryOperator.componentHashCode(DLObjectNegation.OPERATOR_NAME, d),
+							  (t) -> matchesUnary(t, DLObjectNegation.class, d),
+							  () -> new DLObjectNegation<>(d));
+			if (memo != null) {
+				memo.setNegation(neg);
+			}
+		}
+		return neg;
 	}
 
 
@@ -135,8 +161,9 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	public IDLDataAllRestriction<I, L, K, R> getDLDataAllRestriction(R role,
 																	 IDLDataRange<I, L, K, R> d)
 	{
-		final IDLDataAllRestriction<I, L, K, R> allRes = new DLDataAllRestriction<>(role, d);
-		return updateCache(allRes);
+		return updateCache(AbstractDLRoleRestriction.componentHashCode(DLDataAllRestriction.OPERATOR_NAME, role, d),
+						   (t) -> matchesRestriction(t, DLDataAllRestriction.class, role, d),
+						   () -> new DLDataAllRestriction<>(role, d));
 	}
 
 
@@ -144,8 +171,9 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	public IDLDataSomeRestriction<I, L, K, R> getDLDataSomeRestriction(R role,
 																	   IDLDataRange<I, L, K, R> d)
 	{
-		final IDLDataSomeRestriction<I, L, K, R> someRes = new DLDataSomeRestriction<>(role, d);
-		return updateCache(someRes);
+		return updateCache(AbstractDLRoleRestriction.componentHashCode(DLDataSomeRestriction.OPERATOR_NAME, role, d),
+						   (t) -> matchesRestriction(t, DLDataSomeRestriction.class, role, d),
+						   () -> new DLDataSomeRestriction<>(role, d));
 	}
 
 
@@ -153,8 +181,9 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	public IDLObjectAllRestriction<I, L, K, R> getDLObjectAllRestriction(R role,
 																		 IDLClassExpression<I, L, K, R> d)
 	{
-		final IDLObjectAllRestriction<I, L, K, R> allRes = new DLObjectAllRestriction<>(role, d);
-		return updateCache(allRes);
+		return updateCache(AbstractDLRoleRestriction.componentHashCode(DLObjectAllRestriction.OPERATOR_NAME, role, d),
+						   (t) -> matchesRestriction(t, DLObjectAllRestriction.class, role, d),
+						   () -> new DLObjectAllRestriction<>(role, d));
 	}
 
 
@@ -162,8 +191,9 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	public IDLObjectSomeRestriction<I, L, K, R> getDLObjectSomeRestriction(R role,
 																		   IDLClassExpression<I, L, K, R> d)
 	{
-		final IDLObjectSomeRestriction<I, L, K, R> someRes = new DLObjectSomeRestriction<>(role, d);
-		return updateCache(someRes);
+		return updateCache(AbstractDLRoleRestriction.componentHashCode(DLObjectSomeRestriction.OPERATOR_NAME, role, d),
+						   (t) -> matchesRestriction(t, DLObjectSomeRestriction.class, role, d),
+						   () -> new DLObjectSomeRestriction<>(role, d));
 	}
 
 
@@ -193,16 +223,20 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	@Override
 	public IDLIndividualReference<I, L, K, R> getDLIndividualReference(final I individual)
 	{
-		final IDLIndividualReference<I, L, K, R> nominalRef = new DLIndividualReference<>(individual);
-		return updateCache(nominalRef);
+		return updateCache(individual.hashCode(),
+						   (t) -> (t instanceof DLIndividualReference)
+						   && individual.equals(((DLIndividualReference<?, ?, ?, ?>) t).getIndividual()),
+						   () -> new DLIndividualReference<>(individual));
 	}
 
 
 	@Override
 	public IDLLiteralReference<I, L, K, R> getDLLiteralReference(L literal)
 	{
-		final IDLLiteralReference<I, L, K, R> litRef = new DLLiteralReference<>(literal);
-		return updateCache(litRef);
+		return updateCache(literal.hashCode(),
+						   (t) -> (t instanceof DLLiteralReference)
+						   && literal.equals(((DLLiteralReference<?, ?, ?, ?>) t).getLiteral()),
+						   () -> new DLLiteralReference<>(literal));
 	}
 
 
@@ -258,4 +292,69 @@ public class DLTermFactory<I extends Comparable<? super I>, L extends Comparable
 	{
 		return _topDatatype;
 	}
+
+
+	@Override
+	public int getTermID(final IDLTerm<I, L, K, R> term)
+	{
+		final Integer id = _termIDs.get(term);
+		if (id != null) {
+			return id;
+		} else {
+			return _termIDs.computeIfAbsent(term, this::registerTerm);
+		}
+	}
+
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public IDLTerm<I, L, K, R> getTerm(final int termID)
+	{
+		final IDLTerm<?, ?, ?, ?>[] termsByID = _termsByID;
+		if ((termID < 0) || (termID >= termsByID.length) || (termsByID[termID] == null)) {
+			throw new IllegalArgumentException("Unknown term ID: " + termID);
+		}
+		return (IDLTerm<I, L, K, R>) termsByID[termID];
+	}
+
+
+	/**
+	 * Assign the next free ID to {@literal term} and record it in the reverse lookup table.
+	 * <p />
+	 * Called by {@link ConcurrentMap#computeIfAbsent(java.lang.Object, java.util.function.Function) }, so the
+	 * table entry is visible to everyone who obtains the ID from {@link #_termIDs}.
+	 */
+	private Integer registerTerm(final IDLTerm<I, L, K, R> term)
+	{
+		final int termID = _nextTermID.getAndIncrement();
+		synchronized (_termIDs) {
+			IDLTerm<?, ?, ?, ?>[] termsByID = _termsByID;
+			if (termID >= termsByID.length) {
+				termsByID = Arrays.copyOf(termsByID, Math.max(termsByID.length * 2, termID + 1));
+			}
+			termsByID[termID] = term;
+			_termsByID = termsByID;
+		}
+		return termID;
+	}
+
+
+	private static boolean matchesUnary(final IDLTerm<?, ?, ?, ?> candidate, final Class<?> type,
+										final IDLTerm<?, ?, ?, ?> term)
+	{
+		return type.isInstance(candidate)
+			&& term.equals(((AbstractDLUnaryOperator<?, ?, ?, ?, ?>) candidate).getTerm());
+	}
+
+
+	private static boolean matchesRestriction(final IDLTerm<?, ?, ?, ?> candidate, final Class<?> type,
+											  final Object role, final IDLTerm<?, ?, ?, ?> term)
+	{
+		if (type.isInstance(candidate)) {
+			final AbstractDLRoleRestriction<?, ?, ?, ?, ?> restriction = (AbstractDLRoleRestriction<?, ?, ?, ?, ?>) candidate;
+			return role.equals(restriction.getRole()) && term.equals(restriction.getTerm());
+		} else {
+			return false;
+		}
+	}
 }
@@ -0,0 +1,161 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+
+/**
+ * <p>
+ * Memoized transformation results attached to a single term instance.
+ * </p><p>
+ * Terms are immutable and (when created through a {@link DLTermFactory}) interned, so the result of transforming a
+ * term never changes. The memo slots are filled on first use. Concurrent fills may race, but always store
+ * equal results, so no locking is necessary.
+ * </p><p>
+ * The results are terms created by a particular {@link IDLTermFactory}. A memo is bound to the factory that first
+ * requested it and is not used for transformations with a different factory, so that the results always come from
+ * the requesting factory's intern table.
+ * </p>
+ *
+ * @param <I> The type for individuals/nominals
+ * @param <L> The type for literals
+ * @param <K> The type for DL classes
+ * @param <R> The type for properties (roles)
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public final class TermMemo<I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> {
+
+	private volatile IDLClassExpression<I, L, K, R> _nnf;
+	private volatile IDLClassExpression<I, L, K, R> _simplified;
+	private volatile IDLObjectNegation<I, L, K, R> _negation;
+	private final IDLTermFactory<I, L, K, R> _termFactory;
+
+	TermMemo(final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		_termFactory = termFactory;
+	}
+
+	/**
+	 * Retrieve the memo stored in a term's memo field, creating and storing a new one, if the field is still empty.
+	 *
+	 * @param <T> The type of the term
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param term The term
+	 * @param memoUpdater The updater for the term's memo field.
+	 * @param termFactory The term factory to bind a newly created memo to.
+	 * @return The memo of {@literal term}.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	static <T, I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> TermMemo<I, L, K, R> attach(
+		final T term, final AtomicReferenceFieldUpdater<T, TermMemo> memoUpdater,
+		final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		TermMemo<I, L, K, R> memo = memoUpdater.get(term);
+		if (memo == null) {
+			memo = new TermMemo<>(termFactory);
+			if (!memoUpdater.compareAndSet(term, null, memo)) {
+				memo = memoUpdater.get(term);
+			}
+		}
+		return memo;
+	}
+
+	/**
+	 * Retrieve the memo of {@literal term}.
+	 *
+	 * @param <I> The type for individuals/nominals
+	 * @param <L> The type for literals
+	 * @param <K> The type for DL classes
+	 * @param <R> The type for properties (roles)
+	 * @param term A term
+	 * @param termFactory The term factory the transformation results are created with.
+	 * @return The memo attached to {@literal term} or {@literal null}, if {@literal term} is not a term
+	 * implementation that supports memoization or its memo belongs to a different term factory.
+	 */
+	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> TermMemo<I, L, K, R> of(
+		final IDLTerm<I, L, K, R> term, final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		final TermMemo<I, L, K, R> memo;
+		if (term instanceof AbstractDLOperatorTerm) {
+			memo = ((AbstractDLOperatorTerm<I, L, K, R, ?>) term).getMemo(termFactory);
+		} else if (term instanceof DLClassReference) {
+			memo = ((DLClassReference<I, L, K, R>) term).getMemo(termFactory);
+		} else if (term instanceof DLIndividualReference) {
+			memo = ((DLIndividualReference<I, L, K, R>) term).getMemo(termFactory);
+		} else {
+			memo = null;
+		}
+		if ((memo != null) && (memo._termFactory == termFactory)) {
+			return memo;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The negation normal form of the term or {@literal null}, if not yet known.
+	 */
+	public IDLClassExpression<I, L, K, R> getNNF()
+	{
+		return _nnf;
+	}
+
+	public void setNNF(final IDLClassExpression<I, L, K, R> nnf)
+	{
+		_nnf = nnf;
+	}
+
+	/**
+	 * @return The simplified form of the term or {@literal null}, if not yet known.
+	 */
+	public IDLClassExpression<I, L, K, R> getSimplified()
+	{
+		return _simplified;
+	}
+
+	public void setSimplified(final IDLClassExpression<I, L, K, R> simplified)
+	{
+		_simplified = simplified;
+	}
+
+	/**
+	 * @return The (syntactic) negation of the term or {@literal null}, if not yet known.
+	 */
+	public IDLObjectNegation<I, L, K, R> getNegation()
+	{
+		return _negation;
+	}
+
+	public void setNegation(final IDLObjectNegation<I, L, K, R> negation)
+	{
+		_negation = negation;
+	}
+}
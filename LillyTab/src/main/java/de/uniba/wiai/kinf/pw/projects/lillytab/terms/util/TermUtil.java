@@ -41,6 +41,7 @@ import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataIntersecti
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataNegation;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataRange;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataUnion;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl.TermMemo;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -142,6 +143,24 @@ public class TermUtil {
 	 */
 	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> IDLClassExpression<I, L, K, R> simplify(
 		final IDLClassExpression<I, L, K, R> desc, final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		/* results are memoized on the term instance, as the same (interned) terms are transformed repeatedly */
+		final TermMemo<I, L, K, R> memo = TermMemo.of(desc, termFactory);
+		if (memo == null) {
+			return computeSimplified(desc, termFactory);
+		} else {
+			IDLClassExpression<I, L, K, R> simplified = memo.getSimplified();
+			if (simplified == null) {
+				simplified = computeSimplified(desc, termFactory);
+				memo.setSimplified(simplified);
+			}
+			return simplified;
+		}
+	}
+
+
+	private static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> IDLClassExpression<I, L, K, R> computeSimplified(
+		final IDLClassExpression<I, L, K, R> desc, final IDLTermFactory<I, L, K, R> termFactory)
 	{
 		if (desc instanceof IDLImplies) {
 			final IDLImplies<I, L, K, R> implies = (IDLImplies<I, L, K, R>) desc;
@@ -439,6 +458,24 @@ public class TermUtil {
 	 */
 	public static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> IDLClassExpression<I, L, K, R> toNNF(
 		IDLClassExpression<I, L, K, R> desc, final IDLTermFactory<I, L, K, R> termFactory)
+	{
+		/* results are memoized on the term instance, as the same (interned) terms are transformed repeatedly */
+		final TermMemo<I, L, K, R> memo = TermMemo.of(desc, termFactory);
+		if (memo == null) {
+			return computeNNF(desc, termFactory);
+		} else {
+			IDLClassExpression<I, L, K, R> nnf = memo.getNNF();
+			if (nnf == null) {
+				nnf = computeNNF(desc, termFactory);
+				memo.setNNF(nnf);
+			}
+			return nnf;
+		}
+	}
+
+
+	private static <I extends Comparable<? super I>, L extends Comparable<? super L>, K extends Comparable<? super K>, R extends Comparable<? super R>> IDLClassExpression<I, L, K, R> computeNNF(
+		IDLClassExpression<I, L, K, R> desc, final IDLTermFactory<I, L, K, R> termFactory)
 	{
 		final IDLClassExpression<I, L, K, R> simpDesc = simplify(desc, termFactory);
 
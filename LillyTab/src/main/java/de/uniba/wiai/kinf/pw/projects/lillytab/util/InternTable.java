@@ -0,0 +1,257 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A concurrent table of softly referenced, canonical item instances.
+ * </p><p>
+ * Items are only retained through {@link SoftReference}s, so unused canonical instances may be reclaimed by the
+ * garbage collector when memory runs low. Cleared entries are purged lazily on the next insert into the same
+ * segment.
+ * </p><p>
+ * Lookups never lock. The table is split into segments, each with its own bucket array. Bucket chains are
+ * immutable and a segment's bucket array is replaced as a whole on resize, so readers always see a consistent
+ * chain. Inserts lock only the affected segment.
+ * </p><p>
+ * Besides interning a ready-made item via {@link #intern(java.lang.Object) }, callers may look up an item by its
+ * components: {@link #intern(int, java.util.function.Predicate, java.util.function.Supplier) } takes the hash code
+ * the item would have, a matcher that compares a candidate against the components and a supplier that is only
+ * invoked if no matching item exists. The provided hash code must be equal to the {@link Object#hashCode() } of
+ * the supplied item and the matcher must agree with its {@link Object#equals(java.lang.Object) }.
+ * </p>
+ *
+ * @param <T> The type of table items
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class InternTable<T> {
+
+	private static final int SEGMENT_SHIFT = 28;
+	private static final int SEGMENT_COUNT = 1 << (32 - SEGMENT_SHIFT);
+	private static final int INITIAL_SEGMENT_CAPACITY = 16;
+	private final Segment<T>[] _segments;
+
+	@SuppressWarnings("unchecked")
+	public InternTable()
+	{
+		_segments = new Segment[SEGMENT_COUNT];
+		for (int i = 0; i < SEGMENT_COUNT; ++i) {
+			_segments[i] = new Segment<>();
+		}
+	}
+
+	/**
+	 * Find an existing item without modifying the table.
+	 *
+	 * @param hash The hash code of the item.
+	 * @param matcher Decides, if a candidate item is the requested one.
+	 * @return The matching item or {@literal null}, if no such item is stored in the table.
+	 */
+	public T find(final int hash, final Predicate<? super T> matcher)
+	{
+		final int h = spread(hash);
+		return segmentFor(h).find(h, matcher);
+	}
+
+	/**
+	 * Return the canonical instance of the item described by {@literal hash} and {@literal matcher}. A new item
+	 * is obtained from {@literal factory} and stored only if the table contains no matching item.
+	 *
+	 * @param <TT> The type of the returned item.
+	 * @param hash The hash code of the item.
+	 * @param matcher Decides, if a candidate item is the requested one.
+	 * @param factory Creates the item, if it is not yet in the table.
+	 * @return The canonical item, never {@literal null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public <TT extends T> TT intern(final int hash, final Predicate<? super T> matcher,
+									final Supplier<? extends TT> factory)
+	{
+		final int h = spread(hash);
+		final Segment<T> segment = segmentFor(h);
+		final T found = segment.find(h, matcher);
+		if (found != null) {
+			return (TT) found;
+		} else {
+			return segment.intern(h, matcher, factory);
+		}
+	}
+
+	/**
+	 * Return the canonical instance of {@literal item}. If no equal item is stored in the table, {@literal item}
+	 * itself becomes the canonical instance.
+	 *
+	 * @param <TT> The type of the item.
+	 * @param item The item to look up (or store).
+	 * @return The canonical version of {@literal item} (which may be {@literal item}).
+	 */
+	public <TT extends T> TT intern(final TT item)
+	{
+		return intern(item.hashCode(), item::equals, () -> item);
+	}
+
+	/**
+	 * @return The approximate number of entries in the table, including entries that have been cleared by the
+	 * garbage collector, but not yet purged.
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (Segment<T> segment : _segments) {
+			size += segment._count;
+		}
+		return size;
+	}
+
+	private Segment<T> segmentFor(final int h)
+	{
+		return _segments[h >>> SEGMENT_SHIFT];
+	}
+
+	private static int spread(final int hash)
+	{
+		final int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static final class Entry<T>
+		extends SoftReference<T> {
+
+		private final int _hash;
+		private final Entry<T> _next;
+
+		Entry(final T item, final int hash, final Entry<T> next, final ReferenceQueue<? super T> queue)
+		{
+			super(item, queue);
+			_hash = hash;
+			_next = next;
+		}
+	}
+
+	private static final class Segment<T> {
+
+		private final ReferenceQueue<T> _queue = new ReferenceQueue<>();
+		private volatile AtomicReferenceArray<Entry<T>> _table = new AtomicReferenceArray<>(INITIAL_SEGMENT_CAPACITY);
+		private volatile int _count = 0;
+
+		T find(final int h, final Predicate<? super T> matcher)
+		{
+			final AtomicReferenceArray<Entry<T>> table = _table;
+			for (Entry<T> entry = table.get(h & (table.length() - 1)); entry != null; entry = entry._next) {
+				if (entry._hash == h) {
+					final T item = entry.get();
+					if ((item != null) && matcher.test(item)) {
+						return item;
+					}
+				}
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized <TT extends T> TT intern(final int h, final Predicate<? super T> matcher,
+											  final Supplier<? extends TT> factory)
+		{
+			purge();
+			/* recheck, the item may have been added while waiting for the lock */
+			final T found = find(h, matcher);
+			if (found != null) {
+				return (TT) found;
+			}
+
+			final TT item = factory.get();
+			if (_count + 1 > (_table.length() >> 2) * 3) {
+				resize();
+			}
+			final AtomicReferenceArray<Entry<T>> table = _table;
+			final int index = h & (table.length() - 1);
+			table.set(index, new Entry<>(item, h, table.get(index), _queue));
+			++_count;
+			return item;
+		}
+
+		/**
+		 * Remove entries cleared by the garbage collector. Must be called with the segment lock held.
+		 */
+		@SuppressWarnings("unchecked")
+		private void purge()
+		{
+			Reference<? extends T> ref;
+			while ((ref = _queue.poll()) != null) {
+				remove((Entry<T>) ref);
+			}
+		}
+
+		private void remove(final Entry<T> dead)
+		{
+			final AtomicReferenceArray<Entry<T>> table = _table;
+			final int index = dead._hash & (table.length() - 1);
+			final Entry<T> head = table.get(index);
+			Entry<T> entry = head;
+			while ((entry != null) && (entry != dead)) {
+				entry = entry._next;
+			}
+			if (entry != null) {
+				/* chains are immutable, copy the live entries in front of the dead one */
+				Entry<T> newHead = dead._next;
+				int removed = 1;
+				for (Entry<T> prefix = head; prefix != dead; prefix = prefix._next) {
+					final T item = prefix.get();
+					if (item != null) {
+						newHead = new Entry<>(item, prefix._hash, newHead, _queue);
+					} else {
+						++removed;
+					}
+				}
+				table.set(index, newHead);
+				_count -= removed;
+			}
+		}
+
+		private void resize()
+		{
+			final AtomicReferenceArray<Entry<T>> oldTable = _table;
+			final AtomicReferenceArray<Entry<T>> newTable = new AtomicReferenceArray<>(oldTable.length() << 1);
+			final int mask = newTable.length() - 1;
+			int count = 0;
+			for (int i = 0; i < oldTable.length(); ++i) {
+				for (Entry<T> entry = oldTable.get(i); entry != null; entry = entry._next) {
+					final T item = entry.get();
+					if (item != null) {
+						final int index = entry._hash & mask;
+						newTable.set(index, new Entry<>(item, entry._hash, newTable.get(index), _queue));
+						++count;
+					}
+				}
+			}
+			_count = count;
+			_table = newTable;
+		}
+	}
+}
@@ -62,7 +62,7 @@ public class LinearSequenceNumberGenerator
 
 
 	@Override
-	public Integer next()
+	public synchronized Integer next()
 	{
 		return (_currentValue++);
 	}
@@ -76,7 +76,7 @@ public class LinearSequenceNumberGenerator
 
 
 	@Override
-	public LinearSequenceNumberGenerator clone()
+	public synchronized LinearSequenceNumberGenerator clone()
 	{
 		LinearSequenceNumberGenerator klone = new LinearSequenceNumberGenerator(_currentValue);
 		return klone;
@@ -0,0 +1,191 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A map from primitive {@literal long} keys to (non-{@literal null}) values.
+ * </p><p>
+ * Keys are stored in an open addressing hash table with linear probing, just like in {@link LongSetMultiMap}.
+ * The map does not support removal of single keys. {@link #clone() } only copies the hash table, the values are
+ * shared between the copies and thus should be immutable.
+ * </p><p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @param <V> The value type
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class LongObjectMap<V>
+	implements Cloneable {
+
+	private static final int MIN_CAPACITY = 16;
+	private long[] _keys;
+	/**
+	 * The values. {@literal null} marks an empty slot.
+	 */
+	private Object[] _values;
+	private int _size = 0;
+
+	public LongObjectMap()
+	{
+		_keys = new long[MIN_CAPACITY];
+		_values = new Object[MIN_CAPACITY];
+	}
+
+	/**
+	 * Associate {@literal value} with {@literal key}.
+	 *
+	 * @param key The key.
+	 * @param value The new value, not {@literal null}.
+	 * @return The previous value of {@literal key} or {@literal null}, if the key was not present.
+	 */
+	public V put(final long key, final V value)
+	{
+		if (value == null) {
+			throw new IllegalArgumentException("LongObjectMap does not support null values");
+		}
+		int slot = findSlot(key);
+		if (_values[slot] == null) {
+			if (2 * (_size + 1) > _keys.length) {
+				resize(_keys.length << 1);
+				slot = findSlot(key);
+			}
+			_keys[slot] = key;
+			++_size;
+		}
+		@SuppressWarnings("unchecked")
+		final V oldValue = (V) _values[slot];
+		_values[slot] = value;
+		return oldValue;
+	}
+
+	/**
+	 * @param key The key.
+	 * @return The value of {@literal key} or {@literal null}, if the key is not present.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(final long key)
+	{
+		return (V) _values[findSlot(key)];
+	}
+
+	public boolean containsKey(final long key)
+	{
+		return _values[findSlot(key)] != null;
+	}
+
+	public int size()
+	{
+		return _size;
+	}
+
+	public boolean isEmpty()
+	{
+		return _size == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(_values, null);
+		_size = 0;
+	}
+
+	/**
+	 * Create a copy of this map. Values are shared between the copies.
+	 *
+	 * @return A copy of this map.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public LongObjectMap<V> clone()
+	{
+		try {
+			final LongObjectMap<V> klone = (LongObjectMap<V>) super.clone();
+			klone._keys = _keys.clone();
+			klone._values = _values.clone();
+			return klone;
+		} catch (CloneNotSupportedException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		boolean isFirst = true;
+		for (int slot = 0; slot < _keys.length; ++slot) {
+			if (_values[slot] != null) {
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append(_keys[slot]);
+				sb.append("=");
+				sb.append(_values[slot]);
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private int home(final long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= (h >>> 32);
+		return (int) h & (_keys.length - 1);
+	}
+
+	/**
+	 * @return The slot containing {@literal key} or the empty slot, where it would be inserted.
+	 */
+	private int findSlot(final long key)
+	{
+		final int mask = _keys.length - 1;
+		int slot = home(key);
+		while ((_values[slot] != null) && (_keys[slot] != key)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void resize(final int capacity)
+	{
+		final long[] oldKeys = _keys;
+		final Object[] oldValues = _values;
+		_keys = new long[capacity];
+		_values = new Object[capacity];
+		for (int slot = 0; slot < oldKeys.length; ++slot) {
+			if (oldValues[slot] != null) {
+				final int newSlot = findSlot(oldKeys[slot]);
+				_keys[newSlot] = oldKeys[slot];
+				_values[newSlot] = oldValues[slot];
+			}
+		}
+	}
+}
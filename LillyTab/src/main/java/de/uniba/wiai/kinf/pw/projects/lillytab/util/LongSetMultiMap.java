@@ -0,0 +1,408 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A multi map from primitive {@literal long} keys to sets of {@literal long} values.
+ * </p><p>
+ * Keys are stored in an open addressing hash table with linear probing. The values of each key are kept as a sorted
+ * array, which is never modified in place: every change to the values of a key installs a new array. Arrays
+ * returned by {@link #get(long) } thus are stable snapshots and may be shared freely, and {@link #clone() } only has
+ * to copy the hash table itself.
+ * </p><p>
+ * The value sets are expected to be small. Adding and removing a value takes time linear in the number of values
+ * of the affected key.
+ * </p><p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class LongSetMultiMap
+	implements Cloneable {
+
+	/**
+	 * The (shared) empty value array.
+	 */
+	public static final long[] EMPTY = new long[0];
+	private static final int MIN_CAPACITY = 16;
+	private long[] _keys;
+	/**
+	 * The sorted value arrays. {@literal null} marks an empty slot.
+	 */
+	private long[][] _values;
+	private int _keyCount = 0;
+	private int _size = 0;
+
+	public LongSetMultiMap()
+	{
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expectedKeys The number of keys the map should hold without resizing.
+	 */
+	public LongSetMultiMap(final int expectedKeys)
+	{
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2 * expectedKeys) {
+			capacity <<= 1;
+		}
+		_keys = new long[capacity];
+		_values = new long[capacity][];
+	}
+
+	/**
+	 * Add {@literal value} to the values of {@literal key}.
+	 *
+	 * @param key The key.
+	 * @param value The value to add.
+	 * @return {@literal true}, if the value was not yet present.
+	 */
+	public boolean put(final long key, final long value)
+	{
+		int slot = findSlot(key);
+		if (_values[slot] == null) {
+			if (2 * (_keyCount + 1) > _keys.length) {
+				resize(_keys.length << 1);
+				slot = findSlot(key);
+			}
+			_keys[slot] = key;
+			_values[slot] = new long[]{value};
+			++_keyCount;
+			++_size;
+			return true;
+		} else {
+			final long[] values = _values[slot];
+			final int index = Arrays.binarySearch(values, value);
+			if (index >= 0) {
+				return false;
+			} else {
+				final int insertAt = -index - 1;
+				final long[] newValues = new long[values.length + 1];
+				System.arraycopy(values, 0, newValues, 0, insertAt);
+				newValues[insertAt] = value;
+				System.arraycopy(values, insertAt, newValues, insertAt + 1, values.length - insertAt);
+				_values[slot] = newValues;
+				++_size;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Replace the values of {@literal key} by {@literal sortedValues}.
+	 * <p />
+	 * The array is stored as is and must not be modified afterwards. In contrast to {@link #put(long, long) }, this
+	 * may also be used to store an empty value set for a key.
+	 *
+	 * @param key The key.
+	 * @param sortedValues The new values in ascending order without duplicates.
+	 */
+	public void replace(final long key, final long[] sortedValues)
+	{
+		int slot = findSlot(key);
+		if (_values[slot] == null) {
+			if (2 * (_keyCount + 1) > _keys.length) {
+				resize(_keys.length << 1);
+				slot = findSlot(key);
+			}
+			_keys[slot] = key;
+			++_keyCount;
+		} else {
+			_size -= _values[slot].length;
+		}
+		_values[slot] = sortedValues;
+		_size += sortedValues.length;
+	}
+
+	/**
+	 * Remove {@literal value} from the values of {@literal key}. The key is removed, if it has no values left.
+	 *
+	 * @param key The key.
+	 * @param value The value to remove.
+	 * @return {@literal true}, if the value was present.
+	 */
+	public boolean remove(final long key, final long value)
+	{
+		final int slot = findSlot(key);
+		final long[] values = _values[slot];
+		if (values == null) {
+			return false;
+		}
+		final int index = Arrays.binarySearch(values, value);
+		if (index < 0) {
+			return false;
+		} else if (values.length == 1) {
+			removeSlot(slot);
+			--_keyCount;
+			--_size;
+			return true;
+		} else {
+			final long[] newValues = new long[values.length - 1];
+			System.arraycopy(values, 0, newValues, 0, index);
+			System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+			_values[slot] = newValues;
+			--_size;
+			return true;
+		}
+	}
+
+	/**
+	 * Remove {@literal key} and all of its values.
+	 *
+	 * @param key The key.
+	 * @return The former values of {@literal key} or {@literal null}, if the key was not present.
+	 */
+	public long[] removeKey(final long key)
+	{
+		final int slot = findSlot(key);
+		final long[] values = _values[slot];
+		if (values != null) {
+			removeSlot(slot);
+			--_keyCount;
+			_size -= values.length;
+		}
+		return values;
+	}
+
+	/**
+	 * Get the values of {@literal key}.
+	 * <p />
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param key The key.
+	 * @return The values of {@literal key} in ascending order or {@literal null}, if the key is not present.
+	 */
+	public long[] get(final long key)
+	{
+		return _values[findSlot(key)];
+	}
+
+	public boolean containsKey(final long key)
+	{
+		return _values[findSlot(key)] != null;
+	}
+
+	public boolean contains(final long key, final long value)
+	{
+		final long[] values = _values[findSlot(key)];
+		return (values != null) && (Arrays.binarySearch(values, value) >= 0);
+	}
+
+	/**
+	 * @param key The key.
+	 * @return The number of values of {@literal key}.
+	 */
+	public int size(final long key)
+	{
+		final long[] values = _values[findSlot(key)];
+		return values == null ? 0 : values.length;
+	}
+
+	/**
+	 * @return The total number of values in the map.
+	 */
+	public int size()
+	{
+		return _size;
+	}
+
+	/**
+	 * @return The number of keys in the map.
+	 */
+	public int keyCount()
+	{
+		return _keyCount;
+	}
+
+	public boolean isEmpty()
+	{
+		return _keyCount == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(_values, null);
+		_keyCount = 0;
+		_size = 0;
+	}
+
+	/**
+	 * @return A new array containing all keys of the map in no particular order.
+	 */
+	public long[] keys()
+	{
+		final long[] keys = new long[_keyCount];
+		int i = 0;
+		for (int slot = 0; slot < _keys.length; ++slot) {
+			if (_values[slot] != null) {
+				keys[i++] = _keys[slot];
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Create a copy of this map. Value arrays are shared between the copies.
+	 *
+	 * @return A copy of this map.
+	 */
+	@Override
+	public LongSetMultiMap clone()
+	{
+		try {
+			final LongSetMultiMap klone = (LongSetMultiMap) super.clone();
+			klone._keys = _keys.clone();
+			klone._values = _values.clone();
+			return klone;
+		} catch (CloneNotSupportedException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+
+	/**
+	 * Merge two sorted value arrays.
+	 *
+	 * @param a A sorted array without duplicates.
+	 * @param b A sorted array without duplicates.
+	 * @return The sorted union of {@literal a} and {@literal b}. This may be {@literal a} or {@literal b} itself.
+	 */
+	public static long[] union(final long[] a, final long[] b)
+	{
+		if (b.length == 0) {
+			return a;
+		} else if (a.length == 0) {
+			return b;
+		}
+		final long[] merged = new long[a.length + b.length];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while ((i < a.length) && (j < b.length)) {
+			if (a[i] < b[j]) {
+				merged[k++] = a[i++];
+			} else if (a[i] > b[j]) {
+				merged[k++] = b[j++];
+			} else {
+				merged[k++] = a[i++];
+				++j;
+			}
+		}
+		while (i < a.length) {
+			merged[k++] = a[i++];
+		}
+		while (j < b.length) {
+			merged[k++] = b[j++];
+		}
+		if (k == a.length) {
+			return a;
+		} else if (k == b.length) {
+			return b;
+		} else {
+			return k == merged.length ? merged : Arrays.copyOf(merged, k);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		boolean isFirst = true;
+		for (int slot = 0; slot < _keys.length; ++slot) {
+			if (_values[slot] != null) {
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append(_keys[slot]);
+				sb.append("=");
+				sb.append(Arrays.toString(_values[slot]));
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private int home(final long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= (h >>> 32);
+		return (int) h & (_keys.length - 1);
+	}
+
+	/**
+	 * @return The slot containing {@literal key} or the empty slot, where it would be inserted.
+	 */
+	private int findSlot(final long key)
+	{
+		final int mask = _keys.length - 1;
+		int slot = home(key);
+		while ((_values[slot] != null) && (_keys[slot] != key)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Clear {@literal slot} and move following entries of the same probe sequence back into the gap.
+	 */
+	private void removeSlot(final int slot)
+	{
+		final int mask = _keys.length - 1;
+		int gap = slot;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (_values[next] == null) {
+				break;
+			}
+			final int home = home(_keys[next]);
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				_keys[gap] = _keys[next];
+				_values[gap] = _values[next];
+				gap = next;
+			}
+		}
+		_values[gap] = null;
+	}
+
+	private void resize(final int capacity)
+	{
+		final long[] oldKeys = _keys;
+		final long[][] oldValues = _values;
+		_keys = new long[capacity];
+		_values = new long[capacity][];
+		for (int slot = 0; slot < oldKeys.length; ++slot) {
+			if (oldValues[slot] != null) {
+				final int newSlot = findSlot(oldKeys[slot]);
+				_keys[newSlot] = oldKeys[slot];
+				_values[newSlot] = oldValues[slot];
+			}
+		}
+	}
+}
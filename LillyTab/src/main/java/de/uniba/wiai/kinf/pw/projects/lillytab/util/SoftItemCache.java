@@ -21,13 +21,13 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.util;
 
-import java.lang.ref.SoftReference;
-import java.util.WeakHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  *
  * 
- * A simple implementation of a weak item cache. Use when object creation is cheap, but long term storage is expensive.
+ * A simple implementation of a soft item cache. Use when object creation is cheap, but long term storage is expensive.
  * <p />
  * To use, this cache, generate a temporary new object with the requires properties. Then call {@link #updateCache(java.lang.Object)
  * }. This will check the cache, if an equal (via {@link #hashCode()} and {@link #equals(java.lang.Object)
@@ -35,6 +35,9 @@ import java.util.WeakHashMap;
  * object already exists in the cache. If so, the cached copy is returned.
  * <p />
  * Otherwise the provided temporary object is stored into the cache, effectively making it into the cached copy.
+ * <p />
+ * Subclasses may avoid the temporary object by looking up items by their components via
+ * {@link #updateCache(int, java.util.function.Predicate, java.util.function.Supplier) }.
  * 
  *
  * @param <T> The type of cache items
@@ -42,7 +45,7 @@ import java.util.WeakHashMap;
  */
 public class SoftItemCache<T> {
 
-	private final WeakHashMap<T, SoftReference<T>> _itemCache = new WeakHashMap<>();
+	private final InternTable<T> _itemCache = new InternTable<>();
 
 
 	/**
@@ -53,6 +56,8 @@ public class SoftItemCache<T> {
 	 * Otherwise the provided temporary object is stored into the cache, effectively making it into the cached copy.
 	 * <p />
 	 * if {@literal item} is {@literal null}, behaviour is undefined. Otherwise, {@literal null} is never returned.
+	 * <p />
+	 * The cache may be shared between concurrently completed branches. Lookups do not lock.
 	 * 
 	 *
 	 * @param <TT> The type of the term object to check and return.
@@ -60,15 +65,25 @@ public class SoftItemCache<T> {
 	 * @return The cached version of {@literal item} (which may be item).
 	 *
 	 */
-	@SuppressWarnings("unchecked")
 	public <TT extends T> TT updateCache(final TT item)
 	{
-		final SoftReference<T> ref = _itemCache.get(item);
-		if ((ref != null) && (ref.get() != null)) {
-			return (TT) ref.get();
-		} else {
-			_itemCache.put(item, new SoftReference<T>(item));
-			return item;
-		}
+		return _itemCache.intern(item);
+	}
+
+	/**
+	 * Look up a cached object by its components. {@literal factory} is only called, if the cache
+	 * does not yet contain a matching object.
+	 *
+	 * @param <TT> The type of the term object to return.
+	 * @param hash The hash code the cached object has.
+	 * @param matcher Checks a cached candidate against the components.
+	 * @param factory Creates a new object from the components.
+	 * @return The cached object, never {@literal null}.
+	 * @see InternTable#intern(int, java.util.function.Predicate, java.util.function.Supplier)
+	 */
+	protected <TT extends T> TT updateCache(final int hash, final Predicate<? super T> matcher,
+											final Supplier<? extends TT> factory)
+	{
+		return _itemCache.intern(hash, matcher, factory);
 	}
 }
@@ -0,0 +1,153 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.async;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerOptions;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class AsyncReasonerTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private SimpleKRSSParser _parser;
+
+	public AsyncReasonerTest()
+	{
+	}
+
+	@Before
+	public void setUp()
+		throws ParseException
+	{
+		_reasoner = new Reasoner<>(new ReasonerOptions());
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+		for (int i = 0; i < 8; ++i) {
+			_abox.getTBox().add(_parser.parse("(implies A" + i + " A" + (i + 1) + ")"));
+		}
+		_abox.getTBox().add(_parser.parse("(implies B (not A8))"));
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testConcurrentQueries()
+		throws InterruptedException, ExecutionException
+	{
+		final AsyncReasoner<String, String, String, String> asyncReasoner = new AsyncReasoner<>(_reasoner, 4);
+		try {
+			final List<CompletableFuture<Boolean>> subsumptions = new ArrayList<>();
+			final List<CompletableFuture<Boolean>> disjoints = new ArrayList<>();
+			for (int i = 0; i <= 8; ++i) {
+				for (int j = 0; j <= 8; ++j) {
+					subsumptions.add(asyncReasoner.isSubClassOf(_abox, "A" + i, "A" + j));
+					disjoints.add(asyncReasoner.isDisjoint(_abox, _termFactory.getDLClassReference("A" + i),
+						_termFactory.getDLClassReference("B")));
+				}
+			}
+			for (int i = 0; i <= 8; ++i) {
+				for (int j = 0; j <= 8; ++j) {
+					assertEquals(i <= j, subsumptions.get(i * 9 + j).get());
+					assertTrue(disjoints.get(i * 9 + j).get());
+				}
+			}
+		} finally {
+			asyncReasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCoalescing()
+		throws InterruptedException, ExecutionException
+	{
+		final List<Runnable> queued = new ArrayList<>();
+		final AsyncReasoner<String, String, String, String> asyncReasoner = new AsyncReasoner<>(_reasoner,
+			queued::add);
+
+		final CompletableFuture<Boolean> first = asyncReasoner.isSubClassOf(_abox, "A0", "A8");
+		final CompletableFuture<Boolean> second = asyncReasoner.isSubClassOf(_abox, "A0", "A8");
+		final CompletableFuture<Boolean> other = asyncReasoner.isSubClassOf(_abox, "A8", "A0");
+		assertEquals(2, queued.size());
+		assertEquals(2, asyncReasoner.getQueriesInFlight());
+
+		/* cancelling one caller's future does not affect the other */
+		first.cancel(false);
+		for (Runnable task : queued) {
+			task.run();
+		}
+		assertEquals(0, asyncReasoner.getQueriesInFlight());
+		assertTrue(first.isCancelled());
+		assertTrue(second.get());
+		assertFalse(other.get());
+
+		/* completed queries are not coalesced */
+		asyncReasoner.isSubClassOf(_abox, "A0", "A8");
+		assertEquals(3, queued.size());
+	}
+
+	@Test
+	public void testFailure()
+		throws ParseException, InterruptedException, ENodeMergeException
+	{
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(and A0 B)"));
+		final AsyncReasoner<String, String, String, String> asyncReasoner = new AsyncReasoner<>(_reasoner, 1);
+		try {
+			asyncReasoner.checkConsistency(_abox, true).get();
+			fail("Inconsistency not reported");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof EInconsistencyException);
+		} finally {
+			asyncReasoner.shutdown();
+		}
+	}
+}
@@ -202,6 +202,41 @@ public class ABoxCloneTest {
 	}
 
 
+	@Test
+	public void testNamedNodeClone()
+		throws EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> node = _abox.getOrAddIndividualNode("a");
+		final IABox<String, String, String, String> klone = _abox.clone();
+		final IABoxNode<String, String, String, String> kloneNode = klone.getIndividualNode("a");
+
+		assertNotNull(kloneNode);
+		assertNotSame(node, kloneNode);
+		assertSame(kloneNode, klone.getNode(node.getNodeID()));
+		assertSame(klone, kloneNode.getABox());
+		assertSame(_abox, node.getABox());
+	}
+
+
+	@Test
+	public void testQueueClone()
+		throws EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> node = _abox.getOrAddIndividualNode("a");
+		_abox.removeNodeFromQueues(node);
+
+		final IABox<String, String, String, String> klone = _abox.clone();
+		/* cloning must not re-queue already processed nodes */
+		assertFalse(klone.getGeneratingQueue().contains(node.getNodeID()));
+		assertFalse(klone.getNonGeneratingQueue().contains(node.getNodeID()));
+
+		final IABoxNode<String, String, String, String> kloneNode = klone.getIndividualNode("a");
+		kloneNode.addTerm(_aboxFactory.getDLTermFactory().getDLClassReference("A"));
+		assertTrue(klone.getGeneratingQueue().contains(node.getNodeID()));
+		assertFalse(_abox.getGeneratingQueue().contains(node.getNodeID()));
+	}
+
+
 	@Test
 	public void testNodeMergeListenerClone()
 		throws EInconsistencyException
@@ -282,4 +282,35 @@ public class ABoxNodeTest {
 		assertFalse(node1.getTerms().contains(_parser.parse("(implies A B)")));
 		assertTrue(node1.getTerms().contains(_parser.parse("(or (not A) B)")));
 	}
+
+
+	@Test
+	public void testTermIDs()
+		throws ParseException, ENodeMergeException
+	{
+		final IDLClassReference<String, String, String, String> A = _termFactory.getDLClassReference("A");
+		final IDLClassReference<String, String, String, String> B = _termFactory.getDLClassReference("B");
+		final int idA = _termFactory.getTermID(A);
+		final int idB = _termFactory.getTermID(B);
+		assertEquals(idA, _termFactory.getTermID(_parser.parse("A")));
+		assertNotEquals(idA, idB);
+
+		assertTrue(_aboxNode.getTerms().getTermIDs().get(idA));
+		assertFalse(_aboxNode.getTerms().getTermIDs().get(idB));
+
+		_aboxNode.addTerm(_parser.parse("(not B)"));
+		assertTrue(_aboxNode.getTerms().getNegatedTermIDs().get(idB));
+		assertFalse(_aboxNode.getTerms().getTermIDs().intersects(_aboxNode.getTerms().getNegatedTermIDs()));
+
+		final IABox<String, String, String, String> box2 = _aboxFactory.createABox();
+		final IABoxNode<String, String, String, String> klone = _aboxNode.clone(box2);
+		box2.add(klone);
+		klone.addTerm(B);
+		assertTrue(klone.getTerms().getTermIDs().intersects(klone.getTerms().getNegatedTermIDs()));
+		assertFalse(_aboxNode.getTerms().getTermIDs().get(idB));
+
+		_aboxNode.getTerms().remove(A);
+		assertFalse(_aboxNode.getTerms().getTermIDs().get(idA));
+		assertTrue(klone.getTerms().getTermIDs().get(idA));
+	}
 }
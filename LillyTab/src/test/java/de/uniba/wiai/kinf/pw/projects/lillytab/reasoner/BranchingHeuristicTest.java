@@ -0,0 +1,171 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.IBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.MostConstrainedBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.SmallestDisjunctFirstBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.util.SortOrderBranchingHeuristic;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLNodeTerm;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLUnion;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class BranchingHeuristicTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private SimpleKRSSParser _parser;
+
+	public BranchingHeuristicTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testSortOrder()
+		throws ParseException
+	{
+		final Map<IDLUnion<String, String, String, String>, List<IDLNodeTerm<String, String, String, String>>> candidates
+			= new LinkedHashMap<>();
+		candidates.put(union("(or A B)"), terms("A", "B"));
+		candidates.put(union("(or C D)"), terms("C", "D"));
+		final IBranchingHeuristic<String, String, String, String> heuristic = new SortOrderBranchingHeuristic<>();
+		assertEquals(union("(or A B)"), heuristic.selectUnion(null, candidates));
+		assertEquals(terms("A", "B"), heuristic.orderDisjuncts(null, union("(or A B)"), candidates));
+	}
+
+	@Test
+	public void testMostConstrained()
+		throws ParseException
+	{
+		final Map<IDLUnion<String, String, String, String>, List<IDLNodeTerm<String, String, String, String>>> candidates
+			= new LinkedHashMap<>();
+		candidates.put(union("(or A (or B E))"), terms("A", "B", "E"));
+		candidates.put(union("(or C D)"), terms("C", "D"));
+		candidates.put(union("(or D F)"), terms("D", "F"));
+		final IBranchingHeuristic<String, String, String, String> heuristic = new MostConstrainedBranchingHeuristic<>();
+		assertEquals(union("(or C D)"), heuristic.selectUnion(null, candidates));
+		/* D also satisfies (or D F) */
+		assertEquals(terms("D", "C"), heuristic.orderDisjuncts(null, union("(or C D)"), candidates));
+	}
+
+	@Test
+	public void testSmallestDisjunctFirst()
+		throws ParseException
+	{
+		final Map<IDLUnion<String, String, String, String>, List<IDLNodeTerm<String, String, String, String>>> candidates
+			= new LinkedHashMap<>();
+		candidates.put(union("(or (and A B) C)"), terms("(and A B)", "C"));
+		final IBranchingHeuristic<String, String, String, String> heuristic
+			= new SmallestDisjunctFirstBranchingHeuristic<>();
+		assertEquals(terms("C", "(and A B)"), heuristic.orderDisjuncts(null, union("(or (and A B) C)"), candidates));
+	}
+
+	@Test
+	public void testReasonerHeuristics()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> a = _abox.getOrAddIndividualNode("a");
+		a.addTerm(_parser.parse("(or C0 D0)"));
+		a.addTerm(_parser.parse("(or C1 (and D1 (some r E)))"));
+		a.addTerm(_parser.parse("(or (not C0) C1)"));
+
+		for (ReasonerOptions.BranchingHeuristic branchingHeuristic : ReasonerOptions.BranchingHeuristic.values()) {
+			final ReasonerOptions options = new ReasonerOptions();
+			options.setBranchingHeuristic(branchingHeuristic);
+			final Reasoner<String, String, String, String> reasoner = new Reasoner<>(options);
+			final Collection<? extends IReasonerResult<String, String, String, String>> results
+				= reasoner.checkConsistency(_abox, true);
+			assertEquals(branchingHeuristic.toString(), 1, results.size());
+			final IABoxNode<String, String, String, String> resultA = results.iterator().next().getABox().
+				getIndividualNode("a");
+			assertTrue(resultA.getTerms().contains(_parser.parse("C1"))
+				|| resultA.getTerms().contains(_parser.parse("D1")));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private IDLUnion<String, String, String, String> union(final String union)
+		throws ParseException
+	{
+		return (IDLUnion<String, String, String, String>) _parser.parse(union);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<IDLNodeTerm<String, String, String, String>> terms(final String... terms)
+		throws ParseException
+	{
+		final IDLNodeTerm<String, String, String, String>[] parsed = new IDLNodeTerm[terms.length];
+		for (int i = 0; i < terms.length; ++i) {
+			parsed[i] = (IDLNodeTerm<String, String, String, String>) _parser.parse(terms[i]);
+		}
+		return Arrays.asList(parsed);
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.CompiledTBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.RBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.TBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class CompiledTBoxTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private SimpleKRSSParser _parser;
+
+	@Before
+	public void setUp()
+	{
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	private TBox<String, String, String, String> getTBox(final IABox<String, String, String, String> abox)
+	{
+		return (TBox<String, String, String, String>) abox.getTBox();
+	}
+
+	@Test
+	public void testCloneSharesSnapshot()
+		throws ParseException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		final CompiledTBox<String, String, String, String> compiled = getTBox(_abox).getCompiled();
+		assertSame(compiled, getTBox(_abox).getCompiled());
+
+		final IABox<String, String, String, String> klone = _abox.clone();
+		assertSame(_abox.getTBox(), klone.getTBox());
+		assertSame(compiled, getTBox(klone).getCompiled());
+	}
+
+	@Test
+	public void testSnapshotIsFrozen()
+		throws ParseException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		final CompiledTBox<String, String, String, String> compiled = getTBox(_abox).getCompiled();
+		assertEquals(1, compiled.getUnfolding(_parser.parse("A")).size());
+
+		_abox.getTBox().add(_parser.parse("(implies A C)"));
+		final CompiledTBox<String, String, String, String> recompiled = getTBox(_abox).getCompiled();
+		assertNotSame(compiled, recompiled);
+		assertEquals(compiled.getGeneration() + 1, recompiled.getGeneration());
+		assertEquals(1, compiled.getUnfolding(_parser.parse("A")).size());
+		assertEquals(2, recompiled.getUnfolding(_parser.parse("A")).size());
+	}
+
+	@Test
+	public void testRBoxChangeRecompiles()
+		throws ParseException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies (some r _Thing_) A)"));
+		final CompiledTBox<String, String, String, String> compiled = getTBox(_abox).getCompiled();
+		assertTrue(compiled.getRoleDomainUnfoldings("r").contains(_parser.parse("A")));
+		assertTrue(compiled.getRoleDomainUnfoldings("s").isEmpty());
+
+		_abox.getAssertedRBox().addSubRole("r", "s");
+		final CompiledTBox<String, String, String, String> recompiled = getTBox(_abox).getCompiled();
+		assertNotSame(compiled, recompiled);
+		assertSame(((RBox<String, String, String, String>) _abox.getRBox()).getCompiled(), recompiled.getRBox());
+		assertTrue(recompiled.getRoleDomainUnfoldings("s").contains(_parser.parse("A")));
+		assertTrue(compiled.getRoleDomainUnfoldings("s").isEmpty());
+	}
+}
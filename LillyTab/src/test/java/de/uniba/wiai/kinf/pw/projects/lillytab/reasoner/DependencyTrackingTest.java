@@ -292,6 +292,42 @@ public class DependencyTrackingTest {
 		assertFalse(_abox.getDependencyMap().hasChild(aNode, _parser.parse("B"), aNode, _parser.parse("(implies A B)")));
 	}
 
+	@Test
+	public void testTransitiveParents()
+		throws EInconsistencyException, ParseException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.createNode(false);
+		final IDependencyMap<String, String, String, String> depMap = _abox.getDependencyMap();
+		final TermEntry<String, String, String, String> a = _abox.getTermEntryFactory().getEntry(aNode, _parser.parse("A"));
+		final TermEntry<String, String, String, String> b = _abox.getTermEntryFactory().getEntry(aNode, _parser.parse("B"));
+		final TermEntry<String, String, String, String> c = _abox.getTermEntryFactory().getEntry(aNode, _parser.parse("C"));
+		final TermEntry<String, String, String, String> d = _abox.getTermEntryFactory().getEntry(aNode, _parser.parse("D"));
+
+		depMap.addParent(c, b);
+		depMap.addParent(b, a);
+		assertEquals(2, depMap.getParents(c, true).size());
+		assertTrue(depMap.getParents(c, true).contains(a));
+		assertTrue(depMap.getChildren(a, true).contains(c));
+
+		/* adding a parent above a cached chain must invalidate the cached parents of the descendants */
+		depMap.addParent(a, d);
+		assertEquals(3, depMap.getParents(c, true).size());
+		assertTrue(depMap.getParents(c, true).contains(d));
+
+		final IDependencyMap<String, String, String, String> klone = depMap.clone();
+		depMap.remove(b, a);
+		assertEquals(1, depMap.getParents(c, true).size());
+		assertFalse(depMap.hasChild(a, b));
+		assertEquals(3, klone.getParents(c, true).size());
+		assertTrue(klone.hasChild(a, b));
+
+		assertEquals(a, _abox.getTermEntryFactory().getEntry(a.getKey()));
+		depMap.addGoverningTerm(c);
+		assertTrue(depMap.hasGoverningTerm(aNode.getNodeID()));
+		assertTrue(depMap.getGoverningTerms().remove(c));
+		assertFalse(depMap.hasGoverningTerm(aNode.getNodeID()));
+	}
+
 	class DependencyMatcher
 		extends BaseMatcher<IABox<String, String, String, String>> {
 
@@ -0,0 +1,151 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ABoxDelta;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class IncrementalReasonerTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private SimpleKRSSParser _parser;
+
+	public IncrementalReasonerTest()
+	{
+	}
+
+	@Before
+	public void setUp()
+	{
+		_reasoner = new Reasoner<>(new ReasonerOptions());
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testResumeConsistent()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies B (some r C))"));
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("A"));
+		final IReasonerResult<String, String, String, String> previous = _reasoner.checkConsistency(_abox, true).
+			iterator().next();
+		_reasoner.getMetrics().reset();
+
+		final ABoxDelta<String, String, String, String> delta = new ABoxDelta<>();
+		delta.addTerm("a", _parser.parse("B"));
+		delta.addTerm("b", _parser.parse("A"));
+		delta.addLink("a", "s", "b");
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _reasoner.
+			checkConsistency(_abox, previous, delta, true);
+
+		assertEquals(1, _reasoner.getMetrics().getQueries());
+		assertEquals(1, results.size());
+		final IABox<String, String, String, String> model = results.iterator().next().getABox();
+		final IABoxNode<String, String, String, String> aNode = model.getIndividualNode("a");
+		assertTrue(aNode.getTerms().contains(_parser.parse("A")));
+		assertTrue(aNode.getTerms().contains(_parser.parse("(some r C)")));
+		assertTrue(model.getIndividualNode("b").getTerms().contains(_parser.parse("A")));
+		assertTrue(aNode.getRABox().getAssertedSuccessors().containsValue("s",
+			model.getIndividualNode("b").getNodeID()));
+
+		/* the input and the previous model are left alone */
+		assertNull(_abox.getIndividualNode("b"));
+		assertNull(previous.getABox().getIndividualNode("b"));
+	}
+
+	@Test(expected = EInconsistencyException.class)
+	public void testResumeDeterministicClash()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(and A B)"));
+		final IReasonerResult<String, String, String, String> previous = _reasoner.checkConsistency(_abox, true).
+			iterator().next();
+		_reasoner.getMetrics().reset();
+
+		final ABoxDelta<String, String, String, String> delta = new ABoxDelta<>();
+		delta.addTerm("a", _parser.parse("(not B)"));
+		try {
+			_reasoner.checkConsistency(_abox, previous, delta, true);
+		} finally {
+			/* no choices involved, no rerun */
+			assertEquals(1, _reasoner.getMetrics().getQueries());
+		}
+	}
+
+	@Test
+	public void testResumeNonDeterministicClash()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(or A B)"));
+		final IReasonerResult<String, String, String, String> previous = _reasoner.checkConsistency(_abox, true).
+			iterator().next();
+		assertFalse(((ReasonerResult<String, String, String, String>) previous).isDeterministic());
+
+		/* contradict whatever was chosen before */
+		final boolean choseA = previous.getABox().getIndividualNode("a").getTerms().contains(_parser.parse("A"));
+		final ABoxDelta<String, String, String, String> delta = new ABoxDelta<>();
+		delta.addTerm("a", _parser.parse(choseA ? "(not A)" : "(not B)"));
+		_reasoner.getMetrics().reset();
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _reasoner.
+			checkConsistency(_abox, previous, delta, true);
+
+		assertEquals(2, _reasoner.getMetrics().getQueries());
+		final IABoxNode<String, String, String, String> aNode = results.iterator().next().getABox().
+			getIndividualNode("a");
+		assertTrue(aNode.getTerms().contains(_parser.parse(choseA ? "B" : "A")));
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.TermEntry;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class NogoodStoreTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private SimpleKRSSParser _parser;
+
+	public NogoodStoreTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testIsNogood()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final NogoodStore<String, String, String, String> nogoods = new NogoodStore<>(16);
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"))));
+		assertEquals(1, nogoods.size());
+
+		final Set<TermEntry<String, String, String, String>> addB = Collections.singleton(entry(aNode, "B"));
+		assertFalse(nogoods.isNogood(_abox, addB));
+		aNode.addTerm(_parser.parse("A"));
+		assertTrue(nogoods.isNogood(_abox, addB));
+		assertFalse(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "C"))));
+		assertFalse(nogoods.isNogood(_abox, Collections.<TermEntry<String, String, String, String>>emptySet()));
+	}
+
+	@Test
+	public void testSubsumption()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final NogoodStore<String, String, String, String> nogoods = new NogoodStore<>(16);
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"), entry(aNode, "C"))));
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"))));
+		/* the more specific nogood has been replaced */
+		assertEquals(1, nogoods.size());
+		assertFalse(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"), entry(aNode, "D"))));
+		assertFalse(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"))));
+		assertEquals(1, nogoods.size());
+
+		aNode.addTerm(_parser.parse("A"));
+		assertTrue(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "B"))));
+	}
+
+	@Test
+	public void testEviction()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final NogoodStore<String, String, String, String> nogoods = new NogoodStore<>(2);
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "A"))));
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "B"))));
+		/* touch A, so that B is the least recently used nogood */
+		assertTrue(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "A"))));
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "C"))));
+		assertEquals(2, nogoods.size());
+		assertEquals(1, nogoods.getEvictions());
+		assertTrue(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "A"))));
+		assertFalse(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "B"))));
+		assertTrue(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "C"))));
+	}
+
+	@Test
+	public void testDisabled()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final NogoodStore<String, String, String, String> nogoods = new NogoodStore<>(0);
+		assertFalse(nogoods.learnGlobal(nogood(entry(aNode, "A"))));
+		assertEquals(0, nogoods.size());
+		assertFalse(nogoods.isNogood(_abox, Collections.singleton(entry(aNode, "A"))));
+	}
+
+	@Test
+	public void testBranchPrefix()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final NogoodStore<String, String, String, String> nogoods = new NogoodStore<>(16);
+		aNode.addTerm(_parser.parse("A"));
+		final Set<TermEntry<String, String, String, String>> addB = Collections.singleton(entry(aNode, "B"));
+
+		/* learned after choosing the first alternative at level 1 */
+		assertTrue(nogoods.learn(nogood(entry(aNode, "A"), entry(aNode, "B")), new int[]{0}));
+		assertFalse(nogoods.isNogood(_abox, addB));
+		final IABox<String, String, String, String> sibling = _abox.clone();
+		sibling.getDependencyMap().openBranchLevel(1);
+		assertFalse(nogoods.isNogood(sibling, addB));
+		_abox.getDependencyMap().openBranchLevel(0);
+		assertTrue(nogoods.isNogood(_abox, addB));
+		_abox.getDependencyMap().openBranchLevel(1);
+		assertTrue(nogoods.isNogood(_abox, addB));
+
+		/* the same nogood for all branches replaces the more specific one */
+		assertTrue(nogoods.learnGlobal(nogood(entry(aNode, "A"), entry(aNode, "B"))));
+		assertEquals(1, nogoods.size());
+		assertTrue(nogoods.isNogood(sibling, addB));
+		assertFalse(nogoods.learn(nogood(entry(aNode, "A"), entry(aNode, "B")), new int[]{1}));
+	}
+
+	@Test
+	public void testReasonerUnrelatedNogood()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/**
+		 * The clash in the successor of the s branch shares node IDs and the parent term (only r (not C)) with the
+		 * successor in the r branch. The nogood must not be applied there.
+		 */
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("t", RoleType.OBJECT_PROPERTY);
+		final IDLClassExpression<String, String, String, String> concept = _parser.parse(
+			"(and (or (some r C) (some s (and (or C (some t G)) (only t (not G))))) (only r (not C)))");
+
+		final ReasonerOptions options = new ReasonerOptions();
+		options.setNogoodCacheSize(256);
+		final Reasoner<String, String, String, String> reasoner = new Reasoner<>(options);
+		assertFalse(reasoner.isSubClassOf(_abox, concept, _termFactory.getDLNothing()));
+		options.setTrailBacktracking(true);
+		assertFalse(new Reasoner<String, String, String, String>(options).isSubClassOf(_abox, concept, _termFactory.getDLNothing()));
+
+		_abox.getOrAddIndividualNode("a").addTerm(concept);
+		options.setTrailBacktracking(false);
+		assertTrue(new Reasoner<String, String, String, String>(options).isConsistent(_abox));
+		options.setTrailBacktracking(true);
+		assertTrue(new Reasoner<String, String, String, String>(options).isConsistent(_abox));
+	}
+
+	@Test
+	public void testReasonerModels()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or X Y)"));
+		aNode.addTerm(_parser.parse("(some s (and (or (some r E) Q) (only r (not E))))"));
+
+		final ReasonerOptions options = new ReasonerOptions();
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = new Reasoner<String, String, String, String>(options).
+			checkConsistency(_abox, false);
+		options.setNogoodCacheSize(0);
+		final Collection<? extends IReasonerResult<String, String, String, String>> plainResults = new Reasoner<String, String, String, String>(
+			options).checkConsistency(_abox, false);
+		assertEquals(plainResults.size(), results.size());
+		assertEquals(2, results.size());
+	}
+
+	private TermEntry<String, String, String, String> entry(final IABoxNode<String, String, String, String> node,
+															final String term)
+		throws ParseException
+	{
+		return _abox.getTermEntryFactory().getEntry(node, _parser.parse(term));
+	}
+
+	@SafeVarargs
+	private final Set<Set<TermEntry<String, String, String, String>>> nogood(
+		final TermEntry<String, String, String, String>... entries)
+	{
+		final Set<Set<TermEntry<String, String, String, String>>> nogood = new HashSet<>();
+		for (TermEntry<String, String, String, String> entry : entries) {
+			nogood.add(Collections.singleton(entry));
+		}
+		return nogood;
+	}
+}
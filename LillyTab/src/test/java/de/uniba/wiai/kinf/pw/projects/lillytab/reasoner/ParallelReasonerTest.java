@@ -0,0 +1,273 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLImplies;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class ParallelReasonerTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _sequentialReasoner;
+	private Reasoner<String, String, String, String> _parallelReasoner;
+	private SimpleKRSSParser _parser;
+
+	public ParallelReasonerTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_sequentialReasoner = new Reasoner<>(new ReasonerOptions());
+		final ReasonerOptions parallelOptions = new ReasonerOptions();
+		parallelOptions.setParallelCompletion(true);
+		parallelOptions.setParallelClassification(true);
+		parallelOptions.setParallelism(4);
+		_parallelReasoner = new Reasoner<>(parallelOptions);
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_parallelReasoner.close();
+		_sequentialReasoner = null;
+		_parallelReasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testAllModels()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(or A4 B4)"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> sequentialResults = _sequentialReasoner.
+			checkConsistency(_abox, false);
+		final Collection<? extends IReasonerResult<String, String, String, String>> parallelResults = _parallelReasoner.
+			checkConsistency(_abox, false);
+		assertEquals(sequentialResults.size(), parallelResults.size());
+		for (IReasonerResult<String, String, String, String> result : parallelResults) {
+			final IABoxNode<String, String, String, String> resultNode = result.getABox().getIndividualNode("a");
+			for (int i = 1; i <= 4; ++i) {
+				assertTrue(resultNode.getTerms().contains(_termFactory.getDLClassReference("A" + i))
+					|| resultNode.getTerms().contains(_termFactory.getDLClassReference("B" + i)));
+			}
+		}
+	}
+
+	@Test
+	public void testClose()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		assertEquals(4, _parallelReasoner.checkConsistency(_abox, false).size());
+
+		final ExecutorService pool = _parallelReasoner.getClassificationExecutor();
+		assertFalse(pool.isShutdown());
+		_parallelReasoner.close();
+		assertTrue(pool.isShutdown());
+
+		/* the reasoner stays usable */
+		assertEquals(4, _parallelReasoner.checkConsistency(_abox, false).size());
+		assertNotSame(pool, _parallelReasoner.getClassificationExecutor());
+	}
+
+	@Test
+	public void testStopAtFirstModel()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _parallelReasoner.
+			checkConsistency(_abox, true);
+		assertEquals(1, results.size());
+	}
+
+	@Test(expected = EInconsistencyException.class)
+	public void testUnionInconsistency()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(or C D)"));
+		aNode.addTerm(_parser.parse("(not C)"));
+		aNode.addTerm(_parser.parse("(not D)"));
+
+		_parallelReasoner.checkConsistency(_abox, false);
+	}
+
+	@Test
+	public void testPrunedBranches()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/* the clash in the successor does not depend on any of the unions */
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(some r C)"));
+		aNode.addTerm(_parser.parse("(only r (not C))"));
+
+		/* a single worker completes the forked branches only after the first clash has been published */
+		final ReasonerOptions options = new ReasonerOptions();
+		options.setParallelCompletion(true);
+		options.setParallelism(1);
+		try (Reasoner<String, String, String, String> reasoner = new Reasoner<>(options)) {
+			try {
+				reasoner.checkConsistency(_abox, false);
+				fail("ABox should be inconsistent");
+			} catch (EInconsistencyException ex) {
+				/* expected */
+			}
+			/* all branches besides the first one are pruned instead of being completed */
+			assertEquals(3, reasoner.getMetrics().getBranchesCreated());
+			assertEquals(3, reasoner.getMetrics().getBranchesPruned());
+		}
+	}
+
+	@Test
+	public void testSubClassOf()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (or B C))"));
+		_abox.getTBox().add(_parser.parse("(implies B D)"));
+		_abox.getTBox().add(_parser.parse("(implies C D)"));
+		_abox.getTBox().add(_parser.parse("(implies E (or B F))"));
+
+		assertTrue(_parallelReasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("D")));
+		assertFalse(_parallelReasoner.isSubClassOf(_abox, _parser.parse("E"), _parser.parse("D")));
+		assertEquals(_sequentialReasoner.isSubClassOf(_abox, _parser.parse("E"), _parser.parse("D")),
+			_parallelReasoner.isSubClassOf(_abox, _parser.parse("E"), _parser.parse("D")));
+	}
+
+	@Test
+	public void testClassify()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getRBox().getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (or B C))"));
+		_abox.getTBox().add(_parser.parse("(implies B D)"));
+		_abox.getTBox().add(_parser.parse("(implies C D)"));
+		_abox.getTBox().add(_parser.parse("(implies D E)"));
+		_abox.getTBox().add(_parser.parse("(implies F (some r A))"));
+		_abox.getTBox().add(_parser.parse("(implies (some r D) G)"));
+		_abox.getTBox().add(_parser.parse("(implies H (and B F))"));
+
+		final Collection<IDLImplies<String, String, String, String>> sequentialClassification = _sequentialReasoner.
+			classify(_abox);
+		final Collection<IDLImplies<String, String, String, String>> parallelClassification = _parallelReasoner.
+			classify(_abox);
+		assertEquals(sequentialClassification, parallelClassification);
+		assertTrue(parallelClassification.contains(_parser.parse("(implies A D)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies F G)")));
+		assertFalse(parallelClassification.contains(_parser.parse("(implies A E)")));
+	}
+
+	@Test
+	public void testClassifyEquivalent()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		_abox.getTBox().add(_parser.parse("(implies B A)"));
+		_abox.getTBox().add(_parser.parse("(implies B C)"));
+		_abox.getTBox().add(_parser.parse("(implies D A)"));
+
+		final Collection<IDLImplies<String, String, String, String>> sequentialClassification = _sequentialReasoner.
+			classify(_abox);
+		final Collection<IDLImplies<String, String, String, String>> parallelClassification = _parallelReasoner.
+			classify(_abox);
+		assertEquals(sequentialClassification, parallelClassification);
+		assertTrue(parallelClassification.contains(_parser.parse("(implies A B)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies B A)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies A C)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies D A)")));
+	}
+
+	@Test
+	public void testClassifyUnsatisfiable()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		_abox.getTBox().add(_parser.parse("(implies C B)"));
+		_abox.getTBox().add(_parser.parse("(implies U (and X (not X)))"));
+
+		final Collection<IDLImplies<String, String, String, String>> sequentialClassification = _sequentialReasoner.
+			classify(_abox);
+		final Collection<IDLImplies<String, String, String, String>> parallelClassification = _parallelReasoner.
+			classify(_abox);
+		assertEquals(sequentialClassification, parallelClassification);
+		assertTrue(parallelClassification.contains(_parser.parse("(implies A B)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies C B)")));
+		/* the unsatisfiable class sits below all leaves */
+		assertTrue(parallelClassification.contains(_parser.parse("(implies U A)")));
+		assertTrue(parallelClassification.contains(_parser.parse("(implies U C)")));
+		assertFalse(parallelClassification.contains(_parser.parse("(implies U B)")));
+	}
+}
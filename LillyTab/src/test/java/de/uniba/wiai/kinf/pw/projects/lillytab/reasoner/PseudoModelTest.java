@@ -0,0 +1,161 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleProperty;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class PseudoModelTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private SimpleKRSSParser _parser;
+	private Reasoner<String, String, String, String> _reasoner;
+
+	public PseudoModelTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+		throws EInconsistencyException
+	{
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		_reasoner = new Reasoner<>();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testMergeableNonSubsumption()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (some r B))"));
+		_abox.getTBox().add(_parser.parse("(implies C (only s D))"));
+		assertSubClassOf(false, "A", "C");
+		assertSubClassOf(false, "C", "A");
+		assertTrue(_reasoner.getMetrics().getPseudoModelMerges() > 0);
+	}
+
+	@Test
+	public void testAtomClash()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		assertSubClassOf(true, "A", "B");
+		assertSubClassOf(false, "B", "A");
+	}
+
+	@Test
+	public void testRoleInteraction()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (some r B))"));
+		assertSubClassOf(true, "A", "(some r B)");
+		assertSubClassOf(false, "A", "(some r C)");
+		assertEquals(0, _reasoner.getMetrics().getPseudoModelMerges());
+	}
+
+	@Test
+	public void testSubRoleInteraction()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addSubRole("s", "r");
+		_abox.getTBox().add(_parser.parse("(implies A (some r B))"));
+		assertSubClassOf(true, "A", "(some s B)");
+	}
+
+	@Test
+	public void testFunctionalRole()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().setRoleProperty("r", RoleProperty.FUNCTIONAL);
+		_abox.getTBox().add(_parser.parse("(implies A (some r B))"));
+		assertSubClassOf(true, "A", "(not (some r (not B)))");
+	}
+
+	@Test
+	public void testConditionalUnfolding()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies (and A B) C)"));
+		assertSubClassOf(true, "A", "(or (not B) C)");
+	}
+
+	@Test
+	public void testUnsatisfiableSub()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (and B (not B)))"));
+		assertSubClassOf(true, "A", "C");
+	}
+
+	/**
+	 * Check the subsumption with and without pseudo model merging.
+	 */
+	private void assertSubClassOf(final boolean expected, final String sub, final String sup)
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		assertEquals(expected, _reasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)));
+		final ReasonerOptions options = new ReasonerOptions();
+		options.setPseudoModelMerging(false);
+		final Reasoner<String, String, String, String> plainReasoner = new Reasoner<>(options);
+		assertEquals(expected, plainReasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)));
+		assertEquals(0, plainReasoner.getMetrics().getPseudoModelMerges());
+	}
+}
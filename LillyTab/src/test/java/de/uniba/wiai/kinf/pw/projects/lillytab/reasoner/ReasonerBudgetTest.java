@@ -0,0 +1,176 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class ReasonerBudgetTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private ReasonerOptions _reasonerOptions;
+	private SimpleKRSSParser _parser;
+
+	public ReasonerBudgetTest()
+	{
+	}
+
+	@Before
+	public void setUp()
+	{
+		_reasonerOptions = new ReasonerOptions();
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasonerOptions = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testUnlimited()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(and (or A B) (or C D))"));
+		final Collection<? extends IReasonerResult<String, String, String, String>> results
+			= new Reasoner<String, String, String, String>(_reasonerOptions).checkConsistency(_abox, true);
+		assertEquals(1, results.size());
+		assertFalse(results.iterator().next().isUnknown());
+		assertTrue(ReasonerResult.hasModel(results));
+	}
+
+	@Test
+	public void testMaxBranches()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_reasonerOptions.setMaxBranches(1);
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(and (or A B) (or C D))"));
+		assertUnknown(ReasonerBudget.Limit.BRANCHES);
+
+		_reasonerOptions.setTrailBacktracking(true);
+		assertUnknown(ReasonerBudget.Limit.BRANCHES);
+
+		_reasonerOptions.setTrailBacktracking(false);
+		_reasonerOptions.setParallelCompletion(true);
+		assertUnknown(ReasonerBudget.Limit.BRANCHES);
+	}
+
+	@Test
+	public void testMaxABoxNodes()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_reasonerOptions.setMaxABoxNodes(3);
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(some r (some r (some r (some r A))))"));
+		assertUnknown(ReasonerBudget.Limit.ABOX_NODES);
+	}
+
+	@Test
+	public void testPartialModels()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/* the first alternative is a model, the second one grows beyond the node limit */
+		_reasonerOptions.setMaxABoxNodes(3);
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(or A (some r (some r (some r B))))"));
+		assertPartialModels();
+
+		_reasonerOptions.setTrailBacktracking(true);
+		assertPartialModels();
+	}
+
+	@Test(expected = EReasonerBudgetException.class)
+	public void testBooleanQuery()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_reasonerOptions.setMaxBranches(1);
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("(and (or A B) (or C D))"));
+		new Reasoner<String, String, String, String>(_reasonerOptions).isConsistent(_abox);
+	}
+
+	@Test
+	public void testDeadline()
+		throws InterruptedException
+	{
+		final ReasonerBudget budget = new ReasonerBudget(1, 0, 0, 0);
+		final Branch<String, String, String, String> branch = new Branch<>(_abox, false, new ReasonerMetrics(),
+			new NogoodStore<String, String, String, String>(0), budget);
+		Thread.sleep(10);
+		assertTrue(budget.checkExhausted(branch));
+		assertEquals(ReasonerBudget.Limit.DEADLINE, budget.getExhaustedLimit());
+		assertFalse(ReasonerBudget.unlimited().checkExhausted(branch));
+	}
+
+	private void assertPartialModels()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final Collection<? extends IReasonerResult<String, String, String, String>> results
+			= new Reasoner<String, String, String, String>(_reasonerOptions).checkConsistency(_abox, false);
+		assertEquals(2, results.size());
+		int nUnknown = 0;
+		for (IReasonerResult<String, String, String, String> result : results) {
+			if (result.isUnknown()) {
+				++nUnknown;
+			} else {
+				assertTrue(result.getABox().getIndividualNode("a").getTerms().contains(_parser.parse("A")));
+			}
+		}
+		assertEquals(1, nUnknown);
+		assertTrue(ReasonerResult.hasModel(results));
+	}
+
+	private void assertUnknown(final ReasonerBudget.Limit limit)
+		throws EReasonerException, EInconsistencyException
+	{
+		final Collection<? extends IReasonerResult<String, String, String, String>> results
+			= new Reasoner<String, String, String, String>(_reasonerOptions).checkConsistency(_abox, true);
+		assertEquals(1, results.size());
+		final IReasonerResult<String, String, String, String> result = results.iterator().next();
+		assertTrue(result.isUnknown());
+		assertEquals(limit, ((ReasonerResult<String, String, String, String>) result).getExhaustedLimit());
+	}
+}
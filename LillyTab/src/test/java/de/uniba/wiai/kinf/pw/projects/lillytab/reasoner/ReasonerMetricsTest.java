@@ -0,0 +1,187 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.completer.UnionCompleter;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class ReasonerMetricsTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private SimpleKRSSParser _parser;
+
+	public ReasonerMetricsTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_reasoner = new Reasoner<>(new ReasonerOptions());
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testBranchMetrics()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A B)"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _reasoner.
+			checkConsistency(_abox, false);
+		assertEquals(2, results.size());
+		final ReasonerMetrics metrics = results.iterator().next().getMetrics();
+		for (IReasonerResult<String, String, String, String> result : results) {
+			assertSame(metrics, result.getMetrics());
+		}
+		assertEquals(1, metrics.getQueries());
+		assertEquals(1, metrics.getBranchesCreated());
+		/* the initial copy and the copy for the second branch */
+		assertEquals(2, metrics.getABoxClones());
+		assertEquals(2, metrics.getNodesCloned());
+		assertEquals(2, metrics.getPeakBranchTreeSize());
+		assertTrue(metrics.getBlockingChecks() > 0);
+		assertTrue(metrics.getCompleterMetrics().containsKey(UnionCompleter.class));
+		assertTrue(metrics.getCompleterMetrics().get(UnionCompleter.class).getCalls() > 0);
+
+		assertEquals(1, _reasoner.getMetrics().getQueries());
+		assertEquals(1, _reasoner.getMetrics().getBranchesCreated());
+	}
+
+	@Test
+	public void testPrunedBranches()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/* the clash in the successor does not depend on the choice between A and B */
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A B)"));
+		aNode.addTerm(_parser.parse("(some r C)"));
+		aNode.addTerm(_parser.parse("(only r (not C))"));
+
+		try {
+			_reasoner.checkConsistency(_abox, false);
+			fail("ABox should be inconsistent");
+		} catch (EInconsistencyException ex) {
+			/* expected */
+		}
+		assertTrue(_reasoner.getMetrics().getBranchesPruned() > 0);
+	}
+
+	@Test
+	public void testNodeMerges()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(ONLY r {b})"));
+		final IABoxNode<String, String, String, String> a0 = _abox.getOrAddIndividualNode("a0");
+		final IABoxNode<String, String, String, String> a1 = _abox.getOrAddIndividualNode("a1");
+		a1.addTerm(_parser.parse("(some r _Thing_)"));
+		final IABoxNode<String, String, String, String> b0 = _abox.getOrAddIndividualNode("b");
+		a0.getRABox().getAssertedSuccessors().put("r", b0.getNodeID());
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _reasoner.
+			checkConsistency(_abox);
+		assertEquals(1, results.size());
+		assertEquals(1, results.iterator().next().getMetrics().getNodeMerges());
+	}
+
+	@Test
+	public void testCacheHits()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("B")));
+		final long hits = _reasoner.getMetrics().getCacheHits();
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("B")));
+		assertEquals(hits + 1, _reasoner.getMetrics().getCacheHits());
+	}
+
+	@Test
+	public void testAddAll()
+	{
+		final ReasonerMetrics first = new ReasonerMetrics();
+		first.countQuery();
+		first.countBranchesCreated(3);
+		first.countBlockingCheck(true);
+		first.updatePeakBranchTreeSize(4);
+		final ReasonerMetrics second = new ReasonerMetrics();
+		second.countQuery();
+		second.countBranchPruned();
+		second.countBlockingCheck(false);
+		second.updatePeakBranchTreeSize(2);
+
+		first.addAll(second);
+		assertEquals(2, first.getQueries());
+		assertEquals(3, first.getBranchesCreated());
+		assertEquals(1, first.getBranchesPruned());
+		assertEquals(2, first.getBlockingChecks());
+		assertEquals(1, first.getBlockedNodes());
+		assertEquals(4, first.getPeakBranchTreeSize());
+
+		first.reset();
+		assertEquals(0, first.getQueries());
+		assertEquals(0, first.getPeakBranchTreeSize());
+	}
+}
@@ -936,6 +936,65 @@ public class ReasonerTest
 		assertEquals(4, results.size());
 	}
 
+	@Test
+	public void testForcedUnion()
+		throws EReasonerException, ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> a = _abox.getOrAddIndividualNode("a");
+		a.addTerm(_parser.parse("(or A (or B C))"));
+		a.addTerm(_parser.parse("(not A)"));
+		a.addTerm(_parser.parse("(or (not B) D)"));
+		a.addTerm(_parser.parse("(not D)"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> results = _reasoner.
+			checkConsistency(_abox, false);
+		assertEquals(1, results.size());
+		final IReasonerResult<String, String, String, String> result = results.iterator().next();
+		assertTrue(result.getABox().getIndividualNode("a").getTerms().contains(_parser.parse("C")));
+		/* both unions are decided by propagation */
+		assertEquals(0, result.getMetrics().getBranchesCreated());
+	}
+
+	@Test
+	public void testContradictedUnion()
+		throws EReasonerException, ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> a = _abox.getOrAddIndividualNode("a");
+		a.addTerm(_parser.parse("(or A B)"));
+		a.addTerm(_parser.parse("(or C D)"));
+		a.addTerm(_parser.parse("(not C)"));
+		a.addTerm(_parser.parse("(not D)"));
+
+		try {
+			_reasoner.checkConsistency(_abox);
+			fail("ABox should be inconsistent");
+		} catch (EInconsistencyException ex) {
+			/* the clash is found before branching on (or A B) */
+			assertEquals(0, _reasoner.getMetrics().getBranchesCreated());
+		}
+	}
+
+	@Test
+	public void testAnywhereBlocking()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (some r (and A B)))"));
+		_abox.getOrAddIndividualNode("a").addTerm(_parser.parse("A"));
+		_abox.getOrAddIndividualNode("b").addTerm(_parser.parse("A"));
+
+		final IReasonerResult<String, String, String, String> result = _reasoner.checkConsistency(_abox, true).
+			iterator().next();
+
+		final ReasonerOptions anywhereOptions = new ReasonerOptions();
+		anywhereOptions.setAnywhereBlocking(true);
+		final Reasoner<String, String, String, String> anywhereReasoner = new Reasoner<>(anywhereOptions);
+		final IReasonerResult<String, String, String, String> anywhereResult = anywhereReasoner.checkConsistency(
+			_abox, true).iterator().next();
+		/* the successor of b is blocked by the successor of a */
+		assertTrue(anywhereResult.getABox().size() < result.getABox().size());
+	}
+
 	@Test(expected = EInconsistencyException.class)
 	public void testDependencyDirectedBacktracking()
 		throws ENodeMergeException, ParseException, EReasonerException, EInconsistencyException
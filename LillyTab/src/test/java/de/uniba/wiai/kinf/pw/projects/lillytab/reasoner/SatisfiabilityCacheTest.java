@@ -0,0 +1,145 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class SatisfiabilityCacheTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private Reasoner<String, String, String, String> _uncachedReasoner;
+	private SimpleKRSSParser _parser;
+
+	@Before
+	public void setUp()
+	{
+		final ReasonerOptions reasonerOptions = new ReasonerOptions();
+		reasonerOptions.setSatisfiabilityCaching(true);
+		_reasoner = new Reasoner<>(reasonerOptions);
+		final ReasonerOptions uncachedOptions = new ReasonerOptions();
+		uncachedOptions.setSatisfiabilityCaching(false);
+		_uncachedReasoner = new Reasoner<>(uncachedOptions);
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@Test
+	public void testUnsatisfiableSuccessor()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (and B (not B)))"));
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+		final SatisfiabilityCache<String, String, String, String> satCache = _reasoner.getSatisfiabilityCache(_abox);
+		assertEquals(1, satCache.size());
+
+		final long hits = satCache.getHits();
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(some r A)"), _parser.parse("_Nothing_")));
+		assertTrue(satCache.getHits() > hits);
+	}
+
+	@Test
+	public void testSatisfiableShortcut()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (some r B))"));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+		final SatisfiabilityCache<String, String, String, String> satCache = _reasoner.getSatisfiabilityCache(_abox);
+		assertTrue(satCache.size() > 0);
+
+		final long hits = satCache.getHits();
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+		assertTrue(satCache.getHits() > hits);
+	}
+
+	@Test
+	public void testInvalidateOnTBoxChange()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+		_abox.getTBox().add(_parser.parse("(implies A (not A))"));
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+		_abox.getTBox().remove(_parser.parse("(implies A (not A))"));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("_Nothing_")));
+	}
+
+	@Test
+	public void testInvalidateOnDomainChange()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		_abox.getAssertedRBox().getRoleDomains().put("r", _parser.parse("(not A)"));
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some r B))"), _parser.parse("_Nothing_")));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some s B))"), _parser.parse("_Nothing_")));
+
+		/* move the domain from r to s */
+		_abox.getAssertedRBox().getRoleDomains().remove("r", _parser.parse("(not A)"));
+		_abox.getAssertedRBox().getRoleDomains().put("s", _parser.parse("(not A)"));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some r B))"), _parser.parse("_Nothing_")));
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some s B))"), _parser.parse("_Nothing_")));
+	}
+
+	@Test
+	public void testCachedMatchesUncached()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (some r (and B C)))"));
+		_abox.getTBox().add(_parser.parse("(implies B (some r B))"));
+		_abox.getTBox().add(_parser.parse("(implies C (only r (not D)))"));
+		_abox.getTBox().add(_parser.parse("(implies E (and (some r D) (only r C)))"));
+		final String[] classes = {"A", "B", "C", "D", "E", "(some r A)", "(some r E)", "(and A (some r D))"};
+		for (int repeat = 0; repeat < 2; ++repeat) {
+			for (String sub : classes) {
+				for (String sup : classes) {
+					assertEquals(sub + " < " + sup,
+								 _uncachedReasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)),
+								 _reasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)));
+				}
+				assertEquals(sub, _uncachedReasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse("_Nothing_")),
+							 _reasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse("_Nothing_")));
+			}
+		}
+	}
+}
@@ -111,4 +111,51 @@ public class SubsetBlockingStrategyTest
 		node0.getRABox().getAssertedSuccessors().put("r", node1);
 		assertTrue(_blockingStrategy.isBlocked(node1));
 	}
+
+	@Test
+	public void testLabelChanges() throws ENodeMergeException, EInconsistentRBoxException
+	{
+		_abox.getRBox().getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+
+		final IABoxNode<String, String, String, String> node0 = _abox.createNode(false, true);
+		final IABoxNode<String, String, String, String> node1 = _abox.createNode(false, true);
+
+		node0.addTerm(_termFactory.getDLClassReference("A"));
+		node1.addTerm(_termFactory.getDLClassReference("A"));
+		node0.getRABox().getAssertedSuccessors().put("r", node1);
+		assertTrue(_blockingStrategy.isBlocked(node1));
+
+		node1.addTerm(_termFactory.getDLClassReference("B"));
+		assertFalse(_blockingStrategy.isBlocked(node1));
+
+		/* the index of a clone is independent */
+		final IABox<String, String, String, String> klone = _abox.clone();
+		node0.addTerm(_termFactory.getDLClassReference("B"));
+		assertTrue(_blockingStrategy.isBlocked(node1));
+		assertFalse(_blockingStrategy.isBlocked(klone.getNode(node1.getNodeID())));
+	}
+
+	@Test
+	public void testAnywhereBlock() throws ENodeMergeException, EInconsistentRBoxException
+	{
+		_abox.getRBox().getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+
+		final IABoxNode<String, String, String, String> node0 = _abox.createNode(false, true);
+		final IABoxNode<String, String, String, String> node1 = _abox.createNode(false, true);
+		final IABoxNode<String, String, String, String> node2 = _abox.createNode(false, true);
+		final IABoxNode<String, String, String, String> node3 = _abox.createNode(false, true);
+
+		node1.addTerm(_termFactory.getDLClassReference("A"));
+		node1.addTerm(_termFactory.getDLClassReference("B"));
+		node3.addTerm(_termFactory.getDLClassReference("A"));
+		/* node1 and node3 are in different subtrees */
+		node0.getRABox().getAssertedSuccessors().put("r", node1);
+		node2.getRABox().getAssertedSuccessors().put("r", node3);
+
+		assertFalse(_blockingStrategy.isBlocked(node3));
+		final IBlockingStrategy<String, String, String, String> anywhereStrategy = new SubsetBlockingStrategy<>(true);
+		assertTrue(anywhereStrategy.isBlocked(node3));
+		/* only older nodes may block */
+		assertFalse(anywhereStrategy.isBlocked(node1));
+	}
 }
@@ -0,0 +1,145 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IIndividualABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.ENodeMergeException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.AbsorptionStatistics;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.tbox.TBox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TBoxAbsorptionTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(
+		_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private SimpleKRSSParser _parser;
+
+	@Before
+	public void setUp()
+	{
+		final ReasonerOptions reasonerOptions = new ReasonerOptions();
+		reasonerOptions.setTracing(false);
+		_reasoner = new Reasoner<>(reasonerOptions);
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	private AbsorptionStatistics getStatistics()
+	{
+		return ((TBox<String, String, String, String>) _abox.getTBox()).getAbsorptionStatistics();
+	}
+
+	@Test
+	public void testConditionalAbsorption()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies (and A B) C)"));
+		assertEquals(1, getStatistics().getConditional());
+		assertEquals(0, getStatistics().getGlobal());
+		/* only _Thing_ remains */
+		assertEquals(1, _abox.getTBox().getGlobalDescriptions().size());
+
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(and A B)"), _parser.parse("C")));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("C")));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("B"), _parser.parse("C")));
+	}
+
+	@Test
+	public void testConditionalAbsorptionMerge()
+		throws ParseException, EReasonerException, EInconsistencyException, ENodeMergeException
+	{
+		_abox.getTBox().add(_parser.parse("(implies (and A B) (not C))"));
+		final IIndividualABoxNode<String, String, String, String> a = _abox.getOrAddIndividualNode("a");
+		a.addClassTerm(_parser.parse("A"));
+		a.addClassTerm(_parser.parse("C"));
+		final IIndividualABoxNode<String, String, String, String> b = _abox.getOrAddIndividualNode("b");
+		b.addClassTerm(_parser.parse("B"));
+		assertTrue(_reasoner.isConsistent(_abox));
+		a.addClassTerm(_parser.parse("{b}"));
+		assertFalse(_reasoner.isConsistent(_abox));
+	}
+
+	@Test
+	public void testConceptAbsorption()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies (and A (some r B)) C)"));
+		assertEquals(1, getStatistics().getConcept());
+		assertEquals(0, getStatistics().getGlobal());
+
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some r B))"), _parser.parse("C")));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("(and A (some r D))"), _parser.parse("C")));
+	}
+
+	@Test
+	public void testRoleDomainAbsorption()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies (some r _Thing_) A)"));
+		assertEquals(1, getStatistics().getRole());
+		assertEquals(0, getStatistics().getGlobal());
+
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(some r B)"), _parser.parse("A")));
+		assertFalse(_reasoner.isSubClassOf(_abox, _parser.parse("B"), _parser.parse("A")));
+	}
+
+	@Test
+	public void testNegatedDisjunctAbsorption()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(or (not A) B)"));
+		assertEquals(1, getStatistics().getUnfoldable());
+		assertEquals(0, getStatistics().getGlobal());
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("A"), _parser.parse("B")));
+	}
+
+	@Test
+	public void testGlobalFallback()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies (only r B) C)"));
+		assertEquals(1, getStatistics().getGlobal());
+		assertTrue(_reasoner.isSubClassOf(_abox, _parser.parse("(only r B)"), _parser.parse("C")));
+	}
+}
@@ -0,0 +1,259 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.IReasonerResult;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxNode;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.NodeID;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.tbox.RoleType;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TrailBacktrackingTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _cloningReasoner;
+	private Reasoner<String, String, String, String> _trailReasoner;
+	private SimpleKRSSParser _parser;
+
+	public TrailBacktrackingTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_cloningReasoner = new Reasoner<>(new ReasonerOptions());
+		final ReasonerOptions trailOptions = new ReasonerOptions();
+		trailOptions.setTrailBacktracking(true);
+		_trailReasoner = new Reasoner<>(trailOptions);
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_cloningReasoner = null;
+		_trailReasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testRollbackTerms()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("A"));
+		final int checkpoint = _abox.pushCheckpoint();
+		aNode.addTerm(_parser.parse("B"));
+		final IABoxNode<String, String, String, String> newNode = _abox.createIndividualNode();
+		newNode.addTerm(_parser.parse("C"));
+		assertEquals(2, _abox.size());
+
+		_abox.rollback(checkpoint);
+		assertEquals(1, _abox.size());
+		assertNull(_abox.getNode(newNode.getNodeID()));
+		final IABoxNode<String, String, String, String> restored = _abox.getIndividualNode("a");
+		assertTrue(restored.getTerms().contains(_parser.parse("A")));
+		assertFalse(restored.getTerms().contains(_parser.parse("B")));
+
+		/* the checkpoint stays valid after the rollback */
+		restored.addTerm(_parser.parse("D"));
+		_abox.rollback(checkpoint);
+		assertFalse(_abox.getIndividualNode("a").getTerms().contains(_parser.parse("D")));
+		_abox.popCheckpoint(checkpoint);
+		assertEquals(0, _abox.getCheckpointCount());
+	}
+
+	@Test
+	public void testRollbackLinks()
+		throws ParseException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final IABoxNode<String, String, String, String> bNode = _abox.getOrAddIndividualNode("b");
+		final NodeID aID = aNode.getNodeID();
+		final NodeID bID = bNode.getNodeID();
+		final int checkpoint = _abox.pushCheckpoint();
+		aNode.getRABox().getAssertedSuccessors().put("r", bID);
+		assertTrue(_abox.getNode(bID).getRABox().getAssertedPredecessors().containsValue("r", aID));
+
+		_abox.rollback(checkpoint);
+		assertFalse(_abox.getNode(aID).getRABox().getAssertedSuccessors().containsValue("r", bID));
+		assertFalse(_abox.getNode(bID).getRABox().getAssertedPredecessors().containsValue("r", aID));
+	}
+
+	@Test
+	public void testRollbackMerge()
+		throws ParseException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		final IABoxNode<String, String, String, String> bNode = _abox.getOrAddIndividualNode("b");
+		aNode.addTerm(_parser.parse("A"));
+		bNode.addTerm(_parser.parse("B"));
+		final int outer = _abox.pushCheckpoint();
+		final int inner = _abox.pushCheckpoint();
+		_abox.mergeNodes(aNode, bNode);
+		assertEquals(1, _abox.size());
+		/* discarding the inner checkpoint hands its records to the outer one */
+		_abox.popCheckpoint(inner);
+
+		_abox.rollback(outer);
+		assertEquals(2, _abox.size());
+		assertNotSame(_abox.getIndividualNode("a"), _abox.getIndividualNode("b"));
+		assertFalse(_abox.getIndividualNode("a").getTerms().contains(_parser.parse("B")));
+		assertFalse(_abox.getIndividualNode("b").getTerms().contains(_parser.parse("A")));
+	}
+
+	@Test
+	public void testAllModels()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(or (not A1) (not A2))"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> cloningResults = _cloningReasoner.
+			checkConsistency(_abox, false);
+		final Collection<? extends IReasonerResult<String, String, String, String>> trailResults = _trailReasoner.
+			checkConsistency(_abox, false);
+		assertEquals(cloningResults.size(), trailResults.size());
+		for (IReasonerResult<String, String, String, String> result : trailResults) {
+			final IABoxNode<String, String, String, String> resultNode = result.getABox().getIndividualNode("a");
+			for (int i = 1; i <= 3; ++i) {
+				assertTrue(resultNode.getTerms().contains(_termFactory.getDLClassReference("A" + i))
+					|| resultNode.getTerms().contains(_termFactory.getDLClassReference("B" + i)));
+			}
+			assertFalse(resultNode.getTerms().contains(_termFactory.getDLClassReference("A1"))
+				&& resultNode.getTerms().contains(_termFactory.getDLClassReference("A2")));
+		}
+	}
+
+	@Test(expected = EInconsistencyException.class)
+	public void testUnionInconsistency()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(or C D)"));
+		aNode.addTerm(_parser.parse("(not C)"));
+		aNode.addTerm(_parser.parse("(not D)"));
+
+		_trailReasoner.checkConsistency(_abox, false);
+	}
+
+	@Test
+	public void testBackjumping()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/**
+		 * The successor is created after branching on the disjunctions of a. Its clash does not depend on these
+		 * choices, so their remaining alternatives are skipped.
+		 */
+		_abox.getAssertedRBox().addRole("s", RoleType.OBJECT_PROPERTY);
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or A3 B3)"));
+		aNode.addTerm(_parser.parse("(some s (and (or C D) (and (not C) (not D))))"));
+
+		assertFalse(_trailReasoner.isConsistent(_abox));
+		assertTrue(_trailReasoner.getMetrics().getBranchesPruned() >= 3);
+		assertTrue(_trailReasoner.getMetrics().getBranchesCreated() < 8);
+	}
+
+	@Test
+	public void testBackjumpingDependentChoice()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		/* the clash depends on the choice of A1, which must be revised */
+		final IABoxNode<String, String, String, String> aNode = _abox.getOrAddIndividualNode("a");
+		aNode.addTerm(_parser.parse("(or A1 B1)"));
+		aNode.addTerm(_parser.parse("(or A2 B2)"));
+		aNode.addTerm(_parser.parse("(or (not A1) C)"));
+		aNode.addTerm(_parser.parse("(or (not A1) D)"));
+		aNode.addTerm(_parser.parse("(or (not C) (not D))"));
+
+		final Collection<? extends IReasonerResult<String, String, String, String>> trailResults = _trailReasoner.
+			checkConsistency(_abox, true);
+		assertEquals(1, trailResults.size());
+		final IABoxNode<String, String, String, String> resultNode = trailResults.iterator().next().getABox().
+			getIndividualNode("a");
+		assertFalse(resultNode.getTerms().contains(_termFactory.getDLClassReference("A1"))
+			&& resultNode.getTerms().contains(_termFactory.getDLClassReference("C"))
+			&& resultNode.getTerms().contains(_termFactory.getDLClassReference("D")));
+		assertEquals(_cloningReasoner.checkConsistency(_abox, false).size(),
+					 _trailReasoner.checkConsistency(_abox, false).size());
+	}
+
+	@Test
+	public void testSubClassOf()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getAssertedRBox().addRole("r", RoleType.OBJECT_PROPERTY);
+		_abox.getTBox().add(_parser.parse("(implies A (or B C))"));
+		_abox.getTBox().add(_parser.parse("(implies B (and D (some r (or E F))))"));
+		_abox.getTBox().add(_parser.parse("(implies C D)"));
+		_abox.getTBox().add(_parser.parse("(implies G (and (or B F) (only r (not E))))"));
+		final String[] classes = {"A", "B", "C", "D", "E", "F", "G", "(some r F)", "(and G (some r E))"};
+		for (String sub : classes) {
+			for (String sup : classes) {
+				assertEquals(sub + " < " + sup,
+							 _cloningReasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)),
+							 _trailReasoner.isSubClassOf(_abox, _parser.parse(sub), _parser.parse(sup)));
+			}
+		}
+	}
+}
@@ -23,10 +23,17 @@ package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox;
 
 import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.TermSet.TermTypes;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.DLTermOrder;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassReference;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLLiteralReference;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectUnion;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTerm;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.datarange.IDLDataUnion;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import org.junit.After;
 import org.junit.AfterClass;
 import static org.junit.Assert.*;
@@ -87,4 +94,67 @@ public class TermSetTest {
 		assertEquals(1, _termSet.subSet(DLTermOrder.DL_DATA_UNION).size());
 		assertTrue(_termSet.subSet(DLTermOrder.DL_DATA_UNION).contains(union));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testSubSetViewIsCachedAndLive()
+	{
+		final SortedSet<IDLTerm<String, String, String, String>> classRefs = _termSet.subSet(DLTermOrder.DL_CLASS_REFERENCE);
+		assertSame(classRefs, _termSet.subSet(DLTermOrder.DL_CLASS_REFERENCE));
+		assertTrue(classRefs.isEmpty());
+
+		final IDLClassReference<String, String, String, String> a = _termFactory.getDLClassReference("A");
+		_termSet.add(a);
+		_termSet.add(_termFactory.getDLObjectNegation(a));
+		assertEquals(1, classRefs.size());
+		assertTrue(classRefs.contains(a));
+
+		_termSet.remove(a);
+		assertTrue(classRefs.isEmpty());
+	}
+
+
+	@Test
+	public void testTermBucketSet()
+	{
+		final TermBucketSet<String, String, String, String> bucketSet = new TermBucketSet<>();
+		final TermSet<String, String, String, String> termSet = new TermSet<>(TermTypes.ANY, bucketSet, this);
+		final IDLClassReference<String, String, String, String> a = _termFactory.getDLClassReference("A");
+		final IDLClassReference<String, String, String, String> b = _termFactory.getDLClassReference("B");
+		final IDLObjectNegation<String, String, String, String> notA = _termFactory.getDLObjectNegation(a);
+		final IDLObjectUnion<String, String, String, String> aOrB = _termFactory.getDLObjectUnion(a, b);
+
+		termSet.add(notA);
+		termSet.add(aOrB);
+		termSet.add(b);
+		termSet.add(a);
+
+		final TreeSet<IDLTerm<String, String, String, String>> reference = new TreeSet<>(termSet);
+		assertEquals(4, termSet.size());
+		assertArrayEquals(reference.toArray(), termSet.toArray());
+		assertEquals(reference.first(), termSet.first());
+		assertEquals(reference.last(), termSet.last());
+		assertEquals(reference.headSet(aOrB), termSet.headSet(aOrB));
+		assertEquals(reference.tailSet(b), termSet.tailSet(b));
+
+		final SortedSet<IDLTerm<String, String, String, String>> classRefs = termSet.subSet(DLTermOrder.DL_CLASS_REFERENCE);
+		assertEquals(2, classRefs.size());
+		assertEquals(a, classRefs.first());
+		assertEquals(1, termSet.subSet(DLTermOrder.DL_OBJECT_UNION).size());
+		assertTrue(termSet.subSet(DLTermOrder.DL_OBJECT_SOME_RESTRICTION).isEmpty());
+
+		final Iterator<IDLTerm<String, String, String, String>> iter = termSet.iterator();
+		while (iter.hasNext()) {
+			if (iter.next() instanceof IDLObjectNegation) {
+				iter.remove();
+			}
+		}
+		assertFalse(termSet.contains(notA));
+		assertEquals(3, termSet.size());
+
+		final TermBucketSet<String, String, String, String> klone = bucketSet.clone();
+		klone.remove(a);
+		assertEquals(2, klone.size());
+		assertEquals(3, termSet.size());
+		assertTrue(classRefs.contains(a));
+	}
+}
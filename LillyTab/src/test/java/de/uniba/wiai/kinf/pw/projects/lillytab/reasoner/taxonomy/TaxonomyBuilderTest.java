@@ -0,0 +1,182 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.EInconsistencyException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.EReasonerException;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.Reasoner;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.ReasonerOptions;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class TaxonomyBuilderTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private Reasoner<String, String, String, String> _reasoner;
+	private SimpleKRSSParser _parser;
+
+	public TaxonomyBuilderTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_reasoner = new Reasoner<>(new ReasonerOptions());
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_reasoner = null;
+		_abox = null;
+		_parser = null;
+	}
+
+	private Taxonomy<String> build(final TaxonomyBuilder<String, String, String, String> builder)
+		throws EReasonerException, EInconsistencyException
+	{
+		return builder.build(new ArrayList<>(new TreeSet<>(_abox.getClassesInSignature())));
+	}
+
+	private Set<String> representatives(final Set<Taxonomy.Node<String>> nodes)
+	{
+		final Set<String> reps = new HashSet<>();
+		for (Taxonomy.Node<String> node : nodes) {
+			reps.add(node.getRepresentative());
+		}
+		return reps;
+	}
+
+	@Test
+	public void testDiamond()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies B A)"));
+		_abox.getTBox().add(_parser.parse("(implies C A)"));
+		_abox.getTBox().add(_parser.parse("(implies D (and B C))"));
+		_abox.getTBox().add(_parser.parse("(implies E (or B C))"));
+
+		final Taxonomy<String> taxonomy = build(new TaxonomyBuilder<>(_reasoner, _abox));
+		assertEquals(new HashSet<>(Arrays.asList("B", "C")), representatives(taxonomy.getNode("D").getParents()));
+		assertEquals(new HashSet<>(Arrays.asList("A")), representatives(taxonomy.getNode("E").getParents()));
+		assertEquals(new HashSet<>(Arrays.asList("B", "C", "E")), representatives(taxonomy.getNode("A").getChildren()));
+		assertTrue(taxonomy.getNode("A").getParents().contains(taxonomy.getTop()));
+	}
+
+	@Test
+	public void testEquivalentClasses()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A B)"));
+		_abox.getTBox().add(_parser.parse("(implies B C)"));
+		_abox.getTBox().add(_parser.parse("(implies C A)"));
+		_abox.getTBox().add(_parser.parse("(implies D A)"));
+
+		final Taxonomy<String> taxonomy = build(new TaxonomyBuilder<>(_reasoner, _abox));
+		assertSame(taxonomy.getNode("A"), taxonomy.getNode("B"));
+		assertSame(taxonomy.getNode("A"), taxonomy.getNode("C"));
+		assertEquals(new HashSet<>(Arrays.asList("A", "B", "C")), taxonomy.getNode("A").getClasses());
+		assertTrue(taxonomy.getNode("D").getParents().contains(taxonomy.getNode("A")));
+		assertTrue(taxonomy.toImplications(_termFactory).contains(_parser.parse("(implies D A)")));
+	}
+
+	@Test
+	public void testUnsatisfiable()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (and B (not B)))"));
+		_abox.getTBox().add(_parser.parse("(implies C B)"));
+
+		final Taxonomy<String> taxonomy = build(new TaxonomyBuilder<>(_reasoner, _abox));
+		assertSame(taxonomy.getBottom(), taxonomy.getNode("A"));
+		assertTrue(taxonomy.getNode("C").getParents().contains(taxonomy.getNode("B")));
+	}
+
+	@Test
+	public void testChainTestCount()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		final int nClasses = 50;
+		for (int i = 0; i < nClasses; ++i) {
+			_abox.getTBox().add(_parser.parse(String.format("(implies A%03d A%03d)", i + 1, i)));
+		}
+		final TaxonomyBuilder<String, String, String, String> builder = new TaxonomyBuilder<>(_reasoner, _abox);
+		final Taxonomy<String> taxonomy = build(builder);
+		for (int i = 0; i < nClasses; ++i) {
+			final List<String> parents = new ArrayList<>(representatives(taxonomy.getNode(String.format("A%03d", i + 1)).getParents()));
+			assertEquals(Arrays.asList(String.format("A%03d", i)), parents);
+		}
+		/* told subsumers leave only the equivalence check against the direct parent */
+		assertTrue(builder.getSubsumptionTests() <= nClasses);
+	}
+
+	@Test
+	public void testToldDisjoint()
+		throws ParseException, EReasonerException, EInconsistencyException
+	{
+		_abox.getTBox().add(_parser.parse("(implies B A)"));
+		_abox.getTBox().add(_parser.parse("(implies C (and A (not B)))"));
+		_abox.getTBox().add(_parser.parse("(implies D (and C E))"));
+		_abox.getTBox().add(_parser.parse("(implies (and B F) _Nothing_)"));
+
+		final TaxonomyBuilder<String, String, String, String> builder = new TaxonomyBuilder<>(_reasoner, _abox);
+		final Taxonomy<String> taxonomy = build(builder);
+		assertEquals(new HashSet<>(Arrays.asList("B", "C")), representatives(taxonomy.getNode("A").getChildren()));
+		assertEquals(new HashSet<>(Arrays.asList("C", "E")), representatives(taxonomy.getNode("D").getParents()));
+		assertTrue(taxonomy.getNode("F").getParents().contains(taxonomy.getTop()));
+		assertTrue(builder.getToldSubsumptions() > 0);
+	}
+}
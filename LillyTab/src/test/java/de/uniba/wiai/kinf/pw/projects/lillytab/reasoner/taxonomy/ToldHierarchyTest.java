@@ -0,0 +1,125 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.taxonomy;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABox;
+import de.uniba.wiai.kinf.pw.projects.lillytab.abox.IABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.reasoner.abox.ABoxFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleKRSSParser;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.logging.LogManager;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class ToldHierarchyTest
+{
+	private final IDLTermFactory<String, String, String, String> _termFactory = new SimpleStringDLTermFactory();
+	private final IABoxFactory<String, String, String, String> _aboxFactory = new ABoxFactory<>(_termFactory);
+	private IABox<String, String, String, String> _abox;
+	private SimpleKRSSParser _parser;
+
+	public ToldHierarchyTest()
+	{
+	}
+
+	@BeforeClass
+	public static void setUpClass()
+		throws Exception
+	{
+		LogManager.getLogManager().reset();
+	}
+
+	@Before
+	public void setUp()
+	{
+		_parser = new SimpleKRSSParser(_termFactory);
+		_abox = _aboxFactory.createABox();
+	}
+
+	@After
+	public void tearDown()
+	{
+		_abox = null;
+		_parser = null;
+	}
+
+	@Test
+	public void testToldSubsumers()
+		throws ParseException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (and B (some r C)))"));
+		_abox.getTBox().add(_parser.parse("(implies B (and C D))"));
+		_abox.getTBox().add(_parser.parse("(implies D A)"));
+
+		final ToldHierarchy<String, String, String, String> told = new ToldHierarchy<>(_abox.getTBox(), _termFactory);
+		assertEquals(new HashSet<>(Arrays.asList("B")), told.getDirectToldSubsumers("A"));
+		assertEquals(new HashSet<>(Arrays.asList("B", "C", "D")), told.getToldSubsumers("A"));
+		assertEquals(new HashSet<>(Arrays.asList("A", "B", "C")), told.getToldSubsumers("D"));
+		assertTrue(told.isToldSubsumer("A", "C"));
+		assertTrue(told.isToldSubsumer("C", "C"));
+		assertTrue(told.isToldSubsumer("C", "_Thing_"));
+		assertFalse(told.isToldSubsumer("C", "A"));
+		assertNull(told.getToldSubsumption("C", "A"));
+	}
+
+	@Test
+	public void testToldDisjoint()
+		throws ParseException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A (and B (not C)))"));
+		_abox.getTBox().add(_parser.parse("(implies D C)"));
+		_abox.getTBox().add(_parser.parse("(implies E A)"));
+		_abox.getTBox().add(_parser.parse("(implies (and F G) _Nothing_)"));
+
+		final ToldHierarchy<String, String, String, String> told = new ToldHierarchy<>(_abox.getTBox(), _termFactory);
+		assertEquals(new HashSet<>(Arrays.asList("C")), told.getToldNegations("E"));
+		assertTrue(told.isToldDisjoint("A", "C"));
+		assertTrue(told.isToldDisjoint("C", "A"));
+		assertTrue(told.isToldDisjoint("E", "D"));
+		assertTrue(told.isToldDisjoint("F", "G"));
+		assertFalse(told.isToldDisjoint("A", "B"));
+		assertFalse(told.isToldDisjoint("F", "A"));
+		assertEquals(Boolean.FALSE, told.getToldSubsumption("D", "E"));
+		assertEquals(Boolean.TRUE, told.getToldSubsumption("E", "B"));
+	}
+
+	@Test
+	public void testToldUnsatisfiable()
+		throws ParseException
+	{
+		_abox.getTBox().add(_parser.parse("(implies A _Nothing_)"));
+		final ToldHierarchy<String, String, String, String> told = new ToldHierarchy<>(_abox.getTBox(), _termFactory);
+		assertTrue(told.isToldSubsumer("A", "B"));
+	}
+}
@@ -21,7 +21,10 @@
  **/
 package de.uniba.wiai.kinf.pw.projects.lillytab.terms.util;
 
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLObjectNegation;
 import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLTermFactory;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl.TermMemo;
 import java.text.ParseException;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -131,4 +134,51 @@ public class TermUtilTest {
 			_termFactory));
 
 	}
-}
\ No newline at end of file
+
+
+	/**
+	 * Test memoization of {@link TermUtil#toNNF}, {@link TermUtil#simplify} and term negation.
+	 */
+	@Test
+	public void testMemoizedTransformations() throws ParseException
+	{
+		final IDLClassExpression<String, String, String, String> desc = _parser.parse(
+			"(not (and A (some r (not (not B)))))");
+		final IDLClassExpression<String, String, String, String> nnf = TermUtil.toNNF(desc, _termFactory);
+		assertEquals(_parser.parse("(or (not A) (only r (not B)))"), nnf);
+		assertSame(nnf, TermMemo.of(desc, _termFactory).getNNF());
+		assertSame(nnf, TermUtil.toNNF(desc, _termFactory));
+
+		final IDLClassExpression<String, String, String, String> simplified = TermUtil.simplify(desc, _termFactory);
+		assertSame(simplified, TermMemo.of(desc, _termFactory).getSimplified());
+		assertSame(simplified, TermUtil.simplify(desc, _termFactory));
+
+		final IDLClassExpression<String, String, String, String> neg = _termFactory.getDLObjectNegation(desc);
+		assertSame(neg, TermMemo.of(desc, _termFactory).getNegation());
+		assertSame(neg, _termFactory.getDLObjectNegation(desc));
+	}
+
+
+	/**
+	 * Memoized results belong to the term factory that created them.
+	 */
+	@Test
+	public void testMemoizedTransformationsOtherFactory() throws ParseException
+	{
+		final IDLClassExpression<String, String, String, String> desc = _parser.parse("(not (and A B))");
+		final IDLClassExpression<String, String, String, String> nnf = TermUtil.toNNF(desc, _termFactory);
+		final IDLObjectNegation<String, String, String, String> neg = _termFactory.getDLObjectNegation(desc);
+
+		final IDLTermFactory<String, String, String, String> otherFactory = new SimpleStringDLTermFactory();
+		assertNull(TermMemo.of(desc, otherFactory));
+		final IDLClassExpression<String, String, String, String> otherNNF = TermUtil.toNNF(desc, otherFactory);
+		assertEquals(nnf, otherNNF);
+		assertNotSame(nnf, otherNNF);
+		assertSame(otherNNF, TermUtil.toNNF(new SimpleKRSSParser(otherFactory).parse("(not (and A B))"), otherFactory));
+		final IDLObjectNegation<String, String, String, String> otherNeg = otherFactory.getDLObjectNegation(desc);
+		assertEquals(neg, otherNeg);
+		assertNotSame(neg, otherNeg);
+		assertSame(otherNeg, otherFactory.getDLObjectNegation(desc));
+		assertSame(nnf, TermUtil.toNNF(desc, _termFactory));
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.IDLClassExpression;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl.DLObjectNegation;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.impl.DLObjectSomeRestriction;
+import de.uniba.wiai.kinf.pw.projects.lillytab.terms.util.SimpleStringDLTermFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class InternTableTest
+{
+	@Test
+	public void testIntern()
+	{
+		final InternTable<String> table = new InternTable<>();
+		final String a = new String("a");
+		assertSame(a, table.intern(a));
+		assertSame(a, table.intern(new String("a")));
+		assertSame(a, table.find("a".hashCode(), "a"::equals));
+		assertNull(table.find("b".hashCode(), "b"::equals));
+	}
+
+	@Test
+	public void testInternByComponents()
+	{
+		final InternTable<String> table = new InternTable<>();
+		final String ab = table.intern("ab".hashCode(), "ab"::equals, () -> new String("ab"));
+		assertSame(ab, table.intern("ab".hashCode(), "ab"::equals, () -> {
+				   throw new AssertionError("factory called for existing item");
+			   }));
+		assertSame(ab, table.intern(new String("ab")));
+	}
+
+	@Test
+	public void testResize()
+	{
+		final InternTable<String> table = new InternTable<>();
+		final List<String> items = new ArrayList<>();
+		for (int i = 0; i < 10000; ++i) {
+			items.add(table.intern(new String(Integer.toString(i))));
+		}
+		for (int i = 0; i < 10000; ++i) {
+			assertSame(items.get(i), table.intern(new String(Integer.toString(i))));
+		}
+	}
+
+	@Test
+	public void testConcurrentIntern()
+		throws Exception
+	{
+		final InternTable<String> table = new InternTable<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<String>>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; ++t) {
+				futures.add(executor.submit(new Callable<List<String>>() {
+					@Override
+					public List<String> call()
+					{
+						final List<String> interned = new ArrayList<>();
+						for (int i = 0; i < 2000; ++i) {
+							interned.add(table.intern(new String(Integer.toString(i))));
+						}
+						return interned;
+					}
+				}));
+			}
+			final List<String> first = futures.get(0).get();
+			for (Future<List<String>> future : futures) {
+				final List<String> interned = future.get();
+				for (int i = 0; i < 2000; ++i) {
+					assertSame(first.get(i), interned.get(i));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testTermFactoryComponentLookup()
+	{
+		final SimpleStringDLTermFactory termFactory = new SimpleStringDLTermFactory();
+		final IDLClassExpression<String, String, String, String> a = termFactory.getDLClassReference("A");
+		assertSame(termFactory.getDLThing(), termFactory.getDLClassReference(termFactory.getDLThing().getElement()));
+
+		/* allocating and component based lookups must find the same instances */
+		final DLObjectNegation<String, String, String, String> neg = new DLObjectNegation<>(a);
+		assertSame(termFactory.getDLObjectNegation(a), termFactory.updateCache(neg));
+		final DLObjectSomeRestriction<String, String, String, String> some = new DLObjectSomeRestriction<>("r", a);
+		assertSame(termFactory.updateCache(some), termFactory.getDLObjectSomeRestriction("r", a));
+		assertNotSame(termFactory.getDLObjectSomeRestriction("r", a), termFactory.getDLObjectAllRestriction("r", a));
+		assertNotSame(termFactory.getDLClassReference("x"), termFactory.getDLIndividualReference("x"));
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class LongObjectMapTest
+{
+	@Test
+	public void testPutGet()
+	{
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		assertNull(map.put(0L, "a"));
+		assertNull(map.put(-1L, "b"));
+		assertEquals("a", map.put(0L, "c"));
+		assertEquals("c", map.get(0L));
+		assertEquals("b", map.get(-1L));
+		assertNull(map.get(1L));
+		assertTrue(map.containsKey(-1L));
+		assertFalse(map.containsKey(1L));
+		assertEquals(2, map.size());
+
+		final LongObjectMap<String> klone = map.clone();
+		klone.put(1L, "d");
+		assertFalse(map.containsKey(1L));
+		assertEquals(3, klone.size());
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(0L));
+	}
+
+	@Test
+	public void testRandomized()
+	{
+		final Random rand = new Random(4711);
+		final LongObjectMap<Integer> map = new LongObjectMap<>();
+		final Map<Long, Integer> reference = new HashMap<>();
+		for (int i = 0; i < 20000; ++i) {
+			/* large strides to provoke collisions */
+			final long key = (long) rand.nextInt(2048) << 32;
+			final Integer value = rand.nextInt();
+			assertEquals(reference.put(key, value), map.put(key, value));
+		}
+		assertEquals(reference.size(), map.size());
+		for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+}
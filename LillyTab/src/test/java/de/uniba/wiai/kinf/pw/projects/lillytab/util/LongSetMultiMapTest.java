@@ -0,0 +1,121 @@
+/**
+ * (c) 2009-2014 Otto-Friedrich-University Bamberg
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.uniba.wiai.kinf.pw.projects.lillytab.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+
+/**
+ *
+ * @author Peter Wullinger <wullinger@rz.uni-kiel.de>
+ */
+public class LongSetMultiMapTest
+{
+	@Test
+	public void testPutRemove()
+	{
+		final LongSetMultiMap map = new LongSetMultiMap();
+		assertTrue(map.put(0L, 3L));
+		assertTrue(map.put(0L, 1L));
+		assertFalse(map.put(0L, 3L));
+		assertTrue(map.put(-1L, 2L));
+		assertArrayEquals(new long[]{1L, 3L}, map.get(0L));
+		assertEquals(2, map.keyCount());
+		assertEquals(3, map.size());
+		assertTrue(map.contains(0L, 1L));
+		assertFalse(map.contains(-1L, 1L));
+		assertNull(map.get(1L));
+
+		assertTrue(map.remove(0L, 1L));
+		assertFalse(map.remove(0L, 1L));
+		assertArrayEquals(new long[]{3L}, map.get(0L));
+		assertTrue(map.remove(0L, 3L));
+		assertFalse(map.containsKey(0L));
+		assertArrayEquals(new long[]{2L}, map.removeKey(-1L));
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void testRandomized()
+	{
+		final Random rand = new Random(4711);
+		final LongSetMultiMap map = new LongSetMultiMap();
+		final Map<Long, TreeSet<Long>> reference = new HashMap<>();
+		for (int i = 0; i < 20000; ++i) {
+			/* few distinct keys with large strides to provoke collisions */
+			final long key = (long) rand.nextInt(512) << 32;
+			final long value = rand.nextInt(8);
+			if (rand.nextInt(3) == 0) {
+				final TreeSet<Long> values = reference.get(key);
+				final boolean expected = (values != null) && values.remove(value);
+				if ((values != null) && values.isEmpty()) {
+					reference.remove(key);
+				}
+				assertEquals(expected, map.remove(key, value));
+			} else {
+				assertEquals(reference.computeIfAbsent(key, (k) -> new TreeSet<>()).add(value), map.put(key, value));
+			}
+		}
+		assertEquals(reference.size(), map.keyCount());
+		int size = 0;
+		for (long key : map.keys()) {
+			final long[] values = map.get(key);
+			assertEquals(reference.get(key).size(), values.length);
+			int i = 0;
+			for (Long value : reference.get(key)) {
+				assertEquals(value.longValue(), values[i++]);
+			}
+			size += values.length;
+		}
+		assertEquals(size, map.size());
+	}
+
+	@Test
+	public void testClone()
+	{
+		final LongSetMultiMap map = new LongSetMultiMap();
+		map.put(1L, 2L);
+		final LongSetMultiMap klone = map.clone();
+		klone.put(1L, 3L);
+		klone.put(2L, 3L);
+		map.remove(1L, 2L);
+		assertTrue(map.isEmpty());
+		assertArrayEquals(new long[]{2L, 3L}, klone.get(1L));
+		assertArrayEquals(new long[]{3L}, klone.get(2L));
+	}
+
+	@Test
+	public void testUnion()
+	{
+		final long[] a = {1L, 3L, 5L};
+		final long[] b = {2L, 3L};
+		assertArrayEquals(new long[]{1L, 2L, 3L, 5L}, LongSetMultiMap.union(a, b));
+		assertSame(a, LongSetMultiMap.union(a, new long[]{3L}));
+		assertSame(a, LongSetMultiMap.union(LongSetMultiMap.EMPTY, a));
+	}
+}
@@ -0,0 +1,279 @@
+/**
+ * (c) 2009-2014 Peter Wullinger
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.dhke.projects.cutil.collections.cow;
+
+import java.util.Arrays;
+
+/**
+ *
+ * A set of non-negative integers backed by an array of bit words.
+ * <p />
+ * Clones share the word array with their originals. The array is copied
+ * on the first modification of either instance.
+ * <p />
+ * In addition to the usual bit operations, {@link #containsAll(de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet)
+ * } and {@link #intersects(de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet) } are provided as word-level
+ * operations, which is the reason this is not simply a {@link java.util.BitSet}.
+ *
+ * @author Peter Wullinger <java@dhke.de>
+ */
+public final class CopyOnWriteBitSet
+	implements Cloneable {
+
+	private static final long[] EMPTY_WORDS = new long[0];
+	private long[] _words;
+	private boolean _wasCopied;
+
+
+	public CopyOnWriteBitSet()
+	{
+		_words = EMPTY_WORDS;
+		_wasCopied = true;
+	}
+
+
+	private CopyOnWriteBitSet(final long[] words)
+	{
+		_words = words;
+		_wasCopied = false;
+	}
+
+
+	public boolean get(final int bit)
+	{
+		final int wordIndex = bit >>> 6;
+		return (wordIndex < _words.length) && ((_words[wordIndex] & (1L << bit)) != 0);
+	}
+
+
+	/**
+	 * Set the bit at {@literal bit}.
+	 *
+	 * @param bit The (non-negative) bit index.
+	 * @return {@literal true}, if the bit was not set before.
+	 */
+	public boolean set(final int bit)
+	{
+		if (bit < 0) {
+			throw new IndexOutOfBoundsException("Negative bit index: " + bit);
+		}
+		if (get(bit)) {
+			return false;
+		}
+		final int wordIndex = bit >>> 6;
+		copy(wordIndex + 1);
+		_words[wordIndex] |= (1L << bit);
+		return true;
+	}
+
+
+	/**
+	 * Clear the bit at {@literal bit}.
+	 *
+	 * @param bit The (non-negative) bit index.
+	 * @return {@literal true}, if the bit was set before.
+	 */
+	public boolean clear(final int bit)
+	{
+		if ((bit < 0) || !get(bit)) {
+			return false;
+		}
+		final int wordIndex = bit >>> 6;
+		copy(wordIndex + 1);
+		_words[wordIndex] &= ~(1L << bit);
+		return true;
+	}
+
+
+	public void clear()
+	{
+		/* don't copy words first */
+		_words = EMPTY_WORDS;
+		_wasCopied = true;
+	}
+
+
+	public boolean isEmpty()
+	{
+		for (long word : _words) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	public int cardinality()
+	{
+		int count = 0;
+		for (long word : _words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+
+	/**
+	 * @param fromIndex The first bit index to check.
+	 * @return The index of the first set bit at or after {@literal fromIndex}, or {@literal -1} if there is no such
+	 * bit.
+	 */
+	public int nextSetBit(final int fromIndex)
+	{
+		int wordIndex = fromIndex >>> 6;
+		if (wordIndex >= _words.length) {
+			return -1;
+		}
+		long word = _words[wordIndex] & (-1L << fromIndex);
+		while (true) {
+			if (word != 0) {
+				return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++wordIndex == _words.length) {
+				return -1;
+			}
+			word = _words[wordIndex];
+		}
+	}
+
+
+	/**
+	 * Determine, if all bits set in {@literal other} are also set in this set.
+	 *
+	 * @param other The potential subset.
+	 * @return {@literal true}, if {@literal other} is a subset of this set.
+	 */
+	public boolean containsAll(final CopyOnWriteBitSet other)
+	{
+		final long[] words = _words;
+		final long[] otherWords = other._words;
+		for (int i = 0; i < otherWords.length; ++i) {
+			final long word = (i < words.length) ? words[i] : 0;
+			if ((otherWords[i] & ~word) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * @param other Another bit set.
+	 * @return {@literal true}, if at least one bit is set in both sets.
+	 */
+	public boolean intersects(final CopyOnWriteBitSet other)
+	{
+		final long[] words = _words;
+		final long[] otherWords = other._words;
+		final int len = Math.min(words.length, otherWords.length);
+		for (int i = 0; i < len; ++i) {
+			if ((words[i] & otherWords[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Fold the set into a single word.
+	 * <p />
+	 * Bit {@literal i} of the signature is set, if the set contains an element {@literal e} with
+	 * {@literal e mod 64 == i}. If this set is a subset of {@literal other}, the signature is a subset of the
+	 * signature of {@literal other}, so signatures can be used as a quick reject test for {@link #containsAll(de.dhke.projects.cutil.collections.cow.CopyOnWriteBitSet)
+	 * }. Equal sets have equal signatures.
+	 *
+	 * @return The signature word of this set.
+	 */
+	public long signature()
+	{
+		long signature = 0;
+		for (long word : _words) {
+			signature |= word;
+		}
+		return signature;
+	}
+
+
+	@Override
+	public CopyOnWriteBitSet clone()
+	{
+		final CopyOnWriteBitSet klone = new CopyOnWriteBitSet(_words);
+		_wasCopied = false;
+		return klone;
+	}
+
+
+	@Override
+	public boolean equals(final Object obj)
+	{
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CopyOnWriteBitSet)) {
+			return false;
+		}
+		final CopyOnWriteBitSet other = (CopyOnWriteBitSet) obj;
+		return containsAll(other) && other.containsAll(this);
+	}
+
+
+	@Override
+	public int hashCode()
+	{
+		long h = 1234;
+		for (int i = _words.length; --i >= 0;) {
+			h ^= _words[i] * (i + 1);
+		}
+		return (int) ((h >> 32) ^ h);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder("{");
+		for (int bit = nextSetBit(0); bit >= 0; bit = nextSetBit(bit + 1)) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(bit);
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+
+	/**
+	 * Make sure the word array is owned by this instance and has at least {@literal minLength} words.
+	 *
+	 */
+	private void copy(final int minLength)
+	{
+		if (!_wasCopied || (_words.length < minLength)) {
+			final int newLength = Math.max(minLength, _wasCopied ? 2 * _words.length : _words.length);
+			_words = Arrays.copyOf(_words, newLength);
+			_wasCopied = true;
+		}
+	}
+}
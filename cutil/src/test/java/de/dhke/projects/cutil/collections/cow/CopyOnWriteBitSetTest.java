@@ -0,0 +1,160 @@
+/**
+ * (c) 2009-2014 Peter Wullinger
+ *
+ * $Id$
+ *
+ * Use, modification and restribution of this file are covered by the
+ * terms of the Artistic License 2.0.
+ *
+ * You should have received a copy of the license terms in a file named
+ * "LICENSE" together with this software package.
+ *
+ * Disclaimer of Warranty: THE PACKAGE IS PROVIDED BY THE COPYRIGHT
+ * HOLDER AND CONTRIBUTORS "AS IS' AND WITHOUT ANY EXPRESS OR IMPLIED
+ * WARRANTIES. THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR
+ * A PARTICULAR PURPOSE, OR NON-INFRINGEMENT ARE DISCLAIMED TO THE
+ * EXTENT PERMITTED BY YOUR LOCAL LAW. UNLESS REQUIRED BY LAW, NO
+ * COPYRIGHT HOLDER OR CONTRIBUTOR WILL BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, OR CONSEQUENTIAL DAMAGES ARISING IN ANY WAY OUT
+ * OF THE USE OF THE PACKAGE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ **/
+package de.dhke.projects.cutil.collections.cow;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Peter Wullinger <java@dhke.de>
+ */
+public class CopyOnWriteBitSetTest {
+
+	private CopyOnWriteBitSet _bits;
+
+
+	public CopyOnWriteBitSetTest()
+	{
+	}
+
+
+	@Before
+	public void setUp()
+	{
+		_bits = new CopyOnWriteBitSet();
+		_bits.set(1);
+		_bits.set(63);
+		_bits.set(64);
+		_bits.set(200);
+	}
+
+
+	@After
+	public void tearDown()
+	{
+		_bits = null;
+	}
+
+
+	@Test
+	public void testSetGet()
+	{
+		assertTrue(_bits.get(1));
+		assertTrue(_bits.get(63));
+		assertTrue(_bits.get(64));
+		assertTrue(_bits.get(200));
+		assertFalse(_bits.get(0));
+		assertFalse(_bits.get(65));
+		assertFalse(_bits.get(10000));
+		assertFalse(_bits.set(64));
+		assertEquals(4, _bits.cardinality());
+	}
+
+
+	@Test
+	public void testClear()
+	{
+		assertTrue(_bits.clear(63));
+		assertFalse(_bits.clear(63));
+		assertFalse(_bits.get(63));
+		assertEquals(3, _bits.cardinality());
+		_bits.clear();
+		assertTrue(_bits.isEmpty());
+	}
+
+
+	@Test
+	public void testNextSetBit()
+	{
+		assertEquals(1, _bits.nextSetBit(0));
+		assertEquals(63, _bits.nextSetBit(2));
+		assertEquals(64, _bits.nextSetBit(64));
+		assertEquals(200, _bits.nextSetBit(65));
+		assertEquals(-1, _bits.nextSetBit(201));
+		assertEquals(-1, _bits.nextSetBit(100000));
+	}
+
+
+	@Test
+	public void testContainsAll()
+	{
+		final CopyOnWriteBitSet sub = new CopyOnWriteBitSet();
+		assertTrue(_bits.containsAll(sub));
+		sub.set(63);
+		sub.set(200);
+		assertTrue(_bits.containsAll(sub));
+		assertFalse(sub.containsAll(_bits));
+		sub.set(500);
+		assertFalse(_bits.containsAll(sub));
+	}
+
+
+	@Test
+	public void testIntersects()
+	{
+		final CopyOnWriteBitSet other = new CopyOnWriteBitSet();
+		assertFalse(_bits.intersects(other));
+		other.set(2);
+		other.set(500);
+		assertFalse(_bits.intersects(other));
+		other.set(200);
+		assertTrue(_bits.intersects(other));
+	}
+
+
+	@Test
+	public void testSignature()
+	{
+		assertEquals((1L << 0) | (1L << 1) | (1L << 8) | (1L << 63), _bits.signature());
+		assertEquals(0, new CopyOnWriteBitSet().signature());
+
+		final CopyOnWriteBitSet sub = new CopyOnWriteBitSet();
+		sub.set(64);
+		sub.set(200);
+		assertEquals(0, sub.signature() & ~_bits.signature());
+		sub.set(3);
+		assertNotEquals(0, sub.signature() & ~_bits.signature());
+	}
+
+
+	@Test
+	public void testCloneIsolation()
+	{
+		final CopyOnWriteBitSet klone = _bits.clone();
+		assertEquals(_bits, klone);
+		assertEquals(_bits.hashCode(), klone.hashCode());
+
+		klone.set(5);
+		assertTrue(klone.get(5));
+		assertFalse(_bits.get(5));
+
+		_bits.clear(1);
+		assertFalse(_bits.get(1));
+		assertTrue(klone.get(1));
+
+		_bits.clear();
+		assertTrue(klone.get(200));
+	}
+}